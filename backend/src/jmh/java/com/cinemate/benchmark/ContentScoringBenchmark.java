@@ -0,0 +1,51 @@
+package com.cinemate.benchmark;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.recommendation.ContentPreferences;
+import com.cinemate.recommendation.ContentScorer;
+import com.cinemate.recommendation.TopKSelector;
+import com.cinemate.series.Series;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and fork-join scoring of the candidate catalog.
+ * The catalog size at which "parallel" overtakes "sequential" on the target machine is the value
+ * to use for cinemate.recommendations.parallel.threshold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentScoringBenchmark {
+
+    @Param({"1000", "5000", "20000", "50000", "200000"})
+    public int catalogSize;
+
+    private final ContentScorer scorer = new ContentScorer(true, 0, 2048);
+    private List<Movie> movies;
+    private List<Series> series;
+    private ContentPreferences preferences;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42L, 5000, 800);
+        movies = catalog.movies(catalogSize * 3 / 4);
+        series = catalog.series(catalogSize - movies.size());
+        preferences = catalog.preferences(25);
+    }
+
+    @Benchmark
+    public TopKSelector sequential() {
+        return scorer.selectTopSequential(movies, series, preferences, 0.3, 20);
+    }
+
+    @Benchmark
+    public TopKSelector parallel() {
+        return scorer.selectTopParallel(movies, series, preferences, 0.3, 20);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cinemate.benchmark;
+
+import com.cinemate.movie.DTOs.MovieResponseDTO;
+import com.cinemate.movie.Movie;
+import com.cinemate.series.DTOs.SeriesResponseDTO;
+import com.cinemate.series.Series;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to response DTO conversion as done by the list endpoints
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+    @Param({"50", "1000"})
+    public int size;
+
+    private List<Movie> movies;
+    private List<Series> series;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42L, 1000, 200);
+        movies = catalog.movies(size);
+        series = catalog.series(size);
+    }
+
+    @Benchmark
+    public List<MovieResponseDTO> movieResponseDTOs() {
+        return movies.stream()
+                .map(MovieResponseDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<SeriesResponseDTO> seriesResponseDTOs() {
+        return series.stream()
+                .map(SeriesResponseDTO::new)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,122 @@
+package com.cinemate.benchmark;
+
+import com.cinemate.actor.Actor;
+import com.cinemate.director.Director;
+import com.cinemate.movie.Movie;
+import com.cinemate.recommendation.ContentPreferences;
+import com.cinemate.series.Episode;
+import com.cinemate.series.Season;
+import com.cinemate.series.Series;
+import com.cinemate.user.media.UserMediaLists;
+
+import java.util.*;
+
+/**
+ * Deterministic generator of movies, series and user preferences for benchmarks.
+ * The same seed always produces the same catalog, so results are comparable between runs.
+ */
+public class SyntheticCatalog {
+
+    public static final List<String> GENRES = List.of(
+            "Action", "Adventure", "Animation", "Comedy", "Crime", "Documentary", "Drama", "Family",
+            "Fantasy", "History", "Horror", "Music", "Mystery", "Romance", "Science Fiction",
+            "Thriller", "War", "Western");
+
+    private final Random random;
+    private final List<Actor> actors = new ArrayList<>();
+    private final List<Director> directors = new ArrayList<>();
+
+    public SyntheticCatalog(long seed, int actorCount, int directorCount) {
+        this.random = new Random(seed);
+        for (int i = 0; i < actorCount; i++) {
+            actors.add(new Actor("actor-" + i, "Actor " + i, null, null, null));
+        }
+        for (int i = 0; i < directorCount; i++) {
+            directors.add(new Director("director-" + i, "Director " + i, null, null, null));
+        }
+    }
+
+    public List<Movie> movies(int count) {
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Movie movie = new Movie("movie-" + i, "Movie " + i, null, randomGenres(), random.nextInt(11) / 2.0,
+                    random.nextInt(500), null, "120", "/posters/movie-" + i + ".jpg", "US", null);
+            movie.setActors(pick(actors, 3 + random.nextInt(6)));
+            movie.setDirectors(pick(directors, 1 + random.nextInt(2)));
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    public List<Series> series(int count) {
+        List<Series> series = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Series show = new Series("series-" + i, "Series " + i, null, randomGenres(), random.nextInt(21) / 2.0,
+                    random.nextInt(500), null, "/posters/series-" + i + ".jpg", new ArrayList<>(), "US", null, null);
+            show.setActors(pick(actors, 4 + random.nextInt(8)));
+            show.setDirectors(pick(directors, 1 + random.nextInt(3)));
+            show.setSeasons(seasons(1 + random.nextInt(6)));
+            series.add(show);
+        }
+        return series;
+    }
+
+    /**
+     * Preferences of a user with the given number of favorite titles, drawn from the catalog's actors and directors
+     */
+    public ContentPreferences preferences(int favoriteCount) {
+        Set<String> genres = new HashSet<>();
+        Set<String> actorIds = new HashSet<>();
+        Set<String> directorIds = new HashSet<>();
+        for (int i = 0; i < favoriteCount; i++) {
+            genres.addAll(Arrays.asList(randomGenres().split(", ")));
+            pick(actors, 4).forEach(actor -> actorIds.add(actor.getId()));
+            pick(directors, 1).forEach(director -> directorIds.add(director.getId()));
+        }
+        return new ContentPreferences(genres, actorIds, directorIds);
+    }
+
+    /**
+     * The lists of a user whose favorites, watched and watchlist entries are drawn from the given catalog
+     */
+    public UserMediaLists mediaLists(List<Movie> movies, List<Series> series, int listSize) {
+        UserMediaLists lists = new UserMediaLists();
+        lists.setMovieFavorites(pick(movies, listSize / 4));
+        lists.setSeriesFavorites(pick(series, listSize / 4));
+        lists.setMoviesWatched(pick(movies, listSize));
+        lists.setSeriesWatched(pick(series, listSize / 2));
+        lists.setMovieWatchlist(pick(movies, listSize / 2));
+        lists.setSeriesWatchlist(pick(series, listSize / 4));
+        return lists;
+    }
+
+    private List<Season> seasons(int count) {
+        List<Season> seasons = new ArrayList<>(count);
+        for (int number = 1; number <= count; number++) {
+            List<Episode> episodes = new ArrayList<>();
+            int episodeCount = 6 + random.nextInt(18);
+            for (int episode = 1; episode <= episodeCount; episode++) {
+                episodes.add(new Episode(episode, "Episode " + episode, null, "45 min", null, null));
+            }
+            seasons.add(new Season(null, number, episodes, null));
+        }
+        return seasons;
+    }
+
+    private String randomGenres() {
+        int count = 1 + random.nextInt(3);
+        Set<String> genres = new LinkedHashSet<>();
+        while (genres.size() < count) {
+            genres.add(GENRES.get(random.nextInt(GENRES.size())));
+        }
+        return String.join(", ", genres);
+    }
+
+    private <T> List<T> pick(List<T> source, int count) {
+        List<T> picked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            picked.add(source.get(random.nextInt(source.size())));
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,73 @@
+package com.cinemate.recommendation;
+
+import com.cinemate.benchmark.SyntheticCatalog;
+import com.cinemate.movie.Movie;
+import com.cinemate.series.Series;
+import com.cinemate.user.media.UserMediaLists;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the scoring primitives used by content-based and collaborative recommendations
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int listSize;
+
+    private final ContentScorer scorer = new ContentScorer(false, Integer.MAX_VALUE, 2048);
+    private List<Movie> movies;
+    private List<Series> series;
+    private ContentPreferences preferences;
+    private Set<String> userItems;
+    private Set<String> otherUserItems;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42L, 5000, 800);
+        movies = catalog.movies(1000);
+        series = catalog.series(300);
+        preferences = catalog.preferences(25);
+
+        userItems = itemIds(catalog.mediaLists(movies, series, listSize));
+        otherUserItems = itemIds(catalog.mediaLists(movies, series, listSize));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void calculateContentScoreMovie(Blackhole blackhole) {
+        for (Movie movie : movies) {
+            blackhole.consume(scorer.calculateContentScore(movie, preferences));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(300)
+    public void calculateContentScoreSeries(Blackhole blackhole) {
+        for (Series show : series) {
+            blackhole.consume(scorer.calculateContentScore(show, preferences));
+        }
+    }
+
+    @Benchmark
+    public double calculateJaccardSimilarity() {
+        return RecommendationService.calculateJaccardSimilarity(userItems, otherUserItems);
+    }
+
+    private static Set<String> itemIds(UserMediaLists lists) {
+        Set<String> ids = new HashSet<>(lists.getMovieIds());
+        ids.addAll(lists.getSeriesIds());
+        return ids;
+    }
+}
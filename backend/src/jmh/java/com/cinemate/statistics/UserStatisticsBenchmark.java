@@ -0,0 +1,73 @@
+package com.cinemate.statistics;
+
+import com.cinemate.benchmark.SyntheticCatalog;
+import com.cinemate.statistics.DTOs.GenreStatisticsDTO;
+import com.cinemate.statistics.activity.MonthlyActivityBucket;
+import com.cinemate.statistics.activity.WatchActivitySummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics computed in memory from the monthly activity buckets of a user
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserStatisticsBenchmark {
+
+    @Param({"12", "60", "240"})
+    public int monthCount;
+
+    private List<MonthlyActivityBucket> buckets;
+    private WatchActivitySummary summary;
+    private String lastYear;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        YearMonth month = YearMonth.of(2025, 12).minusMonths(monthCount - 1);
+        buckets = new ArrayList<>(monthCount);
+        for (int i = 0; i < monthCount; i++, month = month.plusMonths(1)) {
+            MonthlyActivityBucket bucket = new MonthlyActivityBucket();
+            bucket.setUserId("stats");
+            bucket.setMonth(month.toString());
+            bucket.setMoviesWatched(random.nextInt(20));
+            bucket.setSeriesWatched(random.nextInt(5));
+            bucket.setEpisodesWatched(bucket.getSeriesWatched() * 10);
+            bucket.setMinutesWatched(bucket.getMoviesWatched() * 120L + bucket.getEpisodesWatched() * 45L);
+            for (String genre : SyntheticCatalog.GENRES) {
+                int count = random.nextInt(4);
+                if (count > 0) {
+                    bucket.getGenreCounts().put(genre, count);
+                    bucket.getGenreMinutes().put(genre, count * 100L);
+                }
+            }
+            buckets.add(bucket);
+        }
+        summary = WatchActivitySummary.of(buckets, null);
+        lastYear = YearMonth.of(2025, 1).toString();
+    }
+
+    @Benchmark
+    public WatchActivitySummary summarizeAll() {
+        return WatchActivitySummary.of(buckets, null);
+    }
+
+    @Benchmark
+    public WatchActivitySummary summarizeLastYear() {
+        return WatchActivitySummary.of(buckets, lastYear);
+    }
+
+    @Benchmark
+    public List<GenreStatisticsDTO> calculateTopGenres() {
+        return UserStatisticsService.calculateTopGenres(summary);
+    }
+}
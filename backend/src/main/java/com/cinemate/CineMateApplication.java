@@ -5,13 +5,20 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.Map;
+
 @SpringBootApplication
 @EnableScheduling
 @EnableAsync
 public class CineMateApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CineMateApplication.class, args);
+		SpringApplication application = new SpringApplication(CineMateApplication.class);
+		// defaults only, application.properties can override them
+		application.setDefaultProperties(Map.of(
+				"management.endpoints.web.exposure.include", "health,prometheus"
+		));
+		application.run(args);
 	}
 
 }
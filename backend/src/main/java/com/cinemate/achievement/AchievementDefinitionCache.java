@@ -0,0 +1,58 @@
+package com.cinemate.achievement;
+
+import com.cinemate.achievement.repository.AchievementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The active achievements grouped by type. They only change when the defaults are initialized,
+ * so every evaluation reads them from memory instead of querying them per type.
+ */
+@Component
+@RequiredArgsConstructor
+public class AchievementDefinitionCache {
+
+    private final AchievementRepository achievementRepository;
+
+    private volatile Map<AchievementType, List<Achievement>> achievementsByType;
+
+    /**
+     * returns the active achievements of the type
+     * @param type
+     * @return List<Achievement>
+     */
+    public List<Achievement> getByType(AchievementType type) {
+        return load().getOrDefault(type, List.of());
+    }
+
+    /**
+     * returns all active achievements
+     * @return List<Achievement>
+     */
+    public List<Achievement> getAll() {
+        List<Achievement> all = new ArrayList<>();
+        load().values().forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * reloads the achievements, e.g. after new ones were saved
+     */
+    public void refresh() {
+        achievementsByType = null;
+    }
+
+    private Map<AchievementType, List<Achievement>> load() {
+        Map<AchievementType, List<Achievement>> loaded = achievementsByType;
+        if (loaded == null) {
+            loaded = new EnumMap<>(AchievementType.class);
+            for (Achievement achievement : achievementRepository.findByIsActiveTrue()) {
+                loaded.computeIfAbsent(achievement.getType(), type -> new ArrayList<>()).add(achievement);
+            }
+            achievementsByType = loaded;
+        }
+        return loaded;
+    }
+}
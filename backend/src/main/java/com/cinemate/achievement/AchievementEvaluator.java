@@ -0,0 +1,222 @@
+package com.cinemate.achievement;
+
+import com.cinemate.config.AsyncConfig;
+import com.cinemate.social.points.PointsEventListener;
+import com.cinemate.user.User;
+import com.cinemate.user.UserRepository;
+import com.cinemate.user.activity.ActivityCounter;
+import com.cinemate.user.activity.UserActivityCounterService;
+import com.cinemate.user.activity.UserActivityCounters;
+import com.mongodb.DBRef;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Evaluates the achievement progress of users.
+ * Checks requested for a user while an evaluation of that user is queued or running are merged
+ * into the next evaluation, so each user is evaluated by at most one thread at a time.
+ * An evaluation compares the thresholds of the requested types against the activity counters
+ * of the user and writes the progress of all affected achievements with one bulk write.
+ */
+@Slf4j
+@Component
+public class AchievementEvaluator {
+
+    /**
+     * the types that can currently be evaluated, with their activity counter
+     */
+    public static final Set<AchievementType> EVALUATED_TYPES =
+            Collections.unmodifiableSet(EnumSet.of(AchievementType.REVIEWS, AchievementType.FRIENDS, AchievementType.FORUM_POSTS));
+
+    private static final String USER_ACHIEVEMENTS = "user_achievements";
+
+    private final AchievementDefinitionCache definitionCache;
+    private final UserRepository userRepository;
+    private final UserActivityCounterService activityCounterService;
+    private final PointsEventListener pointsEventListener;
+    private final MongoTemplate mongoTemplate;
+    private final Executor achievementExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Set<AchievementType>> pendingEvaluations = new ConcurrentHashMap<>();
+
+    public AchievementEvaluator(AchievementDefinitionCache definitionCache,
+                                UserRepository userRepository,
+                                UserActivityCounterService activityCounterService,
+                                PointsEventListener pointsEventListener,
+                                MongoTemplate mongoTemplate,
+                                @Qualifier(AsyncConfig.ACHIEVEMENT_EXECUTOR) Executor achievementExecutor,
+                                MeterRegistry meterRegistry) {
+        this.definitionCache = definitionCache;
+        this.userRepository = userRepository;
+        this.activityCounterService = activityCounterService;
+        this.pointsEventListener = pointsEventListener;
+        this.mongoTemplate = mongoTemplate;
+        this.achievementExecutor = achievementExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * queues an evaluation of the given achievement types of the user on the achievement executor
+     * @param userId
+     * @param types
+     */
+    public void submit(String userId, Set<AchievementType> types) {
+        boolean[] queued = {false};
+        pendingEvaluations.compute(userId, (id, pending) -> {
+            if (pending == null) {
+                queued[0] = true;
+                pending = EnumSet.noneOf(AchievementType.class);
+            }
+            pending.addAll(types);
+            return pending;
+        });
+
+        meterRegistry.counter("cinemate.achievements.checks", "outcome", queued[0] ? "queued" : "coalesced").increment();
+        if (queued[0]) {
+            achievementExecutor.execute(() -> drain(userId));
+        }
+    }
+
+    /**
+     * evaluates the given achievement types of the user on the calling thread
+     * @param userId
+     * @param types
+     */
+    public void evaluate(String userId, Set<AchievementType> types) {
+        if (!ObjectId.isValid(userId)) {
+            return;
+        }
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return;
+        }
+        User user = userOpt.get();
+
+        UserActivityCounters counters = activityCounterService.getCounters(userId);
+        Map<String, Document> existing = loadUserAchievements(userId);
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserAchievement.class);
+        List<Achievement> unlocked = new ArrayList<>();
+        int writes = 0;
+
+        for (AchievementType type : types) {
+            List<Achievement> achievements = definitionCache.getByType(type);
+            if (achievements.isEmpty()) {
+                continue;
+            }
+            int currentCount = count(counters, type);
+
+            for (Achievement achievement : achievements) {
+                boolean reached = currentCount >= achievement.getThreshold();
+                Document userAchievement = existing.get(achievement.getId());
+
+                if (userAchievement == null) {
+                    // the constructor leaves unlockedAt set only if the threshold is reached
+                    bulkOps.insert(new UserAchievement(user, achievement, currentCount));
+                    if (reached) {
+                        unlocked.add(achievement);
+                    }
+                    writes++;
+                    continue;
+                }
+
+                boolean unlock = reached && userAchievement.get("unlockedAt") == null;
+                if (!unlock && userAchievement.getInteger("progress", 0) == currentCount) {
+                    continue;
+                }
+                Update update = new Update().set("progress", currentCount);
+                if (unlock) {
+                    update.set("unlockedAt", new Date());
+                    unlocked.add(achievement);
+                }
+                bulkOps.updateOne(Query.query(Criteria.where("_id").is(userAchievement.get("_id"))), update);
+                writes++;
+            }
+        }
+
+        if (writes > 0) {
+            bulkOps.execute();
+        }
+        // award points only after the unlocks are stored
+        for (Achievement achievement : unlocked) {
+            pointsEventListener.onAchievementUnlocked(userId, achievement.getPoints());
+        }
+    }
+
+    private void drain(String userId) {
+        while (true) {
+            Set<AchievementType> types = takePending(userId);
+            if (types == null) {
+                return;
+            }
+            try {
+                evaluate(userId, types);
+            } catch (Exception e) {
+                log.error("Evaluating the achievements of user " + userId + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * takes the requested types of the user, the entry stays while the evaluation runs so that
+     * new requests are merged into it; it is removed once nothing is left to evaluate
+     */
+    private Set<AchievementType> takePending(String userId) {
+        Set<AchievementType> taken = EnumSet.noneOf(AchievementType.class);
+        pendingEvaluations.computeIfPresent(userId, (id, pending) -> {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            taken.addAll(pending);
+            pending.clear();
+            return pending;
+        });
+        return taken.isEmpty() ? null : taken;
+    }
+
+    private int count(UserActivityCounters counters, AchievementType type) {
+        switch (type) {
+            case REVIEWS:
+                return (int) counters.get(ActivityCounter.REVIEWS);
+            case FRIENDS:
+                return (int) counters.get(ActivityCounter.FRIENDS);
+            case FORUM_POSTS:
+                return (int) counters.get(ActivityCounter.FORUM_POSTS);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * loads id, progress and unlock date of the user's achievements without resolving their DBRefs
+     * @return user achievement by achievement id
+     */
+    private Map<String, Document> loadUserAchievements(String userId) {
+        Query query = Query.query(Criteria.where("user.$id").is(new ObjectId(userId)));
+        query.fields().include("achievement", "progress", "unlockedAt");
+
+        Map<String, Document> byAchievement = new HashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, USER_ACHIEVEMENTS)) {
+            Object ref = document.get("achievement");
+            Object achievementId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            if (achievementId != null) {
+                byAchievement.putIfAbsent(achievementId.toString(), document);
+            }
+        }
+        return byAchievement;
+    }
+}
@@ -5,20 +5,19 @@ import com.cinemate.achievement.DTOs.UserAchievementDTO;
 import com.cinemate.achievement.repository.AchievementRepository;
 import com.cinemate.achievement.repository.UserAchievementRepository;
 import com.cinemate.achievement.events.AchievementCheckEvent;
-import com.cinemate.social.forum.ForumService;
-import com.cinemate.social.friends.FriendRepository;
-import com.cinemate.social.points.PointsEventListener;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
-import com.cinemate.review.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,10 +27,17 @@ public class AchievementService {
     private final AchievementRepository achievementRepository;
     private final UserAchievementRepository userAchievementRepository;
     private final UserRepository userRepository;
-    private final ReviewRepository reviewRepository;
-    private final ForumService forumService;
-    private final FriendRepository friendRepository;
-    private final PointsEventListener pointsEventListener;
+    private final AchievementDefinitionCache definitionCache;
+    private final AchievementEvaluator achievementEvaluator;
+
+    /**
+     * the achievement types a trigger of an AchievementCheckEvent can change
+     */
+    private static final Map<String, Set<AchievementType>> TRIGGER_TYPES = Map.of(
+            "review_created", EnumSet.of(AchievementType.REVIEWS),
+            "friend_accepted", EnumSet.of(AchievementType.FRIENDS),
+            "forum_post_created", EnumSet.of(AchievementType.FORUM_POSTS)
+    );
 
     /**
      * Initialize default achievements in the database
@@ -90,6 +96,7 @@ public class AchievementService {
             "fas fa-history", "badge-danger", AchievementType.TOTAL_HOURS, 500, 250));
 
         achievementRepository.saveAll(achievements);
+        definitionCache.refresh();
     }
 
     /**
@@ -99,7 +106,7 @@ public class AchievementService {
      */
     public ResponseEntity<List<AchievementDTO>> getAllAchievements() {
         try {
-            List<Achievement> achievements = achievementRepository.findByIsActiveTrue();
+            List<Achievement> achievements = definitionCache.getAll();
             List<AchievementDTO> achievementDTOs = achievements.stream()
                 .map(AchievementDTO::new)
                 .collect(Collectors.toList());
@@ -155,82 +162,22 @@ public class AchievementService {
      */
     public void checkUserAchievements(String userId) {
         try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) return;
-
-            User user = userOpt.get();
-
-            // Check review achievements
-            long reviewCount = reviewRepository.countByUserId(userId);
-            checkAndUpdateAchievements(user, AchievementType.REVIEWS, (int) reviewCount);
-
-            // Check friend achievements
-            List<com.cinemate.social.friends.Friend> friendships = friendRepository.findAcceptedFriendshipsByUser(user);
-            long friendCount = friendships.size();
-            checkAndUpdateAchievements(user, AchievementType.FRIENDS, (int) friendCount);
-
-            // Check forum post achievements
-            long forumPostCount = forumService.getPostCountByAuthor(userId);
-            checkAndUpdateAchievements(user, AchievementType.FORUM_POSTS, (int) forumPostCount);
-
-            // TODO: Add more achievement checks based on statistics service
-            
+            achievementEvaluator.evaluate(userId, AchievementEvaluator.EVALUATED_TYPES);
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Event listener for achievement checks
+     * Event listener for achievement checks. Only the types affected by the trigger are evaluated,
+     * outside of the request on the achievement executor; checks of the same user are coalesced.
      */
     @EventListener
     public void handleAchievementCheckEvent(AchievementCheckEvent event) {
-        checkUserAchievements(event.getUserId());
-    }
-
-    /**
-     * Checks and updates the user's progress towards achievements of a specific type.
-     * If the user's progress meets or exceeds the threshold of an achievement, the achievement is unlocked
-     * and points are awarded. Updates existing achievements or creates new ones for the user as needed.
-     *
-     * @param user the user whose achievements are being updated
-     * @param type the type of achievements to be checked and updated
-     * @param currentCount the user's current progress or count towards the achievements
-     */
-    private void checkAndUpdateAchievements(User user, AchievementType type, int currentCount) {
-        List<Achievement> typeAchievements = achievementRepository.findByTypeAndIsActiveTrue(type);
-        
-        for (Achievement achievement : typeAchievements) {
-            Optional<UserAchievement> existingUserAchievement = 
-                userAchievementRepository.findByUserIdAndAchievementId(user.getId(), achievement.getId());
-
-            if (existingUserAchievement.isPresent()) {
-                // Update progress
-                UserAchievement userAchievement = existingUserAchievement.get();
-                userAchievement.setProgress(currentCount);
-                
-                // Check if achievement should be unlocked
-                if (currentCount >= achievement.getThreshold() && userAchievement.getUnlockedAt() == null) {
-                    userAchievement.setUnlockedAt(new java.util.Date());
-                    // Award achievement points
-                    pointsEventListener.onAchievementUnlocked(user.getId(), achievement.getPoints());
-                }
-                
-                userAchievementRepository.save(userAchievement);
-            } else {
-                // Create new user achievement
-                UserAchievement userAchievement = new UserAchievement(user, achievement, currentCount);
-                
-                // Check if it should be unlocked immediately
-                if (currentCount >= achievement.getThreshold()) {
-                    pointsEventListener.onAchievementUnlocked(user.getId(), achievement.getPoints());
-                } else {
-                    userAchievement.setUnlockedAt(null);
-                }
-                
-                userAchievementRepository.save(userAchievement);
-            }
-        }
+        Set<AchievementType> types = event.getTrigger() != null
+                ? TRIGGER_TYPES.getOrDefault(event.getTrigger(), AchievementEvaluator.EVALUATED_TYPES)
+                : AchievementEvaluator.EVALUATED_TYPES;
+        achievementEvaluator.submit(event.getUserId(), types);
     }
 
     /**
@@ -240,7 +187,7 @@ public class AchievementService {
      */
     public ResponseEntity<AchievementStatsDTO> getUserAchievementStats(String userId) {
         try {
-            long totalAchievements = achievementRepository.findByIsActiveTrue().size();
+            long totalAchievements = definitionCache.getAll().size();
             long unlockedAchievements = userAchievementRepository.countByUserIdAndUnlockedAtIsNotNull(userId);
             
             AchievementStatsDTO stats = new AchievementStatsDTO();
@@ -0,0 +1,131 @@
+package com.cinemate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bounded executor per subsystem, so a flood of e.g. weekly emails can not delay real-time notifications.
+ * Every executor is configured with cinemate.async.{name}.core-size, max-size, queue-capacity,
+ * rejection-policy (caller-runs, discard-oldest or discard) and virtual-threads.
+ * The queue depth is published by Spring Boot as executor.queued{name=...},
+ * queue wait and run time of the tasks as cinemate.executor.wait / cinemate.executor.run.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String RECOMMENDATION_EXECUTOR = "recommendationExecutor";
+    public static final String ACHIEVEMENT_EXECUTOR = "achievementExecutor";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        return createExecutor(NOTIFICATION_EXECUTOR, "notifications", 4, 8, 1000, "caller-runs");
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailExecutor() {
+        // a full queue drops the email instead of sending it on the notification or request thread
+        return createExecutor(EMAIL_EXECUTOR, "email", 2, 4, 500, "discard");
+    }
+
+    @Bean(name = RECOMMENDATION_EXECUTOR)
+    public ThreadPoolTaskExecutor recommendationExecutor() {
+        // recommendation notifications are best effort, a full queue drops the oldest one
+        return createExecutor(RECOMMENDATION_EXECUTOR, "recommendations", 2, 4, 200, "discard-oldest");
+    }
+
+    @Bean(name = ACHIEVEMENT_EXECUTOR)
+    public ThreadPoolTaskExecutor achievementExecutor() {
+        return createExecutor(ACHIEVEMENT_EXECUTOR, "achievements", 2, 4, 500, "caller-runs");
+    }
+
+    /**
+     * executor of @Async methods that do not name one
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return notificationExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("Async method {}.{} failed: {}",
+                method.getDeclaringClass().getSimpleName(), method.getName(), e.getMessage(), e);
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(String beanName, String name, int coreSize, int maxSize,
+                                                  int queueCapacity, String rejectionPolicy) {
+        String prefix = "cinemate.async." + name + ".";
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setBeanName(beanName);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(environment.getProperty(prefix + "core-size", Integer.class, coreSize));
+        executor.setMaxPoolSize(environment.getProperty(prefix + "max-size", Integer.class, maxSize));
+        executor.setQueueCapacity(environment.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity));
+        executor.setVirtualThreads(environment.getProperty(prefix + "virtual-threads", Boolean.class, false));
+        executor.setRejectedExecutionHandler(countingRejections(name,
+                environment.getProperty(prefix + "rejection-policy", rejectionPolicy)));
+        executor.setTaskDecorator(task -> timed(name, task));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    private RejectedExecutionHandler countingRejections(String name, String policy) {
+        RejectedExecutionHandler handler;
+        switch (policy) {
+            case "discard-oldest":
+                handler = new ThreadPoolExecutor.DiscardOldestPolicy();
+                break;
+            case "discard":
+                handler = new ThreadPoolExecutor.DiscardPolicy();
+                break;
+            case "caller-runs":
+                handler = new ThreadPoolExecutor.CallerRunsPolicy();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown rejection policy '" + policy + "' of executor " + name);
+        }
+        return (task, threadPool) -> {
+            meterRegistry.counter("cinemate.executor.rejected", "name", name, "policy", policy).increment();
+            if (handler instanceof ThreadPoolExecutor.CallerRunsPolicy) {
+                log.debug("Executor {} is saturated ({} queued), applying {}", name, threadPool.getQueue().size(), policy);
+            } else {
+                log.warn("Executor {} is saturated ({} queued), dropping a task ({})", name, threadPool.getQueue().size(), policy);
+            }
+            handler.rejectedExecution(task, threadPool);
+        };
+    }
+
+    private Runnable timed(String name, Runnable task) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            meterRegistry.timer("cinemate.executor.wait", "name", name).record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                meterRegistry.timer("cinemate.executor.run", "name", name).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.cinemate.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Metrics exposed at /actuator/prometheus.
+ * Besides the cinemate.* meters of the services, Spring Boot already records HTTP requests,
+ * @Scheduled jobs (tasks.scheduled.execution), Mongo commands tagged by collection
+ * (mongodb.driver.commands) and the queue depth of the task executors (executor.queued).
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> LATENCY_METERS = List.of(
+            "cinemate.",
+            "http.server.requests",
+            "tasks.scheduled.execution",
+            "mongodb.driver.commands"
+    );
+
+    /**
+     * enables @Timed on service classes and methods
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * publishes histogram buckets and percentiles for the latency timers of the hot paths
+     */
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER
+                        || LATENCY_METERS.stream().noneMatch(prefix -> id.getName().startsWith(prefix))) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.95, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.cinemate.config;
 
 import com.cinemate.auth.JwtAuthFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -21,6 +23,12 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
 
+    /**
+     * separate port of the actuator endpoints, only reachable from the monitoring network
+     */
+    @Value("${management.server.port:#{null}}")
+    private Integer managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     http
@@ -38,6 +46,9 @@ public class SecurityConfig {
                 "/swagger-ui/index.html",
                 "/swagger-resources/**"
             ).permitAll()
+            // Health checks, metrics can only be scraped without login on the separate management port
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers(this::isManagementPortScrape).permitAll()
             // All other requests require authentication
             .anyRequest().authenticated()
         )
@@ -47,6 +58,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private boolean isManagementPortScrape(HttpServletRequest request) {
+        return managementPort != null && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,315 @@
+package com.cinemate.config.mongo;
+
+import com.cinemate.social.friends.Friend;
+import com.cinemate.statistics.activity.MonthlyActivityBucket;
+import com.cinemate.statistics.activity.WatchActivity;
+import com.cinemate.user.media.UserMediaEntry;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All indexes of the database and the repository queries they serve.
+ * Documents that declare their indexes with @CompoundIndex are listed in ANNOTATED_DOCUMENTS,
+ * the indexes of all other collections are defined here. Forum posts and replies are always
+ * queried with isDeleted=false, so their indexes only contain documents that are not deleted.
+ * A new repository query belongs into QUERY_SHAPES together with the index serving it.
+ */
+public final class MongoIndexCatalog {
+
+    public static final List<Class<?>> ANNOTATED_DOCUMENTS = List.of(
+            UserMediaEntry.class,
+            WatchActivity.class,
+            MonthlyActivityBucket.class,
+            Friend.class
+    );
+
+    private static final PartialIndexFilter NOT_DELETED = PartialIndexFilter.of(Criteria.where("isDeleted").is(false));
+
+    private static final Sort.Direction ASC = Sort.Direction.ASC;
+    private static final Sort.Direction DESC = Sort.Direction.DESC;
+
+    public static final Map<String, List<Index>> INDEXES = createIndexes();
+
+    public static final List<QueryShape> QUERY_SHAPES = createQueryShapes();
+
+    private MongoIndexCatalog() {
+    }
+
+    private static Map<String, List<Index>> createIndexes() {
+        Map<String, List<Index>> indexes = new LinkedHashMap<>();
+
+        indexes.put("users", List.of(
+                new Index().named("username").on("username", ASC),
+                new Index().named("email").on("email", ASC),
+                new Index().named("role").on("role", ASC)
+        ));
+
+        indexes.put("reviews", List.of(
+                new Index().named("item_user").on("itemId", ASC).on("userId", ASC),
+                new Index().named("user_date").on("userId", ASC).on("date", DESC)
+        ));
+
+        indexes.put("notifications", List.of(
+                new Index().named("user_read_created").on("userId", ASC).on("read", ASC).on("createdAt", DESC),
+                new Index().named("user_type").on("userId", ASC).on("type", ASC),
+                new Index().named("unsent_created").on("sent", ASC).on("createdAt", ASC)
+        ));
+
+        indexes.put("forum_posts", List.of(
+                new Index().named("active_created").on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_category_created").on("category", ASC).on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_author_created").on("author.$id", ASC).on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_movie_created").on("movieId", ASC).on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_series_created").on("seriesId", ASC).on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_pinned_created").on("isPinned", ASC).on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_replies").on("repliesCount", DESC).partial(NOT_DELETED),
+                new Index().named("active_likes").on("likesCount", DESC).partial(NOT_DELETED),
+                new Index().named("active_modified").on("lastModified", DESC).partial(NOT_DELETED)
+        ));
+
+        indexes.put("forum_replies", List.of(
+                new Index().named("active_post_created").on("parentPost.$id", ASC).on("createdAt", ASC).partial(NOT_DELETED),
+                new Index().named("active_author_created").on("author.$id", ASC).on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_created").on("createdAt", DESC).partial(NOT_DELETED),
+                new Index().named("active_likes").on("likesCount", DESC).partial(NOT_DELETED)
+        ));
+
+        indexes.put("forum_likes", List.of(
+                new Index().named("user_post").on("user.$id", ASC).on("post.$id", ASC),
+                new Index().named("user_reply").on("user.$id", ASC).on("reply.$id", ASC),
+                new Index().named("post").on("post.$id", ASC),
+                new Index().named("reply").on("reply.$id", ASC)
+        ));
+
+        indexes.put("forum_subscriptions", List.of(
+                new Index().named("user_active_post").on("user.$id", ASC).on("isActive", ASC).on("post.$id", ASC),
+                new Index().named("post_active").on("post.$id", ASC).on("isActive", ASC)
+        ));
+
+        indexes.put("friendships", List.of(
+                new Index().named("requester_status").on("requester", ASC).on("status", ASC),
+                new Index().named("recipient_status").on("recipient", ASC).on("status", ASC)
+        ));
+
+        indexes.put("user_points", List.of(
+                new Index().named("user").on("user.$id", ASC).unique()
+        ));
+
+        indexes.put("user_points_buckets", List.of(
+                new Index().named("period_points").on("period", ASC).on("points", DESC),
+                new Index().named("expires").on("expiresAt", ASC).expire(0)
+        ));
+
+        indexes.put("points_ledger", List.of(
+                new Index().named("user_awarded").on("userId", ASC).on("awardedAt", DESC)
+        ));
+
+        indexes.put("feed_items", List.of(
+                new Index().named("owner_created").on("ownerId", ASC).on("createdAt", DESC).on("activityId", DESC),
+                new Index().named("expires").on("expiresAt", ASC).expire(0)
+        ));
+
+        indexes.put("feed_activities", List.of(
+                new Index().named("actor_created").on("actorId", ASC).on("createdAt", DESC).on("activityId", DESC),
+                new Index().named("expires").on("expiresAt", ASC).expire(0)
+        ));
+
+        indexes.put("streaming_availability", List.of(
+                new Index().named("availability_key").unique().on("media_id", ASC).on("media_type", ASC)
+                        .on("provider.$id", ASC).on("region", ASC).on("availability_type", ASC),
+                new Index().named("media_type_region").on("media_id", ASC).on("media_type", ASC).on("region", ASC),
+                new Index().named("provider").on("provider.$id", ASC),
+                new Index().named("catalog").on("region", ASC).on("provider.$id", ASC).on("availability_type", ASC).on("media_id", ASC),
+                new Index().named("region_until").on("region", ASC).on("available_until", ASC),
+                new Index().named("available_until").on("available_until", ASC),
+                new Index().named("availability_type").on("availability_type", ASC)
+        ));
+
+        indexes.put("streaming_price_history", List.of(
+                new Index().named("availability_changed").on("availability_id", ASC).on("changed_at", DESC)
+        ));
+
+        indexes.put("streaming_providers", List.of(
+                new Index().named("country_active").on("country", ASC).on("active", ASC),
+                new Index().named("active").on("active", ASC),
+                new Index().named("name").on("name", ASC)
+        ));
+
+        indexes.put("achievements", List.of(
+                new Index().named("type_active_threshold").on("type", ASC).on("isActive", ASC).on("threshold", ASC),
+                new Index().named("active").on("isActive", ASC)
+        ));
+
+        indexes.put("user_achievements", List.of(
+                new Index().named("user_achievement").on("user.$id", ASC).on("achievement.$id", ASC),
+                new Index().named("user_unlocked").on("user.$id", ASC).on("unlockedAt", DESC)
+        ));
+
+        return indexes;
+    }
+
+    private static List<QueryShape> createQueryShapes() {
+        String userId = new ObjectId().toHexString();
+        ObjectId userRef = new ObjectId();
+        ObjectId postRef = new ObjectId();
+        DBRef user = new DBRef("users", userRef);
+        Date now = new Date();
+
+        return List.of(
+                QueryShape.of("users", "UserRepository.findByUsername", new Document("username", "sample"), null),
+                QueryShape.of("users", "UserRepository.findByEmail", new Document("email", "sample@cinemate.com"), null),
+                QueryShape.of("users", "UserRepository.findByRole", new Document("role", "ADMIN"), null),
+
+                QueryShape.of("reviews", "ReviewRepository.findByItemId", new Document("itemId", "sample"), null),
+                QueryShape.of("reviews", "ReviewRepository.findByItemIdAndUserId", new Document("itemId", "sample").append("userId", userId), null),
+                QueryShape.of("reviews", "ReviewRepository.findByUserId", new Document("userId", userId), null),
+                QueryShape.of("reviews", "ReviewRepository.findByUserIdAndDateAfter",
+                        new Document("userId", userId).append("date", new Document("$gte", now)), null),
+
+                QueryShape.of("notifications", "NotificationRepository.findByUserIdOrderByCreatedAtDesc",
+                        new Document("userId", userId), new Document("createdAt", -1)),
+                QueryShape.of("notifications", "NotificationRepository.findByUserIdAndReadFalseOrderByCreatedAtDesc",
+                        new Document("userId", userId).append("read", false), new Document("createdAt", -1)),
+                QueryShape.of("notifications", "NotificationRepository.findByUserIdAndType",
+                        new Document("userId", userId).append("type", "RECOMMENDATION"), null),
+                QueryShape.of("notifications", "NotificationRepository.findBySentFalseAndCreatedAtBefore",
+                        new Document("sent", false).append("createdAt", new Document("$lt", now)), null),
+
+                QueryShape.of("forum_posts", "ForumService.getAllPosts",
+                        new Document("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_posts", "ForumService.getPostsByCategory",
+                        new Document("category", "GENERAL").append("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_posts", "ForumPostRepository.findByAuthorIdAndIsDeletedFalseOrderByCreatedAtDesc",
+                        new Document("author.$id", userRef).append("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_posts", "ForumPostRepository.findByMovieIdAndIsDeletedFalseOrderByCreatedAtDesc",
+                        new Document("movieId", "sample").append("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_posts", "ForumPostRepository.findBySeriesIdAndIsDeletedFalseOrderByCreatedAtDesc",
+                        new Document("seriesId", "sample").append("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_posts", "ForumPostRepository.findByIsPinnedTrueAndIsDeletedFalseOrderByCreatedAtDesc",
+                        new Document("isPinned", true).append("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_posts", "ForumPostRepository.findByIsDeletedFalseOrderByRepliesCountDesc",
+                        new Document("isDeleted", false), new Document("repliesCount", -1)),
+                QueryShape.of("forum_posts", "ForumService.getPopularPosts",
+                        new Document("isDeleted", false), new Document("likesCount", -1)),
+                QueryShape.of("forum_posts", "ForumService.getRecentlyActivePosts",
+                        new Document("isDeleted", false), new Document("lastModified", -1)),
+                QueryShape.scanning("forum_posts", "ForumPostRepository.searchPosts",
+                        new Document("isDeleted", false).append("title", new Document("$regex", "sample").append("$options", "i"))),
+
+                QueryShape.of("forum_replies", "ForumReplyRepository.findByParentPostIdAndIsDeletedFalseOrderByCreatedAtAsc",
+                        new Document("parentPost.$id", postRef).append("isDeleted", false), new Document("createdAt", 1)),
+                QueryShape.of("forum_replies", "ForumReplyRepository.findByAuthorIdAndIsDeletedFalseOrderByCreatedAtDesc",
+                        new Document("author.$id", userRef).append("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_replies", "ForumReplyRepository.findByIsDeletedFalseOrderByCreatedAtDesc",
+                        new Document("isDeleted", false), new Document("createdAt", -1)),
+                QueryShape.of("forum_replies", "ForumReplyRepository.findByIsDeletedFalseOrderByLikesCountDesc",
+                        new Document("isDeleted", false), new Document("likesCount", -1)),
+
+                QueryShape.of("forum_likes", "ForumLikeRepository.findByUserIdAndPostId",
+                        new Document("user.$id", userRef).append("post.$id", postRef), null),
+                QueryShape.of("forum_likes", "ForumLikeRepository.countByPostId", new Document("post.$id", postRef), null),
+
+                QueryShape.of("forum_subscriptions", "ForumSubscriptionRepository.findByUserIdAndPostIdAndIsActiveTrue",
+                        new Document("user.$id", userRef).append("post.$id", postRef).append("isActive", true), null),
+                QueryShape.of("forum_subscriptions", "ForumSubscriptionRepository.findByUserIdAndIsActiveTrue",
+                        new Document("user.$id", userRef).append("isActive", true), null),
+                QueryShape.of("forum_subscriptions", "ForumSubscriptionRepository.findByPostIdAndIsActiveTrue",
+                        new Document("post.$id", postRef).append("isActive", true), null),
+
+                QueryShape.of("friendships", "FriendRepository.findByRequesterAndStatus",
+                        new Document("requester", user).append("status", "ACCEPTED"), null),
+                QueryShape.of("friendships", "FriendRepository.findByRecipientAndStatus",
+                        new Document("recipient", user).append("status", "PENDING"), null),
+                QueryShape.of("friendships", "FriendRepository.findByUserLowAndUserHigh",
+                        new Document("userLow", "sample").append("userHigh", "sample"), null),
+                QueryShape.of("friendships", "FriendAdjacencyCache.load",
+                        new Document("$or", List.of(new Document("userLow", "sample"), new Document("userHigh", "sample")))
+                                .append("status", "ACCEPTED"), null),
+                QueryShape.of("friendships", "FriendSuggestionService.getOpenRequestUserIds",
+                        new Document("$or", List.of(new Document("userLow", "sample"), new Document("userHigh", "sample")))
+                                .append("status", new Document("$ne", "ACCEPTED")), null),
+
+                QueryShape.of("user_points", "UserPointsRepository.findByUserId", new Document("user.$id", userRef), null),
+                QueryShape.of("user_points", "UserPointsRepository.findByUserIdIn",
+                        new Document("user.$id", new Document("$in", List.of(userRef))), null),
+                QueryShape.of("user_points_buckets", "PointsBucketService.getTop",
+                        new Document("period", "2025-W07"), new Document("points", -1)),
+                QueryShape.of("points_ledger", "PointsLedgerRepository.findByUserIdOrderByAwardedAtDesc",
+                        new Document("userId", "sample"), new Document("awardedAt", -1)),
+
+                QueryShape.of("feed_items", "FeedService.getFeed",
+                        new Document("ownerId", "sample"), new Document("createdAt", -1).append("activityId", -1)),
+                QueryShape.of("feed_activities", "FeedService.getFeed",
+                        new Document("actorId", new Document("$in", List.of("sample"))), new Document("createdAt", -1).append("activityId", -1)),
+
+                QueryShape.of("streaming_availability", "StreamingAvailabilityService.getAvailabilityForMediaAndRegion",
+                        new Document("media_id", "sample").append("media_type", "MOVIE").append("region", "DE"), null),
+                QueryShape.of("streaming_availability", "StreamingAvailabilityService.getAvailabilityForMediaBatch",
+                        new Document("media_id", new Document("$in", List.of("sample", "other"))).append("region", "DE"), null),
+                QueryShape.of("streaming_availability", "StreamingAvailabilityService.getProviderCatalog",
+                        new Document("region", "DE").append("provider.$id", new ObjectId())
+                                .append("availability_type", new Document("$in", List.of("SUBSCRIPTION", "RENTAL"))),
+                        new Document("media_id", 1)),
+                QueryShape.of("streaming_availability", "StreamingAvailabilityService.getLeavingSoon",
+                        new Document("region", "DE").append("available_until", new Document("$gt", new Date()).append("$lte", new Date())),
+                        new Document("available_until", 1).append("media_id", 1)),
+                QueryShape.of("streaming_availability", "StreamingLeavingSoonSweep.sweep",
+                        new Document("available_until", new Document("$gt", new Date()).append("$lte", new Date()))
+                                .append("leaving_soon_notified", new Document("$ne", true)), null),
+                QueryShape.of("streaming_availability", "StreamingImportService.applyBatch",
+                        new Document("media_id", new Document("$in", List.of("sample", "other")))
+                                .append("region", new Document("$in", List.of("DE"))), null),
+                QueryShape.of("streaming_availability", "StreamingImportService.expireMissing",
+                        new Document("region", new Document("$in", List.of("DE")))
+                                .append("provider.$id", new Document("$in", List.of(new ObjectId())))
+                                .append("available_until", new Document("$not", new Document("$lte", new Date()))), null),
+                QueryShape.of("streaming_price_history", "StreamingAvailabilityService.getPriceHistory",
+                        new Document("availability_id", "sample"), new Document("changed_at", -1)),
+                QueryShape.of("streaming_availability", "StreamingAvailabilityRepository.findByProvider",
+                        new Document("provider.$id", new ObjectId()), null),
+                QueryShape.of("streaming_availability", "StreamingAvailabilityRepository.findByAvailabilityType",
+                        new Document("availability_type", "SUBSCRIPTION"), null),
+
+                QueryShape.of("streaming_providers", "StreamingProviderRepository.findByCountryAndActiveTrue",
+                        new Document("country", "DE").append("active", true), null),
+                QueryShape.of("streaming_providers", "StreamingProviderRepository.findByActiveTrue", new Document("active", true), null),
+                QueryShape.of("streaming_providers", "StreamingProviderRepository.findByName", new Document("name", "sample"), null),
+
+                QueryShape.of("achievements", "AchievementRepository.findByTypeAndIsActiveTrue",
+                        new Document("type", "MOVIES_WATCHED").append("isActive", true), null),
+                QueryShape.of("user_achievements", "UserAchievementRepository.findByUserIdOrderByUnlockedAtDesc",
+                        new Document("user.$id", userRef), new Document("unlockedAt", -1)),
+                QueryShape.of("user_achievements", "UserAchievementRepository.findByUserIdAndAchievementId",
+                        new Document("user.$id", userRef).append("achievement.$id", new ObjectId()), null),
+
+                QueryShape.of("user_media_entries", "UserMediaEntryRepository.findByUserIdAndListTypeAndItemTypeOrderByAddedAtAsc",
+                        new Document("userId", userId).append("listType", "WATCHLIST").append("itemType", "movie"), new Document("addedAt", 1)),
+                QueryShape.of("user_media_entries", "UserMediaEntryRepository.findByUserIdAndListTypeAndItemTypeAndAddedAtGreaterThanEqualOrderByAddedAtAsc",
+                        new Document("userId", userId).append("listType", "WATCHED").append("itemType", "movie")
+                                .append("addedAt", new Document("$gte", new Date())), new Document("addedAt", 1)),
+                QueryShape.of("user_media_entries", "UserMediaEntryRepository.findByItemIdAndItemTypeAndListType",
+                        new Document("itemId", "sample").append("itemType", "movie").append("listType", "WATCHLIST"), null),
+                QueryShape.of("watch_activities", "WatchActivityRepository.findFirstByUserIdAndItemIdAndTypeOrderByOccurredAtDesc",
+                        new Document("userId", userId).append("itemId", "sample").append("type", "WATCHED"), new Document("occurredAt", -1)),
+                QueryShape.of("user_activity_buckets", "MonthlyActivityBucketRepository.findByUserIdOrderByMonthAsc",
+                        new Document("userId", userId), new Document("month", 1)),
+                QueryShape.of("user_activity_buckets", "FriendSuggestionService.loadGenreCounts",
+                        new Document("userId", new Document("$in", List.of(userId))).append("month", new Document("$gte", "2025-01")), null),
+
+                QueryShape.scanning("movies", "MovieRepository.findByTitleContainingIgnoreCase",
+                        new Document("title", new Document("$regex", "sample").append("$options", "i"))),
+                QueryShape.scanning("series", "SeriesRepository.findByNameContainingIgnoreCase",
+                        new Document("name", new Document("$regex", "sample").append("$options", "i")))
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.cinemate.config.mongo;
+
+import com.cinemate.utils.MongoIndexUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes of the catalogue before the other initializers run and optionally verifies the query plans.
+ * Only data migrations that a new unique index depends on run before it.
+ * cinemate.mongo.index-verification: off (default), report (log collection scans) or fail (abort the start on them)
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class MongoIndexInitializer implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryPlanVerifier queryPlanVerifier;
+
+    @Value("${cinemate.mongo.index-verification:off}")
+    private String verificationMode;
+
+    @Override
+    public void run(String... args) throws Exception {
+        MongoIndexUtil.ensureIndexes(mongoTemplate, MongoIndexCatalog.ANNOTATED_DOCUMENTS.toArray(new Class<?>[0]));
+
+        int created = 0;
+        for (Map.Entry<String, List<Index>> collection : MongoIndexCatalog.INDEXES.entrySet()) {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection.getKey());
+            for (Index index : collection.getValue()) {
+                try {
+                    indexOps.createIndex(index);
+                    created++;
+                } catch (DataAccessException e) {
+                    // e.g. an index with the same keys but another name or other options already exists
+                    log.warn("Index {} on {} could not be created: {}",
+                            index.getIndexOptions().get("name"), collection.getKey(), e.getMessage());
+                }
+            }
+        }
+        log.info("Ensured {} catalogue indexes on {} collections", created, MongoIndexCatalog.INDEXES.size());
+
+        if ("off".equalsIgnoreCase(verificationMode)) {
+            return;
+        }
+        List<String> unexpectedScans = queryPlanVerifier.verify(MongoIndexCatalog.QUERY_SHAPES);
+        if (!unexpectedScans.isEmpty() && "fail".equalsIgnoreCase(verificationMode)) {
+            throw new IllegalStateException("Queries without a matching index: " + String.join(", ", unexpectedScans));
+        }
+    }
+}
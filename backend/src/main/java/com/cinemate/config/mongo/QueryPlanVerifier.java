@@ -0,0 +1,97 @@
+package com.cinemate.config.mongo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs explain for every query shape of the index catalogue and reports
+ * the queries whose winning plan scans the whole collection or sorts in memory
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryPlanVerifier {
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+    private static final String IN_MEMORY_SORT = "SORT";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * explains the given query shapes
+     * @param shapes
+     * @return the shapes that scan the collection although an index should serve them
+     */
+    public List<String> verify(List<QueryShape> shapes) {
+        List<String> unexpectedScans = new ArrayList<>();
+        for (QueryShape shape : shapes) {
+            if (!mongoTemplate.collectionExists(shape.getCollection())) {
+                log.debug("Skipping {}, collection {} does not exist yet", shape.getSource(), shape.getCollection());
+                continue;
+            }
+
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan(shape), stages);
+
+            if (stages.contains(COLLECTION_SCAN)) {
+                if (shape.isCollectionScanExpected()) {
+                    log.info("{} scans {} (no index can serve it)", shape.getSource(), shape.getCollection());
+                } else {
+                    log.warn("{} scans the whole {} collection, plan: {}", shape.getSource(), shape.getCollection(), stages);
+                    unexpectedScans.add(shape.getSource() + " on " + shape.getCollection());
+                }
+            } else if (stages.contains(IN_MEMORY_SORT)) {
+                log.warn("{} sorts {} in memory, plan: {}", shape.getSource(), shape.getCollection(), stages);
+            } else {
+                log.debug("{} uses plan {}", shape.getSource(), stages);
+            }
+        }
+        log.info("Explained {} query shapes, {} unexpected collection scans", shapes.size(), unexpectedScans.size());
+        return unexpectedScans;
+    }
+
+    private Document winningPlan(QueryShape shape) {
+        Document find = new Document("find", shape.getCollection()).append("filter", shape.getFilter());
+        if (shape.getSort() != null) {
+            find.append("sort", shape.getSort());
+        }
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan", Document.class) : null;
+        if (winningPlan == null) {
+            return new Document();
+        }
+        // plans of the slot based execution engine are nested in queryPlan
+        Document queryPlan = winningPlan.get("queryPlan", Document.class);
+        return queryPlan != null ? queryPlan : winningPlan;
+    }
+
+    /**
+     * collects the stage names of the plan tree, outermost stage first
+     */
+    private void collectStages(Document plan, List<String> stages) {
+        Object stage = plan.get("stage");
+        if (stage != null) {
+            stages.add(stage.toString());
+        }
+        for (Map.Entry<String, Object> entry : plan.entrySet()) {
+            if (entry.getValue() instanceof Document) {
+                collectStages((Document) entry.getValue(), stages);
+            } else if (entry.getValue() instanceof List) {
+                for (Object child : (List<?>) entry.getValue()) {
+                    if (child instanceof Document) {
+                        collectStages((Document) child, stages);
+                    }
+                }
+            }
+        }
+    }
+}
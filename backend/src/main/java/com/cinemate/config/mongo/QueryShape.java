@@ -0,0 +1,47 @@
+package com.cinemate.config.mongo;
+
+import lombok.Getter;
+import org.bson.Document;
+
+/**
+ * A query a repository sends to Mongo, with sample values in place of the parameters
+ */
+@Getter
+public class QueryShape {
+
+    private final String collection;
+    private final String source;
+    private final Document filter;
+    private final Document sort;
+    private final boolean collectionScanExpected;
+
+    private QueryShape(String collection, String source, Document filter, Document sort, boolean collectionScanExpected) {
+        this.collection = collection;
+        this.source = source;
+        this.filter = filter;
+        this.sort = sort;
+        this.collectionScanExpected = collectionScanExpected;
+    }
+
+    /**
+     * @param collection
+     * @param source the repository method sending the query
+     * @param filter
+     * @param sort may be null
+     * @return QueryShape
+     */
+    public static QueryShape of(String collection, String source, Document filter, Document sort) {
+        return new QueryShape(collection, source, filter, sort, false);
+    }
+
+    /**
+     * a query no index can serve (e.g. an unanchored case-insensitive regex), reported but never failing the verification
+     * @param collection
+     * @param source the repository method sending the query
+     * @param filter
+     * @return QueryShape
+     */
+    public static QueryShape scanning(String collection, String source, Document filter) {
+        return new QueryShape(collection, source, filter, null, true);
+    }
+}
@@ -3,6 +3,7 @@ package com.cinemate.movie;
 import com.cinemate.actor.Actor;
 import com.cinemate.director.Director;
 import com.cinemate.movie.DTOs.MovieRequestDTO;
+import com.cinemate.utils.GenreUtil;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,6 +27,7 @@ public class Movie {
     private String title;
     private String description;
     private String genre;
+    private List<String> genres;
     private double rating ;
     private int reviewCount;
     private Date releaseDate;
@@ -43,7 +45,7 @@ public class Movie {
         this.id = id;
         this.title = title;
         this.description = description;
-        this.genre = genre;
+        setGenre(genre);
         this.rating = rating;
         this.reviewCount = reviewCount;
         this.releaseDate = releaseDate;
@@ -57,7 +59,7 @@ public class Movie {
         this.id = movie.getId();
         this.title = movie.getTitle();
         this.description = movie.getDescription();
-        this.genre = movie.getGenre();
+        setGenre(movie.getGenre());
         this.rating = movie.getRating();
         this.reviewCount = movie.getReviewCount();
         this.releaseDate = movie.getReleaseDate();
@@ -66,4 +68,25 @@ public class Movie {
         this.country = movie.getCountry();
         this.trailerUrl = movie.getTrailerUrl();
     }
+
+    /**
+     * sets the raw genre string and keeps the normalised genre list in sync
+     * @param genre comma separated genres
+     */
+    public void setGenre(String genre) {
+        this.genre = genre;
+        this.genres = GenreUtil.normalize(genre);
+    }
+
+    /**
+     * returns the normalised genres, falling back to the raw genre string
+     * for documents stored before the genres field existed
+     * @return list of genres
+     */
+    public List<String> getGenres() {
+        if (genres == null) {
+            return GenreUtil.normalize(genre);
+        }
+        return genres;
+    }
 }
@@ -1,8 +1,8 @@
 package com.cinemate.notification;
 
 import com.cinemate.movie.Movie;
+import com.cinemate.notification.events.UserActivityEvent;
 import com.cinemate.review.Review;
-import com.cinemate.review.ReviewRepository;
 import com.cinemate.series.Episode;
 import com.cinemate.series.Season;
 import com.cinemate.series.Series;
@@ -12,6 +12,12 @@ import com.cinemate.social.forum.subscription.ForumSubscription;
 import com.cinemate.social.forum.subscription.ForumSubscriptionRepository;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import com.cinemate.user.activity.ActivityCounter;
+import com.cinemate.user.activity.UserActivityCounterService;
+import com.cinemate.user.activity.UserActivityCounters;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import com.cinemate.user.media.UserMediaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -22,9 +28,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AutoNotificationService {
 
+    private static final Map<ActivityCounter, String> MILESTONE_TYPES = new EnumMap<>(Map.of(
+        ActivityCounter.MOVIES_WATCHED, "movies_watched",
+        ActivityCounter.SERIES_WATCHED, "series_watched",
+        ActivityCounter.REVIEWS, "reviews_written",
+        ActivityCounter.WATCHLIST, "watchlist_size"
+    ));
+
     private final NotificationService notificationService;
     private final UserRepository userRepository;
-    private final ReviewRepository reviewRepository;
+    private final UserMediaService userMediaService;
+    private final UserActivityCounterService activityCounterService;
     private final ForumSubscriptionRepository forumSubscriptionRepository;
 
     /**
@@ -32,11 +46,8 @@ public class AutoNotificationService {
      * @param movie - the released movie
      */
     public void notifyMovieWatchlistReleased(Movie movie) {
-        List<User> users = userRepository.findAll();
-        
-        users.stream()
-            .filter(user -> user.getMovieWatchlist().contains(movie))
-            .forEach(user -> {
+        userMediaService.getUserIds(MediaListType.WATCHLIST, UserMediaEntry.TYPE_MOVIE, movie.getId())
+            .forEach(userId -> {
                 String title = "🎬 Film aus deiner Watchlist ist verfügbar!";
                 String message = String.format("Der Film '%s' aus deiner Watchlist ist jetzt verfügbar!", movie.getTitle());
                 
@@ -46,7 +57,7 @@ public class AutoNotificationService {
                 metadata.put("releaseDate", movie.getReleaseDate());
                 
                 Notification notification = notificationService.createNotificationWithMetadata(
-                    user.getId(), 
+                    userId, 
                     NotificationType.MOVIE_WATCHLIST_RELEASED, 
                     title, 
                     message,
@@ -64,21 +75,29 @@ public class AutoNotificationService {
      * @param releasingSeries - series releasing today
      */
     public void notifyDailyReleases(List<Movie> releasingMovies, List<Series> releasingSeries) {
-        List<User> users = userRepository.findAll();
+        Map<String, Movie> moviesById = releasingMovies.stream()
+            .collect(Collectors.toMap(Movie::getId, movie -> movie, (first, second) -> first));
+        Map<String, Series> seriesById = releasingSeries.stream()
+            .collect(Collectors.toMap(Series::getId, series -> series, (first, second) -> first));
+
+        // one indexed lookup per type instead of scanning every user's watchlist
+        Map<String, List<String>> movieIdsByUser = userMediaService.getItemIdsByUser(
+            MediaListType.WATCHLIST, UserMediaEntry.TYPE_MOVIE, moviesById.keySet());
+        Map<String, List<String>> seriesIdsByUser = userMediaService.getItemIdsByUser(
+            MediaListType.WATCHLIST, UserMediaEntry.TYPE_SERIES, seriesById.keySet());
+
+        Set<String> userIds = new LinkedHashSet<>(movieIdsByUser.keySet());
+        userIds.addAll(seriesIdsByUser.keySet());
         
-        for (User user : users) {
-            List<Movie> userMovies = releasingMovies.stream()
-                .filter(movie -> user.getMovieWatchlist().contains(movie))
+        for (String userId : userIds) {
+            List<Movie> userMovies = movieIdsByUser.getOrDefault(userId, Collections.emptyList()).stream()
+                .map(moviesById::get)
                 .toList();
                 
-            List<Series> userSeries = releasingSeries.stream()
-                .filter(series -> user.getSeriesWatchlist().contains(series))
+            List<Series> userSeries = seriesIdsByUser.getOrDefault(userId, Collections.emptyList()).stream()
+                .map(seriesById::get)
                 .toList();
             
-            if (userMovies.isEmpty() && userSeries.isEmpty()) {
-                continue;
-            }
-            
             String title = "🎉 Neue Releases heute!";
             StringBuilder messageBuilder = new StringBuilder("Heute erscheinen Inhalte aus deiner Watchlist:\n\n");
             
@@ -96,7 +115,7 @@ public class AutoNotificationService {
             metadata.put("totalReleases", userMovies.size() + userSeries.size());
             
             Notification notification = notificationService.createNotificationWithMetadata(
-                user.getId(),
+                userId,
                 NotificationType.NEW_MOVIE_RELEASE,
                 title,
                 messageBuilder.toString(),
@@ -115,11 +134,8 @@ public class AutoNotificationService {
      * @param newSeason - the new season
      */
     public void notifySeriesNewSeason(Series series, Season newSeason) {
-        List<User> users = userRepository.findAll();
-        
-        users.stream()
-            .filter(user -> user.getSeriesWatchlist().contains(series))
-            .forEach(user -> {
+        userMediaService.getUserIds(MediaListType.WATCHLIST, UserMediaEntry.TYPE_SERIES, series.getId())
+            .forEach(userId -> {
                 String title = "📺 Neue Staffel verfügbar!";
                 String message = String.format("Staffel %d von '%s' ist jetzt verfügbar!", 
                     newSeason.getSeasonNumber(), series.getTitle());
@@ -131,7 +147,7 @@ public class AutoNotificationService {
                 metadata.put("episodeCount", newSeason.getEpisodes().size());
                 
                 Notification notification = notificationService.createNotificationWithMetadata(
-                    user.getId(), 
+                    userId, 
                     NotificationType.SERIES_NEW_SEASON, 
                     title, 
                     message,
@@ -150,11 +166,8 @@ public class AutoNotificationService {
      * @param newEpisode - the new episode
      */
     public void notifySeriesNewEpisode(Series series, Season season, Episode newEpisode) {
-        List<User> users = userRepository.findAll();
-        
-        users.stream()
-            .filter(user -> user.getSeriesWatchlist().contains(series))
-            .forEach(user -> {
+        userMediaService.getUserIds(MediaListType.WATCHLIST, UserMediaEntry.TYPE_SERIES, series.getId())
+            .forEach(userId -> {
                 String title = "🆕 Neue Episode verfügbar!";
                 String message = String.format("Episode %d von '%s' (Staffel %d) ist jetzt verfügbar!", 
                     newEpisode.getEpisodeNumber(), series.getTitle(), season.getSeasonNumber());
@@ -167,7 +180,7 @@ public class AutoNotificationService {
                 metadata.put("episodeTitle", newEpisode.getTitle());
                 
                 Notification notification = notificationService.createNotificationWithMetadata(
-                    user.getId(), 
+                    userId, 
                     NotificationType.SERIES_NEW_EPISODE, 
                     title, 
                     message,
@@ -185,11 +198,8 @@ public class AutoNotificationService {
      * @param oldStatus - the old status
      */
     public void notifySeriesStatusChanged(Series series, String oldStatus) {
-        List<User> users = userRepository.findAll();
-        
-        users.stream()
-            .filter(user -> user.getSeriesWatchlist().contains(series))
-            .forEach(user -> {
+        userMediaService.getUserIds(MediaListType.WATCHLIST, UserMediaEntry.TYPE_SERIES, series.getId())
+            .forEach(userId -> {
                 String title = "📊 Serie Status-Update";
                 String message = String.format("Der Status von '%s' hat sich von '%s' zu '%s' geändert.", 
                     series.getTitle(), oldStatus, series.getStatus().toString());
@@ -201,7 +211,7 @@ public class AutoNotificationService {
                 metadata.put("newStatus", series.getStatus().toString());
                 
                 Notification notification = notificationService.createNotificationWithMetadata(
-                    user.getId(), 
+                    userId, 
                     NotificationType.SERIES_STATUS_CHANGED, 
                     title, 
                     message,
@@ -220,21 +230,13 @@ public class AutoNotificationService {
      * @param itemType - type of item
      */
     public void notifyWatchlistItemReviewed(Review review, String itemTitle, String itemType) {
-        List<User> users = userRepository.findAll();
-        
-        users.stream()
-            .filter(user -> {
-                if ("movie".equals(itemType)) {
-                    return user.getMovieWatchlist().stream()
-                        .anyMatch(movie -> movie.getId().equals(review.getItemId()));
-                } else if ("series".equals(itemType)) {
-                    return user.getSeriesWatchlist().stream()
-                        .anyMatch(series -> series.getId().equals(review.getItemId()));
-                }
-                return false;
-            })
-            .filter(user -> !user.getId().equals(review.getUserId())) // Nicht den Autor der Bewertung benachrichtigen
-            .forEach(user -> {
+        if (!"movie".equals(itemType) && !"series".equals(itemType)) {
+            return;
+        }
+
+        userMediaService.getUserIds(MediaListType.WATCHLIST, itemType, review.getItemId()).stream()
+            .filter(userId -> !userId.equals(review.getUserId())) // Nicht den Autor der Bewertung benachrichtigen
+            .forEach(userId -> {
                 String title = "⭐ Neue Bewertung verfügbar";
                 String message = String.format("'%s' aus deiner Watchlist wurde mit %.1f Sternen bewertet.", 
                     itemTitle, review.getRating());
@@ -247,7 +249,7 @@ public class AutoNotificationService {
                 metadata.put("reviewId", review.getId());
                 
                 Notification notification = notificationService.createNotificationWithMetadata(
-                    user.getId(), 
+                    userId, 
                     NotificationType.WATCHLIST_ITEM_REVIEWED, 
                     title, 
                     message,
@@ -266,21 +268,13 @@ public class AutoNotificationService {
      * @param itemType - type of item
      */
     public void notifyFavoriteItemReviewed(Review review, String itemTitle, String itemType) {
-        List<User> users = userRepository.findAll();
-        
-        users.stream()
-            .filter(user -> {
-                if ("movie".equals(itemType)) {
-                    return user.getMovieFavorites().stream()
-                        .anyMatch(movie -> movie.getId().equals(review.getItemId()));
-                } else if ("series".equals(itemType)) {
-                    return user.getSeriesFavorites().stream()
-                        .anyMatch(series -> series.getId().equals(review.getItemId()));
-                }
-                return false;
-            })
-            .filter(user -> !user.getId().equals(review.getUserId())) // Nicht den Autor der Bewertung benachrichtigen
-            .forEach(user -> {
+        if (!"movie".equals(itemType) && !"series".equals(itemType)) {
+            return;
+        }
+
+        userMediaService.getUserIds(MediaListType.FAVORITES, itemType, review.getItemId()).stream()
+            .filter(userId -> !userId.equals(review.getUserId())) // Nicht den Autor der Bewertung benachrichtigen
+            .forEach(userId -> {
                 String title = "❤️ Bewertung zu deinen Favoriten";
                 String message = String.format("'%s' aus deinen Favoriten wurde mit %.1f Sternen bewertet.", 
                     itemTitle, review.getRating());
@@ -293,7 +287,7 @@ public class AutoNotificationService {
                 metadata.put("reviewId", review.getId());
                 
                 Notification notification = notificationService.createNotificationWithMetadata(
-                    user.getId(), 
+                    userId, 
                     NotificationType.FAVORITE_ITEM_REVIEWED, 
                     title, 
                     message,
@@ -305,6 +299,33 @@ public class AutoNotificationService {
             });
     }
 
+    /**
+     * Notifies a user about titles from their watchlist that leave a streaming provider soon
+     * @param userId - the user to notify
+     * @param titles - one line per title, e.g. "Inception – Netflix (DE) bis 24.10."
+     */
+    public void notifyStreamingLeavingSoon(String userId, List<String> titles) {
+        String title = "⏳ Bald nicht mehr verfügbar";
+        StringBuilder messageBuilder = new StringBuilder("Diese Titel aus deiner Watchlist verlassen bald ihren Streaming-Anbieter:\n\n");
+        for (String line : titles) {
+            messageBuilder.append("• ").append(line).append("\n");
+        }
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("titlesCount", titles.size());
+
+        Notification notification = notificationService.createNotificationWithMetadata(
+            userId,
+            NotificationType.STREAMING_LEAVING_SOON,
+            title,
+            messageBuilder.toString(),
+            null,
+            "streaming_leaving_soon",
+            metadata
+        );
+        notificationService.sendNotification(notification.getId());
+    }
+
     /**
      * Notifies users of milestones reached
      * @param userId - the user who reached the milestons
@@ -353,21 +374,19 @@ public class AutoNotificationService {
      * @param userId - the user for the summary
      */
     public void notifyUpcomingReleases(String userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) return;
+        if (!userRepository.existsById(userId)) return;
         
-        User user = userOpt.get();
         Calendar nextWeek = Calendar.getInstance();
         nextWeek.add(Calendar.WEEK_OF_YEAR, 1);
         Date nextWeekDate = nextWeek.getTime();
 
-        List<Movie> upcomingMovies = user.getMovieWatchlist().stream()
+        List<Movie> upcomingMovies = userMediaService.getMovies(userId, MediaListType.WATCHLIST).stream()
             .filter(movie -> movie.getReleaseDate() != null && 
                 movie.getReleaseDate().after(new Date()) && 
                 movie.getReleaseDate().before(nextWeekDate))
             .collect(Collectors.toList());
 
-        List<Series> upcomingSeries = user.getSeriesWatchlist().stream()
+        List<Series> upcomingSeries = userMediaService.getSeries(userId, MediaListType.WATCHLIST).stream()
             .filter(series -> series.getReleaseDate() != null && 
                 series.getReleaseDate().after(new Date()) && 
                 series.getReleaseDate().before(nextWeekDate))
@@ -410,33 +429,49 @@ public class AutoNotificationService {
     }
 
     /**
-     * Checks and sends milestone notifications for a user
+     * Checks and sends milestone notifications for all counted activities of a user
      * @param userId - the user
      */
     public void checkAndNotifyMilestones(String userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) return;
-        
-        User user = userOpt.get();
+        if (!userRepository.existsById(userId)) return;
 
-        int watchedMoviesCount = user.getMoviesWatched().size();
-        if (shouldNotifyMilestone(watchedMoviesCount)) {
-            notifyMilestoneReached(userId, "movies_watched", watchedMoviesCount);
+        UserActivityCounters counters = activityCounterService.getCounters(userId);
+        for (ActivityCounter counter : MILESTONE_TYPES.keySet()) {
+            notifyIfMilestone(counters, counter);
         }
+    }
 
-        int watchedSeriesCount = user.getSeriesWatched().size();
-        if (shouldNotifyMilestone(watchedSeriesCount)) {
-            notifyMilestoneReached(userId, "series_watched", watchedSeriesCount);
-        }
+    /**
+     * Checks and sends the milestone notification for the activity the user just performed
+     * @param userId - the user
+     * @param activityType - the performed activity
+     */
+    public void checkAndNotifyMilestones(String userId, UserActivityEvent.ActivityType activityType) {
+        ActivityCounter counter = counterOf(activityType);
+        if (counter == null) return;
 
-        long reviewsCount = reviewRepository.countByUserId(userId);
-        if (shouldNotifyMilestone((int) reviewsCount)) {
-            notifyMilestoneReached(userId, "reviews_written", (int) reviewsCount);
+        notifyIfMilestone(activityCounterService.getCounters(userId), counter);
+    }
+
+    private void notifyIfMilestone(UserActivityCounters counters, ActivityCounter counter) {
+        int count = (int) counters.get(counter);
+        if (shouldNotifyMilestone(count)) {
+            notifyMilestoneReached(counters.getUserId(), MILESTONE_TYPES.get(counter), count);
         }
+    }
 
-        int watchlistSize = user.getMovieWatchlist().size() + user.getSeriesWatchlist().size();
-        if (shouldNotifyMilestone(watchlistSize)) {
-            notifyMilestoneReached(userId, "watchlist_size", watchlistSize);
+    private ActivityCounter counterOf(UserActivityEvent.ActivityType activityType) {
+        switch (activityType) {
+            case MOVIE_WATCHED:
+                return ActivityCounter.MOVIES_WATCHED;
+            case SERIES_WATCHED:
+                return ActivityCounter.SERIES_WATCHED;
+            case REVIEW_CREATED:
+                return ActivityCounter.REVIEWS;
+            case WATCHLIST_ITEM_ADDED:
+                return ActivityCounter.WATCHLIST;
+            default:
+                return null;
         }
     }
 
@@ -1,8 +1,11 @@
 package com.cinemate.notification;
 
+import com.cinemate.config.AsyncConfig;
 import com.cinemate.notification.email.EmailService;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,6 +30,7 @@ public class NotificationService {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Value("${cinemate.frontend.url:http://localhost:3000}")
     private String frontendUrl;
@@ -83,6 +87,7 @@ public class NotificationService {
      */
     public Notification createNotification(String userId, NotificationType type, String title, String message) {
         Notification notification = new Notification(userId, type, title, message);
+        countNotification("cinemate.notifications.created", type);
         return notificationRepository.save(notification);
     }
 
@@ -104,6 +109,7 @@ public class NotificationService {
         notification.setItemId(itemId);
         notification.setItemType(itemType);
         notification.setMetadata(metadata);
+        countNotification("cinemate.notifications.created", type);
         return notificationRepository.save(notification);
     }
 
@@ -111,14 +117,33 @@ public class NotificationService {
      * sends a notification
      * @param notificationId
      */
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void sendNotification(String notificationId) {
         Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
         if (notificationOpt.isEmpty()) return;
 
         Notification notification = notificationOpt.get();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (deliver(notification)) {
+                countNotification("cinemate.notifications.sent", notification.getType());
+            }
+        } catch (RuntimeException e) {
+            countNotification("cinemate.notifications.failed", notification.getType());
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("cinemate.notifications.send", "type", notification.getType().name()));
+        }
+    }
+
+    /**
+     * delivers the notification by email and websocket according to the user's preferences
+     * @param notification
+     * @return false if the user does not exist anymore
+     */
+    private boolean deliver(Notification notification) {
         Optional<User> userOpt = userRepository.findById(notification.getUserId());
-        if (userOpt.isEmpty()) return;
+        if (userOpt.isEmpty()) return false;
 
         User user = userOpt.get();
 
@@ -136,6 +161,11 @@ public class NotificationService {
         notification.setSent(true);
         notification.setSentAt(new Date());
         notificationRepository.save(notification);
+        return true;
+    }
+
+    private void countNotification(String name, NotificationType type) {
+        meterRegistry.counter(name, "type", type.name()).increment();
     }
 
     /**
@@ -145,7 +175,7 @@ public class NotificationService {
      * @param title
      * @param message
      */
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void sendNotification(String userId, NotificationType type, String title, String message) {
         Notification notification = createNotification(userId, type, title, message);
         sendNotification(notification.getId());
@@ -317,7 +347,7 @@ public class NotificationService {
      * @param title
      * @param message
      */
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void sendNotificationToAdmins(NotificationType type, String title, String message) {
         List<User> adminUsers = userRepository.findByRole(ADMIN);
         
@@ -337,7 +367,7 @@ public class NotificationService {
      * @param message
      * @param targetUserId - if null, sends to all users
      */
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void sendAdminNotification(NotificationType type, String title, String message, String targetUserId) {
         if (targetUserId != null) {
             try {
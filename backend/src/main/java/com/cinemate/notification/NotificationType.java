@@ -23,5 +23,6 @@ public enum NotificationType {
     STREAMING_STOPPED,
     FRIEND_REQUEST,
     FORUM_POST_CREATED,
-    FORUM_REPLY_CREATED
+    FORUM_REPLY_CREATED,
+    STREAMING_LEAVING_SOON
 }
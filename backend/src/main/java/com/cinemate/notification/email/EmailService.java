@@ -1,13 +1,16 @@
 package com.cinemate.notification.email;
 
+import com.cinemate.config.AsyncConfig;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -29,6 +32,7 @@ public class EmailService {
 
     private final EmailTemplateService emailTemplateService;
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.from:noreply@cinemate.com}")
     private String fromEmail;
@@ -76,7 +80,7 @@ public class EmailService {
      * @param subject the subject of the email
      * @param message the text content of the email to be sent
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendNotificationEmail(String toEmail, String subject, String message) {
         if (!mailEnabled || mailSender == null) {
             log.info("Email service not configured. Would send to " + toEmail + ": " + subject);
@@ -85,6 +89,7 @@ public class EmailService {
 
         if (!isWithinRateLimit(toEmail)) {
             log.info("Rate limit exceeded for " + toEmail + ". Skipping email: " + subject);
+            countEmail("rate_limited");
             return;
         }
 
@@ -95,9 +100,11 @@ public class EmailService {
             mailMessage.setSubject("CineMate: " + subject);
             mailMessage.setText(message);
 
-            mailSender.send(mailMessage);
+            meterRegistry.timer("cinemate.emails.send", "format", "text").record(() -> mailSender.send(mailMessage));
+            countEmail("sent");
             log.info("Email sent to " + toEmail + ": " + subject);
         } catch (Exception e) {
+            countEmail("failed");
             log.error("Failed to send email to " + toEmail + ": " + e.getMessage());
         }
     }
@@ -108,7 +115,7 @@ public class EmailService {
      * @param subject the subject of the email
      * @param htmlContent the HTML content of the email to be sent
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendHtmlNotificationEmail(String toEmail, String subject, String htmlContent) {
         if (!mailEnabled || mailSender == null) {
             log.info("Email service not configured. Would send HTML email to " + toEmail + ": " + subject);
@@ -117,6 +124,7 @@ public class EmailService {
 
         if (!isWithinRateLimit(toEmail)) {
             log.info("Rate limit exceeded for " + toEmail + ". Skipping HTML email: " + subject);
+            countEmail("rate_limited");
             return;
         }
 
@@ -129,13 +137,19 @@ public class EmailService {
             helper.setSubject("CineMate: " + subject);
             helper.setText(htmlContent, true); // true = HTML content
             
-            mailSender.send(mimeMessage);
+            meterRegistry.timer("cinemate.emails.send", "format", "html").record(() -> mailSender.send(mimeMessage));
+            countEmail("sent");
             log.info("HTML Email sent to " + toEmail + ": " + subject);
-        } catch (MessagingException e) {
+        } catch (MessagingException | MailException e) {
+            countEmail("failed");
             log.error("Failed to send HTML email to " + toEmail + ": " + e.getMessage());
         }
     }
 
+    private void countEmail(String result) {
+        meterRegistry.counter("cinemate.emails", "result", result).increment();
+    }
+
     /**
      * Sends a templated notification email asynchronously to the specified recipient.
      *
@@ -145,7 +159,7 @@ public class EmailService {
      * @param actionUrl the URL for the actionable link in the email
      * @param actionText the text that describes the action associated with the URL
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendTemplatedNotificationEmail(String toEmail, String title, String message, String actionUrl, String actionText) {
         String htmlContent = emailTemplateService.createNotificationEmailTemplate(title, message, actionUrl, actionText);
         sendHtmlNotificationEmail(toEmail, title, htmlContent);
@@ -161,7 +175,7 @@ public class EmailService {
      * @param upcomingMovies the number of upcoming movies to be highlighted in the email
      * @param upcomingSeries the number of upcoming series to be highlighted in the email
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendWeeklySummaryEmail(String userId, String title, String content, int upcomingMovies, int upcomingSeries) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) return;
@@ -181,7 +195,7 @@ public class EmailService {
      * @param milestoneType the type of milestone achieved (e.g., "movies watched")
      * @param count the numerical value associated with the milestone (e.g., "100 movies watched")
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendMilestoneEmail(String userId, String milestoneType, int count) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) return;
@@ -204,7 +218,7 @@ public class EmailService {
      * @param reason the reason for the recommendation
      * @param score the recommendation score associated with the item
      */
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendRecommendationEmail(String userId, String title, String message, String itemId, String itemType, String posterUrl, String reason, double score) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) return;
@@ -1,8 +1,9 @@
 package com.cinemate.notification.listeners;
 
+import com.cinemate.config.AsyncConfig;
 import com.cinemate.notification.AutoNotificationService;
 import com.cinemate.notification.events.*;
-import com.cinemate.recommendation.RecommendationNotificationService;
+import com.cinemate.recommendation.TriggeredRecommendationDebouncer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -15,16 +16,16 @@ import org.springframework.stereotype.Component;
 public class NotificationEventListener {
 
     private final AutoNotificationService autoNotificationService;
-    private final RecommendationNotificationService recommendationNotificationService;
+    private final TriggeredRecommendationDebouncer triggeredRecommendationDebouncer;
 
     @EventListener
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void handleMovieReleasedEvent(MovieReleasedEvent event) {
         autoNotificationService.notifyMovieWatchlistReleased(event.getMovie());
     }
 
     @EventListener
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void handleSeriesUpdatedEvent(SeriesUpdatedEvent event) {
         switch (event.getEventType()) {
             case NEW_SEASON:
@@ -40,7 +41,7 @@ public class NotificationEventListener {
     }
 
     @EventListener
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void handleReviewCreatedEvent(ReviewCreatedEvent event) {
         autoNotificationService.notifyWatchlistItemReviewed(
             event.getReview(), 
@@ -56,34 +57,25 @@ public class NotificationEventListener {
     }
 
     @EventListener
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void handleUserActivityEvent(UserActivityEvent event) {
-        autoNotificationService.checkAndNotifyMilestones(event.getUserId());
+        autoNotificationService.checkAndNotifyMilestones(event.getUserId(), event.getActivityType());
     }
 
     @EventListener
-    @Async
     public void handleUserPreferenceChangedEvent(UserPreferenceChangedEvent event) {
-        // Send triggered recommendations based on user activity
-        try {
-            recommendationNotificationService.sendTriggeredRecommendations(
-                event.getUserId(), 
-                event.getActivityType()
-            );
-        } catch (Exception e) {
-            log.error("Error sending triggered recommendation notifications for user "
-                + event.getUserId() + ": " + e.getMessage());
-        }
+        // Send triggered recommendations based on user activity, bursts are collapsed into one run
+        triggeredRecommendationDebouncer.onPreferenceChanged(event.getUserId(), event.getActivityType());
     }
 
     @EventListener
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void handleForumPostCreatedEvent(ForumPostCreatedEvent event) {
         autoNotificationService.notifyForumPostCreated(event.getForumPost());
     }
 
     @EventListener
-    @Async
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
     public void handleForumReplyCreatedEvent(ForumReplyCreatedEvent event) {
         autoNotificationService.notifyForumReplyCreated(event.getForumReply(), event.getForumPost());
     }
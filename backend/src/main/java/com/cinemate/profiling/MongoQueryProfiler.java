@@ -0,0 +1,136 @@
+package com.cinemate.profiling;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo driver listener that attributes every command to the profile of the current request.
+ * The synchronous driver reports start and end of a command on the calling thread,
+ * commands of other threads (e.g. @Async listeners) are not part of any request and are ignored.
+ */
+@Component
+public class MongoQueryProfiler implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    /**
+     * the field of each command that holds its filter; update and delete hold one per statement
+     */
+    private static final Map<String, String> FILTER_FIELDS = Map.of(
+            "find", "filter",
+            "count", "query",
+            "distinct", "query",
+            "findAndModify", "query",
+            "aggregate", "pipeline",
+            "update", "updates",
+            "delete", "deletes"
+    );
+
+    private static final Set<String> IGNORED_COMMANDS = Set.of("hello", "isMaster", "ping", "saslStart", "saslContinue", "endSessions");
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        RequestQueryProfile profile = RequestQueryProfile.current();
+        if (profile == null || IGNORED_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        profile.commandStarted(event.getRequestId(), shapeOf(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finish(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finish(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void finish(int requestId, long elapsedNanos) {
+        RequestQueryProfile profile = RequestQueryProfile.current();
+        if (profile != null) {
+            profile.commandFinished(requestId, elapsedNanos);
+        }
+    }
+
+    /**
+     * returns command name, collection and the filter with all values replaced by "?",
+     * e.g. find movies {_id: ?}
+     * @param commandName
+     * @param command
+     * @return shape of the command
+     */
+    static String shapeOf(String commandName, BsonDocument command) {
+        StringBuilder shape = new StringBuilder(commandName);
+        BsonValue collection = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        if (collection != null && collection.isString()) {
+            shape.append(' ').append(collection.asString().getValue());
+        }
+
+        String filterField = FILTER_FIELDS.get(commandName);
+        BsonValue filter = filterField != null ? command.get(filterField) : null;
+        if (filter != null) {
+            shape.append(' ');
+            if ("updates".equals(filterField) || "deletes".equals(filterField)) {
+                // one shape per statement type is enough, bulk writes have identical statements
+                BsonArray statements = filter.asArray();
+                appendShape(shape, statements.isEmpty() ? filter : statements.get(0).asDocument().get("q"));
+            } else {
+                appendShape(shape, filter);
+            }
+        }
+        return shape.toString();
+    }
+
+    private static void appendShape(StringBuilder shape, BsonValue value) {
+        if (value == null) {
+            shape.append('?');
+        } else if (value.isDocument()) {
+            shape.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (!first) {
+                    shape.append(", ");
+                }
+                first = false;
+                shape.append(entry.getKey()).append(": ");
+                appendShape(shape, entry.getValue());
+            }
+            shape.append('}');
+        } else if (value.isArray()) {
+            // $in lists and pipelines: the number of values is not part of the shape
+            BsonArray array = value.asArray();
+            boolean documents = !array.isEmpty() && array.get(0).isDocument();
+            shape.append('[');
+            if (documents) {
+                for (int i = 0; i < array.size(); i++) {
+                    if (i > 0) {
+                        shape.append(", ");
+                    }
+                    appendShape(shape, array.get(i));
+                }
+            } else {
+                shape.append('?');
+            }
+            shape.append(']');
+        } else {
+            shape.append('?');
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.cinemate.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maximum number of Mongo commands and latency of the key endpoints.
+ * The defaults can be overridden or extended with
+ * cinemate.profiling.budgets=GET /api/forum/posts=10:500;GET /api/reviews/movie/*=5:300
+ * (method and path pattern = max commands : max milliseconds).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryBudgets {
+
+    private static final Map<String, String> DEFAULT_BUDGETS = Map.of(
+            "GET /api/recommendations/user/*", "12:1500",
+            "GET /api/statistics/users/*", "15:1000",
+            "GET /api/forum/posts", "10:500",
+            "GET /api/reviews/movie/*", "5:300",
+            "GET /api/users/*/watchlist/movies", "5:300",
+            "GET /api/social/feed", "5:300",
+            "GET /api/streaming/availability/batch", "2:200"
+    );
+
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Budget> budgets = new LinkedHashMap<>();
+
+    @Value("${cinemate.profiling.budgets:}")
+    private String configuredBudgets;
+
+    @PostConstruct
+    void init() {
+        DEFAULT_BUDGETS.forEach(this::addBudget);
+        if (!configuredBudgets.isBlank()) {
+            for (String entry : configuredBudgets.split(";")) {
+                int separator = entry.lastIndexOf('=');
+                if (separator < 0) {
+                    log.warn("Ignoring invalid query budget '{}'", entry);
+                    continue;
+                }
+                addBudget(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+            }
+        }
+    }
+
+    /**
+     * checks the profile of a finished request against the budget of its endpoint
+     * @param method HTTP method
+     * @param path request path
+     * @param profile
+     * @return description of the exceeded budget, null if the request stayed within it or has no budget
+     */
+    public String check(String method, String path, RequestQueryProfile profile) {
+        for (Map.Entry<String, Budget> entry : budgets.entrySet()) {
+            Budget budget = entry.getValue();
+            if (!budget.method.equalsIgnoreCase(method) || !pathMatcher.match(budget.pattern, path)) {
+                continue;
+            }
+            boolean tooManyCommands = profile.getCommandCount() > budget.maxCommands;
+            boolean tooSlow = profile.getElapsedMillis() > budget.maxMillis;
+            if (!tooManyCommands && !tooSlow) {
+                return null;
+            }
+            meterRegistry.counter("cinemate.profiling.budget.exceeded", "endpoint", entry.getKey(),
+                    "reason", tooManyCommands ? "commands" : "latency").increment();
+            return entry.getKey() + ": " + profile.getCommandCount() + "/" + budget.maxCommands + " commands, "
+                    + profile.getElapsedMillis() + "/" + budget.maxMillis + " ms";
+        }
+        return null;
+    }
+
+    private void addBudget(String endpoint, String limits) {
+        String[] methodAndPattern = endpoint.split("\\s+", 2);
+        String[] commandsAndMillis = limits.split(":");
+        try {
+            budgets.put(endpoint, new Budget(methodAndPattern[0], methodAndPattern[1],
+                    Integer.parseInt(commandsAndMillis[0].trim()), Long.parseLong(commandsAndMillis[1].trim())));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring invalid query budget '{}={}'", endpoint, limits);
+        }
+    }
+
+    private static class Budget {
+        private final String method;
+        private final String pattern;
+        private final int maxCommands;
+        private final long maxMillis;
+
+        Budget(String method, String pattern, int maxCommands, long maxMillis) {
+            this.method = method;
+            this.pattern = pattern;
+            this.maxCommands = maxCommands;
+            this.maxMillis = maxMillis;
+        }
+    }
+}
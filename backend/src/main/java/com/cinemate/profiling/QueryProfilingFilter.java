@@ -0,0 +1,98 @@
+package com.cinemate.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Profiles the Mongo commands of every HTTP request.
+ * - In development the numbers are added as X-Mongo-* response headers (cinemate.profiling.response-headers).
+ * - Slow requests and requests that repeat the same query shape are logged with their query shapes.
+ * - Requests of endpoints with a query budget (see QueryBudgets) are checked against it.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryProfilingFilter extends OncePerRequestFilter {
+
+    public static final String COMMAND_COUNT_HEADER = "X-Mongo-Command-Count";
+    public static final String DB_TIME_HEADER = "X-Mongo-Time-Ms";
+    public static final String REPEATED_QUERY_HEADER = "X-Mongo-Repeated-Query";
+    public static final String BUDGET_EXCEEDED_HEADER = "X-Mongo-Budget-Exceeded";
+
+    private final QueryBudgets queryBudgets;
+
+    @Value("${cinemate.profiling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cinemate.profiling.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Value("${cinemate.profiling.slow-request-ms:1000}")
+    private long slowRequestMillis;
+
+    @Value("${cinemate.profiling.repeated-query-threshold:5}")
+    private int repeatedQueryThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestQueryProfile profile = RequestQueryProfile.start(request.getMethod() + " " + request.getRequestURI());
+        // headers can only be added after the handler ran if the body has not been sent yet
+        ContentCachingResponseWrapper cachingResponse = responseHeaders ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            RequestQueryProfile.end();
+            Map<String, Integer> repeatedShapes = profile.getRepeatedShapes(repeatedQueryThreshold);
+            String exceededBudget = queryBudgets.check(request.getMethod(), request.getRequestURI(), profile);
+
+            if (cachingResponse != null) {
+                cachingResponse.setHeader(COMMAND_COUNT_HEADER, String.valueOf(profile.getCommandCount()));
+                cachingResponse.setHeader(DB_TIME_HEADER, String.valueOf(profile.getDbTimeMillis()));
+                repeatedShapes.forEach((shape, count) -> cachingResponse.addHeader(REPEATED_QUERY_HEADER, count + "x " + shape));
+                if (exceededBudget != null) {
+                    cachingResponse.setHeader(BUDGET_EXCEEDED_HEADER, exceededBudget);
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+
+            report(profile, repeatedShapes, exceededBudget);
+        }
+    }
+
+    private void report(RequestQueryProfile profile, Map<String, Integer> repeatedShapes, String exceededBudget) {
+        long elapsedMillis = profile.getElapsedMillis();
+        if (exceededBudget != null || elapsedMillis >= slowRequestMillis || !repeatedShapes.isEmpty()) {
+            String reason = exceededBudget != null ? "query budget exceeded (" + exceededBudget + ")"
+                    : !repeatedShapes.isEmpty() ? "repeated queries (possible N+1)" : "slow request";
+            log.warn("{}: {} took {} ms with {} Mongo commands ({} ms in the database):\n  {}",
+                    reason, profile.getRequest(), elapsedMillis, profile.getCommandCount(), profile.getDbTimeMillis(),
+                    String.join("\n  ", profile.describeShapes()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} took {} ms with {} Mongo commands ({} ms in the database)",
+                    profile.getRequest(), elapsedMillis, profile.getCommandCount(), profile.getDbTimeMillis());
+        }
+    }
+}
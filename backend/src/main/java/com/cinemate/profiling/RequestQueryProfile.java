@@ -0,0 +1,109 @@
+package com.cinemate.profiling;
+
+import lombok.Getter;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Mongo commands issued while one HTTP request was handled on the current thread.
+ * Commands are grouped by their shape (command, collection and filter without values),
+ * so a shape that repeats many times within one request points to an N+1 lookup.
+ */
+public class RequestQueryProfile {
+
+    private static final ThreadLocal<RequestQueryProfile> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final String request;
+    private final long startNanos = System.nanoTime();
+    private final Map<Integer, String> pendingCommands = new HashMap<>();
+    private final Map<String, ShapeStats> shapes = new LinkedHashMap<>();
+    @Getter
+    private int commandCount;
+    @Getter
+    private long dbTimeNanos;
+
+    private RequestQueryProfile(String request) {
+        this.request = request;
+    }
+
+    /**
+     * starts profiling the commands of the current thread
+     * @param request description of the request, e.g. "GET /api/reviews/movie/1"
+     * @return RequestQueryProfile
+     */
+    public static RequestQueryProfile start(String request) {
+        RequestQueryProfile profile = new RequestQueryProfile(request);
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * returns the profile of the request handled by the current thread
+     * @return profile, null outside of a profiled request
+     */
+    public static RequestQueryProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * stops profiling the current thread
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void commandStarted(int requestId, String shape) {
+        pendingCommands.put(requestId, shape);
+        commandCount++;
+    }
+
+    void commandFinished(int requestId, long elapsedNanos) {
+        String shape = pendingCommands.remove(requestId);
+        if (shape == null) {
+            return;
+        }
+        dbTimeNanos += elapsedNanos;
+        ShapeStats stats = shapes.computeIfAbsent(shape, key -> new ShapeStats());
+        stats.count++;
+        stats.nanos += elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public long getDbTimeMillis() {
+        return dbTimeNanos / 1_000_000;
+    }
+
+    /**
+     * returns the shapes that were executed at least the given number of times, most frequent first
+     * @param threshold minimum number of executions
+     * @return shape with its execution count
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        return shapes.entrySet().stream()
+                .filter(entry -> entry.getValue().count >= threshold)
+                .sorted(Comparator.comparingInt((Map.Entry<String, ShapeStats> entry) -> entry.getValue().count).reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().count,
+                        (first, second) -> first, LinkedHashMap::new));
+    }
+
+    /**
+     * returns a one-line summary of every shape with count and total time, most expensive first
+     * @return List<String>
+     */
+    public List<String> describeShapes() {
+        return shapes.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, ShapeStats> entry) -> entry.getValue().nanos).reversed())
+                .map(entry -> entry.getValue().count + "x " + entry.getKey() + " (" + entry.getValue().nanos / 1_000_000 + " ms)")
+                .collect(Collectors.toList());
+    }
+
+    private static class ShapeStats {
+        private int count;
+        private long nanos;
+    }
+}
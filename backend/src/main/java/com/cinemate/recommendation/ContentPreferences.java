@@ -0,0 +1,17 @@
+package com.cinemate.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Genres, actor ids and director ids a user prefers, derived from favorites and watched content
+ */
+@Getter
+@AllArgsConstructor
+public class ContentPreferences {
+    private final Set<String> genres;
+    private final Set<String> actorIds;
+    private final Set<String> directorIds;
+}
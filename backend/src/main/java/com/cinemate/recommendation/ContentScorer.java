@@ -0,0 +1,183 @@
+package com.cinemate.recommendation;
+
+import com.cinemate.actor.Actor;
+import com.cinemate.director.Director;
+import com.cinemate.movie.Movie;
+import com.cinemate.series.Series;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores candidate movies and series against a user's content preferences and keeps the best ones.
+ * Small catalogs are scored in a single loop; above the configured catalog size the candidates are
+ * split fork-join style, every leaf fills its own {@link TopKSelector} and the selectors are merged.
+ */
+@Component
+public class ContentScorer {
+
+    private final boolean parallelEnabled;
+    private final int parallelThreshold;
+    private final int chunkSize;
+
+    public ContentScorer(@Value("${cinemate.recommendations.parallel.enabled:true}") boolean parallelEnabled,
+                         @Value("${cinemate.recommendations.parallel.threshold:20000}") int parallelThreshold,
+                         @Value("${cinemate.recommendations.parallel.chunk-size:2048}") int chunkSize) {
+        this.parallelEnabled = parallelEnabled;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Scores all candidates and returns the k best with a score above minScore.
+     * Ordinals below movies.size() refer to movies, the remaining ones to series (offset by movies.size()).
+     * Switches to parallel scoring automatically once the catalog reaches the configured threshold.
+     *
+     * @param movies candidate movies
+     * @param series candidate series
+     * @param preferences the user's preferences
+     * @param minScore candidates must score above this value
+     * @param k maximum number of candidates to keep
+     * @return the selected (score, ordinal) pairs
+     */
+    public TopKSelector selectTop(List<Movie> movies, List<Series> series, ContentPreferences preferences,
+                                  double minScore, int k) {
+        int total = movies.size() + series.size();
+        if (parallelEnabled && total >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return selectTopParallel(movies, series, preferences, minScore, k);
+        }
+        return selectTopSequential(movies, series, preferences, minScore, k);
+    }
+
+    /**
+     * Scores all candidates on the calling thread
+     */
+    public TopKSelector selectTopSequential(List<Movie> movies, List<Series> series, ContentPreferences preferences,
+                                            double minScore, int k) {
+        return scoreRange(movies, series, preferences, minScore, k, 0, movies.size() + series.size());
+    }
+
+    /**
+     * Scores all candidates on the common fork-join pool
+     */
+    public TopKSelector selectTopParallel(List<Movie> movies, List<Series> series, ContentPreferences preferences,
+                                          double minScore, int k) {
+        return ForkJoinPool.commonPool().invoke(
+                new ScoringTask(movies, series, preferences, minScore, k, 0, movies.size() + series.size()));
+    }
+
+    /**
+     * Calculates a content score for a given movie based on preferred genres, actors, and directors.
+     */
+    public double calculateContentScore(Movie movie, ContentPreferences preferences) {
+        return calculateContentScore(movie.getGenres(), movie.getDirectors(), movie.getActors(),
+                movie.getRating(), 5.0, preferences);
+    }
+
+    /**
+     * Calculates a content score for a given series based on preferred genres, actors, and directors.
+     */
+    public double calculateContentScore(Series series, ContentPreferences preferences) {
+        return calculateContentScore(series.getGenres(), series.getDirectors(), series.getActors(),
+                series.getRating(), 10.0, preferences);
+    }
+
+    /**
+     * Core scoring logic shared by movie and series overloads.
+     * Genre: 40%, Directors: 30%, Actors: 20%, Rating: 10%
+     */
+    private double calculateContentScore(List<String> genres, List<Director> directors, List<Actor> actors,
+                                         double rating, double maxRating, ContentPreferences preferences) {
+        double score = 0.0;
+
+        // Genre match (40% weight)
+        if (!genres.isEmpty()) {
+            int genreMatches = 0;
+            for (String genre : genres) {
+                if (preferences.getGenres().contains(genre)) {
+                    genreMatches++;
+                }
+            }
+            score += (genreMatches / (double) genres.size()) * 0.4;
+        }
+
+        // Director match (30% weight)
+        if (directors != null) {
+            long directorMatches = directors.stream()
+                    .filter(director -> preferences.getDirectorIds().contains(director.getId()))
+                    .count();
+            score += (directorMatches / (double) Math.max(directors.size(), 1)) * 0.3;
+        }
+
+        // Actor match (20% weight)
+        if (actors != null) {
+            long actorMatches = actors.stream()
+                    .filter(actor -> preferences.getActorIds().contains(actor.getId()))
+                    .count();
+            score += (actorMatches / (double) Math.max(actors.size(), 1)) * 0.2;
+        }
+
+        // Rating bonus (10% weight)
+        score += (rating / maxRating) * 0.1;
+
+        return score;
+    }
+
+    private TopKSelector scoreRange(List<Movie> movies, List<Series> series, ContentPreferences preferences,
+                                    double minScore, int k, int from, int to) {
+        TopKSelector topK = new TopKSelector(k);
+        int movieCount = movies.size();
+
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            double score = ordinal < movieCount
+                    ? calculateContentScore(movies.get(ordinal), preferences)
+                    : calculateContentScore(series.get(ordinal - movieCount), preferences);
+            if (score > minScore) {
+                topK.offer(score, ordinal);
+            }
+        }
+        return topK;
+    }
+
+    /**
+     * Splits the ordinal range in halves until it fits into one chunk, merging the per-leaf heaps on the way back
+     */
+    private class ScoringTask extends RecursiveTask<TopKSelector> {
+        private final List<Movie> movies;
+        private final List<Series> series;
+        private final ContentPreferences preferences;
+        private final double minScore;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        ScoringTask(List<Movie> movies, List<Series> series, ContentPreferences preferences,
+                    double minScore, int k, int from, int to) {
+            this.movies = movies;
+            this.series = series;
+            this.preferences = preferences;
+            this.minScore = minScore;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopKSelector compute() {
+            if (to - from <= chunkSize) {
+                return scoreRange(movies, series, preferences, minScore, k, from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            ScoringTask left = new ScoringTask(movies, series, preferences, minScore, k, from, middle);
+            ScoringTask right = new ScoringTask(movies, series, preferences, minScore, k, middle, to);
+            left.fork();
+            TopKSelector result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.cinemate.recommendation;
+
+import com.cinemate.recommendation.DTOs.RecommendationResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user cache of ranked recommendation lists.
+ * Every user has a profile version that is bumped whenever favorites, ratings,
+ * the watchlist or watched lists change. A cached list is served as long as it was
+ * computed for the current profile version and is younger than the configured TTL
+ * (the TTL covers catalog changes and the activity of other users).
+ * Hits, misses and the cache size are also published as cinemate.recommendations.cache.* meters.
+ */
+@Slf4j
+@Component
+public class RecommendationCache implements MeterBinder {
+
+    @Value("${cinemate.recommendations.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cinemate.recommendations.cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${cinemate.recommendations.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, AtomicLong> profileVersions = new ConcurrentHashMap<>();
+    private final Map<String, CachedRecommendations> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder recomputeCount = new LongAdder();
+    private final LongAdder recomputeNanos = new LongAdder();
+    private final AtomicLong maxRecomputeNanos = new AtomicLong();
+
+    /**
+     * Returns the cached recommendations of the given strategy, or computes and caches them
+     * if the user's profile changed since the last computation
+     * @param userId the user's ID
+     * @param strategy name of the recommendation strategy (e.g. "content", "hybrid")
+     * @param loader computes the recommendations on a miss
+     * @return copy of the ranked recommendations
+     */
+    public List<RecommendationResponseDTO> get(String userId, String strategy,
+                                               Supplier<List<RecommendationResponseDTO>> loader) {
+        return get(userId, strategy, 0L, loader);
+    }
+
+    /**
+     * Like {@link #get(String, String, Supplier)} for lists that also depend on shared data,
+     * e.g. the streaming availability, cached lists of another data version are recomputed
+     * @param userId the user's ID
+     * @param strategy name of the recommendation strategy
+     * @param dataVersion version of the shared data the list is computed from
+     * @param loader computes the recommendations on a miss
+     * @return copy of the ranked recommendations
+     */
+    public List<RecommendationResponseDTO> get(String userId, String strategy, long dataVersion,
+                                               Supplier<List<RecommendationResponseDTO>> loader) {
+        if (!enabled) {
+            return recompute(loader);
+        }
+
+        String key = userId + ":" + strategy;
+        long version = currentVersion(userId);
+        CachedRecommendations cached = entries.get(key);
+
+        if (cached != null && cached.version == version && cached.dataVersion == dataVersion
+                && !cached.isExpired(ttlMinutes)) {
+            hits.increment();
+            return copy(cached.recommendations);
+        }
+
+        misses.increment();
+        List<RecommendationResponseDTO> recommendations = recompute(loader);
+
+        if (entries.size() >= maxEntries) {
+            evictExpiredOrAny();
+        }
+        // stored with the version read before computing, so a concurrent profile change invalidates it
+        entries.put(key, new CachedRecommendations(version, dataVersion, copy(recommendations)));
+
+        return recommendations;
+    }
+
+    /**
+     * Bumps the profile version of the user, invalidating all cached recommendation lists
+     * @param userId the user's ID
+     */
+    public void bumpProfileVersion(String userId) {
+        profileVersions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Returns the current profile version of the user
+     * @param userId the user's ID
+     * @return the profile version
+     */
+    public long currentVersion(String userId) {
+        AtomicLong version = profileVersions.get(userId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Returns hit ratio and recompute latency of the cache
+     * @return map of statistics
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long recomputations = recomputeCount.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("recomputations", recomputations);
+        stats.put("avgRecomputeMillis", recomputations == 0 ? 0.0 : recomputeNanos.sum() / 1_000_000.0 / recomputations);
+        stats.put("maxRecomputeMillis", maxRecomputeNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cinemate.recommendations.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Recommendation lists served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cinemate.recommendations.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Recommendation lists computed on a cache miss")
+                .register(registry);
+        Gauge.builder("cinemate.recommendations.cache.entries", entries, Map::size)
+                .description("Cached recommendation lists")
+                .register(registry);
+    }
+
+    private List<RecommendationResponseDTO> recompute(Supplier<List<RecommendationResponseDTO>> loader) {
+        long start = System.nanoTime();
+        try {
+            return loader.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            recomputeCount.increment();
+            recomputeNanos.add(elapsed);
+            maxRecomputeNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private void evictExpiredOrAny() {
+        entries.values().removeIf(entry -> entry.isExpired(ttlMinutes));
+        if (entries.size() >= maxEntries) {
+            // no expired entries left, drop the oldest tenth of the cache
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().createdAt))
+                    .limit(Math.max(1, maxEntries / 10))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(entries::remove);
+        }
+    }
+
+    /**
+     * Callers (e.g. the hybrid strategy) modify scores and reasons of returned
+     * recommendations, so cached lists are never handed out directly
+     */
+    private static List<RecommendationResponseDTO> copy(List<RecommendationResponseDTO> recommendations) {
+        List<RecommendationResponseDTO> copy = new ArrayList<>(recommendations.size());
+        for (RecommendationResponseDTO rec : recommendations) {
+            copy.add(new RecommendationResponseDTO(rec.getId(), rec.getTitle(), rec.getType(),
+                    rec.getScore(), rec.getReason(), rec.getPosterUrl()));
+        }
+        return copy;
+    }
+
+    private static class CachedRecommendations {
+        private final long version;
+        private final long dataVersion;
+        private final long createdAt = System.currentTimeMillis();
+        private final List<RecommendationResponseDTO> recommendations;
+
+        CachedRecommendations(long version, long dataVersion, List<RecommendationResponseDTO> recommendations) {
+            this.version = version;
+            this.dataVersion = dataVersion;
+            this.recommendations = recommendations;
+        }
+
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - createdAt > ttlMinutes * 60_000L;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/recommendations")
@@ -14,15 +15,23 @@ public class RecommendationController {
 
     private final RecommendationService recommendationService;
     private final RecommendationNotificationService recommendationNotificationService;
+    private final RecommendationCache recommendationCache;
 
     /**
      * return personal recommendations for a user
      * @param userId - id of the user
+     * @param streaming - "restrict" or "boost" titles on the user's streaming providers (optional)
      * @return list of recommendations
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<RecommendationResponseDTO>> getRecommendationsForUser(@PathVariable String userId) {
-        List<RecommendationResponseDTO> recommendations = recommendationService.getRecommendationsForUser(userId);
+    public ResponseEntity<List<RecommendationResponseDTO>> getRecommendationsForUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String streaming) {
+        StreamingFilter filter = StreamingFilter.parse(streaming);
+        if (filter == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<RecommendationResponseDTO> recommendations = recommendationService.getRecommendationsForUser(userId, filter);
         return ResponseEntity.ok(recommendations);
     }
 
@@ -50,36 +59,66 @@ public class RecommendationController {
     /**
      * returns recommendations content-based + collaborative
      * @param userId - id of the user
+     * @param streaming - "restrict" or "boost" titles on the user's streaming providers (optional)
      * @return list of recommendations
      */
     @GetMapping("/user/{userId}/hybrid")
-    public ResponseEntity<List<RecommendationResponseDTO>> getHybridRecommendations(@PathVariable String userId) {
-        List<RecommendationResponseDTO> recommendations = recommendationService.getHybridRecommendations(userId);
+    public ResponseEntity<List<RecommendationResponseDTO>> getHybridRecommendations(
+            @PathVariable String userId,
+            @RequestParam(required = false) String streaming) {
+        StreamingFilter filter = StreamingFilter.parse(streaming);
+        if (filter == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<RecommendationResponseDTO> recommendations = recommendationService.getHybridRecommendations(userId, filter);
         return ResponseEntity.ok(recommendations);
     }
 
     /**
      * returns smart-recommendations based on the time of the day
      * @param userId - id of the user
+     * @param streaming - "restrict" or "boost" titles on the user's streaming providers (optional)
      * @return list of recommendations
      */
     @GetMapping("/user/{userId}/smart")
-    public ResponseEntity<List<RecommendationResponseDTO>> getSmartRecommendations(@PathVariable String userId) {
-        List<RecommendationResponseDTO> recommendations = recommendationService.getSmartRecommendations(userId);
+    public ResponseEntity<List<RecommendationResponseDTO>> getSmartRecommendations(
+            @PathVariable String userId,
+            @RequestParam(required = false) String streaming) {
+        StreamingFilter filter = StreamingFilter.parse(streaming);
+        if (filter == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<RecommendationResponseDTO> recommendations = recommendationService.getSmartRecommendations(userId, filter);
         return ResponseEntity.ok(recommendations);
     }
 
     /**
      * returns recommendations based on similar users and their preferences
      * @param userId - id of the user
+     * @param streaming - "restrict" or "boost" titles on the user's streaming providers (optional)
      * @return list of recommendations
      */
     @GetMapping("/user/{userId}/collaborative")
-    public ResponseEntity<List<RecommendationResponseDTO>> getCollaborativeRecommendations(@PathVariable String userId) {
-        List<RecommendationResponseDTO> recommendations = recommendationService.getCollaborativeRecommendations(userId);
+    public ResponseEntity<List<RecommendationResponseDTO>> getCollaborativeRecommendations(
+            @PathVariable String userId,
+            @RequestParam(required = false) String streaming) {
+        StreamingFilter filter = StreamingFilter.parse(streaming);
+        if (filter == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<RecommendationResponseDTO> recommendations = recommendationService.getCollaborativeRecommendations(userId, filter);
         return ResponseEntity.ok(recommendations);
     }
 
+    /**
+     * returns hit ratio and recompute latency of the recommendation cache
+     * @return cache statistics
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(recommendationCache.getStatistics());
+    }
+
     /**
      * sends recommendation notifications to a specific user
      * @param maxRecommendations - max number of notifications per user (optional, standard: 3)
@@ -6,22 +6,47 @@ import com.cinemate.movie.Movie;
 import com.cinemate.movie.MovieRepository;
 import com.cinemate.series.Series;
 import com.cinemate.series.SeriesRepository;
-import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import com.cinemate.user.media.UserMediaLists;
+import com.cinemate.user.media.UserMediaService;
 import com.cinemate.recommendation.DTOs.RecommendationResponseDTO;
+import com.cinemate.recommendation.index.GenreIndex;
+import com.cinemate.recommendation.index.IndexedTitle;
+import com.cinemate.streaming.ProviderAvailabilityIndex.AvailableTitles;
+import com.cinemate.utils.CreditUtil;
+import com.cinemate.utils.CreditUtil.Credits;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "cinemate.recommendations", description = "Latency of the public recommendation methods")
 public class RecommendationService {
 
     private final UserRepository userRepository;
+    private final UserMediaService userMediaService;
     private final MovieRepository movieRepository;
     private final SeriesRepository seriesRepository;
+    private final GenreIndex genreIndex;
+    private final RecommendationCache recommendationCache;
+    private final ContentScorer contentScorer;
+    private final StreamingRecommendationFilter streamingRecommendationFilter;
+    private final MongoTemplate mongoTemplate;
+
+    private static final double MIN_CONTENT_SCORE = 0.3;
+    private static final int MAX_CONTENT_RECOMMENDATIONS = 20;
+    private static final int MAX_TRENDING_PER_TYPE = 10;
+    private static final int MAX_COLLABORATIVE_PER_TYPE = 10;
+    private static final int MAX_SIMILAR_USERS = 5;
 
     /**
      * Generates personalized recommendations for a user
@@ -30,42 +55,78 @@ public class RecommendationService {
      * @return list of recommendations
      */
     public List<RecommendationResponseDTO> getRecommendationsForUser(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        return recommendationCache.get(userId, "content", () -> computeRecommendationsForUser(userId, null));
+    }
+
+    /**
+     * Generates personalized recommendations for a user, restricted to or boosting
+     * the titles available on the user's streaming providers
+     * @param userId
+     * @param streaming
+     * @return list of recommendations
+     */
+    public List<RecommendationResponseDTO> getRecommendationsForUser(String userId, StreamingFilter streaming) {
+        AvailableTitles available = streamingRecommendationFilter.getAvailableTitles(userId, streaming);
+        if (available == null) {
+            return getRecommendationsForUser(userId);
+        }
+        if (streaming == StreamingFilter.RESTRICT) {
+            // Filtered before the top k selection, otherwise only the few available titles of the top 20 would remain.
+            // Cached per generation of the bitmaps, so titles that left the providers are dropped after a rebuild
+            return recommendationCache.get(userId, "content_streaming", available.getGeneration(),
+                () -> computeRecommendationsForUser(userId, available));
+        }
+        return streamingRecommendationFilter.apply(getRecommendationsForUser(userId), available, streaming);
+    }
+
+    /**
+     * Scores the whole catalog against the preferences of the user (uncached)
+     * @param userId
+     * @param available only these titles are candidates, all titles if null
+     * @return list of recommendations
+     */
+    private List<RecommendationResponseDTO> computeRecommendationsForUser(String userId, AvailableTitles available) {
+        if (!userRepository.existsById(userId)) {
             return Collections.emptyList();
         }
 
-        User user = userOptional.get();
+        UserMediaLists lists = userMediaService.getLists(userId);
+        List<Movie> allMovies = movieRepository.findAll();
+        List<Series> allSeries = seriesRepository.findAll();
+        attachCredits(allMovies, allSeries, lists);
         
         // Collect all preferred genres from favorites and watched content
-        Set<String> preferredGenres = extractUserPreferredGenres(user);
+        Set<String> preferredGenres = extractUserPreferredGenres(lists);
         
         // Collect preferred actors and directors
-        Set<String> preferredActors = extractUserPreferredActors(user);
-        Set<String> preferredDirectors = extractUserPreferredDirectors(user);
-
-        List<Movie> allMovies = movieRepository.findAll();
-        List<Series> allSeries = seriesRepository.findAll();
+        Set<String> preferredActors = extractUserPreferredActors(lists);
+        Set<String> preferredDirectors = extractUserPreferredDirectors(lists);
         
         // Filter out already watched/favorite content
-        Set<String> userMovieIds = getUserMovieIds(user);
-        Set<String> userSeriesIds = getUserSeriesIds(user);
+        Set<String> userMovieIds = lists.getMovieIds();
+        Set<String> userSeriesIds = lists.getSeriesIds();
         
         List<Movie> candidateMovies = allMovies.stream()
             .filter(movie -> !userMovieIds.contains(movie.getId()))
+            .filter(movie -> available == null || available.contains("movie", movie.getId()))
             .collect(Collectors.toList());
             
         List<Series> candidateSeries = allSeries.stream()
             .filter(series -> !userSeriesIds.contains(series.getId()))
+            .filter(series -> available == null || available.contains("series", series.getId()))
             .collect(Collectors.toList());
         
-        // Calculate recommendation scores
-        List<RecommendationResponseDTO> recommendations = new ArrayList<>();
-        
-        // Rate movies
-        for (Movie movie : candidateMovies) {
-            double score = calculateContentScore(movie, preferredGenres, preferredActors, preferredDirectors);
-            if (score > 0.3) { // Minimum threshold
+        // Keep only the best (score, ordinal) pairs, ordinals below movieCount are movies, the rest series
+        int movieCount = candidateMovies.size();
+        ContentPreferences preferences = new ContentPreferences(preferredGenres, preferredActors, preferredDirectors);
+        TopKSelector topK = contentScorer.selectTop(candidateMovies, candidateSeries, preferences,
+            MIN_CONTENT_SCORE, MAX_CONTENT_RECOMMENDATIONS);
+        
+        // Only the selected candidates are turned into DTOs with a reason, best first
+        List<RecommendationResponseDTO> recommendations = new ArrayList<>(topK.size());
+        topK.forEachDescending((ordinal, score) -> {
+            if (ordinal < movieCount) {
+                Movie movie = candidateMovies.get(ordinal);
                 recommendations.add(new RecommendationResponseDTO(
                     movie.getId(), 
                     movie.getTitle(), 
@@ -74,13 +135,8 @@ public class RecommendationService {
                     generateReasonForMovie(movie, preferredGenres, preferredActors, preferredDirectors),
                     movie.getPosterUrl()
                 ));
-            }
-        }
-        
-        // Rate series
-        for (Series series : candidateSeries) {
-            double score = calculateContentScore(series, preferredGenres, preferredActors, preferredDirectors);
-            if (score > 0.3) { // Minimum threshold
+            } else {
+                Series series = candidateSeries.get(ordinal - movieCount);
                 recommendations.add(new RecommendationResponseDTO(
                     series.getId(), 
                     series.getTitle(), 
@@ -90,53 +146,91 @@ public class RecommendationService {
                     series.getPosterUrl()
                 ));
             }
-        }
+        });
         
-        // Sort by score and return top 20
-        return recommendations.stream()
-            .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
-            .limit(20)
+        return recommendations;
+    }
+
+    /**
+     * Replaces the lazy actor and director DBRefs of the catalog and the user's lists with references
+     * that only carry the id, read with one query per type. Scoring only compares ids,
+     * resolving the DBRefs would cost two queries per title.
+     * @param movies
+     * @param series
+     * @param lists
+     */
+    private void attachCredits(List<Movie> movies, List<Series> series, UserMediaLists lists) {
+        Map<String, Credits> movieCredits = CreditUtil.readCredits(mongoTemplate, "movies", null);
+        Map<String, Credits> seriesCredits = CreditUtil.readCredits(mongoTemplate, "series", null);
+
+        List<Movie> allMovies = new ArrayList<>(movies);
+        List<Series> allSeries = new ArrayList<>(series);
+        for (MediaListType listType : MediaListType.values()) {
+            allMovies.addAll(lists.getMovies(listType));
+            allSeries.addAll(lists.getSeries(listType));
+        }
+        for (Movie movie : allMovies) {
+            Credits credits = movieCredits.get(movie.getId());
+            if (credits != null) {
+                movie.setActors(actorRefs(credits));
+                movie.setDirectors(directorRefs(credits));
+            }
+        }
+        for (Series show : allSeries) {
+            Credits credits = seriesCredits.get(show.getId());
+            if (credits != null) {
+                show.setActors(actorRefs(credits));
+                show.setDirectors(directorRefs(credits));
+            }
+        }
+    }
+
+    private List<Actor> actorRefs(Credits credits) {
+        return credits.getActorIds().stream()
+            .map(id -> new Actor(id, null, null, null, null))
+            .collect(Collectors.toList());
+    }
+
+    private List<Director> directorRefs(Credits credits) {
+        return credits.getDirectorIds().stream()
+            .map(id -> new Director(id, null, null, null, null))
             .collect(Collectors.toList());
     }
 
     /**
      * Extracts preferred genres based on favorites and watched content
-     * @param user
+     * @param lists
      * @return set of genres
      */
-    private Set<String> extractUserPreferredGenres(User user) {
+    private Set<String> extractUserPreferredGenres(UserMediaLists lists) {
         Set<String> genres = new HashSet<>();
         
         // From favorites
-        user.getMovieFavorites().forEach(movie -> 
-            genres.addAll(Arrays.asList(movie.getGenre().split(",\\s*"))));
-        user.getSeriesFavorites().forEach(series -> 
-            genres.addAll(Arrays.asList(series.getGenre().split(",\\s*"))));
+        lists.getMovieFavorites().forEach(movie -> genres.addAll(movie.getGenres()));
+        lists.getSeriesFavorites().forEach(series -> genres.addAll(series.getGenres()));
             
         // From watched content (with lower weight)
-        user.getMoviesWatched().forEach(movie -> 
-            genres.addAll(Arrays.asList(movie.getGenre().split(",\\s*"))));
-        user.getSeriesWatched().forEach(series -> 
-            genres.addAll(Arrays.asList(series.getGenre().split(",\\s*"))));
+        lists.getMoviesWatched().forEach(movie -> genres.addAll(movie.getGenres()));
+        lists.getSeriesWatched().forEach(series -> genres.addAll(series.getGenres()));
             
         return genres;
     }
 
     /**
      * Extracts preferred actors for the user
-     * @param user
+     * @param lists
      * @return set of actorIds
      */
-    private Set<String> extractUserPreferredActors(User user) {
+    private Set<String> extractUserPreferredActors(UserMediaLists lists) {
         Set<String> actorIds = new HashSet<>();
 
-        user.getMovieFavorites().forEach(movie -> {
+        lists.getMovieFavorites().forEach(movie -> {
             if (movie.getActors() != null) {
                 movie.getActors().forEach(actor -> actorIds.add(actor.getId()));
             }
         });
 
-        user.getSeriesFavorites().forEach(series -> {
+        lists.getSeriesFavorites().forEach(series -> {
             if (series.getActors() != null) {
                 series.getActors().forEach(actor -> actorIds.add(actor.getId()));
             }
@@ -147,19 +241,19 @@ public class RecommendationService {
 
     /**
      * Extracts preferred directors for the user
-     * @param user
+     * @param lists
      * @return set of directorIds
      */
-    private Set<String> extractUserPreferredDirectors(User user) {
+    private Set<String> extractUserPreferredDirectors(UserMediaLists lists) {
         Set<String> directorIds = new HashSet<>();
         
-        user.getMovieFavorites().forEach(movie -> {
+        lists.getMovieFavorites().forEach(movie -> {
             if (movie.getDirectors() != null) {
                 movie.getDirectors().forEach(director -> directorIds.add(director.getId()));
             }
         });
         
-        user.getSeriesFavorites().forEach(series -> {
+        lists.getSeriesFavorites().forEach(series -> {
             if (series.getDirectors() != null) {
                 series.getDirectors().forEach(director -> directorIds.add(director.getId()));
             }
@@ -168,93 +262,6 @@ public class RecommendationService {
         return directorIds;
     }
 
-    /**
-     * Calculates a content score for a given movie based on preferred genres, actors, and directors.
-     */
-    private double calculateContentScore(Movie movie, Set<String> preferredGenres,
-                                         Set<String> preferredActors, Set<String> preferredDirectors) {
-        return calculateContentScore(movie.getGenre(), movie.getDirectors(), movie.getActors(),
-                movie.getRating(), 5.0, preferredGenres, preferredActors, preferredDirectors);
-    }
-
-    /**
-     * Calculates a content score for a given series based on preferred genres, actors, and directors.
-     */
-    private double calculateContentScore(Series series, Set<String> preferredGenres,
-                                         Set<String> preferredActors, Set<String> preferredDirectors) {
-        return calculateContentScore(series.getGenre(), series.getDirectors(), series.getActors(),
-                series.getRating(), 10.0, preferredGenres, preferredActors, preferredDirectors);
-    }
-
-    /**
-     * Core scoring logic shared by movie and series overloads.
-     * Genre: 40%, Directors: 30%, Actors: 20%, Rating: 10%
-     */
-    private double calculateContentScore(String genre, List<Director> directors, List<Actor> actors,
-                                         double rating, double maxRating,
-                                         Set<String> preferredGenres, Set<String> preferredActors,
-                                         Set<String> preferredDirectors) {
-        double score = 0.0;
-
-        // Genre match (40% weight)
-        if (genre != null) {
-            String[] genres = genre.split(",\\s*");
-            long genreMatches = Arrays.stream(genres).filter(preferredGenres::contains).count();
-            score += (genreMatches / (double) genres.length) * 0.4;
-        }
-
-        // Director match (30% weight)
-        if (directors != null) {
-            long directorMatches = directors.stream()
-                    .filter(director -> preferredDirectors.contains(director.getId()))
-                    .count();
-            score += (directorMatches / (double) Math.max(directors.size(), 1)) * 0.3;
-        }
-
-        // Actor match (20% weight)
-        if (actors != null) {
-            long actorMatches = actors.stream()
-                    .filter(actor -> preferredActors.contains(actor.getId()))
-                    .count();
-            score += (actorMatches / (double) Math.max(actors.size(), 1)) * 0.2;
-        }
-
-        // Rating bonus (10% weight)
-        score += (rating / maxRating) * 0.1;
-
-        return score;
-    }
-
-    /**
-     * Retrieves a set of unique movie IDs associated with the given user.
-     * This includes movies from the user's favorite list, watched list, and watchlist.
-     *
-     * @param user the user whose movie IDs are to be retrieved
-     * @return a set of unique movie IDs from the user's favorite, watched, and watchlist movies
-     */
-    private Set<String> getUserMovieIds(User user) {
-        Set<String> movieIds = new HashSet<>();
-        user.getMovieFavorites().forEach(movie -> movieIds.add(movie.getId()));
-        user.getMoviesWatched().forEach(movie -> movieIds.add(movie.getId()));
-        user.getMovieWatchlist().forEach(movie -> movieIds.add(movie.getId()));
-        return movieIds;
-    }
-
-    /**
-     * Retrieves a set of unique series IDs associated with a user by combining
-     * their favorite series, watched series, and series in the watchlist.
-     *
-     * @param user the user whose series IDs are to be retrieved
-     * @return a set containing unique series IDs from the user's favorites, watched list, and watchlist
-     */
-    private Set<String> getUserSeriesIds(User user) {
-        Set<String> seriesIds = new HashSet<>();
-        user.getSeriesFavorites().forEach(series -> seriesIds.add(series.getId()));
-        user.getSeriesWatched().forEach(series -> seriesIds.add(series.getId()));
-        user.getSeriesWatchlist().forEach(series -> seriesIds.add(series.getId()));
-        return seriesIds;
-    }
-
     /**
      * Generates a reason describing why a specific movie might align with a user's preferences,
      * based on genres, actors, and directors.
@@ -354,6 +361,24 @@ public class RecommendationService {
         return reasons.isEmpty() ? "Based on your preferences" : String.join(" and ", reasons);
     }
 
+    /**
+     * Selects the k items with the highest score without sorting the whole list
+     * @param items the candidates
+     * @param k maximum number of items to keep
+     * @param scorer computes the score of an item
+     * @return the best items, highest score first
+     */
+    private <T> List<T> selectTop(List<T> items, int k, ToDoubleFunction<T> scorer) {
+        TopKSelector topK = new TopKSelector(k);
+        for (int i = 0; i < items.size(); i++) {
+            topK.offer(scorer.applyAsDouble(items.get(i)), i);
+        }
+
+        List<T> selected = new ArrayList<>(topK.size());
+        topK.forEachDescending((ordinal, score) -> selected.add(items.get(ordinal)));
+        return selected;
+    }
+
     /**
      * Fetches a list of trending recommendations, including movies and series,
      * based on a weighted score derived from their ratings and number of reviews.
@@ -365,26 +390,11 @@ public class RecommendationService {
     public List<RecommendationResponseDTO> getTrendingRecommendations() {
         List<RecommendationResponseDTO> trending = new ArrayList<>();
         
-        // Top-rated movies
-        List<Movie> topMovies = movieRepository.findAll().stream()
-            .sorted((a, b) -> {
-                // Sort by weighted score: Rating * log (Number of Reviews + 1)
-                double scoreA = a.getRating() * Math.log(a.getReviewCount() + 1);
-                double scoreB = b.getRating() * Math.log(b.getReviewCount() + 1);
-                return Double.compare(scoreB, scoreA);
-            })
-            .limit(10)
-            .collect(Collectors.toList());
-            
-        // Top-rated series
-        List<Series> topSeries = seriesRepository.findAll().stream()
-            .sorted((a, b) -> {
-                double scoreA = a.getRating() * Math.log(a.getReviewCount() + 1);
-                double scoreB = b.getRating() * Math.log(b.getReviewCount() + 1);
-                return Double.compare(scoreB, scoreA);
-            })
-            .limit(10)
-            .collect(Collectors.toList());
+        // Top-rated movies and series by weighted score: Rating * log (Number of Reviews + 1)
+        List<Movie> topMovies = selectTop(movieRepository.findAll(), MAX_TRENDING_PER_TYPE,
+            movie -> movie.getRating() * Math.log(movie.getReviewCount() + 1));
+        List<Series> topSeries = selectTop(seriesRepository.findAll(), MAX_TRENDING_PER_TYPE,
+            series -> series.getRating() * Math.log(series.getReviewCount() + 1));
         
         // Convert to DTOs
         topMovies.forEach(movie -> trending.add(new RecommendationResponseDTO(
@@ -421,47 +431,36 @@ public class RecommendationService {
      */
     public List<RecommendationResponseDTO> getRecommendationsByGenre(String genre) {
         List<RecommendationResponseDTO> recommendations = new ArrayList<>();
-        
-        // Movies of the genre
-        List<Movie> genreMovies = movieRepository.findAll().stream()
-            .filter(movie -> movie.getGenre() != null && 
-                    Arrays.asList(movie.getGenre().split(",\\s*")).contains(genre))
-            .sorted((a, b) -> Double.compare(b.getRating(), a.getRating()))
-            .limit(15)
-            .collect(Collectors.toList());
-            
-        // Series of the genre
-        List<Series> genreSeries = seriesRepository.findAll().stream()
-            .filter(series -> series.getGenre() != null && 
-                    Arrays.asList(series.getGenre().split(",\\s*")).contains(genre))
-            .sorted((a, b) -> Double.compare(b.getRating(), a.getRating()))
-            .limit(15)
-            .collect(Collectors.toList());
-        
-        // Convert to DTOs
-        genreMovies.forEach(movie -> recommendations.add(new RecommendationResponseDTO(
-            movie.getId(), 
-            movie.getTitle(), 
-            "movie", 
-            movie.getRating(),
-            "Empfohlen für " + genre + " fans",
-            movie.getPosterUrl()
-        )));
-        
-        genreSeries.forEach(series -> recommendations.add(new RecommendationResponseDTO(
-            series.getId(), 
-            series.getTitle(), 
-            "series", 
-            series.getRating(),
-            "Empfohlen für " + genre + " fans",
-            series.getPosterUrl()
-        )));
-        
+        String reason = "Empfohlen für " + genre + " fans";
+
+        // Movies and series of the genre, read from the rating-ordered genre index
+        genreIndex.topRated(genre, GenreIndex.TYPE_MOVIE, 15)
+            .forEach(title -> recommendations.add(toRecommendation(title, reason)));
+        genreIndex.topRated(genre, GenreIndex.TYPE_SERIES, 15)
+            .forEach(title -> recommendations.add(toRecommendation(title, reason)));
+
         return recommendations.stream()
             .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Converts an entry of the genre index into a recommendation scored by its rating
+     * @param title the indexed title
+     * @param reason the reason shown to the user
+     * @return the recommendation
+     */
+    private RecommendationResponseDTO toRecommendation(IndexedTitle title, String reason) {
+        return new RecommendationResponseDTO(
+            title.getId(),
+            title.getTitle(),
+            title.getType(),
+            title.getRating(),
+            reason,
+            title.getPosterUrl()
+        );
+    }
+
     /**
      * Generates a list of recommendations based on a collaborative filtering approach.
      * Finds users with similar preferences to the provided user and recommends their favorite
@@ -473,79 +472,97 @@ public class RecommendationService {
      *         users or recommendations are found
      */
     public List<RecommendationResponseDTO> getCollaborativeRecommendations(String userId) {
+        return recommendationCache.get(userId, "collaborative", () -> computeCollaborativeRecommendations(userId));
+    }
+
+    /**
+     * Collaborative recommendations restricted to or boosting the titles on the user's streaming providers
+     * @param userId
+     * @param streaming
+     * @return list of recommendations
+     */
+    public List<RecommendationResponseDTO> getCollaborativeRecommendations(String userId, StreamingFilter streaming) {
+        return applyStreamingFilter(userId, streaming, () -> getCollaborativeRecommendations(userId));
+    }
+
+    /**
+     * Collects the favorites of similar users (uncached)
+     * @param userId
+     * @return list of recommendations
+     */
+    private List<RecommendationResponseDTO> computeCollaborativeRecommendations(String userId) {
         // Here a Collaborative Filtering algorithm could be implemented that finds users with similar preferences and recommends their favorites
         
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userRepository.existsById(userId)) {
             return Collections.emptyList();
         }
         
-        User currentUser = userOptional.get();
-        List<User> allUsers = userRepository.findAll();
+        // Only the ids of all list entries are needed, the titles are resolved for the top entries only
+        Map<String, List<UserMediaEntry>> entriesByUser = userMediaService.getEntriesByUser();
+        List<UserMediaEntry> currentUserEntries = entriesByUser.getOrDefault(userId, Collections.emptyList());
         
         // Find similar users (simplified Jaccard-Similarity approach)
-        List<User> similarUsers = findSimilarUsers(currentUser, allUsers);
+        List<String> similarUserIds = findSimilarUsers(userId, currentUserEntries, entriesByUser);
         
         // Collect recommendations from similar users
-        Set<String> currentUserMovieIds = getUserMovieIds(currentUser);
-        Set<String> currentUserSeriesIds = getUserSeriesIds(currentUser);
+        Set<String> currentUserItemKeys = currentUserEntries.stream()
+            .map(entry -> entry.getItemType() + "_" + entry.getItemId())
+            .collect(Collectors.toSet());
         
         Map<String, Integer> movieRecommendations = new HashMap<>();
         Map<String, Integer> seriesRecommendations = new HashMap<>();
         
-        for (User similarUser : similarUsers) {
-            // Movies from similar users
-            similarUser.getMovieFavorites().forEach(movie -> {
-                if (!currentUserMovieIds.contains(movie.getId())) {
-                    movieRecommendations.put(movie.getId(), 
-                        movieRecommendations.getOrDefault(movie.getId(), 0) + 1);
-                }
-            });
-            
-            // Series from similar users
-            similarUser.getSeriesFavorites().forEach(series -> {
-                if (!currentUserSeriesIds.contains(series.getId())) {
-                    seriesRecommendations.put(series.getId(), 
-                        seriesRecommendations.getOrDefault(series.getId(), 0) + 1);
-                }
-            });
+        for (String similarUserId : similarUserIds) {
+            // Movies and series from the favorites of similar users
+            entriesByUser.get(similarUserId).stream()
+                .filter(entry -> entry.getListType() == MediaListType.FAVORITES)
+                .filter(entry -> !currentUserItemKeys.contains(entry.getItemType() + "_" + entry.getItemId()))
+                .forEach(entry -> {
+                    Map<String, Integer> target = UserMediaEntry.TYPE_MOVIE.equals(entry.getItemType())
+                        ? movieRecommendations : seriesRecommendations;
+                    target.merge(entry.getItemId(), 1, Integer::sum);
+                });
         }
         
         List<RecommendationResponseDTO> recommendations = new ArrayList<>();
         
-        // Top recommended movies
-        movieRecommendations.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(10)
-            .forEach(entry -> {
-                movieRepository.findById(entry.getKey()).ifPresent(movie -> {
-                    recommendations.add(new RecommendationResponseDTO(
-                        movie.getId(),
-                        movie.getTitle(),
-                        "movie",
-                        entry.getValue(),
-                        "Von " + entry.getValue() + " ähnlichen Benutzern empfohlen",
-                        movie.getPosterUrl()
-                    ));
-                });
-            });
+        // Top recommended movies, loaded with one query and kept in the order of the selection
+        List<Map.Entry<String, Integer>> topMovies = selectTop(new ArrayList<>(movieRecommendations.entrySet()),
+            MAX_COLLABORATIVE_PER_TYPE, entry -> entry.getValue());
+        Map<String, Movie> moviesById = movieRepository.findAllById(topMovies.stream().map(Map.Entry::getKey).toList())
+            .stream().collect(Collectors.toMap(Movie::getId, movie -> movie));
+        topMovies.forEach(entry -> {
+            Movie movie = moviesById.get(entry.getKey());
+            if (movie != null) {
+                recommendations.add(new RecommendationResponseDTO(
+                    movie.getId(),
+                    movie.getTitle(),
+                    "movie",
+                    entry.getValue(),
+                    "Von " + entry.getValue() + " ähnlichen Benutzern empfohlen",
+                    movie.getPosterUrl()
+                ));
+            }
+        });
             
         // Top recommended series
-        seriesRecommendations.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(10)
-            .forEach(entry -> {
-                seriesRepository.findById(entry.getKey()).ifPresent(series -> {
-                    recommendations.add(new RecommendationResponseDTO(
-                        series.getId(),
-                        series.getTitle(),
-                        "series",
-                        entry.getValue(),
-                        "Von " + entry.getValue() + " ähnlichen Benutzern empfohlen",
-                        series.getPosterUrl()
-                    ));
-                });
-            });
+        List<Map.Entry<String, Integer>> topSeries = selectTop(new ArrayList<>(seriesRecommendations.entrySet()),
+            MAX_COLLABORATIVE_PER_TYPE, entry -> entry.getValue());
+        Map<String, Series> seriesById = seriesRepository.findAllById(topSeries.stream().map(Map.Entry::getKey).toList())
+            .stream().collect(Collectors.toMap(Series::getId, series -> series));
+        topSeries.forEach(entry -> {
+            Series series = seriesById.get(entry.getKey());
+            if (series != null) {
+                recommendations.add(new RecommendationResponseDTO(
+                    series.getId(),
+                    series.getTitle(),
+                    "series",
+                    entry.getValue(),
+                    "Von " + entry.getValue() + " ähnlichen Benutzern empfohlen",
+                    series.getPosterUrl()
+                ));
+            }
+        });
         
         return recommendations.stream()
             .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
@@ -553,37 +570,42 @@ public class RecommendationService {
     }
 
     /**
-     * Finds and returns a list of users similar to the given user based on shared interests such as movies and series.
+     * Finds and returns the users similar to the given user based on shared interests such as movies and series.
      *
-     * @param currentUser the user for whom similar users are being searched
-     * @param allUsers the list of all available users to compare against
-     * @return a list of up to 5 users who are most similar to the current user, sorted in descending order of similarity
+     * @param userId the user for whom similar users are being searched
+     * @param currentUserEntries the list entries of that user
+     * @param entriesByUser the list entries of all users, grouped by user id
+     * @return the ids of up to 5 users who are most similar to the current user, sorted in descending order of similarity
      */
-    private List<User> findSimilarUsers(User currentUser, List<User> allUsers) {
-        Map<User, Double> similarities = new HashMap<>();
+    private List<String> findSimilarUsers(String userId, List<UserMediaEntry> currentUserEntries,
+                                          Map<String, List<UserMediaEntry>> entriesByUser) {
+        TopKSelector topK = new TopKSelector(MAX_SIMILAR_USERS);
         
-        Set<String> currentUserItems = new HashSet<>();
-        currentUserItems.addAll(getUserMovieIds(currentUser));
-        currentUserItems.addAll(getUserSeriesIds(currentUser));
+        Set<String> currentUserItems = itemIds(currentUserEntries);
         
-        for (User otherUser : allUsers) {
-            if (otherUser.getId().equals(currentUser.getId())) continue;
+        List<String> otherUserIds = new ArrayList<>(entriesByUser.keySet());
+        for (int i = 0; i < otherUserIds.size(); i++) {
+            String otherUserId = otherUserIds.get(i);
+            if (otherUserId.equals(userId)) continue;
             
-            Set<String> otherUserItems = new HashSet<>();
-            otherUserItems.addAll(getUserMovieIds(otherUser));
-            otherUserItems.addAll(getUserSeriesIds(otherUser));
+            Set<String> otherUserItems = itemIds(entriesByUser.get(otherUserId));
             
             double similarity = calculateJaccardSimilarity(currentUserItems, otherUserItems);
             if (similarity > 0.1) { // Minimum similarity threshold
-                similarities.put(otherUser, similarity);
+                topK.offer(similarity, i);
             }
         }
         
-        return similarities.entrySet().stream()
-            .sorted(Map.Entry.<User, Double>comparingByValue().reversed())
-            .limit(5) // Top 5 similar users
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+        // Top 5 similar users
+        List<String> similarUserIds = new ArrayList<>(topK.size());
+        topK.forEachDescending((ordinal, similarity) -> similarUserIds.add(otherUserIds.get(ordinal)));
+        return similarUserIds;
+    }
+
+    private Set<String> itemIds(List<UserMediaEntry> entries) {
+        Set<String> itemIds = new HashSet<>();
+        entries.forEach(entry -> itemIds.add(entry.getItemId()));
+        return itemIds;
     }
 
     /**
@@ -595,7 +617,7 @@ public class RecommendationService {
      * @param set2 the second set of strings
      * @return the Jaccard similarity as a double value. Returns 0.0 if both sets are empty.
      */
-    private double calculateJaccardSimilarity(Set<String> set1, Set<String> set2) {
+    static double calculateJaccardSimilarity(Set<String> set1, Set<String> set2) {
         if (set1.isEmpty() && set2.isEmpty()) return 0.0;
         
         Set<String> intersection = new HashSet<>(set1);
@@ -617,6 +639,25 @@ public class RecommendationService {
      *         by their scores in descending order and limited to 15 items.
      */
     public List<RecommendationResponseDTO> getHybridRecommendations(String userId) {
+        return recommendationCache.get(userId, "hybrid", () -> computeHybridRecommendations(userId));
+    }
+
+    /**
+     * Hybrid recommendations restricted to or boosting the titles on the user's streaming providers
+     * @param userId
+     * @param streaming
+     * @return list of recommendations
+     */
+    public List<RecommendationResponseDTO> getHybridRecommendations(String userId, StreamingFilter streaming) {
+        return applyStreamingFilter(userId, streaming, () -> getHybridRecommendations(userId));
+    }
+
+    /**
+     * Combines the (cached) content-based and collaborative lists (uncached)
+     * @param userId
+     * @return list of recommendations
+     */
+    private List<RecommendationResponseDTO> computeHybridRecommendations(String userId) {
         List<RecommendationResponseDTO> contentBased = getRecommendationsForUser(userId);
         List<RecommendationResponseDTO> collaborative = getCollaborativeRecommendations(userId);
         
@@ -679,6 +720,29 @@ public class RecommendationService {
         }
     }
 
+    /**
+     * Smart recommendations restricted to or boosting the titles on the user's streaming providers
+     * @param userId
+     * @param streaming
+     * @return list of recommendations
+     */
+    public List<RecommendationResponseDTO> getSmartRecommendations(String userId, StreamingFilter streaming) {
+        return applyStreamingFilter(userId, streaming, () -> getSmartRecommendations(userId));
+    }
+
+    /**
+     * Applies the streaming filter to the (cached) recommendations of a strategy
+     * @param userId
+     * @param streaming
+     * @param recommendations
+     * @return list of recommendations
+     */
+    private List<RecommendationResponseDTO> applyStreamingFilter(String userId, StreamingFilter streaming,
+                                                                 Supplier<List<RecommendationResponseDTO>> recommendations) {
+        AvailableTitles available = streamingRecommendationFilter.getAvailableTitles(userId, streaming);
+        return streamingRecommendationFilter.apply(recommendations.get(), available, streaming);
+    }
+
     /**
      * Provides a list of recommended movies and series based on the user's mood and preferences.
      * The recommendations are filtered by mood-specific genres and exclude content the user has already watched.
@@ -690,6 +754,16 @@ public class RecommendationService {
      *         or an empty list if the user is not found or there are no recommendations available.
      */
     private List<RecommendationResponseDTO> getRecommendationsByMood(String userId, String mood) {
+        return recommendationCache.get(userId, "mood_" + mood, () -> computeRecommendationsByMood(userId, mood));
+    }
+
+    /**
+     * Reads the best rated titles of the mood genres the user has not seen yet (uncached)
+     * @param userId
+     * @param mood
+     * @return list of recommendations
+     */
+    private List<RecommendationResponseDTO> computeRecommendationsByMood(String userId, String mood) {
         List<String> moodGenres;
         String moodDescription;
         
@@ -710,55 +784,22 @@ public class RecommendationService {
                 return getRecommendationsForUser(userId);
         }
         
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        if (!userRepository.existsById(userId)) {
             return Collections.emptyList();
         }
         
-        User user = userOptional.get();
-        Set<String> userMovieIds = getUserMovieIds(user);
-        Set<String> userSeriesIds = getUserSeriesIds(user);
+        UserMediaLists lists = userMediaService.getLists(userId);
+        Set<String> userMovieIds = lists.getMovieIds();
+        Set<String> userSeriesIds = lists.getSeriesIds();
         
         List<RecommendationResponseDTO> recommendations = new ArrayList<>();
-        
-        // Movies for the mood
-        List<Movie> moodMovies = movieRepository.findAll().stream()
-            .filter(movie -> !userMovieIds.contains(movie.getId()))
-            .filter(movie -> movie.getGenre() != null && 
-                    moodGenres.stream().anyMatch(genre -> 
-                        Arrays.asList(movie.getGenre().split(",\\s*")).contains(genre)))
-            .sorted((a, b) -> Double.compare(b.getRating(), a.getRating()))
-            .limit(10)
-            .collect(Collectors.toList());
-            
-        // Series for the mood
-        List<Series> moodSeries = seriesRepository.findAll().stream()
-            .filter(series -> !userSeriesIds.contains(series.getId()))
-            .filter(series -> series.getGenre() != null && 
-                    moodGenres.stream().anyMatch(genre -> 
-                        Arrays.asList(series.getGenre().split(",\\s*")).contains(genre)))
-            .sorted((a, b) -> Double.compare(b.getRating(), a.getRating()))
-            .limit(10)
-            .collect(Collectors.toList());
-        
-        moodMovies.forEach(movie -> recommendations.add(new RecommendationResponseDTO(
-            movie.getId(),
-            movie.getTitle(),
-            "movie",
-            movie.getRating(),
-            moodDescription,
-            movie.getPosterUrl()
-        )));
-        
-        moodSeries.forEach(series -> recommendations.add(new RecommendationResponseDTO(
-            series.getId(),
-            series.getTitle(),
-            "series",
-            series.getRating(),
-            moodDescription,
-            series.getPosterUrl()
-        )));
-        
+
+        // Movies and series for the mood, merged from the per-genre rankings
+        genreIndex.topRated(moodGenres, GenreIndex.TYPE_MOVIE, 10, userMovieIds)
+            .forEach(title -> recommendations.add(toRecommendation(title, moodDescription)));
+        genreIndex.topRated(moodGenres, GenreIndex.TYPE_SERIES, 10, userSeriesIds)
+            .forEach(title -> recommendations.add(toRecommendation(title, moodDescription)));
+
         return recommendations.stream()
             .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
             .collect(Collectors.toList());
@@ -0,0 +1,29 @@
+package com.cinemate.recommendation;
+
+/**
+ * How recommendations take the streaming subscriptions of the user into account
+ */
+public enum StreamingFilter {
+    NONE,
+    /** only titles available on one of the user's providers */
+    RESTRICT,
+    /** available titles are ranked higher */
+    BOOST;
+
+    /**
+     * returns the filter for a request parameter, NONE if missing and null if unknown
+     * @param value "restrict" or "boost"
+     * @return StreamingFilter
+     */
+    public static StreamingFilter parse(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        for (StreamingFilter filter : values()) {
+            if (filter.name().equalsIgnoreCase(value.trim())) {
+                return filter;
+            }
+        }
+        return null;
+    }
+}
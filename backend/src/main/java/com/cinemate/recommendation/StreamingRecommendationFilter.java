@@ -0,0 +1,76 @@
+package com.cinemate.recommendation;
+
+import com.cinemate.recommendation.DTOs.RecommendationResponseDTO;
+import com.cinemate.streaming.ProviderAvailabilityIndex;
+import com.cinemate.streaming.ProviderAvailabilityIndex.AvailableTitles;
+import com.cinemate.streaming.StreamingSubscriptionService;
+import com.cinemate.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Restricts or boosts recommendations to the titles a user can stream on their subscribed providers.
+ * Availability is looked up in the provider bitmaps, so no query is made per candidate.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingRecommendationFilter {
+
+    private final StreamingSubscriptionService subscriptionService;
+    private final ProviderAvailabilityIndex availabilityIndex;
+
+    @Value("${cinemate.recommendations.streaming-boost:1.5}")
+    private double streamingBoost;
+
+    /**
+     * returns the titles available on the providers of the user
+     * @param userId
+     * @param streaming
+     * @return AvailableTitles, null if nothing is to be filtered or the user has no providers
+     */
+    public AvailableTitles getAvailableTitles(String userId, StreamingFilter streaming) {
+        if (streaming == null || streaming == StreamingFilter.NONE) {
+            return null;
+        }
+        User user = subscriptionService.findSubscriptions(userId);
+        if (user == null || user.getStreamingProviderIds() == null || user.getStreamingProviderIds().isEmpty()) {
+            return null;
+        }
+        return availabilityIndex.getAvailableTitles(user.getStreamingProviderIds(), user.getStreamingRegion());
+    }
+
+    /**
+     * removes the unavailable recommendations or ranks the available ones higher
+     * @param recommendations
+     * @param available
+     * @param streaming
+     * @return list of recommendations
+     */
+    public List<RecommendationResponseDTO> apply(List<RecommendationResponseDTO> recommendations,
+                                                 AvailableTitles available, StreamingFilter streaming) {
+        if (available == null) {
+            return recommendations;
+        }
+        if (streaming == StreamingFilter.RESTRICT) {
+            return recommendations.stream()
+                    .filter(rec -> available.contains(rec.getType(), rec.getId()))
+                    .collect(Collectors.toList());
+        }
+
+        List<RecommendationResponseDTO> boosted = new ArrayList<>(recommendations);
+        for (RecommendationResponseDTO rec : boosted) {
+            if (available.contains(rec.getType(), rec.getId())) {
+                rec.setScore(rec.getScore() * streamingBoost);
+                rec.setReason(rec.getReason() + " · Bei deinen Streaming-Diensten verfügbar");
+            }
+        }
+        boosted.sort(Comparator.comparingDouble(RecommendationResponseDTO::getScore).reversed());
+        return boosted;
+    }
+}
@@ -0,0 +1,124 @@
+package com.cinemate.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of primitive (score, ordinal) pairs that keeps the k best scored items.
+ * The ordinal refers to the position of the item in the caller's candidate array, so no
+ * DTOs have to be created for candidates that do not make it into the result.
+ * On equal scores the lower ordinal wins, which matches a stable sort over the candidates.
+ * Not thread-safe; use one selector per thread and {@link #merge(TopKSelector)} them.
+ */
+public class TopKSelector {
+
+    private final int capacity;
+    private final double[] scores;
+    private final int[] ordinals;
+    private int size;
+
+    public TopKSelector(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.scores = new double[capacity];
+        this.ordinals = new int[capacity];
+    }
+
+    /**
+     * Offers a scored item, it is kept if it is among the k best seen so far
+     * @param score score of the item
+     * @param ordinal position of the item in the candidate array
+     */
+    public void offer(double score, int ordinal) {
+        if (size < capacity) {
+            scores[size] = score;
+            ordinals[size] = ordinal;
+            siftUp(size++);
+        } else if (capacity > 0 && isBetter(score, ordinal, scores[0], ordinals[0])) {
+            scores[0] = score;
+            ordinals[0] = ordinal;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Adds all items kept by another selector to this one
+     * @param other selector to merge
+     */
+    public void merge(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.ordinals[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits the kept items, best first
+     * @param consumer receives ordinal and score of every kept item
+     */
+    public void forEachDescending(ScoredOrdinalConsumer consumer) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> isBetter(scores[a], ordinals[a], scores[b], ordinals[b]) ? -1
+                : isBetter(scores[b], ordinals[b], scores[a], ordinals[a]) ? 1 : 0);
+
+        for (Integer index : order) {
+            consumer.accept(ordinals[index], scores[index]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ScoredOrdinalConsumer {
+        void accept(int ordinal, double score);
+    }
+
+    private static boolean isBetter(double score, int ordinal, double otherScore, int otherOrdinal) {
+        int comparison = Double.compare(score, otherScore);
+        return comparison > 0 || (comparison == 0 && ordinal < otherOrdinal);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBetter(scores[parent], ordinals[parent], scores[index], ordinals[index])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int worst = left;
+            if (right < size && isBetter(scores[left], ordinals[left], scores[right], ordinals[right])) {
+                worst = right;
+            }
+            if (!isBetter(scores[index], ordinals[index], scores[worst], ordinals[worst])) {
+                break;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+        int ordinal = ordinals[i];
+        ordinals[i] = ordinals[j];
+        ordinals[j] = ordinal;
+    }
+}
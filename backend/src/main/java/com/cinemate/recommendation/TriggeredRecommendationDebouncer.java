@@ -0,0 +1,137 @@
+package com.cinemate.recommendation;
+
+import com.cinemate.config.AsyncConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Collapses bursts of preference changes of a user into one triggered recommendation run.
+ * The first change of a user schedules the run after the debounce window, later changes within
+ * the window are merged into it. After a run, the next one is delayed until the cooldown has passed,
+ * so a user receives at most one batch of triggered recommendations per cooldown.
+ */
+@Slf4j
+@Component
+public class TriggeredRecommendationDebouncer {
+
+    private final RecommendationNotificationService recommendationNotificationService;
+    private final TaskScheduler taskScheduler;
+    private final Executor recommendationExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, PendingTrigger> pendingTriggers = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastRuns = new ConcurrentHashMap<>();
+
+    @Value("${cinemate.recommendations.triggers.debounce-enabled:true}")
+    private boolean debounceEnabled;
+
+    @Value("${cinemate.recommendations.triggers.debounce-seconds:60}")
+    private long debounceSeconds;
+
+    @Value("${cinemate.recommendations.triggers.cooldown-minutes:30}")
+    private long cooldownMinutes;
+
+    public TriggeredRecommendationDebouncer(RecommendationNotificationService recommendationNotificationService,
+                                            TaskScheduler taskScheduler,
+                                            @Qualifier(AsyncConfig.RECOMMENDATION_EXECUTOR) Executor recommendationExecutor,
+                                            MeterRegistry meterRegistry) {
+        this.recommendationNotificationService = recommendationNotificationService;
+        this.taskScheduler = taskScheduler;
+        this.recommendationExecutor = recommendationExecutor;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cinemate.recommendations.triggers.pending", pendingTriggers, Map::size)
+                .description("Users waiting for a debounced recommendation run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * registers a preference change of the user
+     * @param userId
+     * @param trigger e.g. "new_favorite", "watched"
+     */
+    public void onPreferenceChanged(String userId, String trigger) {
+        if (!debounceEnabled) {
+            countTrigger("immediate");
+            recommendationExecutor.execute(() -> run(userId, Set.of(trigger)));
+            return;
+        }
+
+        boolean[] created = {false};
+        pendingTriggers.compute(userId, (id, pending) -> {
+            if (pending == null) {
+                created[0] = true;
+                pending = new PendingTrigger();
+            }
+            pending.triggers.add(trigger);
+            return pending;
+        });
+
+        if (!created[0]) {
+            countTrigger("coalesced");
+            return;
+        }
+        countTrigger("scheduled");
+
+        Instant runAt = Instant.now().plusSeconds(debounceSeconds);
+        Instant lastRun = lastRuns.get(userId);
+        if (lastRun != null && lastRun.plus(cooldown()).isAfter(runAt)) {
+            runAt = lastRun.plus(cooldown());
+        }
+        taskScheduler.schedule(() -> fire(userId), runAt);
+    }
+
+    /**
+     * forgets the last runs that are older than the cooldown
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void evictExpiredRuns() {
+        Instant expired = Instant.now().minus(cooldown());
+        lastRuns.values().removeIf(lastRun -> lastRun.isBefore(expired));
+    }
+
+    private void fire(String userId) {
+        PendingTrigger pending = pendingTriggers.remove(userId);
+        if (pending == null) {
+            return;
+        }
+        lastRuns.put(userId, Instant.now());
+        recommendationExecutor.execute(() -> run(userId, pending.triggers));
+    }
+
+    private void run(String userId, Set<String> triggers) {
+        try {
+            recommendationNotificationService.sendTriggeredRecommendations(userId, String.join(",", triggers));
+            meterRegistry.counter("cinemate.recommendations.triggers.runs").increment();
+        } catch (Exception e) {
+            log.error("Error sending triggered recommendation notifications for user "
+                    + userId + ": " + e.getMessage());
+        }
+    }
+
+    private Duration cooldown() {
+        return Duration.ofMinutes(cooldownMinutes);
+    }
+
+    private void countTrigger(String outcome) {
+        meterRegistry.counter("cinemate.recommendations.triggers", "outcome", outcome).increment();
+    }
+
+    private static class PendingTrigger {
+        // guarded by the compute of pendingTriggers
+        private final Set<String> triggers = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,192 @@
+package com.cinemate.recommendation.index;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.movie.MovieRepository;
+import com.cinemate.series.Series;
+import com.cinemate.series.SeriesRepository;
+import com.cinemate.utils.GenreUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory genre -> titles index. Every genre keeps its titles ordered by rating,
+ * so the best rated titles of a genre can be read without scanning the catalog.
+ * The index is seeded on startup and kept up to date by {@link GenreIndexMaintainer}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenreIndex {
+
+    public static final String TYPE_MOVIE = "movie";
+    public static final String TYPE_SERIES = "series";
+
+    private final MovieRepository movieRepository;
+    private final SeriesRepository seriesRepository;
+
+    private final Map<String, IndexedTitle> titlesByKey = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<IndexedTitle>> movieTitlesByGenre = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<IndexedTitle>> seriesTitlesByGenre = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the whole index from the database
+     */
+    public synchronized void rebuild() {
+        titlesByKey.clear();
+        movieTitlesByGenre.clear();
+        seriesTitlesByGenre.clear();
+
+        movieRepository.findAll().forEach(this::index);
+        seriesRepository.findAll().forEach(this::index);
+
+        log.info("Genre index built with {} titles in {} movie and {} series genres",
+                titlesByKey.size(), movieTitlesByGenre.size(), seriesTitlesByGenre.size());
+    }
+
+    /**
+     * Adds or replaces a movie in the index
+     * @param movie the saved movie
+     */
+    public void index(Movie movie) {
+        if (movie == null || movie.getId() == null) {
+            return;
+        }
+        put(new IndexedTitle(movie.getId(), TYPE_MOVIE, movie.getTitle(), movie.getPosterUrl(),
+                movie.getRating(), List.copyOf(movie.getGenres())));
+    }
+
+    /**
+     * Adds or replaces a series in the index
+     * @param series the saved series
+     */
+    public void index(Series series) {
+        if (series == null || series.getId() == null) {
+            return;
+        }
+        put(new IndexedTitle(series.getId(), TYPE_SERIES, series.getTitle(), series.getPosterUrl(),
+                series.getRating(), List.copyOf(series.getGenres())));
+    }
+
+    /**
+     * Removes a title from the index
+     * @param type "movie" or "series"
+     * @param id id of the title
+     */
+    public synchronized void remove(String type, String id) {
+        IndexedTitle existing = titlesByKey.remove(IndexedTitle.key(type, id));
+        if (existing != null) {
+            unlink(existing);
+        }
+    }
+
+    /**
+     * Returns the best rated titles of the given type having at least one of the given genres.
+     * Walks the per-genre rankings in parallel (k-way merge) and stops as soon as the limit is reached,
+     * so the cost depends on the limit and the number of excluded titles, not on the catalog size.
+     *
+     * @param genres genres to match, compared case-insensitively
+     * @param type "movie" or "series"
+     * @param limit maximum number of titles
+     * @param excludedIds ids that must not be returned (e.g. already watched)
+     * @return titles ordered by rating, best first
+     */
+    public List<IndexedTitle> topRated(Collection<String> genres, String type, int limit, Set<String> excludedIds) {
+        Map<String, NavigableSet<IndexedTitle>> byGenre = byGenre(type);
+
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(
+                (a, b) -> IndexedTitle.BY_RATING_DESC.compare(a.peek(), b.peek()));
+        for (String genre : genres) {
+            NavigableSet<IndexedTitle> titles = byGenre.get(GenreUtil.key(genre));
+            if (titles != null && !titles.isEmpty()) {
+                PeekingIterator iterator = new PeekingIterator(titles.iterator());
+                if (iterator.hasNext()) {
+                    heads.add(iterator);
+                }
+            }
+        }
+
+        List<IndexedTitle> result = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        while (!heads.isEmpty() && result.size() < limit) {
+            PeekingIterator head = heads.poll();
+            IndexedTitle title = head.next();
+            if (head.hasNext()) {
+                heads.add(head);
+            }
+            if (seen.add(title.getId()) && !excludedIds.contains(title.getId())) {
+                result.add(title);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the best rated titles of the given type for a single genre
+     * @param genre the genre
+     * @param type "movie" or "series"
+     * @param limit maximum number of titles
+     * @return titles ordered by rating, best first
+     */
+    public List<IndexedTitle> topRated(String genre, String type, int limit) {
+        return topRated(Collections.singletonList(genre), type, limit, Collections.emptySet());
+    }
+
+    private synchronized void put(IndexedTitle title) {
+        IndexedTitle previous = titlesByKey.put(title.getKey(), title);
+        if (previous != null) {
+            unlink(previous);
+        }
+
+        Map<String, NavigableSet<IndexedTitle>> byGenre = byGenre(title.getType());
+        for (String genre : title.getGenres()) {
+            byGenre.computeIfAbsent(GenreUtil.key(genre),
+                    key -> new ConcurrentSkipListSet<>(IndexedTitle.BY_RATING_DESC)).add(title);
+        }
+    }
+
+    private void unlink(IndexedTitle title) {
+        Map<String, NavigableSet<IndexedTitle>> byGenre = byGenre(title.getType());
+        for (String genre : title.getGenres()) {
+            NavigableSet<IndexedTitle> titles = byGenre.get(GenreUtil.key(genre));
+            if (titles != null) {
+                titles.remove(title);
+            }
+        }
+    }
+
+    private Map<String, NavigableSet<IndexedTitle>> byGenre(String type) {
+        return TYPE_SERIES.equals(type) ? seriesTitlesByGenre : movieTitlesByGenre;
+    }
+
+    /**
+     * Iterator that allows looking at the next element without consuming it
+     */
+    private static class PeekingIterator {
+        private final Iterator<IndexedTitle> delegate;
+        private IndexedTitle next;
+
+        PeekingIterator(Iterator<IndexedTitle> delegate) {
+            this.delegate = delegate;
+            this.next = delegate.hasNext() ? delegate.next() : null;
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+
+        IndexedTitle peek() {
+            return next;
+        }
+
+        IndexedTitle next() {
+            IndexedTitle current = next;
+            next = delegate.hasNext() ? delegate.next() : null;
+            return current;
+        }
+    }
+}
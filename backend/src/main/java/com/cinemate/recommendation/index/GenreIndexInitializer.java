@@ -0,0 +1,17 @@
+package com.cinemate.recommendation.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class GenreIndexInitializer implements CommandLineRunner {
+
+    private final GenreIndex genreIndex;
+
+    @Override
+    public void run(String... args) throws Exception {
+        genreIndex.rebuild();
+    }
+}
@@ -0,0 +1,53 @@
+package com.cinemate.recommendation.index;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.series.Series;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link GenreIndex} in sync with every movie and series write,
+ * including rating updates triggered by reviews.
+ */
+@Component
+@RequiredArgsConstructor
+public class GenreIndexMaintainer extends AbstractMongoEventListener<Object> {
+
+    private final GenreIndex genreIndex;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof Movie) {
+            genreIndex.index((Movie) source);
+        } else if (source instanceof Series) {
+            genreIndex.index((Series) source);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        String type;
+        if (Movie.class.equals(event.getType())) {
+            type = GenreIndex.TYPE_MOVIE;
+        } else if (Series.class.equals(event.getType())) {
+            type = GenreIndex.TYPE_SERIES;
+        } else {
+            return;
+        }
+
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            genreIndex.remove(type, id.toString());
+        } else {
+            // bulk or criteria based delete, the affected ids are unknown
+            genreIndex.rebuild();
+        }
+    }
+}
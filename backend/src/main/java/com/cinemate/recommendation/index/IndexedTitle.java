@@ -0,0 +1,40 @@
+package com.cinemate.recommendation.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lightweight, immutable view of a movie or series as stored in the {@link GenreIndex}.
+ * Only holds the fields needed to render a recommendation.
+ */
+@Getter
+@AllArgsConstructor
+public class IndexedTitle {
+
+    /**
+     * Orders titles by rating (best first), ties are broken by type and id so that
+     * two different titles never compare as equal
+     */
+    public static final Comparator<IndexedTitle> BY_RATING_DESC = Comparator
+            .comparingDouble(IndexedTitle::getRating).reversed()
+            .thenComparing(IndexedTitle::getType)
+            .thenComparing(IndexedTitle::getId);
+
+    private final String id;
+    private final String type;
+    private final String title;
+    private final String posterUrl;
+    private final double rating;
+    private final List<String> genres;
+
+    public String getKey() {
+        return key(type, id);
+    }
+
+    static String key(String type, String id) {
+        return type + "_" + id;
+    }
+}
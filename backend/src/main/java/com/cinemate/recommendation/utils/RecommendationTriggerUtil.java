@@ -1,6 +1,7 @@
 package com.cinemate.recommendation.utils;
 
 import com.cinemate.notification.events.UserPreferenceChangedEvent;
+import com.cinemate.recommendation.RecommendationCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 public class RecommendationTriggerUtil {
 
     private final ApplicationEventPublisher eventPublisher;
+    private final RecommendationCache recommendationCache;
 
     /**
      * Triggers recommendation notifications when a user adds a new favorite
@@ -18,6 +20,7 @@ public class RecommendationTriggerUtil {
      * @param itemType The type of the item ("movie" or "series")
      */
     public void triggerOnNewFavorite(String userId, String itemId, String itemType) {
+        recommendationCache.bumpProfileVersion(userId);
         UserPreferenceChangedEvent event = new UserPreferenceChangedEvent(
             userId, "new_favorite", itemId, itemType
         );
@@ -31,6 +34,7 @@ public class RecommendationTriggerUtil {
      * @param itemType The type of the item ("movie" or "series")
      */
     public void triggerOnNewRating(String userId, String itemId, String itemType) {
+        recommendationCache.bumpProfileVersion(userId);
         UserPreferenceChangedEvent event = new UserPreferenceChangedEvent(
             userId, "new_rating", itemId, itemType
         );
@@ -44,6 +48,7 @@ public class RecommendationTriggerUtil {
      * @param itemType The type of the item ("movie" or "series")
      */
     public void triggerOnWatchlistUpdate(String userId, String itemId, String itemType) {
+        recommendationCache.bumpProfileVersion(userId);
         UserPreferenceChangedEvent event = new UserPreferenceChangedEvent(
             userId, "watchlist_update", itemId, itemType
         );
@@ -57,9 +62,19 @@ public class RecommendationTriggerUtil {
      * @param itemType The type of the item ("movie" or "series")
      */
     public void triggerOnWatched(String userId, String itemId, String itemType) {
+        recommendationCache.bumpProfileVersion(userId);
         UserPreferenceChangedEvent event = new UserPreferenceChangedEvent(
             userId, "watched", itemId, itemType
         );
         eventPublisher.publishEvent(event);
     }
+
+    /**
+     * Invalidates cached recommendations when an item is removed from one of the user's lists,
+     * without sending any notifications
+     * @param userId The user's ID
+     */
+    public void invalidateRecommendations(String userId) {
+        recommendationCache.bumpProfileVersion(userId);
+    }
 }
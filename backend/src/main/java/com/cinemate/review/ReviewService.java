@@ -14,6 +14,9 @@ import com.cinemate.user.DTOs.UserResponseDTO;
 import com.cinemate.notification.events.ReviewCreatedEvent;
 import com.cinemate.recommendation.utils.RecommendationTriggerUtil;
 import com.cinemate.social.points.PointsEventListener;
+import com.cinemate.statistics.activity.WatchActivityService;
+import com.cinemate.user.activity.ActivityCounter;
+import com.cinemate.user.activity.UserActivityCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -33,6 +36,8 @@ public class ReviewService {
     private final ApplicationEventPublisher eventPublisher;
     private final RecommendationTriggerUtil recommendationTrigger;
     private final PointsEventListener pointsEventListener;
+    private final WatchActivityService watchActivityService;
+    private final UserActivityCounterService activityCounterService;
 
     private static final String TYPE_MOVIE = "movie";
     private static final String TYPE_SERIES = "series";
@@ -66,6 +71,9 @@ public class ReviewService {
         calculateContentRating(itemType, itemId);
 
         String itemTitle = getItemTitle(itemType, itemId);
+        watchActivityService.recordReview(userId, itemType, itemId, itemTitle, savedReview.getRating(), new Date());
+        activityCounterService.increment(userId, ActivityCounter.REVIEWS);
+
         eventPublisher.publishEvent(new ReviewCreatedEvent(this, savedReview, itemTitle, itemType));
 
         eventPublisher.publishEvent(new com.cinemate.notification.events.UserActivityEvent(this, savedReview.getUserId(),
@@ -114,7 +122,6 @@ public class ReviewService {
         validateMovieExists(movieId);
 
         return reviewRepository.findByItemId(movieId).stream()
-                .filter(review -> movieRepository.findById(review.getItemId()).isPresent())
                 .map(ReviewResponseDTO::new)
                 .collect(Collectors.toList());
     }
@@ -129,7 +136,6 @@ public class ReviewService {
         validateSeriesExists(seriesId);
 
         return reviewRepository.findByItemId(seriesId).stream()
-                .filter(review -> seriesRepository.findById(review.getItemId()).isPresent())
                 .map(ReviewResponseDTO::new)
                 .collect(Collectors.toList());
     }
@@ -288,6 +294,8 @@ public class ReviewService {
             Review review = reviewOpt.get();
             String itemId = review.getItemId();
             reviewRepository.deleteById(id);
+            watchActivityService.revertReview(review.getUserId(), itemId);
+            activityCounterService.decrement(review.getUserId(), ActivityCounter.REVIEWS);
 
             String contentType = determineContentType(itemId);
             if (contentType != null) {
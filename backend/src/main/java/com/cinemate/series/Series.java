@@ -3,6 +3,7 @@ package com.cinemate.series;
 import com.cinemate.actor.Actor;
 import com.cinemate.director.Director;
 import com.cinemate.series.DTOs.SeriesRequestDTO;
+import com.cinemate.utils.GenreUtil;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,6 +29,7 @@ public class Series {
     private String title;
     private String description;
     private String genre;
+    private List<String> genres;
     private double rating;
     private int reviewCount;
     private Date releaseDate;
@@ -47,7 +49,7 @@ public class Series {
         this.id = id;
         this.title = title;
         this.description = description;
-        this.genre = genre;
+        setGenre(genre);
         this.rating = rating;
         this.reviewCount = reviewCount;
         this.releaseDate = releaseDate;
@@ -62,7 +64,7 @@ public class Series {
         this.id = series.getId();
         this.title = series.getTitle();
         this.description = series.getDescription();
-        this.genre = series.getGenre();
+        setGenre(series.getGenre());
         this.rating = series.getRating();
         this.reviewCount = series.getReviewCount();
         this.releaseDate = series.getReleaseDate();
@@ -70,6 +72,25 @@ public class Series {
         this.country = series.getCountry();
         this.trailerUrl = series.getTrailerUrl();
     }
-}
 
+    /**
+     * sets the raw genre string and keeps the normalised genre list in sync
+     * @param genre comma separated genres
+     */
+    public void setGenre(String genre) {
+        this.genre = genre;
+        this.genres = GenreUtil.normalize(genre);
+    }
 
+    /**
+     * returns the normalised genres, falling back to the raw genre string
+     * for documents stored before the genres field existed
+     * @return list of genres
+     */
+    public List<String> getGenres() {
+        if (genres == null) {
+            return GenreUtil.normalize(genre);
+        }
+        return genres;
+    }
+}
@@ -1,11 +1,20 @@
 package com.cinemate.social;
 
+import com.cinemate.social.feed.FeedPageDTO;
+import com.cinemate.social.feed.FeedService;
 import com.cinemate.social.friends.FriendRequestDTO;
 import com.cinemate.social.friends.FriendService;
+import com.cinemate.social.friends.suggestions.FriendSuggestionDTO;
+import com.cinemate.social.friends.suggestions.FriendSuggestionService;
+import com.cinemate.social.points.PointsLedgerEntry;
 import com.cinemate.social.points.PointsService;
 import com.cinemate.social.points.UserPointsDTO;
+import com.cinemate.social.points.leaderboard.LeaderboardEntryDTO;
+import com.cinemate.social.points.leaderboard.LeaderboardService;
+import com.cinemate.social.points.leaderboard.LeaderboardWindow;
 import com.cinemate.user.DTOs.UserResponseDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -19,7 +28,10 @@ import java.util.List;
 public class SocialController {
 
     private final FriendService friendService;
+    private final FriendSuggestionService friendSuggestionService;
+    private final FeedService feedService;
     private final PointsService pointsService;
+    private final LeaderboardService leaderboardService;
 
     /**
      * Sends a friend request from the authenticated user to the target user.
@@ -126,6 +138,42 @@ public class SocialController {
         return friendService.removeFriend(currentUserId, friendUserId);
     }
 
+    /**
+     * Suggests users the current user may know, ranked by mutual friends and similar taste.
+     *
+     * @param authentication the authentication object containing details of the currently authenticated user
+     * @param limit the maximum number of suggestions, at most 50
+     * @return a ResponseEntity containing the suggested users, best match first
+     */
+    @GetMapping("/friends/suggestions")
+    public ResponseEntity<List<FriendSuggestionDTO>> getFriendSuggestions(Authentication authentication,
+                                                                          @RequestParam(defaultValue = "10") int limit) {
+        String currentUserId = getCurrentUserId(authentication);
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return friendSuggestionService.getSuggestions(currentUserId, limit);
+    }
+
+    /**
+     * Retrieves the reviews and watched titles of the current user's friends, newest first.
+     *
+     * @param authentication the authentication object containing details of the currently authenticated user
+     * @param cursor the nextCursor of the previous page, omitted for the first page
+     * @param limit the maximum number of activities, at most 50
+     * @return a ResponseEntity containing one page of the feed and the cursor of the next page
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPageDTO> getFeed(Authentication authentication,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int limit) {
+        String currentUserId = getCurrentUserId(authentication);
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return feedService.getFeed(currentUserId, cursor, limit);
+    }
+
     /**
      * Retrieves the current user's points information.
      *
@@ -141,6 +189,25 @@ public class SocialController {
         return pointsService.getUserPointsDTO(currentUserId);
     }
 
+    /**
+     * Retrieves the points ledger of the current user, newest entries first.
+     *
+     * @param authentication the authentication object containing details of the currently authenticated user
+     * @param page the page to return, starting with 0
+     * @param size the number of entries per page
+     * @return a ResponseEntity containing one page of the user's ledger entries
+     */
+    @GetMapping("/points/ledger")
+    public ResponseEntity<Page<PointsLedgerEntry>> getMyPointsLedger(Authentication authentication,
+                                                                     @RequestParam(defaultValue = "0") int page,
+                                                                     @RequestParam(defaultValue = "20") int size) {
+        String currentUserId = getCurrentUserId(authentication);
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return pointsService.getPointsLedger(currentUserId, page, size);
+    }
+
     /**
      * Retrieves the point information of a specified user.
      *
@@ -163,6 +230,79 @@ public class SocialController {
         return pointsService.getLeaderboardDTO(limit);
     }
 
+    /**
+     * Retrieves the users with the most points together with their rank.
+     *
+     * @param limit the maximum number of users to return, at most 100
+     * @return a ResponseEntity containing the ranked users, best first
+     */
+    @GetMapping("/leaderboard/top")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboardTop(@RequestParam(defaultValue = "10") int limit) {
+        return leaderboardService.getTop(limit);
+    }
+
+    /**
+     * Retrieves the users with the most points in the current week, month or of all time.
+     *
+     * @param window "week", "month" or "all"
+     * @param limit the maximum number of users to return, at most 100
+     * @return a ResponseEntity containing the ranked users, best first
+     */
+    @GetMapping("/leaderboard/window/{window}")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboardForWindow(@PathVariable String window,
+                                                                             @RequestParam(defaultValue = "10") int limit) {
+        LeaderboardWindow leaderboardWindow = LeaderboardWindow.parse(window);
+        if (leaderboardWindow == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return leaderboardService.getTop(leaderboardWindow, limit);
+    }
+
+    /**
+     * Ranks the current user and their friends by their points in the current week, month or of all time.
+     *
+     * @param authentication the authentication object containing details of the currently authenticated user
+     * @param window "week", "month" or "all"
+     * @return a ResponseEntity containing the ranked users, best first
+     */
+    @GetMapping("/leaderboard/friends")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getFriendsLeaderboard(Authentication authentication,
+                                                                           @RequestParam(defaultValue = "week") String window) {
+        String currentUserId = getCurrentUserId(authentication);
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        LeaderboardWindow leaderboardWindow = LeaderboardWindow.parse(window);
+        if (leaderboardWindow == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return leaderboardService.getFriendsLeaderboard(currentUserId, leaderboardWindow);
+    }
+
+    /**
+     * Retrieves the leaderboard rank of a specified user.
+     *
+     * @param userId the ID of the user whose rank is to be retrieved
+     * @return a ResponseEntity containing the user's rank, 404 if the user has no points yet
+     */
+    @GetMapping("/leaderboard/rank/{userId}")
+    public ResponseEntity<LeaderboardEntryDTO> getLeaderboardRank(@PathVariable String userId) {
+        return leaderboardService.getRank(userId);
+    }
+
+    /**
+     * Retrieves a specified user together with the users ranked directly above and below.
+     *
+     * @param userId the ID of the user
+     * @param range the number of users on each side, at most 25
+     * @return a ResponseEntity containing the ranked users, best first
+     */
+    @GetMapping("/leaderboard/neighbours/{userId}")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboardNeighbours(@PathVariable String userId,
+                                                                              @RequestParam(defaultValue = "5") int range) {
+        return leaderboardService.getNeighbours(userId, range);
+    }
+
     /**
      * TEST ENDPOINT: Awards points to a user manually for testing
      */
@@ -178,14 +318,6 @@ public class SocialController {
         }
     }
 
-    /**
-     * TEST ENDPOINT: Clean up duplicate UserPoints entries
-     */
-    @PostMapping("/cleanup-duplicate-points/{userId}")
-    public ResponseEntity<?> cleanupDuplicatePoints(@PathVariable String userId) {
-        return pointsService.cleanupDuplicateUserPoints(userId);
-    }
-
     /**
      * Retrieves the user ID of the currently authenticated user.
      * @param authentication the Authentication object containing the details of the currently authenticated user
@@ -0,0 +1,7 @@
+package com.cinemate.social.feed;
+
+public enum FeedActivityType {
+    REVIEW_CREATED,
+    MOVIE_WATCHED,
+    SERIES_WATCHED
+}
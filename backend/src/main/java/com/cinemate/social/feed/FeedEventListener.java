@@ -0,0 +1,69 @@
+package com.cinemate.social.feed;
+
+import com.cinemate.config.AsyncConfig;
+import com.cinemate.notification.events.ReviewCreatedEvent;
+import com.cinemate.notification.events.UserActivityEvent;
+import com.cinemate.review.Review;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans reviews and watched titles out to the feeds of the friends, off the request thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedEventListener {
+
+    private final FeedService feedService;
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    public void handleReviewCreatedEvent(ReviewCreatedEvent event) {
+        Review review = event.getReview();
+        try {
+            feedService.publish(review.getUserId(), FeedActivityType.REVIEW_CREATED, review.getItemId(),
+                    event.getItemType(), event.getItemTitle(), review.getRating());
+        } catch (Exception e) {
+            log.error("Adding review " + review.getId() + " to the feeds failed: " + e.getMessage());
+        }
+    }
+
+    @EventListener
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    public void handleUserActivityEvent(UserActivityEvent event) {
+        FeedActivityType type;
+        String itemType;
+        if (event.getActivityType() == UserActivityEvent.ActivityType.MOVIE_WATCHED) {
+            type = FeedActivityType.MOVIE_WATCHED;
+            itemType = "movie";
+        } else if (event.getActivityType() == UserActivityEvent.ActivityType.SERIES_WATCHED) {
+            type = FeedActivityType.SERIES_WATCHED;
+            itemType = "series";
+        } else {
+            return;
+        }
+
+        try {
+            feedService.publish(event.getUserId(), type, event.getItemId(), itemType, loadTitle(itemType, event.getItemId()), null);
+        } catch (Exception e) {
+            log.error("Adding activity of user " + event.getUserId() + " to the feeds failed: " + e.getMessage());
+        }
+    }
+
+    private String loadTitle(String itemType, String itemId) {
+        Query query = Query.query(Criteria.where("_id").is(ObjectId.isValid(itemId) ? new ObjectId(itemId) : itemId));
+        query.fields().include("title");
+        Document item = mongoTemplate.findOne(query, Document.class, "movie".equals(itemType) ? "movies" : "series");
+        return item == null ? null : item.getString("title");
+    }
+}
@@ -0,0 +1,54 @@
+package com.cinemate.social.feed;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One activity of a user as shown in the feed of a friend.
+ * The activity itself is stored once in feed_activities (ownerId empty), the copies fanned out to
+ * the friends carry the owner of the timeline and the id of the activity they were copied from.
+ */
+@Document(collection = "feed_items")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FeedItem {
+
+    @Id
+    private String id;
+    private String ownerId;
+    private String activityId;
+    private String actorId;
+    private FeedActivityType type;
+    private String itemId;
+    private String itemType;
+    private String itemTitle;
+    private Double rating;
+    private Date createdAt;
+    private Date expiresAt;
+
+    /**
+     * returns a copy of the activity for the timeline of the given user
+     * @param ownerId
+     * @return FeedItem
+     */
+    public FeedItem copyFor(String ownerId) {
+        FeedItem copy = new FeedItem();
+        copy.ownerId = ownerId;
+        copy.activityId = activityId;
+        copy.actorId = actorId;
+        copy.type = type;
+        copy.itemId = itemId;
+        copy.itemType = itemType;
+        copy.itemTitle = itemTitle;
+        copy.rating = rating;
+        copy.createdAt = createdAt;
+        copy.expiresAt = expiresAt;
+        return copy;
+    }
+}
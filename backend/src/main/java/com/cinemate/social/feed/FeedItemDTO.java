@@ -0,0 +1,38 @@
+package com.cinemate.social.feed;
+
+import com.cinemate.user.User;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FeedItemDTO {
+
+    private String activityId;
+    private String actorId;
+    private String actorName;
+    private String actorAvatarUrl;
+    private FeedActivityType type;
+    private String itemId;
+    private String itemType;
+    private String itemTitle;
+    private Double rating;
+    private Date createdAt;
+
+    public FeedItemDTO(FeedItem item, User actor) {
+        this.activityId = item.getActivityId();
+        this.actorId = item.getActorId();
+        this.actorName = actor.getUsername();
+        this.actorAvatarUrl = actor.getAvatarUrl();
+        this.type = item.getType();
+        this.itemId = item.getItemId();
+        this.itemType = item.getItemType();
+        this.itemTitle = item.getItemTitle();
+        this.rating = item.getRating();
+        this.createdAt = item.getCreatedAt();
+    }
+}
@@ -0,0 +1,21 @@
+package com.cinemate.social.feed;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FeedPageDTO {
+
+    private List<FeedItemDTO> items = new ArrayList<>();
+
+    /**
+     * pass as cursor to load the next page, null on the last page
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,200 @@
+package com.cinemate.social.feed;
+
+import com.cinemate.social.friends.FriendAdjacencyCache;
+import com.cinemate.social.friends.suggestions.FriendGraph;
+import com.cinemate.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes and reads the activity feed of users.
+ * An activity is stored once in feed_activities and copied into the timeline (feed_items) of every friend,
+ * so reading a feed is one indexed range query. Users with more than cinemate.feed.fan-out-max-friends
+ * friends are not copied, the feeds of their friends read their activities from feed_activities instead.
+ * Both collections lose their entries after cinemate.feed.retention-days.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private static final String FEED_ACTIVITIES = "feed_activities";
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final FriendAdjacencyCache adjacencyCache;
+    private final FriendGraph friendGraph;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cinemate.feed.fan-out-max-friends:1000}")
+    private int fanOutMaxFriends;
+
+    @Value("${cinemate.feed.retention-days:60}")
+    private int retentionDays;
+
+    /**
+     * adds the activity to the feeds of the friends of the user
+     * @param actorId
+     * @param type
+     * @param itemId
+     * @param itemType "movie" or "series"
+     * @param itemTitle
+     * @param rating the rating of a review, null for other activities
+     */
+    public void publish(String actorId, FeedActivityType type, String itemId, String itemType, String itemTitle, Double rating) {
+        Instant now = Instant.now();
+        FeedItem activity = new FeedItem();
+        activity.setId(new ObjectId().toHexString());
+        activity.setActivityId(activity.getId());
+        activity.setActorId(actorId);
+        activity.setType(type);
+        activity.setItemId(itemId);
+        activity.setItemType(itemType);
+        activity.setItemTitle(itemTitle);
+        activity.setRating(rating);
+        activity.setCreatedAt(Date.from(now));
+        activity.setExpiresAt(Date.from(now.plus(retentionDays, ChronoUnit.DAYS)));
+        mongoTemplate.insert(activity, FEED_ACTIVITIES);
+
+        if (friendGraph.getFriendCount(actorId) > fanOutMaxFriends) {
+            meterRegistry.counter("cinemate.feed.activities", "fanout", "read").increment();
+            return;
+        }
+        Set<String> friendIds = adjacencyCache.getFriendIds(actorId);
+        if (!friendIds.isEmpty()) {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedItem.class);
+            for (String friendId : friendIds) {
+                bulkOps.insert(activity.copyFor(friendId));
+            }
+            bulkOps.execute();
+        }
+        meterRegistry.counter("cinemate.feed.activities", "fanout", "write").increment();
+    }
+
+    /**
+     * returns one page of the activities of the user's friends, newest first
+     * @param userId
+     * @param cursor the nextCursor of the previous page, null for the first page
+     * @param limit at most 50
+     * @return FeedPageDTO, 400 if the cursor is invalid
+     */
+    public ResponseEntity<FeedPageDTO> getFeed(String userId, String cursor, int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        limit = Math.min(limit, MAX_PAGE_SIZE);
+
+        Criteria before = null;
+        if (cursor != null && !cursor.isBlank()) {
+            before = beforeCursor(cursor);
+            if (before == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        // one more than needed from each source tells whether another page follows
+        List<FeedItem> items = new ArrayList<>(find(Criteria.where("ownerId").is(userId), before, limit + 1, FeedItem.class, "feed_items"));
+        List<String> readOnDemand = friendGraph.getFriendsWithMoreFriendsThan(userId, fanOutMaxFriends);
+        if (!readOnDemand.isEmpty()) {
+            items.addAll(find(Criteria.where("actorId").in(readOnDemand), before, limit + 1, FeedItem.class, FEED_ACTIVITIES));
+        }
+        items.sort(Comparator.comparing(FeedItem::getCreatedAt).thenComparing(FeedItem::getActivityId).reversed());
+
+        // activities copied before their user passed the fan-out limit are found in both sources
+        Set<String> seen = new HashSet<>();
+        List<FeedItem> page = new ArrayList<>();
+        boolean hasMore = false;
+        for (FeedItem item : items) {
+            if (!seen.add(item.getActivityId())) {
+                continue;
+            }
+            if (page.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            page.add(item);
+        }
+
+        FeedPageDTO result = new FeedPageDTO();
+        if (hasMore) {
+            FeedItem last = page.get(page.size() - 1);
+            result.setNextCursor(last.getCreatedAt().getTime() + "_" + last.getActivityId());
+        }
+        result.setItems(toDTOs(userId, page));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * removes the timeline and the activities of the user
+     * @param userId
+     */
+    public void removeUser(String userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("ownerId").is(userId)), FeedItem.class);
+        mongoTemplate.remove(Query.query(Criteria.where("actorId").is(userId)), FEED_ACTIVITIES);
+    }
+
+    private <T> List<T> find(Criteria owner, Criteria before, int limit, Class<T> type, String collection) {
+        Criteria criteria = before == null ? owner : new Criteria().andOperator(owner, before);
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "activityId"))
+                .limit(limit);
+        return mongoTemplate.find(query, type, collection);
+    }
+
+    /**
+     * returns the criteria for activities older than the cursor, null if it cannot be parsed
+     */
+    private static Criteria beforeCursor(String cursor) {
+        int separator = cursor.indexOf('_');
+        if (separator < 1) {
+            return null;
+        }
+        Date createdAt;
+        try {
+            createdAt = new Date(Long.parseLong(cursor.substring(0, separator)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String activityId = cursor.substring(separator + 1);
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("activityId").lt(activityId));
+    }
+
+    /**
+     * adds name and avatar of the actors, activities of users who are no friends anymore are left out
+     */
+    private List<FeedItemDTO> toDTOs(String userId, List<FeedItem> page) {
+        Set<String> friendIds = adjacencyCache.getFriendIds(userId);
+        List<FeedItem> visible = page.stream()
+                .filter(item -> friendIds.contains(item.getActorId()))
+                .collect(Collectors.toList());
+        if (visible.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(visible.stream().map(FeedItem::getActorId).distinct().collect(Collectors.toList())));
+        query.fields().include("username", "avatarUrl");
+        Map<String, User> actors = mongoTemplate.find(query, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return visible.stream()
+                .filter(item -> actors.containsKey(item.getActorId()))
+                .map(item -> new FeedItemDTO(item, actors.get(item.getActorId())))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,6 @@
 package com.cinemate.social.forum;
 
+import com.cinemate.achievement.events.AchievementCheckEvent;
 import com.cinemate.notification.events.ForumPostCreatedEvent;
 import com.cinemate.notification.events.ForumReplyCreatedEvent;
 import com.cinemate.social.forum.like.ForumLike;
@@ -12,16 +13,32 @@ import com.cinemate.social.forum.subscription.ForumSubscription;
 import com.cinemate.social.forum.subscription.ForumSubscriptionRepository;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import com.cinemate.user.activity.ActivityCounter;
+import com.cinemate.user.activity.UserActivityCounterService;
+import com.mongodb.DBRef;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing forum operations.
@@ -36,12 +53,16 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ForumService {
 
+    private static final String FORUM_POSTS = "forum_posts";
+
     private final ForumPostRepository forumPostRepository;
     private final ForumReplyRepository forumReplyRepository;
     private final ForumSubscriptionRepository forumSubscriptionRepository;
     private final ForumLikeRepository forumLikeRepository;
     private final UserRepository userRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final UserActivityCounterService activityCounterService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Creates a new forum post with the specified user as the author.
@@ -74,6 +95,7 @@ public class ForumService {
         post.setLastModified(new Date());
 
         ForumPost savedPost = forumPostRepository.save(post);
+        activityCounterService.increment(user.getId(), ActivityCounter.FORUM_POSTS);
 
         // Auto-subscribe author to their own post
         ForumSubscription subscription = new ForumSubscription(user, savedPost);
@@ -81,6 +103,7 @@ public class ForumService {
 
         // Publish event for notifications
         eventPublisher.publishEvent(new ForumPostCreatedEvent(this, savedPost));
+        eventPublisher.publishEvent(new AchievementCheckEvent(this, user.getId(), "forum_post_created"));
 
         return savedPost;
     }
@@ -92,7 +115,7 @@ public class ForumService {
      * @return a Page containing ForumPost entities
      */
     public Page<ForumPost> getAllPosts(Pageable pageable) {
-        return forumPostRepository.findByIsDeletedFalseOrderByCreatedAtDesc(pageable);
+        return findPostsWithAuthors(notDeleted(), "createdAt", pageable);
     }
 
     /**
@@ -103,7 +126,7 @@ public class ForumService {
      * @return a Page containing ForumPost entities in the specified category
      */
     public Page<ForumPost> getPostsByCategory(ForumCategory category, Pageable pageable) {
-        return forumPostRepository.findByCategoryAndIsDeletedFalseOrderByCreatedAtDesc(category, pageable);
+        return findPostsWithAuthors(notDeleted().and("category").is(category.name()), "createdAt", pageable);
     }
 
     /**
@@ -167,7 +190,7 @@ public class ForumService {
      * @return a Page containing ForumPost entities ordered by popularity
      */
     public Page<ForumPost> getPopularPosts(Pageable pageable) {
-        return forumPostRepository.findByIsDeletedFalseOrderByLikesCountDesc(pageable);
+        return findPostsWithAuthors(notDeleted(), "likesCount", pageable);
     }
 
     /**
@@ -177,7 +200,7 @@ public class ForumService {
      * @return a Page containing ForumPost entities ordered by recent activity
      */
     public Page<ForumPost> getRecentlyActivePosts(Pageable pageable) {
-        return forumPostRepository.findByIsDeletedFalseOrderByLastModifiedDesc(pageable);
+        return findPostsWithAuthors(notDeleted(), "lastModified", pageable);
     }
 
     /**
@@ -251,8 +274,7 @@ public class ForumService {
             throw new RuntimeException("Not authorized to delete this post");
         }
 
-        post.setDeleted(true);
-        forumPostRepository.save(post);
+        markPostDeleted(post);
     }
 
     /**
@@ -269,8 +291,18 @@ public class ForumService {
         }
 
         ForumPost post = postOpt.get();
+        markPostDeleted(post);
+    }
+
+    private void markPostDeleted(ForumPost post) {
+        if (post.isDeleted()) {
+            return;
+        }
         post.setDeleted(true);
         forumPostRepository.save(post);
+        if (post.getAuthor() != null) {
+            activityCounterService.decrement(post.getAuthor().getId(), ActivityCounter.FORUM_POSTS);
+        }
     }
 
     public ForumPost toggleLike(String postId, String userId) {
@@ -659,11 +691,11 @@ public class ForumService {
     public Page<ForumPost> getPostsByMediaType(String mediaType, Pageable pageable) {
         switch (mediaType.toLowerCase()) {
             case "movie":
-                return forumPostRepository.findByMovieIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(pageable);
+                return findPostsWithAuthors(notDeleted().and("movieId").ne(null), "createdAt", pageable);
             case "series":
-                return forumPostRepository.findBySeriesIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(pageable);
+                return findPostsWithAuthors(notDeleted().and("seriesId").ne(null), "createdAt", pageable);
             case "none":
-                return forumPostRepository.findByMovieIdIsNullAndSeriesIdIsNullAndIsDeletedFalseOrderByCreatedAtDesc(pageable);
+                return findPostsWithAuthors(notDeleted().and("movieId").is(null).and("seriesId").is(null), "createdAt", pageable);
             default:
                 return getAllPosts(pageable);
         }
@@ -680,13 +712,58 @@ public class ForumService {
     public Page<ForumPost> getPostsByCategoryAndMediaType(ForumCategory category, String mediaType, Pageable pageable) {
         switch (mediaType.toLowerCase()) {
             case "movie":
-                return forumPostRepository.findByCategoryAndMovieIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(category, pageable);
+                return findPostsWithAuthors(notDeleted().and("category").is(category.name()).and("movieId").ne(null),
+                        "createdAt", pageable);
             case "series":
-                return forumPostRepository.findByCategoryAndSeriesIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(category, pageable);
+                return findPostsWithAuthors(notDeleted().and("category").is(category.name()).and("seriesId").ne(null),
+                        "createdAt", pageable);
             case "none":
-                return forumPostRepository.findByCategoryAndMovieIdIsNullAndSeriesIdIsNullAndIsDeletedFalseOrderByCreatedAtDesc(category, pageable);
+                return findPostsWithAuthors(notDeleted().and("category").is(category.name())
+                        .and("movieId").is(null).and("seriesId").is(null), "createdAt", pageable);
             default:
                 return getPostsByCategory(category, pageable);
         }
     }
+
+    /**
+     * Reads one page of posts for the post lists with all authors of the page in one query.
+     * Read through the repository every post would resolve its author and its replies on its own,
+     * the lists do not show replies, so the returned posts come without them.
+     *
+     * @param criteria filter of the list
+     * @param sortField field to sort by, newest/highest first
+     * @param pageable pagination information
+     * @return a Page containing ForumPost entities with their authors
+     */
+    private Page<ForumPost> findPostsWithAuthors(Criteria criteria, String sortField, Pageable pageable) {
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, sortField)).with(pageable);
+        query.fields().exclude("replies");
+        List<Document> documents = mongoTemplate.find(query, Document.class, FORUM_POSTS);
+
+        Set<Object> authorIds = new HashSet<>();
+        for (Document document : documents) {
+            if (document.get("author") instanceof DBRef) {
+                authorIds.add(((DBRef) document.get("author")).getId());
+            }
+        }
+        Map<String, User> authors = authorIds.isEmpty() ? Collections.emptyMap()
+                : mongoTemplate.find(Query.query(Criteria.where("_id").in(authorIds)), User.class).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<ForumPost> posts = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            Object author = document.remove("author");
+            ForumPost post = mongoTemplate.getConverter().read(ForumPost.class, document);
+            if (author instanceof DBRef) {
+                post.setAuthor(authors.get(((DBRef) author).getId().toString()));
+            }
+            posts.add(post);
+        }
+        return PageableExecutionUtils.getPage(posts, pageable,
+                () -> mongoTemplate.count(Query.query(criteria), FORUM_POSTS));
+    }
+
+    private static Criteria notDeleted() {
+        return Criteria.where("isDeleted").is(false);
+    }
 }
\ No newline at end of file
@@ -30,8 +30,7 @@ public class ForumPost {
     private String content;
     
     @DBRef
-    @JsonIgnoreProperties({"movieWatchlist", "seriesWatchlist", "movieFavorites", "seriesFavorites", 
-                          "moviesWatched", "seriesWatched", "notificationPreferences", "password"})
+    @JsonIgnoreProperties({"notificationPreferences", "password"})
     private User author;
     
     private ForumCategory category;
@@ -12,10 +12,6 @@ import java.util.List;
 @Repository
 public interface ForumPostRepository extends MongoRepository<ForumPost, String> {
 
-    Page<ForumPost> findByCategoryAndIsDeletedFalseOrderByCreatedAtDesc(ForumCategory category, Pageable pageable);
-
-    Page<ForumPost> findByIsDeletedFalseOrderByCreatedAtDesc(Pageable pageable);
-
     List<ForumPost> findByIsPinnedTrueAndIsDeletedFalseOrderByCreatedAtDesc();
 
     Page<ForumPost> findByAuthorIdAndIsDeletedFalseOrderByCreatedAtDesc(String authorId, Pageable pageable);
@@ -29,27 +25,10 @@ public interface ForumPostRepository extends MongoRepository<ForumPost, String>
 
     Page<ForumPost> findByIsDeletedFalseOrderByRepliesCountDesc(Pageable pageable);
 
-    Page<ForumPost> findByIsDeletedFalseOrderByLikesCountDesc(Pageable pageable);
-
-    Page<ForumPost> findByIsDeletedFalseOrderByLastModifiedDesc(Pageable pageable);
-
     long countByCategoryAndIsDeletedFalse(ForumCategory category);
 
     long countByAuthorIdAndIsDeletedFalse(String authorId);
 
     @Query("{'$and': [{'isDeleted': false}, {'$or': [{'author.$id': ?0}, {'replies': {'$elemMatch': {'author.$id': ?0}}}]}]}")
     Page<ForumPost> findPostsUserParticipatedIn(String userId, Pageable pageable);
-
-    // New methods for media type filtering
-    Page<ForumPost> findByMovieIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(Pageable pageable);
-
-    Page<ForumPost> findBySeriesIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(Pageable pageable);
-
-    Page<ForumPost> findByMovieIdIsNullAndSeriesIdIsNullAndIsDeletedFalseOrderByCreatedAtDesc(Pageable pageable);
-
-    Page<ForumPost> findByCategoryAndMovieIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(ForumCategory category, Pageable pageable);
-
-    Page<ForumPost> findByCategoryAndSeriesIdIsNotNullAndIsDeletedFalseOrderByCreatedAtDesc(ForumCategory category, Pageable pageable);
-
-    Page<ForumPost> findByCategoryAndMovieIdIsNullAndSeriesIdIsNullAndIsDeletedFalseOrderByCreatedAtDesc(ForumCategory category, Pageable pageable);
 }
@@ -25,8 +25,7 @@ public class ForumReply {
     private String content;
     
     @DBRef
-    @JsonIgnoreProperties({"movieWatchlist", "seriesWatchlist", "movieFavorites", "seriesFavorites", 
-                          "moviesWatched", "seriesWatched", "notificationPreferences", "password"})
+    @JsonIgnoreProperties({"notificationPreferences", "password"})
     private User author;
     
     @DBRef
@@ -5,12 +5,20 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
+/**
+ * A friend request and, once accepted, the friendship of two users.
+ * userLow and userHigh hold the smaller and the larger of the two user ids, so every pair of users
+ * has exactly one key regardless of who sent the request, protected by a unique index.
+ */
 @Document(collection = "friendships")
+@CompoundIndex(name = "user_pair", def = "{'userLow': 1, 'userHigh': 1}", unique = true)
+@CompoundIndex(name = "user_high_status", def = "{'userHigh': 1, 'status': 1}")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +30,8 @@ public class Friend {
     private User requester;
     @DBRef 
     private User recipient;
+    private String userLow;
+    private String userHigh;
     private FriendshipStatus status;
     private Date requestedAt;
     private Date acceptedAt;
@@ -29,8 +39,24 @@ public class Friend {
     public Friend(User requester, User recipient) {
         this.requester = requester;
         this.recipient = recipient;
+        this.userLow = low(requester.getId(), recipient.getId());
+        this.userHigh = high(requester.getId(), recipient.getId());
         this.status = FriendshipStatus.PENDING;
         this.requestedAt = new Date();
     }
 
+    /**
+     * returns the smaller of the two user ids
+     */
+    public static String low(String userId, String otherUserId) {
+        return userId.compareTo(otherUserId) <= 0 ? userId : otherUserId;
+    }
+
+    /**
+     * returns the larger of the two user ids
+     */
+    public static String high(String userId, String otherUserId) {
+        return userId.compareTo(otherUserId) <= 0 ? otherUserId : userId;
+    }
+
 }
@@ -0,0 +1,137 @@
+package com.cinemate.social.friends;
+
+import com.cinemate.user.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the friend ids of recently active users.
+ * A user's list is loaded with one query on the ordered pair keys and dropped whenever one of the
+ * user's friendships changes, so friendship checks and friend lists do not query the friendships.
+ * The least recently used lists are evicted beyond cinemate.friends.adjacency-cache.max-users.
+ */
+@Component
+public class FriendAdjacencyCache implements MeterBinder {
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxUsers;
+    private final Map<String, Set<String>> friendIdsByUser;
+
+    /**
+     * incremented on every change, a list loaded while a change happened is not cached
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public FriendAdjacencyCache(MongoTemplate mongoTemplate,
+                                @Value("${cinemate.friends.adjacency-cache.max-users:10000}") int maxUsers) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxUsers = maxUsers;
+        this.friendIdsByUser = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+                return size() > FriendAdjacencyCache.this.maxUsers;
+            }
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cinemate.friends.adjacency.entries", this, FriendAdjacencyCache::size)
+                .description("Users whose friend ids are cached")
+                .register(registry);
+    }
+
+    /**
+     * returns the ids of the friends of the user
+     * @param userId
+     * @return Set<String>, unmodifiable
+     */
+    public Set<String> getFriendIds(String userId) {
+        synchronized (friendIdsByUser) {
+            Set<String> cached = friendIdsByUser.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long loadedGeneration = generation.get();
+        Set<String> friendIds = Collections.unmodifiableSet(load(userId));
+        synchronized (friendIdsByUser) {
+            if (generation.get() == loadedGeneration) {
+                friendIdsByUser.put(userId, friendIds);
+            }
+        }
+        return friendIds;
+    }
+
+    /**
+     * returns true if the two users are friends
+     * @param userId
+     * @param otherUserId
+     * @return boolean
+     */
+    public boolean areFriends(String userId, String otherUserId) {
+        return getFriendIds(userId).contains(otherUserId);
+    }
+
+    /**
+     * returns the friends of the user with their public profile fields, loaded with one $in query
+     * @param userId
+     * @return List<User>
+     */
+    public List<User> getFriends(String userId) {
+        Set<String> friendIds = getFriendIds(userId);
+        if (friendIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query query = Query.query(Criteria.where("_id").in(friendIds));
+        query.fields().include("username", "email", "bio", "avatarUrl", "joinedAt", "role");
+        return mongoTemplate.find(query, User.class);
+    }
+
+    /**
+     * drops the cached lists of both users after their friendship was accepted or removed
+     * @param userId
+     * @param otherUserId
+     */
+    public void onFriendshipChanged(String userId, String otherUserId) {
+        synchronized (friendIdsByUser) {
+            generation.incrementAndGet();
+            friendIdsByUser.remove(userId);
+            friendIdsByUser.remove(otherUserId);
+        }
+    }
+
+    /**
+     * returns the number of cached users
+     */
+    public int size() {
+        synchronized (friendIdsByUser) {
+            return friendIdsByUser.size();
+        }
+    }
+
+    private Set<String> load(String userId) {
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where("userLow").is(userId), Criteria.where("userHigh").is(userId))
+                .and("status").is(FriendshipStatus.ACCEPTED.name()));
+        query.fields().include("userLow", "userHigh");
+
+        Set<String> friendIds = new HashSet<>();
+        for (Document friendship : mongoTemplate.find(query, Document.class, "friendships")) {
+            String low = friendship.getString("userLow");
+            friendIds.add(userId.equals(low) ? friendship.getString("userHigh") : low);
+        }
+        return friendIds;
+    }
+}
@@ -3,16 +3,21 @@ package com.cinemate.social.friends;
 import com.cinemate.achievement.events.AchievementCheckEvent;
 import com.cinemate.notification.NotificationService;
 import com.cinemate.notification.NotificationType;
+import com.cinemate.social.friends.suggestions.FriendGraph;
 import com.cinemate.social.points.PointsService;
 import com.cinemate.social.points.PointsType;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
 import com.cinemate.user.DTOs.UserResponseDTO;
+import com.cinemate.user.activity.ActivityCounter;
+import com.cinemate.user.activity.UserActivityCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +32,9 @@ public class FriendService {
     private final NotificationService notificationService;
     private final PointsService pointsService;
     private final ApplicationEventPublisher eventPublisher;
+    private final UserActivityCounterService activityCounterService;
+    private final FriendAdjacencyCache adjacencyCache;
+    private final FriendGraph friendGraph;
 
     /**
      * Sends a friend request from one user to another.
@@ -57,8 +65,12 @@ public class FriendService {
                 return ResponseEntity.badRequest().body("Friendship request already exists");
             }
 
-            Friend friendRequest = new Friend(currentUser, targetUser);
-            friendRepository.save(friendRequest);
+            try {
+                friendRepository.insert(new Friend(currentUser, targetUser));
+            } catch (DuplicateKeyException e) {
+                // the other user sent a request at the same time
+                return ResponseEntity.badRequest().body("Friendship request already exists");
+            }
             
             // Send notification
             notificationService.sendNotification(
@@ -108,6 +120,10 @@ public class FriendService {
             friendship.setStatus(FriendshipStatus.ACCEPTED);
             friendship.setAcceptedAt(new Date());
             friendRepository.save(friendship);
+            adjacencyCache.onFriendshipChanged(currentUserId, friendship.getRequester().getId());
+            friendGraph.addFriendship(currentUserId, friendship.getRequester().getId());
+            activityCounterService.increment(currentUserId, ActivityCounter.FRIENDS);
+            activityCounterService.increment(friendship.getRequester().getId(), ActivityCounter.FRIENDS);
             
             // Send notification to requester
             notificationService.sendNotification(
@@ -172,23 +188,12 @@ public class FriendService {
      */
     public ResponseEntity<List<UserResponseDTO>> getFriends(String userId) {
         try {
-            
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
+            if (!userRepository.existsById(userId)) {
                 return ResponseEntity.badRequest().build();
             }
             
-            User user = userOpt.get();
-            
-            List<Friend> friendships = friendRepository.findAcceptedFriendshipsByUser(user);
-            
-            List<UserResponseDTO> friends = friendships.stream()
-                .map(friendship -> {
-                    User friend = friendship.getRequester().getId().equals(userId) 
-                        ? friendship.getRecipient() 
-                        : friendship.getRequester();
-                    return new UserResponseDTO(friend);
-                })
+            List<UserResponseDTO> friends = adjacencyCache.getFriends(userId).stream()
+                .map(UserResponseDTO::new)
                 .collect(Collectors.toList());
             
             return ResponseEntity.ok(friends);
@@ -230,8 +235,8 @@ public class FriendService {
     }
 
     /**
-     * Removes an existing friendship between two users. If the friendship does not exist
-     * or if either user is not found, an appropriate response is returned.
+     * Removes an existing friendship between two users. If the friendship does not exist,
+     * an appropriate response is returned.
      *
      * @param currentUserId the ID of the current user initiating the removal of a friend
      * @param friendUserId the ID of the friend to be removed
@@ -239,22 +244,18 @@ public class FriendService {
      */
     public ResponseEntity<?> removeFriend(String currentUserId, String friendUserId) {
         try {
-            Optional<User> currentUserOpt = userRepository.findById(currentUserId);
-            Optional<User> friendUserOpt = userRepository.findById(friendUserId);
-            
-            if (currentUserOpt.isEmpty() || friendUserOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body("User not found");
-            }
-            
-            User currentUser = currentUserOpt.get();
-            User friendUser = friendUserOpt.get();
-            
-            Optional<Friend> friendshipOpt = friendRepository.findAcceptedFriendshipBetweenUsers(currentUser, friendUser);
+            Optional<Friend> friendshipOpt = friendRepository.findByUserLowAndUserHigh(
+                Friend.low(currentUserId, friendUserId), Friend.high(currentUserId, friendUserId))
+                .filter(friendship -> friendship.getStatus() == FriendshipStatus.ACCEPTED);
             if (friendshipOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body("Friendship not found");
             }
             
             friendRepository.delete(friendshipOpt.get());
+            adjacencyCache.onFriendshipChanged(currentUserId, friendUserId);
+            friendGraph.removeFriendship(currentUserId, friendUserId);
+            activityCounterService.decrement(currentUserId, ActivityCounter.FRIENDS);
+            activityCounterService.decrement(friendUserId, ActivityCounter.FRIENDS);
             
             return ResponseEntity.ok("Friend removed successfully");
             
@@ -262,4 +263,14 @@ public class FriendService {
             return ResponseEntity.status(500).body("Error removing friend: " + e.getMessage());
         }
     }
+
+    /**
+     * Retrieves the IDs of all friends of a user without loading the users.
+     *
+     * @param userId the ID of the user whose friends are to be retrieved
+     * @return the IDs of the user's friends
+     */
+    public List<String> getFriendIds(String userId) {
+        return new ArrayList<>(adjacencyCache.getFriendIds(userId));
+    }
 }
@@ -0,0 +1,95 @@
+package com.cinemate.social.friends;
+
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the ordered pair keys to friendships stored before they existed, before the MongoIndexInitializer
+ * creates the unique index on them. Of several documents for the same pair the accepted one is kept,
+ * otherwise the oldest, the others are removed. Does nothing once every friendship has its keys.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class FriendshipPairMigration implements CommandLineRunner {
+
+    private static final String FRIENDSHIPS = "friendships";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!mongoTemplate.exists(Query.query(Criteria.where("userLow").exists(false)), FRIENDSHIPS)) {
+            return;
+        }
+
+        Query query = new Query().with(Sort.by("_id"));
+        query.fields().include("requester", "recipient", "status", "userLow");
+
+        Map<String, List<Document>> byPair = new LinkedHashMap<>();
+        for (Document friendship : mongoTemplate.find(query, Document.class, FRIENDSHIPS)) {
+            Object requester = refId(friendship.get("requester"));
+            Object recipient = refId(friendship.get("recipient"));
+            if (requester == null || recipient == null) {
+                continue;
+            }
+            String low = Friend.low(requester.toString(), recipient.toString());
+            String high = Friend.high(requester.toString(), recipient.toString());
+            friendship.put("pair", new String[]{low, high});
+            byPair.computeIfAbsent(low + "_" + high, key -> new ArrayList<>()).add(friendship);
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FRIENDSHIPS);
+        List<Object> duplicateIds = new ArrayList<>();
+        int keyed = 0;
+        for (List<Document> friendships : byPair.values()) {
+            Document kept = friendships.stream()
+                    .filter(friendship -> FriendshipStatus.ACCEPTED.name().equals(friendship.getString("status")))
+                    .findFirst()
+                    .orElse(friendships.get(0));
+            for (Document friendship : friendships) {
+                if (friendship != kept) {
+                    duplicateIds.add(friendship.get("_id"));
+                }
+            }
+            if (kept.get("userLow") == null) {
+                String[] pair = (String[]) kept.get("pair");
+                bulkOps.updateOne(Query.query(Criteria.where("_id").is(kept.get("_id"))),
+                        new Update().set("userLow", pair[0]).set("userHigh", pair[1]));
+                keyed++;
+            }
+        }
+
+        // duplicates go first, so the keyed documents never collide with them on the new index
+        if (!duplicateIds.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(duplicateIds)), FRIENDSHIPS);
+        }
+        if (keyed > 0) {
+            bulkOps.execute();
+        }
+        log.info("Added pair keys to {} friendships, removed {} duplicates", keyed, duplicateIds.size());
+    }
+
+    private static Object refId(Object ref) {
+        return ref instanceof DBRef ? ((DBRef) ref).getId()
+                : ref instanceof Document ? ((Document) ref).get("$id") : null;
+    }
+}
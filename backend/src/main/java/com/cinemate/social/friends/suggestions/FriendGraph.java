@@ -0,0 +1,244 @@
+package com.cinemate.social.friends.suggestions;
+
+import com.cinemate.social.friends.FriendshipStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The accepted friendships of all users as a compact in-memory graph.
+ * Every user gets an int id, the friends of a user are a sorted int array, so counting the mutual
+ * friends of all second-degree connections touches only the friends of the user's friends.
+ * Seeded from the friendships at startup and updated by FriendService on every accepted or removed friendship.
+ * The friend counts also decide which users the activity feed reads on demand instead of fanning out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendGraph implements CommandLineRunner, MeterBinder {
+
+    private static final int[] NO_FRIENDS = new int[0];
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Integer> indexByUser = new HashMap<>();
+    private final List<String> users = new ArrayList<>();
+    private int[][] friends = new int[1024][];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void run(String... args) throws Exception {
+        Query query = Query.query(Criteria.where("status").is(FriendshipStatus.ACCEPTED.name()));
+        query.fields().include("userLow", "userHigh");
+
+        // seeded under the write lock, so friendships changed meanwhile are applied afterwards
+        lock.writeLock().lock();
+        try {
+            int edges = 0;
+            for (Document friendship : mongoTemplate.find(query, Document.class, "friendships")) {
+                String low = friendship.getString("userLow");
+                String high = friendship.getString("userHigh");
+                if (low != null && high != null) {
+                    link(low, high);
+                    edges++;
+                }
+            }
+            log.info("Seeded the friend graph with {} users and {} friendships", users.size(), edges);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cinemate.friends.graph.users", this, FriendGraph::size)
+                .description("Users in the in-memory friend graph")
+                .register(registry);
+    }
+
+    /**
+     * adds the friendship of the two users
+     * @param userId
+     * @param otherUserId
+     */
+    public void addFriendship(String userId, String otherUserId) {
+        lock.writeLock().lock();
+        try {
+            link(userId, otherUserId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * removes the friendship of the two users
+     * @param userId
+     * @param otherUserId
+     */
+    public void removeFriendship(String userId, String otherUserId) {
+        lock.writeLock().lock();
+        try {
+            Integer user = indexByUser.get(userId);
+            Integer other = indexByUser.get(otherUserId);
+            if (user != null && other != null) {
+                friends[user] = without(friends[user], other);
+                friends[other] = without(friends[other], user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * counts the mutual friends of every user that is a friend of a friend but neither the user nor a friend
+     * @param userId
+     * @param limit the maximum number of users to return
+     * @return mutual friend count by user id, the users with the most mutual friends
+     */
+    public Map<String, Integer> countMutualFriends(String userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer user = indexByUser.get(userId);
+            if (user == null) {
+                return new LinkedHashMap<>();
+            }
+            int[] direct = friends[user];
+            // sized to the second-degree fan-out, so the work never depends on the number of users in the graph
+            int fanOut = 0;
+            for (int friend : direct) {
+                fanOut += friends[friend].length;
+            }
+            Map<Integer, Integer> counts = new HashMap<>(Math.max(16, fanOut * 4 / 3 + 1));
+
+            for (int friend : direct) {
+                for (int candidate : friends[friend]) {
+                    if (candidate == user || Arrays.binarySearch(direct, candidate) >= 0) {
+                        continue;
+                    }
+                    counts.merge(candidate, 1, Integer::sum);
+                }
+            }
+
+            List<Map.Entry<Integer, Integer>> candidates = new ArrayList<>(counts.entrySet());
+            candidates.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+            Map<String, Integer> mutualFriends = new LinkedHashMap<>();
+            for (int i = 0; i < Math.min(limit, candidates.size()); i++) {
+                mutualFriends.put(users.get(candidates.get(i).getKey()), candidates.get(i).getValue());
+            }
+            return mutualFriends;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the number of friends of the user
+     * @param userId
+     * @return int
+     */
+    public int getFriendCount(String userId) {
+        lock.readLock().lock();
+        try {
+            Integer user = indexByUser.get(userId);
+            return user == null ? 0 : friends[user].length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the friends of the user that have more than the given number of friends themselves
+     * @param userId
+     * @param friendCount
+     * @return List<String>
+     */
+    public List<String> getFriendsWithMoreFriendsThan(String userId, int friendCount) {
+        lock.readLock().lock();
+        try {
+            Integer user = indexByUser.get(userId);
+            if (user == null) {
+                return new ArrayList<>();
+            }
+            List<String> result = new ArrayList<>();
+            for (int friend : friends[user]) {
+                if (friends[friend].length > friendCount) {
+                    result.add(users.get(friend));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the number of users in the graph
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void link(String userId, String otherUserId) {
+        int user = indexOf(userId);
+        int other = indexOf(otherUserId);
+        friends[user] = with(friends[user], other);
+        friends[other] = with(friends[other], user);
+    }
+
+    private int indexOf(String userId) {
+        Integer index = indexByUser.get(userId);
+        if (index != null) {
+            return index;
+        }
+        index = users.size();
+        if (index == friends.length) {
+            friends = Arrays.copyOf(friends, friends.length * 2);
+        }
+        users.add(userId);
+        indexByUser.put(userId, index);
+        friends[index] = NO_FRIENDS;
+        return index;
+    }
+
+    private static int[] with(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        if (position >= 0) {
+            return sorted;
+        }
+        int insertAt = -position - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(sorted, insertAt, result, insertAt + 1, sorted.length - insertAt);
+        return result;
+    }
+
+    private static int[] without(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        if (position < 0) {
+            return sorted;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        System.arraycopy(sorted, position + 1, result, position, sorted.length - position - 1);
+        return result;
+    }
+}
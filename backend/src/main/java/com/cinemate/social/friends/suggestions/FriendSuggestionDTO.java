@@ -0,0 +1,18 @@
+package com.cinemate.social.friends.suggestions;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FriendSuggestionDTO {
+
+    private String userId;
+    private String username;
+    private String avatarUrl;
+    private int mutualFriends;
+    private double tasteSimilarity;
+    private double score;
+}
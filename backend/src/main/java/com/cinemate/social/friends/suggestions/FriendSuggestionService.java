@@ -0,0 +1,153 @@
+package com.cinemate.social.friends.suggestions;
+
+import com.cinemate.social.friends.FriendshipStatus;
+import com.cinemate.user.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests "people you may know": friends of friends ranked by their number of mutual friends
+ * plus the similarity of their watched genres over the last year.
+ * The mutual friends are counted on the in-memory FriendGraph, only the best candidates
+ * are compared by taste, which takes one query on the monthly activity buckets.
+ */
+@Service
+@RequiredArgsConstructor
+public class FriendSuggestionService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int CANDIDATES_PER_SUGGESTION = 5;
+    private static final int TASTE_MONTHS = 12;
+
+    private final FriendGraph friendGraph;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cinemate.friends.suggestions.taste-weight:3.0}")
+    private double tasteWeight;
+
+    /**
+     * returns the users the given user may know, best match first
+     * @param userId
+     * @param limit at most 50
+     * @return List<FriendSuggestionDTO>
+     */
+    public ResponseEntity<List<FriendSuggestionDTO>> getSuggestions(String userId, int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        limit = Math.min(limit, MAX_LIMIT);
+
+        Map<String, Integer> mutualFriends = friendGraph.countMutualFriends(userId, limit * CANDIDATES_PER_SUGGESTION);
+        mutualFriends.keySet().removeAll(getOpenRequestUserIds(userId));
+        if (mutualFriends.isEmpty()) {
+            return ResponseEntity.ok(new ArrayList<>());
+        }
+
+        Map<String, Map<String, Integer>> genres = loadGenreCounts(userId, mutualFriends.keySet());
+        Map<String, Integer> ownGenres = genres.getOrDefault(userId, Map.of());
+
+        List<FriendSuggestionDTO> suggestions = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : mutualFriends.entrySet()) {
+            FriendSuggestionDTO suggestion = new FriendSuggestionDTO();
+            suggestion.setUserId(candidate.getKey());
+            suggestion.setMutualFriends(candidate.getValue());
+            suggestion.setTasteSimilarity(cosineSimilarity(ownGenres, genres.getOrDefault(candidate.getKey(), Map.of())));
+            suggestion.setScore(candidate.getValue() + tasteWeight * suggestion.getTasteSimilarity());
+            suggestions.add(suggestion);
+        }
+        suggestions.sort(Comparator.comparingDouble(FriendSuggestionDTO::getScore).reversed());
+        if (suggestions.size() > limit) {
+            suggestions = new ArrayList<>(suggestions.subList(0, limit));
+        }
+
+        Map<String, User> users = loadUsers(suggestions.stream().map(FriendSuggestionDTO::getUserId).collect(Collectors.toList()));
+        suggestions.removeIf(suggestion -> !users.containsKey(suggestion.getUserId()));
+        for (FriendSuggestionDTO suggestion : suggestions) {
+            User user = users.get(suggestion.getUserId());
+            suggestion.setUsername(user.getUsername());
+            suggestion.setAvatarUrl(user.getAvatarUrl());
+        }
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * returns the users with a pending or declined request from or to the user, they are not suggested again
+     */
+    private Set<String> getOpenRequestUserIds(String userId) {
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where("userLow").is(userId), Criteria.where("userHigh").is(userId))
+                .and("status").ne(FriendshipStatus.ACCEPTED.name()));
+        query.fields().include("userLow", "userHigh");
+
+        Set<String> userIds = new HashSet<>();
+        for (Document friendship : mongoTemplate.find(query, Document.class, "friendships")) {
+            String low = friendship.getString("userLow");
+            userIds.add(userId.equals(low) ? friendship.getString("userHigh") : low);
+        }
+        return userIds;
+    }
+
+    /**
+     * sums the watched genres of the user and the candidates over the last months
+     * @return genre counts by user id
+     */
+    private Map<String, Map<String, Integer>> loadGenreCounts(String userId, Collection<String> candidateIds) {
+        List<String> userIds = new ArrayList<>(candidateIds);
+        userIds.add(userId);
+        Query query = Query.query(Criteria.where("userId").in(userIds)
+                .and("month").gte(YearMonth.now().minusMonths(TASTE_MONTHS - 1).toString()));
+        query.fields().include("userId", "genreCounts");
+
+        Map<String, Map<String, Integer>> genresByUser = new HashMap<>();
+        for (Document bucket : mongoTemplate.find(query, Document.class, "user_activity_buckets")) {
+            Document genreCounts = bucket.get("genreCounts", Document.class);
+            if (genreCounts == null) {
+                continue;
+            }
+            Map<String, Integer> genres = genresByUser.computeIfAbsent(bucket.getString("userId"), id -> new HashMap<>());
+            genreCounts.forEach((genre, count) -> genres.merge(genre, ((Number) count).intValue(), Integer::sum));
+        }
+        return genresByUser;
+    }
+
+    private Map<String, User> loadUsers(List<String> userIds) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        query.fields().include("username", "avatarUrl");
+        return mongoTemplate.find(query, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    /**
+     * returns the cosine similarity of two genre profiles, 0 if one of them is empty
+     */
+    private static double cosineSimilarity(Map<String, Integer> genres, Map<String, Integer> otherGenres) {
+        if (genres.isEmpty() || otherGenres.isEmpty()) {
+            return 0;
+        }
+        double dot = 0;
+        for (Map.Entry<String, Integer> genre : genres.entrySet()) {
+            dot += genre.getValue() * (double) otherGenres.getOrDefault(genre.getKey(), 0);
+        }
+        double norms = norm(genres) * norm(otherGenres);
+        return norms == 0 ? 0 : dot / norms;
+    }
+
+    private static double norm(Map<String, Integer> genres) {
+        double sum = 0;
+        for (int count : genres.values()) {
+            sum += (double) count * count;
+        }
+        return Math.sqrt(sum);
+    }
+}
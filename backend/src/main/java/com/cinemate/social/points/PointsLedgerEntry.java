@@ -0,0 +1,34 @@
+package com.cinemate.social.points;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One awarding of points. Entries are only ever inserted, so the ledger of a user
+ * explains how the totals in UserPoints came about.
+ */
+@Document(collection = "points_ledger")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PointsLedgerEntry {
+
+    @Id
+    private String id;
+    private String userId;
+    private PointsType type;
+    private int points;
+    private Date awardedAt;
+
+    public PointsLedgerEntry(String userId, PointsType type, int points) {
+        this.userId = userId;
+        this.type = type;
+        this.points = points;
+        this.awardedAt = new Date();
+    }
+}
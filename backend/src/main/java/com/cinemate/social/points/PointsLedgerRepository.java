@@ -0,0 +1,12 @@
+package com.cinemate.social.points;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PointsLedgerRepository extends MongoRepository<PointsLedgerEntry, String> {
+
+    Page<PointsLedgerEntry> findByUserIdOrderByAwardedAtDesc(String userId, Pageable pageable);
+}
@@ -1,24 +1,43 @@
 package com.cinemate.social.points;
 
+import com.cinemate.social.points.leaderboard.LeaderboardStanding;
+import com.cinemate.social.points.leaderboard.PointsBucketService;
+import com.cinemate.social.points.leaderboard.PointsLeaderboard;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import com.mongodb.DBRef;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PointsService {
     
+    private static final String USER_POINTS = "user_points";
+    private static final int MAX_LEDGER_PAGE_SIZE = 100;
+
     private final UserPointsRepository userPointsRepository;
+    private final PointsLedgerRepository pointsLedgerRepository;
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final PointsLeaderboard pointsLeaderboard;
+    private final PointsBucketService pointsBucketService;
 
     /**
      * Awards points to a user based on the specified point type and custom points value.
@@ -29,27 +48,85 @@ public class PointsService {
      * @return a ResponseEntity containing the result of the operation;
      */
     public ResponseEntity<?> awardPoints(String userId, PointsType pointsType, int customPoints) {
-        try {
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body("User not found");
-            }
-            
-            User user = userOpt.get();
+        if (userId == null || !ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        int pointsToAward = customPoints > 0 ? customPoints : pointsType.getDefaultPoints();
 
-            UserPoints userPoints = userPointsRepository.findByUser_Id(userId)
-                .orElse(new UserPoints(user));
-            
-            int pointsToAward = customPoints > 0 ? customPoints : pointsType.getDefaultPoints();
-            userPoints.addPoints(pointsType, pointsToAward);
-            
-            userPointsRepository.save(userPoints);
-            
-            return ResponseEntity.ok("Points awarded successfully");
-            
+        // the ledger entry is written first under its own award id, the increment is taken from it
+        PointsLedgerEntry award = new PointsLedgerEntry(userId, pointsType, pointsToAward);
+        award.setId(new ObjectId().toHexString());
+        Integer totalPoints;
+        try {
+            pointsLedgerRepository.insert(award);
+            totalPoints = incrementPoints(userId, pointsType, award.getPoints());
         } catch (Exception e) {
+            removeAward(award);
             return ResponseEntity.status(500).body("Error awarding points: " + e.getMessage());
         }
+        if (totalPoints == null) {
+            removeAward(award);
+            return ResponseEntity.badRequest().body("User not found");
+        }
+
+        // the points are stored, the leaderboard and the weekly buckets are derived from them
+        try {
+            pointsLeaderboard.update(userId, totalPoints);
+            pointsBucketService.record(userId, award.getPoints());
+        } catch (Exception e) {
+            log.error("Points of award " + award.getId() + " were stored, but the leaderboard could not be updated: " + e.getMessage());
+        }
+        return ResponseEntity.ok("Points awarded successfully");
+    }
+
+    /**
+     * removes the ledger entry of an award whose points could not be stored
+     */
+    private void removeAward(PointsLedgerEntry award) {
+        try {
+            pointsLedgerRepository.deleteById(award.getId());
+        } catch (Exception e) {
+            log.error("Ledger entry of award " + award.getId() + " has no points and could not be removed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * adds the points to the category and the total of the user with one $inc.
+     * Only the first points of a user create the document, the unique index on the user
+     * turns a concurrent second insert into an increment of the document that won.
+     * @return the new total points, null if the user does not exist
+     */
+    private Integer incrementPoints(String userId, PointsType pointsType, int points) {
+        Query query = Query.query(Criteria.where("user.$id").is(new ObjectId(userId)));
+        query.fields().include("totalPoints");
+        Update update = new Update()
+            .inc(pointsType.getField(), points)
+            .inc("totalPoints", points)
+            .currentDate("lastUpdated");
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true);
+
+        // raw documents, so the user reference is not resolved
+        Document updated = mongoTemplate.findAndModify(query, update, options, Document.class, USER_POINTS);
+        if (updated != null) {
+            return updated.getInteger("totalPoints", points);
+        }
+        if (!userRepository.existsById(userId)) {
+            return null;
+        }
+
+        Document userPoints = new Document("user", new DBRef("users", new ObjectId(userId)))
+            .append("totalPoints", points)
+            .append("lastUpdated", new Date());
+        for (PointsType type : PointsType.values()) {
+            userPoints.append(type.getField(), type == pointsType ? points : 0);
+        }
+        try {
+            mongoTemplate.insert(userPoints, USER_POINTS);
+            return points;
+        } catch (DuplicateKeyException e) {
+            updated = mongoTemplate.findAndModify(query, update, options, Document.class, USER_POINTS);
+            return updated != null ? updated.getInteger("totalPoints", points) : points;
+        }
     }
 
     /**
@@ -67,7 +144,7 @@ public class PointsService {
      * Retrieves the UserPoints object associated with the specified user ID.
      *
      * @param userId the unique identifier of the user whose point record is to be retrieved
-     * @return a ResponseEntity containing the UserPoints object if found or successfully created;
+     * @return a ResponseEntity containing the UserPoints object, with zero points if nothing was awarded yet
      */
     public ResponseEntity<UserPoints> getUserPoints(String userId) {
         try {
@@ -78,9 +155,8 @@ public class PointsService {
                     return ResponseEntity.badRequest().build();
                 }
                 
-                UserPoints newUserPoints = new UserPoints(userOpt.get());
-                userPointsRepository.save(newUserPoints);
-                return ResponseEntity.ok(newUserPoints);
+                // nothing awarded yet, the document is created with the first points
+                return ResponseEntity.ok(new UserPoints(userOpt.get()));
             }
             
             return ResponseEntity.ok(userPointsOpt.get());
@@ -94,20 +170,19 @@ public class PointsService {
      * Retrieves the UserPointsDTO object associated with the specified user ID.
      *
      * @param userId the unique identifier of the user whose point record is to be retrieved
-     * @return a ResponseEntity containing the UserPointsDTO object if found or successfully created
+     * @return a ResponseEntity containing the UserPointsDTO object, with zero points if nothing was awarded yet
      */
     public ResponseEntity<UserPointsDTO> getUserPointsDTO(String userId) {
         try {
-            Optional<UserPoints> userPointsOpt = userPointsRepository.findByUser_Id(userId);
+            Optional<UserPoints> userPointsOpt = userPointsRepository.findByUserId(userId);
             if (userPointsOpt.isEmpty()) {
                 Optional<User> userOpt = userRepository.findById(userId);
                 if (userOpt.isEmpty()) {
                     return ResponseEntity.badRequest().build();
                 }
                 
-                UserPoints newUserPoints = new UserPoints(userOpt.get());
-                userPointsRepository.save(newUserPoints);
-                return ResponseEntity.ok(new UserPointsDTO(newUserPoints));
+                // nothing awarded yet, the document is created with the first points
+                return ResponseEntity.ok(new UserPointsDTO(new UserPoints(userOpt.get())));
             }
             
             return ResponseEntity.ok(new UserPointsDTO(userPointsOpt.get()));
@@ -127,30 +202,23 @@ public class PointsService {
     public ResponseEntity<List<UserPointsDTO>> getLeaderboardDTO(int limit) {
         try {
             
-            List<UserPoints> leaderboard;
-            if (limit <= 10) {
-                leaderboard = userPointsRepository.findTop10ByOrderByTotalPointsDesc();
-            } else {
-                leaderboard = userPointsRepository.findAllOrderByTotalPointsDesc();
-                if (leaderboard.size() > limit) {
-                    leaderboard = leaderboard.subList(0, limit);
-                }
+            List<ObjectId> userIds = new ArrayList<>();
+            for (LeaderboardStanding standing : pointsLeaderboard.getTop(Math.max(limit, 0))) {
+                userIds.add(new ObjectId(standing.getUserId()));
             }
-
-            Map<String, UserPoints> uniqueEntries = new LinkedHashMap<>();
-            for (int i = 0; i < leaderboard.size(); i++) {
-                UserPoints entry = leaderboard.get(i);
-                String userId = entry.getUser().getId();
-                
-                if (!uniqueEntries.containsKey(userId) || 
-                    entry.getTotalPoints() > uniqueEntries.get(userId).getTotalPoints()) {
-                    uniqueEntries.put(userId, entry);
+            Map<String, UserPoints> pointsByUser = new HashMap<>();
+            for (UserPoints userPoints : userPointsRepository.findByUserIdIn(userIds)) {
+                if (userPoints.getUser() != null) {
+                    pointsByUser.put(userPoints.getUser().getId(), userPoints);
                 }
             }
-            
-            List<UserPointsDTO> leaderboardDTO = uniqueEntries.values().stream()
+
+            // keep the order of the leaderboard, users deleted in the meantime are left out
+            List<UserPointsDTO> leaderboardDTO = userIds.stream()
+                .map(userId -> pointsByUser.get(userId.toHexString()))
+                .filter(Objects::nonNull)
                 .map(UserPointsDTO::new)
-                .collect(java.util.stream.Collectors.toList());
+                .collect(Collectors.toList());
             
             return ResponseEntity.ok(leaderboardDTO);
             
@@ -161,35 +229,18 @@ public class PointsService {
     }
 
     /**
-     * Cleans up duplicate UserPoints entries for a user
+     * Retrieves the points ledger of a user, newest entries first.
+     *
+     * @param userId the unique identifier of the user
+     * @param page   the page to return, starting with 0
+     * @param size   the number of entries per page
+     * @return a ResponseEntity containing one page of ledger entries
      */
-    public ResponseEntity<?> cleanupDuplicateUserPoints(String userId) {
-        try {
-            
-            List<UserPoints> allUserPoints = userPointsRepository.findAllByUser_Id(userId);
-            
-            if (allUserPoints.size() <= 1) {
-                return ResponseEntity.ok("No duplicates found");
-            }
-            
-            // Find the one with the most points (keep the best one)
-            UserPoints bestUserPoints = allUserPoints.stream()
-                .max((a, b) -> Integer.compare(a.getTotalPoints(), b.getTotalPoints()))
-                .orElse(allUserPoints.get(0));
-            
-            // Delete all others
-            for (UserPoints up : allUserPoints) {
-                if (!up.getId().equals(bestUserPoints.getId())) {
-                    log.debug("DEBUG: Deleting UserPoints with " + up.getTotalPoints() + " points (ID: " + up.getId() + ")");
-                    userPointsRepository.delete(up);
-                }
-            }
-            
-            return ResponseEntity.ok("Cleaned up " + (allUserPoints.size() - 1) + " duplicate entries");
-            
-        } catch (Exception e) {
-            log.error("Error during cleanup", e);
-            return ResponseEntity.status(500).body("Error during cleanup: " + e.getMessage());
+    public ResponseEntity<Page<PointsLedgerEntry>> getPointsLedger(String userId, int page, int size) {
+        if (page < 0 || size <= 0) {
+            return ResponseEntity.badRequest().build();
         }
+        return ResponseEntity.ok(pointsLedgerRepository.findByUserIdOrderByAwardedAtDesc(
+            userId, PageRequest.of(page, Math.min(size, MAX_LEDGER_PAGE_SIZE))));
     }
 }
@@ -1,18 +1,27 @@
 package com.cinemate.social.points;
 
 public enum PointsType {
-    REVIEW(10),
-    WATCH(5),
-    SOCIAL(15),
-    ACHIEVEMENT(25);
+    REVIEW(10, "reviewPoints"),
+    WATCH(5, "watchPoints"),
+    SOCIAL(15, "socialPoints"),
+    ACHIEVEMENT(25, "achievementPoints");
     
     private final int defaultPoints;
+    private final String field;
     
-    PointsType(int defaultPoints) {
+    PointsType(int defaultPoints, String field) {
         this.defaultPoints = defaultPoints;
+        this.field = field;
     }
     
     public int getDefaultPoints() {
         return defaultPoints;
     }
+
+    /**
+     * returns the field of UserPoints that sums the points of this type
+     */
+    public String getField() {
+        return field;
+    }
 }
@@ -0,0 +1,98 @@
+package com.cinemate.social.points;
+
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares user_points for the unique index on the user before the MongoIndexInitializer creates it.
+ * Duplicate documents of a user were written by concurrent awards, so their points are added up
+ * into the oldest document and the others are removed. Afterwards the old non-unique index is dropped.
+ * Once the unique index exists this runner does nothing.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class UserPointsDeduplication implements CommandLineRunner {
+
+    private static final String USER_POINTS = "user_points";
+    private static final String USER_INDEX = "user";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        IndexOperations indexOps = mongoTemplate.indexOps(USER_POINTS);
+        IndexInfo userIndex = indexOps.getIndexInfo().stream()
+                .filter(index -> USER_INDEX.equals(index.getName()))
+                .findFirst()
+                .orElse(null);
+        if (userIndex != null && userIndex.isUnique()) {
+            return;
+        }
+
+        Query query = new Query().with(Sort.by("_id"));
+        List<String> pointFields = new ArrayList<>(List.of("totalPoints"));
+        for (PointsType type : PointsType.values()) {
+            pointFields.add(type.getField());
+        }
+        query.fields().include("user");
+        pointFields.forEach(field -> query.fields().include(field));
+
+        Map<Object, List<Document>> byUser = new LinkedHashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, USER_POINTS)) {
+            Object ref = document.get("user");
+            Object userId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            if (userId != null) {
+                byUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(document);
+            }
+        }
+
+        int removed = 0;
+        for (List<Document> documents : byUser.values()) {
+            if (documents.size() < 2) {
+                continue;
+            }
+            Document kept = documents.get(0);
+            Update update = new Update();
+            for (String field : pointFields) {
+                int sum = documents.stream().mapToInt(document -> document.getInteger(field, 0)).sum();
+                update.set(field, sum);
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(kept.get("_id"))), update, USER_POINTS);
+
+            List<Object> duplicateIds = new ArrayList<>();
+            for (Document duplicate : documents.subList(1, documents.size())) {
+                duplicateIds.add(duplicate.get("_id"));
+            }
+            removed += (int) mongoTemplate.remove(Query.query(Criteria.where("_id").in(duplicateIds)), USER_POINTS)
+                    .getDeletedCount();
+        }
+
+        if (userIndex != null) {
+            indexOps.dropIndex(USER_INDEX);
+        }
+        if (removed > 0) {
+            log.info("Merged {} duplicate points documents", removed);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cinemate.social.points.leaderboard;
+
+import com.cinemate.user.User;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class LeaderboardEntryDTO {
+
+    private int rank;
+    private String userId;
+    private String username;
+    private String avatarUrl;
+    private int points;
+
+    public LeaderboardEntryDTO(LeaderboardStanding standing, User user) {
+        this.rank = standing.getRank();
+        this.userId = standing.getUserId();
+        this.username = user.getUsername();
+        this.avatarUrl = user.getAvatarUrl();
+        this.points = standing.getPoints();
+    }
+}
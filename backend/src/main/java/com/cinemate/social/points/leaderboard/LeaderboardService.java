@@ -0,0 +1,141 @@
+package com.cinemate.social.points.leaderboard;
+
+import com.cinemate.social.friends.FriendService;
+import com.cinemate.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the leaderboard endpoints. All-time rankings come from the in-memory PointsLeaderboard,
+ * weekly and monthly rankings from the points buckets of the current period.
+ * The names and avatars of the listed users are loaded with a single $in query.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_RANGE = 25;
+
+    private final PointsLeaderboard pointsLeaderboard;
+    private final PointsBucketService pointsBucketService;
+    private final FriendService friendService;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * returns the users with the most points
+     * @param limit at most 100
+     * @return List<LeaderboardEntryDTO>, best first
+     */
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTop(int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(toEntries(pointsLeaderboard.getTop(Math.min(limit, MAX_LIMIT))));
+    }
+
+    /**
+     * returns the users with the most points in the current week, month or of all time
+     * @param window
+     * @param limit at most 100
+     * @return List<LeaderboardEntryDTO>, best first
+     */
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTop(LeaderboardWindow window, int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (window == LeaderboardWindow.ALL_TIME) {
+            return getTop(limit);
+        }
+        return ResponseEntity.ok(toEntries(pointsBucketService.getTop(window, Math.min(limit, MAX_LIMIT))));
+    }
+
+    /**
+     * ranks the user and the user's friends by their points in the current week, month or of all time
+     * @param userId
+     * @param window
+     * @return List<LeaderboardEntryDTO>, best first, ranks are relative to the friends
+     */
+    public ResponseEntity<List<LeaderboardEntryDTO>> getFriendsLeaderboard(String userId, LeaderboardWindow window) {
+        Set<String> userIds = new LinkedHashSet<>(friendService.getFriendIds(userId));
+        userIds.add(userId);
+
+        if (window != LeaderboardWindow.ALL_TIME) {
+            return ResponseEntity.ok(toEntries(pointsBucketService.rankUsers(window, userIds)));
+        }
+
+        List<LeaderboardStanding> allTime = new ArrayList<>();
+        for (String id : userIds) {
+            LeaderboardStanding standing = pointsLeaderboard.getStanding(id);
+            if (standing != null) {
+                allTime.add(standing);
+            }
+        }
+        allTime.sort(Comparator.comparingInt(LeaderboardStanding::getRank));
+        List<LeaderboardStanding> ranked = new ArrayList<>(allTime.size());
+        for (int i = 0; i < allTime.size(); i++) {
+            LeaderboardStanding standing = allTime.get(i);
+            int rank = i > 0 && ranked.get(i - 1).getPoints() == standing.getPoints() ? ranked.get(i - 1).getRank() : i + 1;
+            ranked.add(new LeaderboardStanding(standing.getUserId(), standing.getPoints(), rank));
+        }
+        return ResponseEntity.ok(toEntries(ranked));
+    }
+
+    /**
+     * returns the rank of the user
+     * @param userId
+     * @return LeaderboardEntryDTO, 404 if the user has no points yet
+     */
+    public ResponseEntity<LeaderboardEntryDTO> getRank(String userId) {
+        LeaderboardStanding standing = pointsLeaderboard.getStanding(userId);
+        if (standing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<LeaderboardEntryDTO> entries = toEntries(List.of(standing));
+        return entries.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(entries.get(0));
+    }
+
+    /**
+     * returns the user together with the users ranked directly above and below
+     * @param userId
+     * @param range the number of users on each side, at most 25
+     * @return List<LeaderboardEntryDTO>, best first, 404 if the user has no points yet
+     */
+    public ResponseEntity<List<LeaderboardEntryDTO>> getNeighbours(String userId, int range) {
+        if (range < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<LeaderboardStanding> standings = pointsLeaderboard.getNeighbours(userId, Math.min(range, MAX_RANGE));
+        if (standings.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(toEntries(standings));
+    }
+
+    /**
+     * adds name and avatar to the standings, users deleted in the meantime are left out
+     */
+    private List<LeaderboardEntryDTO> toEntries(List<LeaderboardStanding> standings) {
+        if (standings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> userIds = standings.stream().map(LeaderboardStanding::getUserId).collect(Collectors.toList());
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        query.fields().include("username", "avatarUrl");
+        Map<String, User> users = mongoTemplate.find(query, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return standings.stream()
+                .filter(standing -> users.containsKey(standing.getUserId()))
+                .map(standing -> new LeaderboardEntryDTO(standing, users.get(standing.getUserId())))
+                .collect(Collectors.toList());
+    }
+}
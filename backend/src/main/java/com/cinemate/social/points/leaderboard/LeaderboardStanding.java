@@ -0,0 +1,15 @@
+package com.cinemate.social.points.leaderboard;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The position of a user on a leaderboard. Users with the same points share a rank.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LeaderboardStanding {
+    private final String userId;
+    private final int points;
+    private final int rank;
+}
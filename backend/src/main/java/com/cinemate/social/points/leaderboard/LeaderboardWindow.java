@@ -0,0 +1,52 @@
+package com.cinemate.social.points.leaderboard;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+
+/**
+ * The time windows points are ranked in. Weekly and monthly points are summed in one bucket
+ * per user and period, a new period simply starts new buckets.
+ */
+public enum LeaderboardWindow {
+    WEEK,
+    MONTH,
+    ALL_TIME;
+
+    /**
+     * returns the period of the date, e.g. "2025-W07" for weeks (ISO) and "2025-02" for months
+     * @param date
+     * @return period, null for ALL_TIME
+     */
+    public String period(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case MONTH:
+                return YearMonth.from(date).toString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * parses "week", "month" or "all_time" in any case, "all" is accepted for ALL_TIME
+     * @param value
+     * @return LeaderboardWindow, null if unknown
+     */
+    public static LeaderboardWindow parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toUpperCase().replace('-', '_');
+        if ("ALL".equals(normalized)) {
+            return ALL_TIME;
+        }
+        for (LeaderboardWindow window : values()) {
+            if (window.name().equals(normalized)) {
+                return window;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,171 @@
+package com.cinemate.social.points.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A treap whose nodes know the size of their subtree, so besides insert and remove it answers
+ * "how many keys are smaller" and "which key is at position i" in O(log n).
+ * Not thread safe, callers synchronize.
+ * @param <K> the key, unique according to the comparator
+ */
+class OrderStatisticTree<K> {
+
+    private static final class Node<K> {
+        private final K key;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<K> left;
+        private Node<K> right;
+
+        private Node(K key) {
+            this.key = key;
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private Node<K> root;
+
+    OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * adds the key, which must not be in the tree yet
+     * @param key
+     */
+    void insert(K key) {
+        Node<K>[] parts = split(root, key);
+        root = merge(merge(parts[0], new Node<>(key)), parts[1]);
+    }
+
+    /**
+     * removes the key if it is in the tree
+     * @param key
+     * @return true if the key was removed
+     */
+    boolean remove(K key) {
+        int sizeBefore = size(root);
+        root = remove(root, key);
+        return size(root) < sizeBefore;
+    }
+
+    /**
+     * returns the number of keys that are smaller than the given key
+     * @param key does not need to be in the tree
+     * @return count
+     */
+    int countLess(K key) {
+        int count = 0;
+        Node<K> node = root;
+        while (node != null) {
+            if (comparator.compare(node.key, key) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * returns the keys at the positions from (inclusive) to to (exclusive) in ascending order
+     * @param from
+     * @param to
+     * @return List<K>, shorter if the tree has fewer keys
+     */
+    List<K> range(int from, int to) {
+        List<K> keys = new ArrayList<>(Math.max(0, Math.min(to, size()) - from));
+        collect(root, Math.max(0, from), to, 0, keys);
+        return keys;
+    }
+
+    /**
+     * in-order walk that skips all subtrees outside of [from, to)
+     */
+    private void collect(Node<K> node, int from, int to, int offset, List<K> keys) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, from, to, offset, keys);
+        if (position >= from && position < to) {
+            keys.add(node.key);
+        }
+        collect(node.right, from, to, position + 1, keys);
+    }
+
+    private Node<K> remove(Node<K> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = comparator.compare(key, node.key);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, key);
+        } else {
+            node.right = remove(node.right, key);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * splits the subtree into the keys smaller than the given key and the others
+     */
+    @SuppressWarnings("unchecked")
+    private Node<K>[] split(Node<K> node, K key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (comparator.compare(node.key, key) < 0) {
+            Node<K>[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node<K>[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    /**
+     * joins two subtrees where all keys of the first are smaller than those of the second
+     */
+    private Node<K> merge(Node<K> smaller, Node<K> larger) {
+        if (smaller == null) {
+            return larger;
+        }
+        if (larger == null) {
+            return smaller;
+        }
+        if (smaller.priority > larger.priority) {
+            smaller.right = merge(smaller.right, larger);
+            update(smaller);
+            return smaller;
+        }
+        larger.left = merge(smaller, larger.left);
+        update(larger);
+        return larger;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinemate.social.points.leaderboard;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * The points one user was awarded in one week or month. Maintained with $inc on every award,
+ * removed by a TTL index once the period is older than the configured retention.
+ */
+@Document(collection = "user_points_buckets")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PointsBucket {
+
+    @Id
+    private String id;
+    private String userId;
+    private LeaderboardWindow window;
+    private String period;
+    private int points;
+    private Date expiresAt;
+
+    public static String id(String userId, String period) {
+        return userId + "_" + period;
+    }
+}
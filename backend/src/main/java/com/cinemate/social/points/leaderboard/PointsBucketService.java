@@ -0,0 +1,103 @@
+package com.cinemate.social.points.leaderboard;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Records awarded points into weekly and monthly buckets and ranks users within a period.
+ * Both buckets of an award are written with one unordered bulk upsert, the current week or month
+ * is found by its period key, so a new period starts without recomputing anything.
+ */
+@Service
+@RequiredArgsConstructor
+public class PointsBucketService {
+
+    private static final String BUCKETS = "user_points_buckets";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cinemate.leaderboard.bucket-retention-days:400}")
+    private int retentionDays;
+
+    /**
+     * adds the points to the current week and month of the user
+     * @param userId
+     * @param points
+     */
+    public void record(String userId, int points) {
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        Date expiresAt = Date.from(today.plus(retentionDays, ChronoUnit.DAYS).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PointsBucket.class);
+        for (LeaderboardWindow window : List.of(LeaderboardWindow.WEEK, LeaderboardWindow.MONTH)) {
+            String period = window.period(today);
+            Update update = new Update()
+                    .inc("points", points)
+                    .setOnInsert("userId", userId)
+                    .setOnInsert("window", window)
+                    .setOnInsert("period", period)
+                    .setOnInsert("expiresAt", expiresAt);
+            bulkOps.upsert(Query.query(Criteria.where("_id").is(PointsBucket.id(userId, period))), update);
+        }
+        bulkOps.execute();
+    }
+
+    /**
+     * returns the users with the most points in the current period of the window
+     * @param window WEEK or MONTH
+     * @param limit
+     * @return List<LeaderboardStanding>, best first
+     */
+    public List<LeaderboardStanding> getTop(LeaderboardWindow window, int limit) {
+        String period = window.period(LocalDate.now(ZoneId.systemDefault()));
+        Query query = Query.query(Criteria.where("period").is(period))
+                .with(Sort.by(Sort.Direction.DESC, "points"))
+                .limit(limit);
+        query.fields().include("userId", "points");
+        return rank(mongoTemplate.find(query, Document.class, BUCKETS));
+    }
+
+    /**
+     * ranks the given users by their points in the current period of the window
+     * @param window WEEK or MONTH
+     * @param userIds
+     * @return List<LeaderboardStanding>, best first, users without points in the period are left out
+     */
+    public List<LeaderboardStanding> rankUsers(LeaderboardWindow window, Collection<String> userIds) {
+        String period = window.period(LocalDate.now(ZoneId.systemDefault()));
+        List<String> ids = userIds.stream().map(userId -> PointsBucket.id(userId, period)).collect(Collectors.toList());
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("userId", "points");
+
+        List<Document> buckets = new ArrayList<>(mongoTemplate.find(query, Document.class, BUCKETS));
+        buckets.sort(Comparator.comparingInt((Document bucket) -> bucket.getInteger("points", 0)).reversed());
+        return rank(buckets);
+    }
+
+    /**
+     * turns buckets sorted by points into standings, equal points share a rank
+     */
+    private static List<LeaderboardStanding> rank(List<Document> buckets) {
+        List<LeaderboardStanding> standings = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            int points = buckets.get(i).getInteger("points", 0);
+            int rank = i > 0 && standings.get(i - 1).getPoints() == points ? standings.get(i - 1).getRank() : i + 1;
+            standings.add(new LeaderboardStanding(buckets.get(i).getString("userId"), points, rank));
+        }
+        return standings;
+    }
+}
@@ -0,0 +1,202 @@
+package com.cinemate.social.points.leaderboard;
+
+import com.mongodb.DBRef;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * All-time ranking of the users by their total points, held in memory.
+ * Seeded from user_points at startup and updated with the new total after every award,
+ * so top lists, ranks and neighbours are answered in O(log n) without touching the database.
+ * Totals only grow, an update with a lower total than the known one is ignored, which makes
+ * updates from concurrent awards and the seeding order independent.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PointsLeaderboard implements CommandLineRunner, MeterBinder {
+
+    private static final String USER_POINTS = "user_points";
+
+    /**
+     * most points first, equal points ordered by user id; the empty user id sorts before all others
+     */
+    private static final Comparator<Key> ORDER = Comparator.comparingInt((Key key) -> key.points).reversed()
+            .thenComparing(key -> key.userId);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final OrderStatisticTree<Key> tree = new OrderStatisticTree<>(ORDER);
+    private final Map<String, Integer> pointsByUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Key {
+        private final String userId;
+        private final int points;
+
+        private Key(String userId, int points) {
+            this.userId = userId;
+            this.points = points;
+        }
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Query query = new Query();
+        query.fields().include("user", "totalPoints");
+
+        int seeded = 0;
+        for (Document document : mongoTemplate.find(query, Document.class, USER_POINTS)) {
+            Object ref = document.get("user");
+            Object userId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            if (userId != null) {
+                update(userId.toString(), document.getInteger("totalPoints", 0));
+                seeded++;
+            }
+        }
+        log.info("Seeded the points leaderboard with {} users", seeded);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cinemate.leaderboard.entries", this, PointsLeaderboard::size)
+                .description("Users on the in-memory points leaderboard")
+                .register(registry);
+    }
+
+    /**
+     * sets the total points of the user, a total below the known one is ignored
+     * @param userId
+     * @param totalPoints
+     */
+    public void update(String userId, int totalPoints) {
+        lock.writeLock().lock();
+        try {
+            Integer current = pointsByUser.get(userId);
+            if (current != null) {
+                if (current >= totalPoints) {
+                    return;
+                }
+                tree.remove(new Key(userId, current));
+            }
+            tree.insert(new Key(userId, totalPoints));
+            pointsByUser.put(userId, totalPoints);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * removes the user from the leaderboard
+     * @param userId
+     */
+    public void remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            Integer current = pointsByUser.remove(userId);
+            if (current != null) {
+                tree.remove(new Key(userId, current));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * returns the users with the most points
+     * @param limit
+     * @return List<LeaderboardStanding>, best first
+     */
+    public List<LeaderboardStanding> getTop(int limit) {
+        lock.readLock().lock();
+        try {
+            return toStandings(tree.range(0, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the standing of the user
+     * @param userId
+     * @return LeaderboardStanding, null if the user has no points yet
+     */
+    public LeaderboardStanding getStanding(String userId) {
+        lock.readLock().lock();
+        try {
+            Integer points = pointsByUser.get(userId);
+            return points == null ? null : new LeaderboardStanding(userId, points, rankOf(points));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the user together with the users ranked directly above and below
+     * @param userId
+     * @param range the number of users on each side
+     * @return List<LeaderboardStanding>, best first, empty if the user has no points yet
+     */
+    public List<LeaderboardStanding> getNeighbours(String userId, int range) {
+        lock.readLock().lock();
+        try {
+            Integer points = pointsByUser.get(userId);
+            if (points == null) {
+                return new ArrayList<>();
+            }
+            int position = tree.countLess(new Key(userId, points));
+            return toStandings(tree.range(position - range, position + range + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * returns the number of users on the leaderboard
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<LeaderboardStanding> toStandings(List<Key> keys) {
+        List<LeaderboardStanding> standings = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            // users with equal points share the rank of the first of them
+            int rank = i > 0 && keys.get(i - 1).points == key.points
+                    ? standings.get(i - 1).getRank()
+                    : rankOf(key.points);
+            standings.add(new LeaderboardStanding(key.userId, key.points, rank));
+        }
+        return standings;
+    }
+
+    /**
+     * 1 + the number of users with more points
+     */
+    private int rankOf(int points) {
+        return tree.countLess(new Key("", points)) + 1;
+    }
+}
@@ -1,39 +1,51 @@
 package com.cinemate.statistics;
 
-import com.cinemate.social.friends.Friend;
 import com.cinemate.statistics.DTOs.*;
 import com.cinemate.statistics.DTOs.activities.MonthlyActivityDTO;
 import com.cinemate.statistics.DTOs.activities.RecentActivityDTO;
 import com.cinemate.statistics.DTOs.activities.YearlyActivityDTO;
 import com.cinemate.user.User;
 import com.cinemate.user.UserRepository;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import com.cinemate.user.media.UserMediaService;
 import com.cinemate.review.Review;
 import com.cinemate.review.ReviewRepository;
-import com.cinemate.social.friends.FriendRepository;
-import com.cinemate.movie.Movie;
+import com.cinemate.social.friends.FriendAdjacencyCache;
 import com.cinemate.movie.MovieRepository;
-import com.cinemate.series.Series;
 import com.cinemate.series.SeriesRepository;
+import com.cinemate.statistics.activity.MonthlyActivityBucket;
+import com.cinemate.statistics.activity.WatchActivityService;
+import com.cinemate.statistics.activity.WatchActivitySummary;
+import com.cinemate.utils.CreditUtil;
+import com.cinemate.utils.CreditUtil.Credits;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "cinemate.statistics", description = "Latency of the public statistics methods")
 public class UserStatisticsService {
 
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
-    private final FriendRepository friendRepository;
+    private final FriendAdjacencyCache friendAdjacencyCache;
     private final MovieRepository movieRepository;
     private final SeriesRepository seriesRepository;
+    private final UserMediaService userMediaService;
+    private final WatchActivityService watchActivityService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Calculates and retrieves detailed user statistics based on the given user ID and time period.
@@ -48,21 +60,38 @@ public class UserStatisticsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        LocalDateTime startDate = getStartDateForPeriod(period);
-        
+        // whole calendar months, so the buckets and every other metric cover exactly the same window
+        YearMonth startMonth = getStartMonthForPeriod(period);
+        Date since = startMonth != null
+                ? Date.from(startMonth.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant()) : null;
+
+        // one bucket per active month, so the whole history is a handful of documents summed in memory
+        List<MonthlyActivityBucket> buckets = watchActivityService.getBuckets(user.getId());
+        WatchActivitySummary summary = WatchActivitySummary.of(buckets, startMonth != null ? startMonth.toString() : null);
+
+        // only the credits of the watched titles are read, resolving their actor and director DBRefs costs two queries per title
+        List<Credits> watchedCredits = new ArrayList<>(CreditUtil.readCredits(mongoTemplate, "movies",
+                userMediaService.getItemIds(user.getId(), MediaListType.WATCHED, UserMediaEntry.TYPE_MOVIE, since)).values());
+        watchedCredits.addAll(CreditUtil.readCredits(mongoTemplate, "series",
+                userMediaService.getItemIds(user.getId(), MediaListType.WATCHED, UserMediaEntry.TYPE_SERIES, since)).values());
+
+        // every review metric is computed from one read of the user's reviews and one lookup of their titles
+        List<Review> reviews = reviewRepository.findByUserId(userId);
+        Map<String, ReviewedTitle> reviewedTitles = findReviewedTitles(reviews);
+
         return UserStatisticsDTO.builder()
-                .totalHoursWatched(calculateTotalHours(user, startDate))
-                .totalMoviesWatched(calculateMoviesWatched(user, startDate))
-                .totalSeriesWatched(calculateSeriesWatched(user, startDate))
-                .totalEpisodesWatched(calculateEpisodesWatched(user, startDate))
-                .averageRating(calculateAverageRating(userId, startDate))
-                .topGenres(calculateTopGenres(user, startDate))
-                .favoriteActors(calculateFavoriteActors(user, startDate))
-                .favoriteDirectors(calculateFavoriteDirectors(user, startDate))
-                .monthlyActivity(calculateMonthlyActivity(userId, period))
-                .yearlyActivity(calculateYearlyActivity(userId))
-                .recentActivity(getRecentActivity(userId))
-                .watchingPatterns(calculateWatchingPatterns(userId))
+                .totalHoursWatched(summary.getHoursWatched())
+                .totalMoviesWatched(summary.getMoviesWatched())
+                .totalSeriesWatched(summary.getSeriesWatched())
+                .totalEpisodesWatched(summary.getEpisodesWatched())
+                .averageRating(calculateAverageRating(reviews, since))
+                .topGenres(calculateTopGenres(summary))
+                .favoriteActors(calculateFavoriteActors(watchedCredits))
+                .favoriteDirectors(calculateFavoriteDirectors(watchedCredits))
+                .monthlyActivity(calculateMonthlyActivity(buckets))
+                .yearlyActivity(calculateYearlyActivity(buckets))
+                .recentActivity(getRecentActivity(reviews, reviewedTitles))
+                .watchingPatterns(calculateWatchingPatterns(reviews, reviewedTitles))
                 .build();
     }
 
@@ -78,22 +107,17 @@ public class UserStatisticsService {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
-            List<Friend> friendships = friendRepository.findAcceptedFriendshipsByUser(user);
-            
-            return friendships.stream()
-                    .map(friendship -> {
-                        User friend = friendship.getRequester().getId().equals(userId) 
-                            ? friendship.getRecipient() 
-                            : friendship.getRequester();
-                        
+            return friendAdjacencyCache.getFriends(user.getId()).stream()
+                    .map(friend -> {
                         try {
+                            WatchActivitySummary summary = watchActivityService.summarize(friend.getId(), null);
                             return FriendStatisticsDTO.builder()
                                     .userId(friend.getId())
                                     .username(friend.getUsername())
-                                    .totalHoursWatched(calculateTotalHours(friend, null))
-                                    .totalMoviesWatched(calculateMoviesWatched(friend, null))
-                                    .totalSeriesWatched(calculateSeriesWatched(friend, null))
-                                    .averageRating(calculateAverageRating(friend.getId(), null))
+                                    .totalHoursWatched(summary.getHoursWatched())
+                                    .totalMoviesWatched(summary.getMoviesWatched())
+                                    .totalSeriesWatched(summary.getSeriesWatched())
+                                    .averageRating(calculateAverageRating(reviewRepository.findByUserId(friend.getId()), null))
                                     .build();
                         } catch (Exception e) {
                             log.error("Error building FriendStatisticsDTO for friend: " + friend.getUsername() + " - " + e.getMessage());
@@ -109,19 +133,19 @@ public class UserStatisticsService {
     }
 
     /**
-     * Calculates the start date based on the given period.
+     * Calculates the first month of the given period.
      *
-     * @param period the period for which the start date is to be determined.
-     *               Valid values are "month", "year", and "all".
-     * @return the start date as a LocalDateTime for the specified period.
+     * @param period the period for which the first month is to be determined.
+     *               Valid values are "month" (the current month), "year" (the last 12 months) and "all".
+     * @return the first month of the period, null for all time.
      */
-    private LocalDateTime getStartDateForPeriod(String period) {
-        LocalDateTime now = LocalDateTime.now();
+    private YearMonth getStartMonthForPeriod(String period) {
+        YearMonth currentMonth = YearMonth.now();
         switch (period.toLowerCase()) {
             case "month":
-                return now.minusMonths(1);
+                return currentMonth;
             case "year":
-                return now.minusYears(1);
+                return currentMonth.minusMonths(11);
             case "all":
             default:
                 return null;
@@ -129,150 +153,34 @@ public class UserStatisticsService {
     }
 
     /**
-     * Calculates the total number of hours of movies and series watched by the user
-     * starting from the specified date.
-     *
-     * @param user the user whose watched media will be analyzed
-     * @param startDate the date from which to begin the analysis of watched media
-     * @return the total number of watched hours as an Integer, aggregated from both movies and series
-     */
-    private Integer calculateTotalHours(User user, LocalDateTime startDate) {
-        List<Movie> watchedMovies = user.getMoviesWatched();
-        List<Series> watchedSeries = user.getSeriesWatched();
-
-        // calculate hours for movies
-        int movieHours = watchedMovies.stream()
-                .mapToInt(movie -> {
-                    // try to parse the duration
-                    try {
-                        String duration = movie.getDuration();
-                        if (duration != null && !duration.isEmpty()) {
-                            // Remove "min" or other text suffixes and parse the number
-                            String numberOnly = duration.replaceAll("[^0-9]", "");
-                            return numberOnly.isEmpty() ? 0 : Integer.parseInt(numberOnly);
-                        }
-                        return 0;
-                    } catch (NumberFormatException e) {
-                        return 0; // Fallback if parsing fails
-                    }
-                })
-                .sum();
-
-        // calculate hours for series
-        int seriesHours = watchedSeries.stream()
-                .mapToInt(series -> {
-                    // Calculate the total running time of a series based on seasons
-                    if (series.getSeasons() != null && !series.getSeasons().isEmpty()) {
-                        return series.getSeasons().stream()
-                                .mapToInt(season -> {
-                                    int episodeCount = season.getEpisodes() != null ? season.getEpisodes().size() : 0;
-                                    return episodeCount * 45;
-                                })
-                                .sum();
-                    }
-                    return 0;
-                })
-                .sum();
-
-        return (movieHours + seriesHours) / 60; // convert minutes to hours
-    }
-
-    private Integer calculateMoviesWatched(User user, LocalDateTime startDate) {
-        return user.getMoviesWatched().size();
-    }
-
-    private Integer calculateSeriesWatched(User user, LocalDateTime startDate) {
-        return user.getSeriesWatched().size();
-    }
-
-    /**
-     * Calculates the total number of episodes watched by the user starting from a specified date.
-     *
-     * @param user the user whose watched episodes are to be calculated
-     * @param startDate the start date from which episodes watched are considered
-     * @return the total number of episodes watched by the user
-     */
-    private Integer calculateEpisodesWatched(User user, LocalDateTime startDate) {
-        return user.getSeriesWatched().stream()
-                .mapToInt(series -> {
-                    if (series.getSeasons() != null && !series.getSeasons().isEmpty()) {
-                        return series.getSeasons().stream()
-                                .mapToInt(season -> season.getEpisodes() != null ? season.getEpisodes().size() : 0)
-                                .sum();
-                    }
-                    return 0;
-                })
-                .sum();
-    }
-
-    /**
-     * Calculates the average rating of reviews for a given user. If a start date is provided,
-     * only reviews created after the specified start date are considered.
+     * Calculates the average rating of the given reviews. If a start date is provided,
+     * only reviews created since the specified start date are considered.
      *
-     * @param userId the unique identifier of the user whose reviews should be evaluated
-     * @param startDate the date after which reviews are considered; if null, all reviews are included
+     * @param reviews all reviews of the user
+     * @param since the date from which reviews are considered; if null, all reviews are included
      * @return the average rating of the user's reviews; returns 0.0 if no reviews are found
      */
-    private Double calculateAverageRating(String userId, LocalDateTime startDate) {
-        List<Review> reviews = startDate != null
-            ? reviewRepository.findByUserIdAndDateAfter(userId, Date.from(startDate.atZone(ZoneId.systemDefault()).toInstant()))
-            : reviewRepository.findByUserId(userId);
-
+    private Double calculateAverageRating(List<Review> reviews, Date since) {
         return reviews.stream()
+                .filter(review -> since == null || (review.getDate() != null && !review.getDate().before(since)))
                 .mapToDouble(Review::getRating)
                 .average()
                 .orElse(0.0);
     }
 
-    private List<GenreStatisticsDTO> calculateTopGenres(User user, LocalDateTime startDate) {
-        List<Movie> watchedMovies = user.getMoviesWatched();
-        List<Series> watchedSeries = user.getSeriesWatched();
-
-        Map<String, GenreStats> genreMap = new HashMap<>();
-
-        // process movies
-        watchedMovies.forEach(movie -> {
-            if (movie.getGenre() != null && !movie.getGenre().isEmpty()) {
-                String genreName = movie.getGenre();
-                GenreStats stats = genreMap.getOrDefault(genreName, new GenreStats());
-                stats.count++;
-                // try to parse the duration
-                try {
-                    String duration = movie.getDuration();
-                    if (duration != null && !duration.isEmpty()) {
-                        String numberOnly = duration.replaceAll("[^0-9]", "");
-                        int minutes = numberOnly.isEmpty() ? 0 : Integer.parseInt(numberOnly);
-                        stats.hours += minutes / 60;
-                    }
-                } catch (NumberFormatException e) {
-                    // Fallback to 0 if parsing fails
-                }
-                genreMap.put(genreName, stats);
-            }
-        });
-
-        // process series
-        watchedSeries.forEach(series -> {
-            if (series.getGenre() != null && !series.getGenre().isEmpty()) {
-                String genreName = series.getGenre();
-                GenreStats stats = genreMap.getOrDefault(genreName, new GenreStats());
-                stats.count++;
-                // calculate hours basaed on seasons
-                if (series.getSeasons() != null && !series.getSeasons().isEmpty()) {
-                    int totalEpisodes = series.getSeasons().stream()
-                            .mapToInt(season -> season.getEpisodes() != null ? season.getEpisodes().size() : 0)
-                            .sum();
-                    stats.hours += (totalEpisodes * 45) / 60;
-                }
-                genreMap.put(genreName, stats);
-            }
-        });
-
-        return genreMap.entrySet().stream()
+    /**
+     * Returns the most watched genres of a period from the genre histograms of its buckets
+     *
+     * @param summary the summed buckets of the period
+     * @return up to 8 genres with their watch count and hours, most watched first
+     */
+    static List<GenreStatisticsDTO> calculateTopGenres(WatchActivitySummary summary) {
+        return summary.getGenreCounts().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
                 .map(entry -> GenreStatisticsDTO.builder()
                         .name(entry.getKey())
-                        .count(entry.getValue().count)
-                        .hours(entry.getValue().hours)
+                        .count(entry.getValue())
+                        .hours((int) (summary.getGenreMinutes().getOrDefault(entry.getKey(), 0L) / 60))
                         .build())
                 .sorted((a, b) -> b.getCount().compareTo(a.getCount()))
                 .limit(8)
@@ -283,34 +191,12 @@ public class UserStatisticsService {
      * Calculates the list of favorite actors based on the movies and series
      * watched by the user within a specific time frame.
      *
-     * @param user the user object containing the list of movies and series they have watched
-     * @param startDate the start date for filtering the movies and series watched by the user
+     * @param watchedCredits the credits of the movies and series the user has watched in the period
      * @return a list of ActorStatisticsDTO objects representing the top favorite actors
      *         and their respective counts, sorted in descending order
      */
-    private List<ActorStatisticsDTO> calculateFavoriteActors(User user, LocalDateTime startDate) {
-        List<Movie> watchedMovies = user.getMoviesWatched();
-        List<Series> watchedSeries = user.getSeriesWatched();
-
-        Map<String, Integer> actorCounts = new HashMap<>();
-
-        // process movies
-        watchedMovies.forEach(movie -> {
-            if (movie.getActors() != null) {
-                movie.getActors().forEach(actor -> {
-                    actorCounts.merge(actor.getName(), 1, Integer::sum);
-                });
-            }
-        });
-
-        // process series
-        watchedSeries.forEach(series -> {
-            if (series.getActors() != null) {
-                series.getActors().forEach(actor -> {
-                    actorCounts.merge(actor.getName(), 1, Integer::sum);
-                });
-            }
-        });
+    private List<ActorStatisticsDTO> calculateFavoriteActors(List<Credits> watchedCredits) {
+        Map<String, Integer> actorCounts = countByName("actors", watchedCredits, Credits::getActorIds);
 
         return actorCounts.entrySet().stream()
                 .map(entry -> ActorStatisticsDTO.builder()
@@ -324,36 +210,14 @@ public class UserStatisticsService {
 
     /**
      * Calculates the list of favorite directors for the given user based on the
-     * movies and series they have watched. Only considers data created prior to the specified start date.
+     * movies and series they have watched in the period.
      * The result is a sorted list of directors in descending order of their occurrences.
      *
-     * @param user the user whose favorite directors are to be calculated
-     * @param startDate the timestamp used as a reference to filter data
+     * @param watchedCredits the credits of the movies and series the user has watched in the period
      * @return a list of DirectorStatisticsDTO objects representing the user's favorite directors
      */
-    private List<DirectorStatisticsDTO> calculateFavoriteDirectors(User user, LocalDateTime startDate) {
-        List<Movie> watchedMovies = user.getMoviesWatched();
-        List<Series> watchedSeries = user.getSeriesWatched();
-
-        Map<String, Integer> directorCounts = new HashMap<>();
-
-        // process movies
-        watchedMovies.forEach(movie -> {
-            if (movie.getDirectors() != null) {
-                movie.getDirectors().forEach(director -> {
-                    directorCounts.merge(director.getName(), 1, Integer::sum);
-                });
-            }
-        });
-
-        // process series
-        watchedSeries.forEach(series -> {
-            if (series.getDirectors() != null) {
-                series.getDirectors().forEach(director -> {
-                    directorCounts.merge(director.getName(), 1, Integer::sum);
-                });
-            }
-        });
+    private List<DirectorStatisticsDTO> calculateFavoriteDirectors(List<Credits> watchedCredits) {
+        Map<String, Integer> directorCounts = countByName("directors", watchedCredits, Credits::getDirectorIds);
 
         return directorCounts.entrySet().stream()
                 .map(entry -> DirectorStatisticsDTO.builder()
@@ -365,77 +229,55 @@ public class UserStatisticsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Counts how many of the titles each actor or director appears in, by name,
+     * with the names read in one query
+     *
+     * @param collection "actors" or "directors"
+     * @param credits the credits of the titles
+     * @param ids the actor or director ids of a title
+     * @return number of titles by name
+     */
+    private Map<String, Integer> countByName(String collection, List<Credits> credits, Function<Credits, List<String>> ids) {
+        Map<String, Integer> countsById = new HashMap<>();
+        credits.forEach(title -> ids.apply(title).forEach(id -> countsById.merge(id, 1, Integer::sum)));
+
+        Map<String, String> names = CreditUtil.readNames(mongoTemplate, collection, countsById.keySet());
+        Map<String, Integer> countsByName = new HashMap<>();
+        countsById.forEach((id, count) -> {
+            String name = names.get(id);
+            if (name != null) {
+                countsByName.merge(name, count, Integer::sum);
+            }
+        });
+        return countsByName;
+    }
+
     /**
      * Calculates the monthly activity data for a user over a specified period of one year.
      * The method generates a list of monthly activity summaries including details like
      * viewing hours, movie count, and series count for each month.
      *
-     * @param userId the unique identifier of the user whose activity is to be calculated
-     * @param period the period for which the activity is being calculated, given in a specific format
-     * @return a list of MonthlyActivityDTO objects representing the activity data for each month in the defined period
+     * @param buckets the monthly activity buckets of the user
+     * @return a list of MonthlyActivityDTO objects representing the activity data for each of the last 12 months
      */
-    private List<MonthlyActivityDTO> calculateMonthlyActivity(String userId, String period) {
+    private List<MonthlyActivityDTO> calculateMonthlyActivity(List<MonthlyActivityBucket> buckets) {
         List<MonthlyActivityDTO> activities = new ArrayList<>();
 
-        List<Review> userReviews = reviewRepository.findByUserId(userId);
+        Map<String, MonthlyActivityBucket> bucketsByMonth = buckets.stream()
+                .collect(Collectors.toMap(MonthlyActivityBucket::getMonth, bucket -> bucket));
 
-        Map<String, MonthlyStats> monthlyStats = new HashMap<>();
-        
-        // Initialize last 12 months
+        // last 12 months, months without activity are reported as zero
+        YearMonth currentMonth = YearMonth.now();
         for (int i = 11; i >= 0; i--) {
-            LocalDateTime date = LocalDateTime.now().minusMonths(i);
-            String monthKey = date.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            monthlyStats.put(monthKey, new MonthlyStats());
-        }
-        
-        // Process reviews to calculate monthly activity
-        userReviews.forEach(review -> {
-            LocalDateTime reviewDate = LocalDateTime.ofInstant(
-                review.getDate().toInstant(),
-                ZoneId.systemDefault()
-            );
-            String monthKey = reviewDate.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            
-            MonthlyStats stats = monthlyStats.get(monthKey);
-            if (stats != null) {
-                // Check if it's a movie or series
-                Optional<Movie> movie = movieRepository.findById(review.getItemId());
-                if (movie.isPresent()) {
-                    stats.moviesCount++;
-                    // Add movie duration to hours
-                    try {
-                        String duration = movie.get().getDuration();
-                        if (duration != null && !duration.isEmpty()) {
-                            String numberOnly = duration.replaceAll("[^0-9]", "");
-                            int minutes = numberOnly.isEmpty() ? 0 : Integer.parseInt(numberOnly);
-                            stats.hours += minutes / 60;
-                        }
-                    } catch (NumberFormatException e) {
-                        // Fallback duration for movies
-                        stats.hours += 2;
-                    }
-                } else {
-                    Optional<Series> series = seriesRepository.findById(review.getItemId());
-                    if (series.isPresent()) {
-                        stats.seriesCount++;
-                        // Add estimated series hours
-                        stats.hours += 5; // Estimate for series viewing
-                    }
-                }
-            }
-        });
-        
-        // Convert to DTOs
-        for (int i = 11; i >= 0; i--) {
-            LocalDateTime date = LocalDateTime.now().minusMonths(i);
-            String monthKey = date.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            MonthlyStats stats = monthlyStats.get(monthKey);
-            
+            String monthKey = currentMonth.minusMonths(i).toString();
+            MonthlyActivityBucket bucket = bucketsByMonth.get(monthKey);
+
             activities.add(MonthlyActivityDTO.builder()
                     .month(monthKey)
-                    .hours(stats.hours)
-                    .moviesCount(stats.moviesCount)
-                    .seriesCount(stats.seriesCount)
+                    .hours(bucket != null ? (int) (bucket.getMinutesWatched() / 60) : 0)
+                    .moviesCount(bucket != null ? bucket.getMoviesWatched() : 0)
+                    .seriesCount(bucket != null ? bucket.getSeriesWatched() : 0)
                     .build());
         }
         
@@ -447,75 +289,28 @@ public class UserStatisticsService {
      * The activity includes details like the number of hours spent, movies watched, and series watched
      * over the past three years.
      *
-     * @param userId The unique identifier of the user whose activity data is to be calculated.
+     * @param buckets the monthly activity buckets of the user
      * @return A list of YearlyActivityDTO objects containing yearly activity details for the user.
      */
-    private List<YearlyActivityDTO> calculateYearlyActivity(String userId) {
+    private List<YearlyActivityDTO> calculateYearlyActivity(List<MonthlyActivityBucket> buckets) {
         List<YearlyActivityDTO> activities = new ArrayList<>();
 
-        List<Review> userReviews = reviewRepository.findByUserId(userId);
-
         Map<String, YearlyStats> yearlyStats = new HashMap<>();
-        
-        // Initialize last 3 years
-        for (int i = 2; i >= 0; i--) {
-            int year = LocalDateTime.now().minusYears(i).getYear();
-            yearlyStats.put(String.valueOf(year), new YearlyStats());
-        }
-        
-        // Process reviews to calculate yearly activity
-        userReviews.forEach(review -> {
-            LocalDateTime reviewDate = LocalDateTime.ofInstant(
-                review.getDate().toInstant(),
-                ZoneId.systemDefault()
-            );
-            String yearKey = String.valueOf(reviewDate.getYear());
-            
-            YearlyStats stats = yearlyStats.get(yearKey);
-            if (stats != null) {
-                // Check if it's a movie or series
-                Optional<Movie> movie = movieRepository.findById(review.getItemId());
-                if (movie.isPresent()) {
-                    stats.moviesCount++;
-                    // Add movie duration to hours
-                    try {
-                        String duration = movie.get().getDuration();
-                        if (duration != null && !duration.isEmpty()) {
-                            String numberOnly = duration.replaceAll("[^0-9]", "");
-                            int minutes = numberOnly.isEmpty() ? 0 : Integer.parseInt(numberOnly);
-                            stats.hours += minutes / 60;
-                        }
-                    } catch (NumberFormatException e) {
-                        // Fallback duration for movies
-                        stats.hours += 2;
-                    }
-                } else {
-                    Optional<Series> series = seriesRepository.findById(review.getItemId());
-                    if (series.isPresent()) {
-                        stats.seriesCount++;
-                        // Add estimated series hours
-                        if (series.get().getSeasons() != null && !series.get().getSeasons().isEmpty()) {
-                            int totalEpisodes = series.get().getSeasons().stream()
-                                    .mapToInt(season -> season.getEpisodes() != null ? season.getEpisodes().size() : 0)
-                                    .sum();
-                            stats.hours += (totalEpisodes * 45) / 60;
-                        } else {
-                            stats.hours += 10; // Fallback estimate
-                        }
-                    }
-                }
-            }
+        buckets.forEach(bucket -> {
+            YearlyStats stats = yearlyStats.computeIfAbsent(bucket.getMonth().substring(0, 4), year -> new YearlyStats());
+            stats.minutes += bucket.getMinutesWatched();
+            stats.moviesCount += bucket.getMoviesWatched();
+            stats.seriesCount += bucket.getSeriesWatched();
         });
         
-        // Convert to DTOs
+        // last 3 years, years without activity are reported as zero
         for (int i = 2; i >= 0; i--) {
-            int year = LocalDateTime.now().minusYears(i).getYear();
-            String yearKey = String.valueOf(year);
-            YearlyStats stats = yearlyStats.get(yearKey);
+            String yearKey = String.valueOf(LocalDateTime.now().minusYears(i).getYear());
+            YearlyStats stats = yearlyStats.getOrDefault(yearKey, new YearlyStats());
             
             activities.add(YearlyActivityDTO.builder()
                     .year(yearKey)
-                    .hours(stats.hours)
+                    .hours((int) (stats.minutes / 60))
                     .moviesCount(stats.moviesCount)
                     .seriesCount(stats.seriesCount)
                     .build());
@@ -528,44 +323,32 @@ public class UserStatisticsService {
      * Retrieves a list of the most recent activities performed by a user. These activities include
      * reviews of movies or series, sorted by the date of the activity in descending order.
      *
-     * @param userId The unique identifier of the user whose recent activities are to be retrieved.
+     * @param reviews all reviews of the user
+     * @param reviewedTitles the titles of the reviews by id
      * @return A list of {@code RecentActivityDTO} objects representing the user's recent activities,
      *         sorted by date in descending order, limited to the most recent 15 activities.
      */
-    private List<RecentActivityDTO> getRecentActivity(String userId) {
+    private List<RecentActivityDTO> getRecentActivity(List<Review> reviews, Map<String, ReviewedTitle> reviewedTitles) {
         List<RecentActivityDTO> activities = new ArrayList<>();
 
         // recent reviews
-        List<Review> recentReviews = reviewRepository
-                .findTop10ByUserIdOrderByDateDesc(userId);
-        
-        recentReviews.forEach(review -> {
-            // try to find movie first
-            Optional<Movie> movie = movieRepository.findById(review.getItemId());
-            if (movie.isPresent()) {
-                activities.add(RecentActivityDTO.builder()
-                        .type("movie")
-                        .title(movie.get().getTitle())
-                        .action("Bewertung abgegeben (" + review.getRating() + " Sterne)")
-                        .date(LocalDateTime.ofInstant(
-                            review.getDate().toInstant(),
-                            ZoneId.systemDefault()))
-                        .build());
-            } else {
-                // if there is no movie, try to find series
-                Optional<Series> series = seriesRepository.findById(review.getItemId());
-                if (series.isPresent()) {
-                    activities.add(RecentActivityDTO.builder()
-                            .type("series")
-                            .title(series.get().getTitle())
-                            .action("Bewertung abgegeben (" + review.getRating() + " Sterne)")
-                            .date(LocalDateTime.ofInstant(
-                                review.getDate().toInstant(),
-                                ZoneId.systemDefault()))
-                            .build());
-                }
-            }
-        });
+        reviews.stream()
+                .filter(review -> review.getDate() != null)
+                .sorted(Comparator.comparing(Review::getDate).reversed())
+                .limit(10)
+                .forEach(review -> {
+                    ReviewedTitle title = reviewedTitles.get(review.getItemId());
+                    if (title != null) {
+                        activities.add(RecentActivityDTO.builder()
+                                .type(title.type)
+                                .title(title.title)
+                                .action("Bewertung abgegeben (" + review.getRating() + " Sterne)")
+                                .date(LocalDateTime.ofInstant(
+                                    review.getDate().toInstant(),
+                                    ZoneId.systemDefault()))
+                                .build());
+                    }
+                });
 
         return activities.stream()
                 .sorted(Comparator.comparing(RecentActivityDTO::getDate).reversed())
@@ -573,18 +356,42 @@ public class UserStatisticsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Looks up the movie or series of every review, movies first, with one query per type
+     *
+     * @param reviews the reviews of the user
+     * @return title and type by item id
+     */
+    private Map<String, ReviewedTitle> findReviewedTitles(List<Review> reviews) {
+        Set<String> itemIds = reviews.stream().map(Review::getItemId).collect(Collectors.toSet());
+        Map<String, ReviewedTitle> titles = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return titles;
+        }
+        movieRepository.findAllById(itemIds).forEach(movie ->
+                titles.put(movie.getId(), new ReviewedTitle("movie", movie.getTitle(), movie.getGenre())));
+
+        Set<String> remainingIds = new HashSet<>(itemIds);
+        remainingIds.removeAll(titles.keySet());
+        if (!remainingIds.isEmpty()) {
+            seriesRepository.findAllById(remainingIds).forEach(series ->
+                    titles.put(series.getId(), new ReviewedTitle("series", series.getTitle(), series.getGenre())));
+        }
+        return titles;
+    }
+
     /**
      * Analyzes the user's watching behavior based on historical viewing data
      * and calculates patterns, such as the most active day, most active hour,
      * average session length, and preferred genres by time of day.
      *
-     * @param userId the unique identifier of the user whose watching patterns are to be calculated
+     * @param userReviews all reviews of the user
+     * @param reviewedTitles the titles of the reviews by id
      * @return a WatchingPatternsDTO object containing the calculated watching patterns,
      *         including the most active day, most active hour, average session length,
      *         and a map of preferred genres categorized by time of day
      */
-    private WatchingPatternsDTO calculateWatchingPatterns(String userId) {
-        List<Review> userReviews = reviewRepository.findByUserId(userId);
+    private WatchingPatternsDTO calculateWatchingPatterns(List<Review> userReviews, Map<String, ReviewedTitle> reviewedTitles) {
         
         // Count activities by day of the week
         Map<String, Integer> dayCount = new HashMap<>();
@@ -624,16 +431,8 @@ public class UserStatisticsService {
             }
             
             // Get genre for this review
-            String genre = null;
-            Optional<Movie> movie = movieRepository.findById(review.getItemId());
-            if (movie.isPresent() && movie.get().getGenre() != null) {
-                genre = movie.get().getGenre();
-            } else {
-                Optional<Series> series = seriesRepository.findById(review.getItemId());
-                if (series.isPresent() && series.get().getGenre() != null) {
-                    genre = series.get().getGenre();
-                }
-            }
+            ReviewedTitle title = reviewedTitles.get(review.getItemId());
+            String genre = title != null ? title.genre : null;
             
             if (genre != null) {
                 genreByTimeOfDay.get(timeOfDay).merge(genre, 1, Integer::sum);
@@ -693,20 +492,21 @@ public class UserStatisticsService {
                 .build();
     }
 
-    private static class GenreStats {
-        int count = 0;
-        int hours = 0;
-    }
-
-    private static class MonthlyStats {
-        int hours = 0;
+    private static class YearlyStats {
+        long minutes = 0;
         int moviesCount = 0;
         int seriesCount = 0;
     }
 
-    private static class YearlyStats {
-        int hours = 0;
-        int moviesCount = 0;
-        int seriesCount = 0;
+    private static class ReviewedTitle {
+        private final String type;
+        private final String title;
+        private final String genre;
+
+        ReviewedTitle(String type, String title, String genre) {
+            this.type = type;
+            this.title = title;
+            this.genre = genre;
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.cinemate.statistics.activity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-aggregated activity of one user in one calendar month ("yyyy-MM").
+ * Maintained with $inc from the activity log, so a statistics period is the sum of a few buckets.
+ */
+@Document(collection = "user_activity_buckets")
+@CompoundIndex(name = "user_month", def = "{'userId': 1, 'month': 1}", unique = true)
+@Getter
+@Setter
+@NoArgsConstructor
+public class MonthlyActivityBucket {
+
+    @Id
+    private String id;
+    private String userId;
+    private String month;
+    private long minutesWatched;
+    private int moviesWatched;
+    private int seriesWatched;
+    private int episodesWatched;
+    private int favoritesAdded;
+    private int reviewsWritten;
+    private Map<String, Integer> genreCounts = new HashMap<>();
+    private Map<String, Long> genreMinutes = new HashMap<>();
+
+    public static String id(String userId, String month) {
+        return userId + "_" + month;
+    }
+}
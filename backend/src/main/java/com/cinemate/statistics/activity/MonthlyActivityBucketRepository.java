@@ -0,0 +1,14 @@
+package com.cinemate.statistics.activity;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyActivityBucketRepository extends MongoRepository<MonthlyActivityBucket, String> {
+
+    List<MonthlyActivityBucket> findByUserIdOrderByMonthAsc(String userId);
+
+    List<MonthlyActivityBucket> findByUserIdAndMonthGreaterThanEqualOrderByMonthAsc(String userId, String month);
+}
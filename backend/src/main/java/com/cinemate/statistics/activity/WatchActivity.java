@@ -0,0 +1,65 @@
+package com.cinemate.statistics.activity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One entry of the append-only activity log of a user. Title, runtime and genres are copied
+ * at the time of the activity, so the log can be aggregated without loading movies or series.
+ */
+@Document(collection = "watch_activities")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_occurred", def = "{'userId': 1, 'occurredAt': -1}"),
+        @CompoundIndex(name = "user_item_type_occurred", def = "{'userId': 1, 'itemId': 1, 'type': 1, 'occurredAt': -1}")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class WatchActivity {
+
+    @Id
+    private String id;
+    private String userId;
+    private String itemId;
+    private String itemType;
+    private WatchActivityType type;
+    private String title;
+    private int minutes;
+    private int episodes;
+    private List<String> genres = new ArrayList<>();
+    private Double rating;
+    private Date occurredAt;
+
+    public WatchActivity(String userId, String itemId, String itemType, WatchActivityType type, String title, Date occurredAt) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.itemType = itemType;
+        this.type = type;
+        this.title = title;
+        this.occurredAt = occurredAt;
+    }
+
+    /**
+     * returns a copy of this activity with another type and date, e.g. to log the reversal of a watch
+     * @param type
+     * @param occurredAt
+     * @return WatchActivity
+     */
+    public WatchActivity copyAs(WatchActivityType type, Date occurredAt) {
+        WatchActivity copy = new WatchActivity(userId, itemId, itemType, type, title, occurredAt);
+        copy.setMinutes(minutes);
+        copy.setEpisodes(episodes);
+        copy.setGenres(new ArrayList<>(genres));
+        copy.setRating(rating);
+        return copy;
+    }
+}
@@ -0,0 +1,187 @@
+package com.cinemate.statistics.activity;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.movie.MovieRepository;
+import com.cinemate.review.Review;
+import com.cinemate.series.Series;
+import com.cinemate.series.SeriesRepository;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Seeds the activity log from the existing watched lists, favorites and reviews, so that the buckets cover
+ * the whole history. The sources are streamed and written in batches; a source whose activity is already
+ * logged (recorded live or by an interrupted run) is skipped, so an interrupted backfill resumes on the next start.
+ * A marker document is written once all sources are done, afterwards the runner does nothing.
+ * Its indexes are created by the MongoIndexInitializer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WatchActivityBackfill implements CommandLineRunner {
+
+    private static final String MARKER_COLLECTION = "backfill_markers";
+    private static final String MARKER_ID = "watch_activities";
+
+    private final WatchActivityService watchActivityService;
+    private final MongoTemplate mongoTemplate;
+    private final MovieRepository movieRepository;
+    private final SeriesRepository seriesRepository;
+
+    @Value("${cinemate.statistics.activity-backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    @Value("${cinemate.statistics.activity-backfill.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!backfillEnabled || mongoTemplate.exists(Query.query(Criteria.where("_id").is(MARKER_ID)), MARKER_COLLECTION)) {
+            return;
+        }
+
+        Query entries = Query.query(Criteria.where("listType").in(MediaListType.WATCHED, MediaListType.FAVORITES));
+        entries.fields().include("userId", "itemId", "itemType", "listType", "addedAt");
+        int activities = 0;
+        try (Stream<UserMediaEntry> stream = mongoTemplate.stream(entries, UserMediaEntry.class)) {
+            Iterator<UserMediaEntry> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                activities += backfillEntries(nextBatch(iterator));
+            }
+        }
+
+        Query reviews = new Query();
+        reviews.fields().include("userId", "itemId", "rating", "date");
+        try (Stream<Review> stream = mongoTemplate.stream(reviews, Review.class)) {
+            Iterator<Review> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                activities += backfillReviews(nextBatch(iterator));
+            }
+        }
+
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(MARKER_ID)),
+                new Update().set("completedAt", new Date()), MARKER_COLLECTION);
+        log.info("Seeded the activity log with {} entries from existing lists and reviews", activities);
+    }
+
+    private int backfillEntries(List<UserMediaEntry> batch) {
+        Map<String, Movie> movies = new HashMap<>();
+        Map<String, Series> series = new HashMap<>();
+        loadTitles(batch.stream().map(UserMediaEntry::getItemId).toList(), movies, series);
+        Set<String> logged = findLogged(batch.stream().map(UserMediaEntry::getUserId).toList(),
+                batch.stream().map(UserMediaEntry::getItemId).toList());
+
+        List<WatchActivity> activities = new ArrayList<>();
+        for (UserMediaEntry entry : batch) {
+            Date addedAt = entry.getAddedAt() != null ? entry.getAddedAt() : new Date();
+            boolean isMovie = UserMediaEntry.TYPE_MOVIE.equals(entry.getItemType());
+            Movie movie = isMovie ? movies.get(entry.getItemId()) : null;
+            Series show = isMovie ? null : series.get(entry.getItemId());
+            if (movie == null && show == null) {
+                continue;
+            }
+
+            WatchActivity activity;
+            if (entry.getListType() == MediaListType.WATCHED) {
+                activity = movie != null
+                        ? WatchActivityService.watched(entry.getUserId(), movie, addedAt)
+                        : WatchActivityService.watched(entry.getUserId(), show, addedAt);
+            } else {
+                String title = movie != null ? movie.getTitle() : show.getTitle();
+                activity = new WatchActivity(entry.getUserId(), entry.getItemId(), entry.getItemType(),
+                        WatchActivityType.FAVORITED, title, addedAt);
+            }
+            if (logged.add(key(activity))) {
+                activities.add(activity);
+            }
+        }
+        watchActivityService.recordAll(activities);
+        return activities.size();
+    }
+
+    private int backfillReviews(List<Review> batch) {
+        Map<String, Movie> movies = new HashMap<>();
+        Map<String, Series> series = new HashMap<>();
+        loadTitles(batch.stream().map(Review::getItemId).toList(), movies, series);
+        Set<String> logged = findLogged(batch.stream().map(Review::getUserId).toList(),
+                batch.stream().map(Review::getItemId).toList());
+
+        List<WatchActivity> activities = new ArrayList<>();
+        for (Review review : batch) {
+            Movie movie = movies.get(review.getItemId());
+            Series show = movie == null ? series.get(review.getItemId()) : null;
+            if (movie == null && show == null) {
+                continue;
+            }
+            Date date = review.getDate() != null ? review.getDate() : new Date();
+            WatchActivity activity = movie != null
+                    ? WatchActivityService.reviewed(review.getUserId(), UserMediaEntry.TYPE_MOVIE, movie.getId(), movie.getTitle(), review.getRating(), date)
+                    : WatchActivityService.reviewed(review.getUserId(), UserMediaEntry.TYPE_SERIES, show.getId(), show.getTitle(), review.getRating(), date);
+            if (logged.add(key(activity))) {
+                activities.add(activity);
+            }
+        }
+        watchActivityService.recordAll(activities);
+        return activities.size();
+    }
+
+    /**
+     * loads the movies of the batch and looks up the remaining ids as series
+     */
+    private void loadTitles(List<String> itemIds, Map<String, Movie> movies, Map<String, Series> series) {
+        Set<String> ids = new HashSet<>(itemIds);
+        movieRepository.findAllById(ids).forEach(movie -> movies.put(movie.getId(), movie));
+        ids.removeAll(movies.keySet());
+        if (!ids.isEmpty()) {
+            seriesRepository.findAllById(ids).forEach(show -> series.put(show.getId(), show));
+        }
+    }
+
+    /**
+     * returns the keys of the activities of the batch that are already logged
+     */
+    private Set<String> findLogged(List<String> userIds, List<String> itemIds) {
+        Query query = Query.query(Criteria.where("userId").in(new HashSet<>(userIds))
+                .and("itemId").in(new HashSet<>(itemIds))
+                .and("type").in(WatchActivityType.WATCHED, WatchActivityType.FAVORITED, WatchActivityType.REVIEWED));
+        query.fields().include("userId", "itemId", "type");
+
+        Set<String> logged = new HashSet<>();
+        for (Document activity : mongoTemplate.find(query, Document.class, "watch_activities")) {
+            logged.add(activity.getString("userId") + "_" + activity.getString("itemId") + "_" + activity.getString("type"));
+        }
+        return logged;
+    }
+
+    private static String key(WatchActivity activity) {
+        return activity.getUserId() + "_" + activity.getItemId() + "_" + activity.getType().name();
+    }
+
+    private <T> List<T> nextBatch(Iterator<T> iterator) {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+        }
+        return batch;
+    }
+}
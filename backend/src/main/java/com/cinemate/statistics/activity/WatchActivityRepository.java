@@ -0,0 +1,12 @@
+package com.cinemate.statistics.activity;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WatchActivityRepository extends MongoRepository<WatchActivity, String> {
+
+    Optional<WatchActivity> findFirstByUserIdAndItemIdAndTypeOrderByOccurredAtDesc(String userId, String itemId, WatchActivityType type);
+}
@@ -0,0 +1,302 @@
+package com.cinemate.statistics.activity;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.series.Series;
+import com.cinemate.user.media.UserMediaEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes the activity log of users and keeps the monthly buckets in sync with it.
+ * Every logged activity is added to the bucket of its month with a single $inc upsert,
+ * a reverted activity (unwatch, unfavorite, deleted review) is subtracted from the bucket it was counted in.
+ */
+@Service
+@RequiredArgsConstructor
+public class WatchActivityService {
+
+    private static final int MINUTES_PER_EPISODE = 45;
+
+    private final MongoTemplate mongoTemplate;
+    private final WatchActivityRepository activityRepository;
+    private final MonthlyActivityBucketRepository bucketRepository;
+
+    /**
+     * logs that the user watched the movie
+     * @param userId
+     * @param movie
+     * @param occurredAt
+     */
+    public void recordWatched(String userId, Movie movie, Date occurredAt) {
+        append(watched(userId, movie, occurredAt));
+    }
+
+    /**
+     * logs that the user watched the series, counting all of its episodes
+     * @param userId
+     * @param series
+     * @param occurredAt
+     */
+    public void recordWatched(String userId, Series series, Date occurredAt) {
+        append(watched(userId, series, occurredAt));
+    }
+
+    /**
+     * logs that the user added the item to the favorites
+     * @param userId
+     * @param itemType
+     * @param itemId
+     * @param title
+     * @param occurredAt
+     */
+    public void recordFavorite(String userId, String itemType, String itemId, String title, Date occurredAt) {
+        append(new WatchActivity(userId, itemId, itemType, WatchActivityType.FAVORITED, title, occurredAt));
+    }
+
+    /**
+     * logs that the user reviewed the item
+     * @param userId
+     * @param itemType
+     * @param itemId
+     * @param title
+     * @param rating
+     * @param occurredAt
+     */
+    public void recordReview(String userId, String itemType, String itemId, String title, double rating, Date occurredAt) {
+        append(reviewed(userId, itemType, itemId, title, rating, occurredAt));
+    }
+
+    /**
+     * appends several activities with one bulk insert and one bulk bucket update, e.g. to backfill the log
+     * @param activities
+     */
+    public void recordAll(List<WatchActivity> activities) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        mongoTemplate.insert(activities, WatchActivity.class);
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MonthlyActivityBucket.class);
+        int updates = 0;
+        for (WatchActivity activity : activities) {
+            Update update = bucketUpdate(activity, 1);
+            if (update != null) {
+                bulkOps.upsert(bucketQuery(activity), update);
+                updates++;
+            }
+        }
+        if (updates > 0) {
+            bulkOps.execute();
+        }
+    }
+
+    /**
+     * builds the watched activity of a movie without logging it
+     * @param userId
+     * @param movie
+     * @param occurredAt
+     * @return WatchActivity
+     */
+    public static WatchActivity watched(String userId, Movie movie, Date occurredAt) {
+        WatchActivity activity = new WatchActivity(userId, movie.getId(), UserMediaEntry.TYPE_MOVIE,
+                WatchActivityType.WATCHED, movie.getTitle(), occurredAt);
+        activity.setMinutes(parseMinutes(movie.getDuration()));
+        activity.setGenres(movie.getGenres());
+        return activity;
+    }
+
+    /**
+     * builds the watched activity of a series without logging it
+     * @param userId
+     * @param series
+     * @param occurredAt
+     * @return WatchActivity
+     */
+    public static WatchActivity watched(String userId, Series series, Date occurredAt) {
+        WatchActivity activity = new WatchActivity(userId, series.getId(), UserMediaEntry.TYPE_SERIES,
+                WatchActivityType.WATCHED, series.getTitle(), occurredAt);
+        int episodes = countEpisodes(series);
+        activity.setEpisodes(episodes);
+        activity.setMinutes(episodes * MINUTES_PER_EPISODE);
+        activity.setGenres(series.getGenres());
+        return activity;
+    }
+
+    /**
+     * builds the review activity without logging it
+     * @param userId
+     * @param itemType
+     * @param itemId
+     * @param title
+     * @param rating
+     * @param occurredAt
+     * @return WatchActivity
+     */
+    public static WatchActivity reviewed(String userId, String itemType, String itemId, String title, double rating, Date occurredAt) {
+        WatchActivity activity = new WatchActivity(userId, itemId, itemType, WatchActivityType.REVIEWED, title, occurredAt);
+        activity.setRating(rating);
+        return activity;
+    }
+
+    /**
+     * logs that the item was removed from the watched list and subtracts the last watch from its month
+     * @param userId
+     * @param itemId
+     */
+    public void revertWatched(String userId, String itemId) {
+        revert(userId, itemId, WatchActivityType.WATCHED, WatchActivityType.UNWATCHED);
+    }
+
+    /**
+     * logs that the item was removed from the favorites and subtracts the last favorite from its month
+     * @param userId
+     * @param itemId
+     */
+    public void revertFavorite(String userId, String itemId) {
+        revert(userId, itemId, WatchActivityType.FAVORITED, WatchActivityType.UNFAVORITED);
+    }
+
+    /**
+     * logs that the review of the item was deleted and subtracts it from its month
+     * @param userId
+     * @param itemId
+     */
+    public void revertReview(String userId, String itemId) {
+        revert(userId, itemId, WatchActivityType.REVIEWED, WatchActivityType.REVIEW_DELETED);
+    }
+
+    /**
+     * returns all monthly buckets of the user, oldest month first
+     * @param userId
+     * @return List<MonthlyActivityBucket>
+     */
+    public List<MonthlyActivityBucket> getBuckets(String userId) {
+        return bucketRepository.findByUserIdOrderByMonthAsc(userId);
+    }
+
+    /**
+     * sums the buckets of the user starting with the month of the given date
+     * @param userId
+     * @param startDate null for the whole history
+     * @return WatchActivitySummary
+     */
+    public WatchActivitySummary summarize(String userId, LocalDateTime startDate) {
+        if (startDate == null) {
+            return WatchActivitySummary.of(getBuckets(userId), null);
+        }
+        String fromMonth = YearMonth.from(startDate).toString();
+        return WatchActivitySummary.of(
+                bucketRepository.findByUserIdAndMonthGreaterThanEqualOrderByMonthAsc(userId, fromMonth), fromMonth);
+    }
+
+    /**
+     * returns the runtime in minutes of a duration like "120 min"
+     * @param duration
+     * @return minutes, 0 if the duration can not be parsed
+     */
+    public static int parseMinutes(String duration) {
+        if (duration == null || duration.isEmpty()) {
+            return 0;
+        }
+        String numberOnly = duration.replaceAll("[^0-9]", "");
+        try {
+            return numberOnly.isEmpty() ? 0 : Integer.parseInt(numberOnly);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * returns the number of episodes of all seasons of the series
+     * @param series
+     * @return episode count
+     */
+    public static int countEpisodes(Series series) {
+        if (series.getSeasons() == null) {
+            return 0;
+        }
+        return series.getSeasons().stream()
+                .mapToInt(season -> season.getEpisodes() != null ? season.getEpisodes().size() : 0)
+                .sum();
+    }
+
+    private void append(WatchActivity activity) {
+        activityRepository.save(activity);
+        applyToBucket(activity, 1);
+    }
+
+    private void revert(String userId, String itemId, WatchActivityType recordedType, WatchActivityType revertedType) {
+        activityRepository.findFirstByUserIdAndItemIdAndTypeOrderByOccurredAtDesc(userId, itemId, recordedType)
+                .ifPresent(recorded -> {
+                    WatchActivity reverted = recorded.copyAs(revertedType, new Date());
+                    activityRepository.save(reverted);
+                    // subtract from the month the activity was counted in, not from the current one
+                    applyToBucket(recorded, -1);
+                });
+    }
+
+    private void applyToBucket(WatchActivity activity, int sign) {
+        Update update = bucketUpdate(activity, sign);
+        if (update != null) {
+            mongoTemplate.upsert(bucketQuery(activity), update, MonthlyActivityBucket.class);
+        }
+    }
+
+    /**
+     * returns the $inc of the activity on the bucket of its month, null if the type is not counted
+     */
+    private Update bucketUpdate(WatchActivity activity, int sign) {
+        Update update = new Update()
+                .setOnInsert("userId", activity.getUserId())
+                .setOnInsert("month", month(activity));
+
+        switch (activity.getType()) {
+            case WATCHED:
+                update.inc("minutesWatched", sign * activity.getMinutes());
+                update.inc(UserMediaEntry.TYPE_MOVIE.equals(activity.getItemType()) ? "moviesWatched" : "seriesWatched", sign);
+                update.inc("episodesWatched", sign * activity.getEpisodes());
+                for (String genre : activity.getGenres()) {
+                    String field = genreField(genre);
+                    update.inc("genreCounts." + field, sign);
+                    update.inc("genreMinutes." + field, (long) sign * activity.getMinutes());
+                }
+                break;
+            case FAVORITED:
+                update.inc("favoritesAdded", sign);
+                break;
+            case REVIEWED:
+                update.inc("reviewsWritten", sign);
+                break;
+            default:
+                return null;
+        }
+        return update;
+    }
+
+    private Query bucketQuery(WatchActivity activity) {
+        return Query.query(Criteria.where("_id").is(MonthlyActivityBucket.id(activity.getUserId(), month(activity))));
+    }
+
+    private static String month(WatchActivity activity) {
+        return YearMonth.from(activity.getOccurredAt().toInstant().atZone(ZoneId.systemDefault())).toString();
+    }
+
+    /**
+     * genre names become field names of the histogram, which must not contain dots or start with $
+     */
+    private String genreField(String genre) {
+        String trimmed = genre.trim().replace('.', '_');
+        return trimmed.startsWith("$") ? trimmed.substring(1) : trimmed;
+    }
+}
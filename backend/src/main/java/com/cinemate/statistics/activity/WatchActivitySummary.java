@@ -0,0 +1,58 @@
+package com.cinemate.statistics.activity;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sum of the monthly buckets of a user within a period
+ */
+@Getter
+public class WatchActivitySummary {
+
+    private long minutesWatched;
+    private int moviesWatched;
+    private int seriesWatched;
+    private int episodesWatched;
+    private int favoritesAdded;
+    private int reviewsWritten;
+    private final Map<String, Integer> genreCounts = new HashMap<>();
+    private final Map<String, Long> genreMinutes = new HashMap<>();
+
+    /**
+     * sums the given buckets
+     * @param buckets the buckets of one user
+     * @param fromMonth first month to include ("yyyy-MM"), null for all buckets
+     * @return WatchActivitySummary
+     */
+    public static WatchActivitySummary of(List<MonthlyActivityBucket> buckets, String fromMonth) {
+        WatchActivitySummary summary = new WatchActivitySummary();
+        for (MonthlyActivityBucket bucket : buckets) {
+            if (fromMonth == null || bucket.getMonth().compareTo(fromMonth) >= 0) {
+                summary.add(bucket);
+            }
+        }
+        return summary;
+    }
+
+    private void add(MonthlyActivityBucket bucket) {
+        minutesWatched += bucket.getMinutesWatched();
+        moviesWatched += bucket.getMoviesWatched();
+        seriesWatched += bucket.getSeriesWatched();
+        episodesWatched += bucket.getEpisodesWatched();
+        favoritesAdded += bucket.getFavoritesAdded();
+        reviewsWritten += bucket.getReviewsWritten();
+        if (bucket.getGenreCounts() != null) {
+            bucket.getGenreCounts().forEach((genre, count) -> genreCounts.merge(genre, count, Integer::sum));
+        }
+        if (bucket.getGenreMinutes() != null) {
+            bucket.getGenreMinutes().forEach((genre, minutes) -> genreMinutes.merge(genre, minutes, Long::sum));
+        }
+    }
+
+    public int getHoursWatched() {
+        return (int) (minutesWatched / 60);
+    }
+}
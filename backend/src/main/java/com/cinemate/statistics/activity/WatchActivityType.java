@@ -0,0 +1,10 @@
+package com.cinemate.statistics.activity;
+
+public enum WatchActivityType {
+    WATCHED,
+    UNWATCHED,
+    FAVORITED,
+    UNFAVORITED,
+    REVIEWED,
+    REVIEW_DELETED
+}
@@ -5,5 +5,19 @@ public enum AvailabilityType {
     RENTAL,        // Available for rental
     PURCHASE,      // Available for purchase
     FREE,          // Free with ads or free tier
-    FREE_WITH_ADS  // Free with advertisements
+    FREE_WITH_ADS; // Free with advertisements
+
+    /**
+     * returns the availability type of a request parameter
+     * @param value e.g. "subscription"
+     * @return AvailabilityType, null if unknown
+     */
+    public static AvailabilityType parse(String value) {
+        for (AvailabilityType type : values()) {
+            if (type.name().equalsIgnoreCase(value.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
 }
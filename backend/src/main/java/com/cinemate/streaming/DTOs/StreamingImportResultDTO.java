@@ -0,0 +1,23 @@
+package com.cinemate.streaming.DTOs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StreamingImportResultDTO {
+
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private int expired;
+    private int priceChanges;
+    private int rejected;
+    /** the first rejected lines with the reason */
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.cinemate.streaming.DTOs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One availability row of an import, the fields are also the CSV column names
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class StreamingImportRowDTO {
+
+    private String mediaId;
+    private String mediaType;
+    private String providerId;
+    private String availabilityType;
+    private String region;
+    private Double price;
+    private String currency;
+    private String quality;
+    private String url;
+    /** ISO instant, ISO date or epoch millis, open if missing */
+    private String availableFrom;
+    /** ISO instant, ISO date or epoch millis, open if missing */
+    private String availableUntil;
+}
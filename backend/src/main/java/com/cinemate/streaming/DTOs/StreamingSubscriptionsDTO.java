@@ -0,0 +1,22 @@
+package com.cinemate.streaming.DTOs;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StreamingSubscriptionsDTO {
+
+    private List<String> providerIds = new ArrayList<>();
+    private String region;
+
+    public StreamingSubscriptionsDTO(List<String> providerIds, String region) {
+        this.providerIds = providerIds;
+        this.region = region;
+    }
+}
@@ -2,5 +2,19 @@ package com.cinemate.streaming;
 
 public enum MediaType {
     MOVIE,
-    SERIES
+    SERIES;
+
+    /**
+     * returns the media type of a request parameter
+     * @param value "movie" or "series"
+     * @return MediaType, null if unknown
+     */
+    public static MediaType parse(String value) {
+        for (MediaType type : values()) {
+            if (type.name().equalsIgnoreCase(value.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
 }
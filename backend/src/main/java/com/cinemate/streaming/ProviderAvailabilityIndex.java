@@ -0,0 +1,176 @@
+package com.cinemate.streaming;
+
+import com.mongodb.DBRef;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Which titles can currently be streamed on which provider, as one bitmap per provider and region.
+ * Every title gets an ordinal, so the titles available on any set of providers are the OR of their bitmaps
+ * and checking a recommendation candidate is a single bit lookup instead of a query.
+ * Built with one query over the rows inside their validity window, rebuilt every
+ * cinemate.streaming.availability-index.refresh-ms and on the next read after availability was written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderAvailabilityIndex implements MeterBinder {
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+    private long generation;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cinemate.streaming.availability.titles", this, index -> {
+                    Snapshot current = index.snapshot;
+                    return current == null ? 0 : current.ordinals.size();
+                })
+                .description("Titles in the provider availability bitmaps")
+                .register(registry);
+    }
+
+    /**
+     * returns the titles that can currently be streamed on at least one of the providers
+     * @param providerIds
+     * @param region only rows of this region, all regions if null
+     * @return AvailableTitles
+     */
+    public AvailableTitles getAvailableTitles(Collection<String> providerIds, String region) {
+        Snapshot current = load();
+        BitSet titles = new BitSet();
+        for (String providerId : providerIds) {
+            Map<String, BitSet> byRegion = current.titlesByProvider.getOrDefault(providerId, Map.of());
+            if (region == null) {
+                byRegion.values().forEach(titles::or);
+            } else if (byRegion.containsKey(region)) {
+                titles.or(byRegion.get(region));
+            }
+        }
+        return new AvailableTitles(current.ordinals, titles, current.generation);
+    }
+
+    /**
+     * rebuilds the bitmaps on the next read, e.g. after availability rows were written
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * rebuilds the bitmaps, so rows whose validity window started or ended are taken into account
+     */
+    @Scheduled(fixedDelayString = "${cinemate.streaming.availability-index.refresh-ms:3600000}")
+    public synchronized void rebuild() {
+        // cleared first, a write during the rebuild marks the new snapshot stale again
+        stale = false;
+        Date now = new Date();
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("available_from").not().gt(now),
+                Criteria.where("available_until").not().lte(now)));
+        query.fields().include("media_id", "media_type", "provider", "region");
+
+        Map<String, Integer> ordinals = new HashMap<>();
+        Map<String, Map<String, BitSet>> titlesByProvider = new HashMap<>();
+        int rows = 0;
+        for (Document row : mongoTemplate.find(query, Document.class, "streaming_availability")) {
+            Object ref = row.get("provider");
+            Object providerId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            String mediaId = row.getString("media_id");
+            String mediaType = row.getString("media_type");
+            if (providerId == null || mediaId == null || mediaType == null) {
+                continue;
+            }
+            int ordinal = ordinals.computeIfAbsent(AvailableTitles.key(mediaType, mediaId), key -> ordinals.size());
+            String region = row.getString("region") == null ? "" : row.getString("region");
+            titlesByProvider.computeIfAbsent(providerId.toString(), id -> new HashMap<>())
+                    .computeIfAbsent(region, r -> new BitSet())
+                    .set(ordinal);
+            rows++;
+        }
+        snapshot = new Snapshot(ordinals, titlesByProvider, ++generation);
+        log.info("Built the provider availability index with {} titles from {} rows", ordinals.size(), rows);
+    }
+
+    private Snapshot load() {
+        if (stale || snapshot == null) {
+            synchronized (this) {
+                if (stale || snapshot == null) {
+                    rebuild();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        private final Map<String, Integer> ordinals;
+        private final Map<String, Map<String, BitSet>> titlesByProvider;
+        private final long generation;
+
+        private Snapshot(Map<String, Integer> ordinals, Map<String, Map<String, BitSet>> titlesByProvider, long generation) {
+            this.ordinals = ordinals;
+            this.titlesByProvider = titlesByProvider;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * The titles available on a set of providers
+     */
+    public static class AvailableTitles {
+
+        private final Map<String, Integer> ordinals;
+        private final BitSet titles;
+        private final long generation;
+
+        private AvailableTitles(Map<String, Integer> ordinals, BitSet titles, long generation) {
+            this.ordinals = ordinals;
+            this.titles = titles;
+            this.generation = generation;
+        }
+
+        /**
+         * returns true if the title is available
+         * @param type "movie" or "series"
+         * @param id
+         * @return boolean
+         */
+        public boolean contains(String type, String id) {
+            Integer ordinal = ordinals.get(key(type, id));
+            return ordinal != null && titles.get(ordinal);
+        }
+
+        /**
+         * returns the generation of the bitmaps, it changes with every rebuild
+         */
+        public long getGeneration() {
+            return generation;
+        }
+
+        /**
+         * returns the number of available titles
+         */
+        public int size() {
+            return titles.cardinality();
+        }
+
+        private static String key(String type, String id) {
+            return type.toLowerCase() + "_" + id;
+        }
+    }
+}
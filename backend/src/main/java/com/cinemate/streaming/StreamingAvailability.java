@@ -36,6 +36,8 @@ public class StreamingAvailability {
     private String region;
     @Field("last_updated")
     private Date lastUpdated;
+    @Field("leaving_soon_notified")
+    private boolean leavingSoonNotified;
 
     public StreamingAvailability() {
         this.lastUpdated = new Date();
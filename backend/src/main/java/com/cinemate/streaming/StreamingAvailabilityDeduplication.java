@@ -0,0 +1,95 @@
+package com.cinemate.streaming;
+
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares streaming_availability for the unique index on media, provider, region and availability type
+ * before the MongoIndexInitializer creates it. Of several rows with the same key the most recently updated
+ * one is kept, the price history of the others is moved to it and they are removed.
+ * Once the unique index exists this runner does nothing.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class StreamingAvailabilityDeduplication implements CommandLineRunner {
+
+    private static final String STREAMING_AVAILABILITY = "streaming_availability";
+    private static final String PRICE_HISTORY = "streaming_price_history";
+    private static final String KEY_INDEX = "availability_key";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        boolean indexed = mongoTemplate.indexOps(STREAMING_AVAILABILITY).getIndexInfo().stream()
+                .anyMatch(index -> KEY_INDEX.equals(index.getName()) && index.isUnique());
+        if (indexed) {
+            return;
+        }
+
+        Query query = new Query().with(Sort.by("_id"));
+        query.fields().include("media_id", "media_type", "provider", "region", "availability_type", "last_updated");
+
+        Map<String, List<Document>> byKey = new LinkedHashMap<>();
+        for (Document row : mongoTemplate.find(query, Document.class, STREAMING_AVAILABILITY)) {
+            Object ref = row.get("provider");
+            Object providerId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            String key = row.get("media_id") + "_" + row.get("media_type") + "_" + providerId
+                    + "_" + row.get("region") + "_" + row.get("availability_type");
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+
+        int removed = 0;
+        for (List<Document> rows : byKey.values()) {
+            if (rows.size() < 2) {
+                continue;
+            }
+            // rows are sorted by _id, so the oldest one wins a tie
+            Document kept = rows.get(0);
+            for (Document row : rows) {
+                Date updated = row.getDate("last_updated");
+                Date keptUpdated = kept.getDate("last_updated");
+                if (updated != null && (keptUpdated == null || updated.after(keptUpdated))) {
+                    kept = row;
+                }
+            }
+
+            List<Object> duplicateIds = new ArrayList<>();
+            List<String> duplicateKeys = new ArrayList<>();
+            for (Document row : rows) {
+                if (row != kept) {
+                    duplicateIds.add(row.get("_id"));
+                    duplicateKeys.add(row.get("_id").toString());
+                }
+            }
+            mongoTemplate.updateMulti(Query.query(Criteria.where("availability_id").in(duplicateKeys)),
+                    new Update().set("availability_id", kept.get("_id").toString()), PRICE_HISTORY);
+            removed += (int) mongoTemplate.remove(Query.query(Criteria.where("_id").in(duplicateIds)),
+                    STREAMING_AVAILABILITY).getDeletedCount();
+        }
+
+        if (removed > 0) {
+            log.info("Merged {} duplicate streaming availability rows", removed);
+        }
+    }
+}
@@ -8,10 +8,6 @@ import java.util.List;
 @Repository
 public interface StreamingAvailabilityRepository extends MongoRepository<StreamingAvailability, String> {
     
-    List<StreamingAvailability> findByMediaIdAndMediaType(String mediaId, MediaType mediaType);
-    
-    List<StreamingAvailability> findByMediaIdAndMediaTypeAndRegion(String mediaId, MediaType mediaType, String region);
-    
     List<StreamingAvailability> findByProvider(StreamingProvider provider);
     
     List<StreamingAvailability> findByAvailabilityType(AvailabilityType availabilityType);
@@ -1,20 +1,39 @@
 package com.cinemate.streaming;
 
 import com.cinemate.streaming.DTOs.StreamingAvailabilityResponseDTO;
+import com.mongodb.DBRef;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class StreamingAvailabilityService {
+
+    private static final String AVAILABILITY = "streaming_availability";
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LEAVING_SOON_DAYS = 90;
     
     private final StreamingAvailabilityRepository availabilityRepository;
-    private final StreamingProviderRepository providerRepository;
+    private final StreamingProviderCache providerCache;
+    private final ProviderAvailabilityIndex availabilityIndex;
+    private final MongoTemplate mongoTemplate;
     
     /**
      * Get streaming availability for a specific media
@@ -24,14 +43,9 @@ public class StreamingAvailabilityService {
      */
     public ResponseEntity<List<StreamingAvailabilityResponseDTO>> getAvailabilityForMedia(String mediaId, String mediaType) {
         MediaType type = MediaType.valueOf(mediaType.toUpperCase());
-        List<StreamingAvailability> availabilities = availabilityRepository.findByMediaIdAndMediaType(mediaId, type);
-        
-        List<StreamingAvailabilityResponseDTO> response = availabilities.stream()
-                .filter(availability -> availability.getProvider() != null) // Filtere null-Provider heraus
-                .map(StreamingAvailabilityResponseDTO::new)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(response);
+        Query query = Query.query(Criteria.where("media_id").is(mediaId).and("media_type").is(type))
+                .addCriteria(availableAt(new Date()));
+        return ResponseEntity.ok(findWithProviders(query));
     }
     
     /**
@@ -44,15 +58,136 @@ public class StreamingAvailabilityService {
     public ResponseEntity<List<StreamingAvailabilityResponseDTO>> getAvailabilityForMediaAndRegion(
             String mediaId, String mediaType, String region) {
         MediaType type = MediaType.valueOf(mediaType.toUpperCase());
-        List<StreamingAvailability> availabilities = availabilityRepository
-                .findByMediaIdAndMediaTypeAndRegion(mediaId, type, region);
-        
-        List<StreamingAvailabilityResponseDTO> response = availabilities.stream()
-                .filter(availability -> availability.getProvider() != null) // Filtere null-Provider heraus
-                .map(StreamingAvailabilityResponseDTO::new)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(response);
+        Query query = Query.query(Criteria.where("media_id").is(mediaId).and("media_type").is(type).and("region").is(region))
+                .addCriteria(availableAt(new Date()));
+        return ResponseEntity.ok(findWithProviders(query));
+    }
+
+    /**
+     * Get streaming availability for many media at once, e.g. for all titles of a list page
+     * @param mediaIds at most 100
+     * @param mediaType optional, "movie" or "series"
+     * @param region optional
+     * @return StreamingAvailabilityResponseDTOs by media id, media without availability are left out
+     */
+    public ResponseEntity<Map<String, List<StreamingAvailabilityResponseDTO>>> getAvailabilityForMediaBatch(
+            List<String> mediaIds, String mediaType, String region) {
+        if (mediaIds == null || mediaIds.isEmpty() || mediaIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Criteria criteria = Criteria.where("media_id").in(new LinkedHashSet<>(mediaIds));
+        if (mediaType != null && !mediaType.isBlank()) {
+            MediaType type = MediaType.parse(mediaType);
+            if (type == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            criteria.and("media_type").is(type);
+        }
+        if (region != null && !region.isBlank()) {
+            criteria.and("region").is(region);
+        }
+
+        Map<String, List<StreamingAvailabilityResponseDTO>> byMedia = new LinkedHashMap<>();
+        Query query = Query.query(criteria).addCriteria(availableAt(new Date()));
+        for (StreamingAvailabilityResponseDTO availability : findWithProviders(query)) {
+            byMedia.computeIfAbsent(availability.getMediaId(), id -> new ArrayList<>()).add(availability);
+        }
+        return ResponseEntity.ok(byMedia);
+    }
+
+    /**
+     * Get the titles a provider currently offers in a region
+     * @param region
+     * @param providerId
+     * @param availabilityType optional, all types if empty
+     * @param page
+     * @param size at most 100
+     * @return Page of StreamingAvailabilityResponseDTO ordered by media id, 404 if the provider does not exist
+     */
+    public ResponseEntity<Page<StreamingAvailabilityResponseDTO>> getProviderCatalog(
+            String region, String providerId, String availabilityType, int page, int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (providerCache.get(providerId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // listing every type keeps the index order on media_id usable when no type is given
+        List<AvailabilityType> types = Arrays.asList(AvailabilityType.values());
+        if (availabilityType != null && !availabilityType.isBlank()) {
+            AvailabilityType type = AvailabilityType.parse(availabilityType);
+            if (type == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            types = List.of(type);
+        }
+
+        Query query = Query.query(Criteria.where("region").is(region)
+                        .and("provider.$id").is(ObjectId.isValid(providerId) ? new ObjectId(providerId) : providerId)
+                        .and("availability_type").in(types))
+                .addCriteria(availableAt(new Date()));
+        return ResponseEntity.ok(findPage(query, PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("media_id"))));
+    }
+
+    /**
+     * Get the titles whose availability in a region ends within the next days
+     * @param region
+     * @param providerId optional
+     * @param days at most 90
+     * @param page
+     * @param size at most 100
+     * @return Page of StreamingAvailabilityResponseDTO, the titles leaving first
+     */
+    public ResponseEntity<Page<StreamingAvailabilityResponseDTO>> getLeavingSoon(
+            String region, String providerId, int days, int page, int size) {
+        if (days < 1 || page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Date now = new Date();
+        Date until = Date.from(now.toInstant().plus(Math.min(days, MAX_LEAVING_SOON_DAYS), ChronoUnit.DAYS));
+        Criteria criteria = Criteria.where("region").is(region).and("available_until").gt(now).lte(until);
+        if (providerId != null && !providerId.isBlank()) {
+            criteria.and("provider.$id").is(ObjectId.isValid(providerId) ? new ObjectId(providerId) : providerId);
+        }
+        Query query = Query.query(criteria)
+                .addCriteria(Criteria.where("available_from").not().gt(now));
+        return ResponseEntity.ok(findPage(query, PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE),
+                Sort.by("available_until", "media_id"))));
+    }
+
+    private Page<StreamingAvailabilityResponseDTO> findPage(Query query, Pageable pageable) {
+        long total = mongoTemplate.count(query, AVAILABILITY);
+        return new PageImpl<>(findWithProviders(query.with(pageable)), pageable, total);
+    }
+
+    /**
+     * matches the rows whose validity window contains the given time, a missing bound is open
+     */
+    private static Criteria availableAt(Date time) {
+        return new Criteria().andOperator(
+                Criteria.where("available_from").not().gt(time),
+                Criteria.where("available_until").not().lte(time));
+    }
+
+    /**
+     * reads the availability rows without resolving their provider DBRefs and takes the providers from the cache,
+     * rows whose provider no longer exists are left out
+     */
+    private List<StreamingAvailabilityResponseDTO> findWithProviders(Query query) {
+        List<StreamingAvailabilityResponseDTO> response = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, AVAILABILITY)) {
+            Object ref = document.remove("provider");
+            Object providerId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            StreamingProvider provider = providerId == null ? null : providerCache.get(providerId.toString());
+            if (provider == null) {
+                continue;
+            }
+            StreamingAvailability availability = mongoTemplate.getConverter().read(StreamingAvailability.class, document);
+            availability.setProvider(provider);
+            response.add(new StreamingAvailabilityResponseDTO(availability));
+        }
+        return response;
     }
     
     /**
@@ -75,7 +210,7 @@ public class StreamingAvailabilityService {
         MediaType type = MediaType.valueOf(mediaType.toUpperCase());
         AvailabilityType avType = AvailabilityType.valueOf(availabilityType.toUpperCase());
         
-        StreamingProvider provider = providerRepository.findById(providerId).orElse(null);
+        StreamingProvider provider = providerCache.get(providerId);
         if (provider == null) {
             return ResponseEntity.badRequest().build();
         }
@@ -87,7 +222,14 @@ public class StreamingAvailabilityService {
         availability.setUrl(url);
         availability.setLastUpdated(new Date());
         
-        StreamingAvailability savedAvailability = availabilityRepository.save(availability);
+        StreamingAvailability savedAvailability;
+        try {
+            savedAvailability = availabilityRepository.save(availability);
+        } catch (DuplicateKeyException e) {
+            // the title is already listed for this provider, region and availability type
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        availabilityIndex.markStale();
         return ResponseEntity.ok(new StreamingAvailabilityResponseDTO(savedAvailability));
     }
     
@@ -108,7 +250,10 @@ public class StreamingAvailabilityService {
             return ResponseEntity.notFound().build();
         }
         
-        if (price != null) availability.setPrice(price);
+        if (price != null && !price.equals(availability.getPrice())) {
+            recordPriceChange(availability, price);
+            availability.setPrice(price);
+        }
         if (currency != null) availability.setCurrency(currency);
         if (quality != null) availability.setQuality(quality);
         if (url != null) availability.setUrl(url);
@@ -118,6 +263,32 @@ public class StreamingAvailabilityService {
         return ResponseEntity.ok(new StreamingAvailabilityResponseDTO(savedAvailability));
     }
     
+    /**
+     * Get the price changes of a streaming availability
+     * @param availabilityId
+     * @return List of StreamingPriceChange, the latest first
+     */
+    public ResponseEntity<List<StreamingPriceChange>> getPriceHistory(String availabilityId) {
+        if (!availabilityRepository.existsById(availabilityId)) {
+            return ResponseEntity.notFound().build();
+        }
+        Query query = Query.query(Criteria.where("availability_id").is(availabilityId))
+                .with(Sort.by(Sort.Direction.DESC, "changed_at"))
+                .limit(MAX_PAGE_SIZE);
+        return ResponseEntity.ok(mongoTemplate.find(query, StreamingPriceChange.class));
+    }
+
+    private void recordPriceChange(StreamingAvailability availability, Double price) {
+        StreamingPriceChange priceChange = new StreamingPriceChange(availability.getId(), availability.getMediaId(),
+                availability.getMediaType(), availability.getProvider() == null ? null : availability.getProvider().getId(),
+                availability.getAvailabilityType(), availability.getRegion());
+        priceChange.setOldPrice(availability.getPrice());
+        priceChange.setNewPrice(price);
+        priceChange.setCurrency(availability.getCurrency());
+        priceChange.setChangedAt(new Date());
+        mongoTemplate.insert(priceChange);
+    }
+
     /**
      * Delete streaming availability
      * @param availabilityId
@@ -129,6 +300,7 @@ public class StreamingAvailabilityService {
         }
         
         availabilityRepository.deleteById(availabilityId);
+        availabilityIndex.markStale();
         return ResponseEntity.noContent().build();
     }
     
@@ -141,6 +313,7 @@ public class StreamingAvailabilityService {
     public ResponseEntity<Void> deleteAllAvailabilityForMedia(String mediaId, String mediaType) {
         MediaType type = MediaType.valueOf(mediaType.toUpperCase());
         availabilityRepository.deleteByMediaIdAndMediaType(mediaId, type);
+        availabilityIndex.markStale();
         return ResponseEntity.noContent().build();
     }
 }
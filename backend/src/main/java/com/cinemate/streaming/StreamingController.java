@@ -1,13 +1,19 @@
 package com.cinemate.streaming;
 
 import com.cinemate.streaming.DTOs.StreamingAvailabilityResponseDTO;
+import com.cinemate.streaming.DTOs.StreamingImportResultDTO;
 import com.cinemate.streaming.DTOs.StreamingProviderRequestDTO;
 import com.cinemate.streaming.DTOs.StreamingProviderResponseDTO;
+import com.cinemate.streaming.DTOs.StreamingSubscriptionsDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/streaming")
@@ -16,6 +22,8 @@ public class StreamingController {
 
     private final StreamingProviderService providerService;
     private final StreamingAvailabilityService availabilityService;
+    private final StreamingSubscriptionService subscriptionService;
+    private final StreamingImportService importService;
 
     /**
      * Get all active streaming providers
@@ -109,6 +117,81 @@ public class StreamingController {
         return ResponseEntity.ok("Bereinigt: " + cleanedCount + " verwaiste Einträge");
     }
     
+    /**
+     * Get the streaming providers a user subscribed to
+     * @param userId
+     * @return StreamingSubscriptionsDTO
+     */
+    @GetMapping("/subscriptions/user/{userId}")
+    public ResponseEntity<StreamingSubscriptionsDTO> getSubscriptions(@PathVariable String userId) {
+        return subscriptionService.getSubscriptions(userId);
+    }
+
+    /**
+     * Replace the streaming providers a user subscribed to
+     * @param userId
+     * @param subscriptions provider ids and optional region
+     * @return StreamingSubscriptionsDTO
+     */
+    @PutMapping("/subscriptions/user/{userId}")
+    public ResponseEntity<StreamingSubscriptionsDTO> updateSubscriptions(@PathVariable String userId,
+                                                                         @RequestBody StreamingSubscriptionsDTO subscriptions) {
+        return subscriptionService.updateSubscriptions(userId, subscriptions);
+    }
+
+    /**
+     * Get streaming availability for many media with one request, e.g. for a watchlist or search page
+     * @param mediaIds at most 100
+     * @param mediaType optional, "movie" or "series"
+     * @param region optional
+     * @return StreamingAvailabilityResponseDTOs by media id
+     */
+    @GetMapping("/availability/batch")
+    public ResponseEntity<Map<String, List<StreamingAvailabilityResponseDTO>>> getAvailabilityForMediaBatch(
+            @RequestParam List<String> mediaIds,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(required = false) String region) {
+        return availabilityService.getAvailabilityForMediaBatch(mediaIds, mediaType, region);
+    }
+
+    /**
+     * Browse the titles a provider currently offers in a region
+     * @param region
+     * @param providerId
+     * @param availabilityType optional
+     * @param page
+     * @param size at most 100
+     * @return Page of StreamingAvailabilityResponseDTO
+     */
+    @GetMapping("/catalog/{region}/providers/{providerId}")
+    public ResponseEntity<Page<StreamingAvailabilityResponseDTO>> getProviderCatalog(
+            @PathVariable String region,
+            @PathVariable String providerId,
+            @RequestParam(required = false) String availabilityType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return availabilityService.getProviderCatalog(region, providerId, availabilityType, page, size);
+    }
+
+    /**
+     * Browse the titles leaving their provider in a region within the next days
+     * @param region
+     * @param providerId optional
+     * @param days at most 90
+     * @param page
+     * @param size at most 100
+     * @return Page of StreamingAvailabilityResponseDTO, the titles leaving first
+     */
+    @GetMapping("/catalog/{region}/leaving-soon")
+    public ResponseEntity<Page<StreamingAvailabilityResponseDTO>> getLeavingSoon(
+            @PathVariable String region,
+            @RequestParam(required = false) String providerId,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return availabilityService.getLeavingSoon(region, providerId, days, page, size);
+    }
+
     /**
      * Get streaming availability for a specific media
      * @param mediaId
@@ -163,6 +246,31 @@ public class StreamingController {
                 region, price, currency, quality, url);
     }
     
+    /**
+     * Import streaming availability rows in bulk, e.g. the catalogue of a provider
+     * @param body NDJSON (application/x-ndjson) or CSV with a header line (text/csv)
+     * @param contentType
+     * @param expireMissing close the rows of the imported providers and regions that are missing in the body
+     * @return StreamingImportResultDTO with inserted, updated, unchanged, expired and rejected counts
+     */
+    @PostMapping("/availability/import")
+    public ResponseEntity<StreamingImportResultDTO> importAvailability(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "false") boolean expireMissing) {
+        return importService.importAvailability(body, contentType, expireMissing);
+    }
+
+    /**
+     * Get the price changes of a streaming availability
+     * @param availabilityId
+     * @return List of StreamingPriceChange, the latest first
+     */
+    @GetMapping("/availability/{availabilityId}/price-history")
+    public ResponseEntity<List<StreamingPriceChange>> getPriceHistory(@PathVariable String availabilityId) {
+        return availabilityService.getPriceHistory(availabilityId);
+    }
+
     /**
      * Update streaming availability
      * @param availabilityId
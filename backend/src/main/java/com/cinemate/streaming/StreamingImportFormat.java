@@ -0,0 +1,46 @@
+package com.cinemate.streaming;
+
+/**
+ * Input formats of the streaming availability import
+ */
+public enum StreamingImportFormat {
+    /** one JSON object per line */
+    NDJSON,
+    /** a header line with the field names, then one row per line */
+    CSV;
+
+    /**
+     * returns the format of a request body
+     * @param contentType
+     * @return StreamingImportFormat, null if unknown
+     */
+    public static StreamingImportFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.toLowerCase();
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+
+    /**
+     * returns the format of an import file
+     * @param fileName
+     * @return StreamingImportFormat, null if unknown
+     */
+    public static StreamingImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
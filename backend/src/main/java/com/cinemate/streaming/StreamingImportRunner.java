@@ -0,0 +1,47 @@
+package com.cinemate.streaming;
+
+import com.cinemate.streaming.DTOs.StreamingImportResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a streaming availability file on startup, for syncing a catalogue from the command line:
+ * --cinemate.streaming.import.file=netflix-de.ndjson [--cinemate.streaming.import.expire-missing=true]
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingImportRunner implements ApplicationRunner {
+
+    private final StreamingImportService importService;
+
+    @Value("${cinemate.streaming.import.file:}")
+    private String file;
+
+    @Value("${cinemate.streaming.import.expire-missing:false}")
+    private boolean expireMissing;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (file.isBlank()) {
+            return;
+        }
+        StreamingImportFormat format = StreamingImportFormat.fromFileName(file);
+        if (format == null) {
+            log.error("Unknown streaming import format of " + file + ", expected .ndjson, .jsonl or .csv");
+            return;
+        }
+        try (InputStream input = Files.newInputStream(Path.of(file))) {
+            StreamingImportResultDTO result = importService.importAvailability(input, format, expireMissing);
+            result.getErrors().forEach(error -> log.warn("Streaming import of " + file + ": " + error));
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.cinemate.streaming;
+
+import com.cinemate.streaming.DTOs.StreamingImportResultDTO;
+import com.cinemate.streaming.DTOs.StreamingImportRowDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Imports streaming availability rows from NDJSON or CSV, e.g. the catalogue of a provider.
+ * The input is read line by line and applied in batches: every batch reads the existing rows with one query,
+ * compares them by media, provider, region and availability type and writes only the differences
+ * with one unordered bulk write. Price changes are recorded in streaming_price_history.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StreamingImportService {
+
+    private static final String AVAILABILITY = "streaming_availability";
+    private static final String PROVIDERS = "streaming_providers";
+    private static final int MAX_ERRORS = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final StreamingProviderCache providerCache;
+    private final ProviderAvailabilityIndex availabilityIndex;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cinemate.streaming.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Import streaming availability from a request body
+     * @param input
+     * @param contentType text/csv or application/x-ndjson
+     * @param expireMissing close the rows of the imported providers and regions that are missing in the input
+     * @return StreamingImportResultDTO
+     */
+    public ResponseEntity<StreamingImportResultDTO> importAvailability(InputStream input, String contentType,
+                                                                       boolean expireMissing) {
+        StreamingImportFormat format = StreamingImportFormat.fromContentType(contentType);
+        if (format == null) {
+            return ResponseEntity.status(415).build();
+        }
+        try {
+            return ResponseEntity.ok(importAvailability(input, format, expireMissing));
+        } catch (IOException e) {
+            log.error("Error reading the streaming import: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Import streaming availability
+     * @param input
+     * @param format
+     * @param expireMissing close the rows of the imported providers and regions that are missing in the input
+     * @return StreamingImportResultDTO
+     * @throws IOException if the input cannot be read
+     */
+    public StreamingImportResultDTO importAvailability(InputStream input, StreamingImportFormat format,
+                                                       boolean expireMissing) throws IOException {
+        StreamingImportResultDTO result = new StreamingImportResultDTO();
+        Date now = new Date();
+        // keys of all imported rows, to reject duplicates and to find the missing rows
+        Set<String> importedKeys = new HashSet<>();
+        Set<String> importedScopes = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == StreamingImportFormat.CSV && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+
+                ImportRow row;
+                try {
+                    StreamingImportRowDTO dto = format == StreamingImportFormat.CSV
+                            ? readCsvRow(header, line)
+                            : objectMapper.readValue(line, StreamingImportRowDTO.class);
+                    row = resolve(dto, lineNumber);
+                } catch (JsonProcessingException e) {
+                    reject(result, lineNumber, "Ungültiges JSON");
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    reject(result, lineNumber, e.getMessage());
+                    continue;
+                }
+                if (!importedKeys.add(row.key)) {
+                    reject(result, lineNumber, "Doppelter Eintrag");
+                    continue;
+                }
+                importedScopes.add(row.providerId + "|" + row.region);
+
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    applyBatch(batch, now, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            applyBatch(batch, now, result);
+        }
+        if (expireMissing && !importedScopes.isEmpty()) {
+            expireMissing(importedScopes, importedKeys, now, result);
+        }
+
+        if (result.getInserted() + result.getUpdated() + result.getExpired() > 0) {
+            availabilityIndex.markStale();
+        }
+        log.info("Imported streaming availability: {} inserted, {} updated, {} unchanged, {} expired, {} rejected",
+                result.getInserted(), result.getUpdated(), result.getUnchanged(), result.getExpired(), result.getRejected());
+        return result;
+    }
+
+    /**
+     * compares a batch with the stored rows and writes the inserts and changes with one bulk write
+     */
+    private void applyBatch(List<ImportRow> batch, Date now, StreamingImportResultDTO result) {
+        Set<String> mediaIds = new HashSet<>();
+        Set<String> regions = new HashSet<>();
+        for (ImportRow row : batch) {
+            mediaIds.add(row.mediaId);
+            regions.add(row.region);
+        }
+        Query query = Query.query(Criteria.where("media_id").in(mediaIds).and("region").in(regions));
+        query.fields().include("media_id", "media_type", "provider", "region", "availability_type",
+                "price", "currency", "quality", "url", "available_from", "available_until");
+        Map<String, Document> existing = new HashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, AVAILABILITY)) {
+            existing.put(keyOf(document), document);
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AVAILABILITY);
+        List<ImportRow> operations = new ArrayList<>();
+        Map<Integer, StreamingPriceChange> priceChanges = new HashMap<>();
+        for (ImportRow row : batch) {
+            Document current = existing.get(row.key);
+            if (current == null) {
+                Update insert = new Update()
+                        .set("price", row.price)
+                        .set("currency", row.currency)
+                        .set("quality", row.quality)
+                        .set("url", row.url)
+                        .set("available_from", row.availableFrom)
+                        .set("available_until", row.availableUntil)
+                        .set("last_updated", now)
+                        .setOnInsert("leaving_soon_notified", false)
+                        .setOnInsert("_class", StreamingAvailability.class.getName());
+                bulkOps.upsert(Query.query(keyCriteria(row)), insert);
+                operations.add(row);
+                continue;
+            }
+
+            Update update = diff(row, current);
+            if (update == null) {
+                result.setUnchanged(result.getUnchanged() + 1);
+                continue;
+            }
+            update.set("last_updated", now);
+            if (!samePrice(row.price, current.get("price"))) {
+                StreamingPriceChange priceChange = new StreamingPriceChange(current.get("_id").toString(), row.mediaId,
+                        row.mediaType, row.providerId, row.availabilityType, row.region);
+                priceChange.setOldPrice(current.get("price") instanceof Number ? ((Number) current.get("price")).doubleValue() : null);
+                priceChange.setNewPrice(row.price);
+                priceChange.setCurrency(row.currency);
+                priceChange.setChangedAt(now);
+                priceChanges.put(operations.size(), priceChange);
+            }
+            bulkOps.updateOne(Query.query(Criteria.where("_id").is(current.get("_id"))), update);
+            operations.add(row);
+        }
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        BulkWriteResult writeResult;
+        try {
+            writeResult = bulkOps.execute();
+        } catch (BulkOperationException e) {
+            writeResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                priceChanges.remove(error.getIndex());
+                reject(result, operations.get(error.getIndex()).lineNumber, error.getMessage());
+            }
+        }
+        result.setInserted(result.getInserted() + writeResult.getUpserts().size());
+        result.setUpdated(result.getUpdated() + writeResult.getModifiedCount());
+
+        if (!priceChanges.isEmpty()) {
+            mongoTemplate.insert(priceChanges.values(), StreamingPriceChange.class);
+            result.setPriceChanges(result.getPriceChanges() + priceChanges.size());
+        }
+    }
+
+    /**
+     * returns the update for the changed fields of a stored row, null if nothing changed
+     */
+    private Update diff(ImportRow row, Document current) {
+        Update update = new Update();
+        boolean changed = false;
+        if (!samePrice(row.price, current.get("price"))) {
+            update.set("price", row.price);
+            changed = true;
+        }
+        changed |= setIfChanged(update, "currency", row.currency, current.get("currency"));
+        changed |= setIfChanged(update, "quality", row.quality, current.get("quality"));
+        changed |= setIfChanged(update, "url", row.url, current.get("url"));
+        changed |= setIfChanged(update, "available_from", row.availableFrom, current.get("available_from"));
+        if (setIfChanged(update, "available_until", row.availableUntil, current.get("available_until"))) {
+            // a new end of the window is announced again
+            update.set("leaving_soon_notified", false);
+            changed = true;
+        }
+        return changed ? update : null;
+    }
+
+    /**
+     * closes the open rows of the imported providers and regions that were not part of the import
+     */
+    private void expireMissing(Set<String> importedScopes, Set<String> importedKeys, Date now, StreamingImportResultDTO result) {
+        Set<Object> providerRefs = new HashSet<>();
+        Set<String> regions = new HashSet<>();
+        for (String scope : importedScopes) {
+            String[] parts = scope.split("\\|", 2);
+            providerRefs.add(toObjectId(parts[0]));
+            regions.add(parts[1]);
+        }
+        Query query = Query.query(Criteria.where("region").in(regions).and("provider.$id").in(providerRefs)
+                .and("available_until").not().lte(now));
+        query.fields().include("media_id", "media_type", "provider", "region", "availability_type");
+
+        List<Object> missingIds = new ArrayList<>();
+        try (Stream<Document> rows = mongoTemplate.stream(query, Document.class, AVAILABILITY)) {
+            rows.forEach(document -> {
+                String key = keyOf(document);
+                if (importedScopes.contains(providerIdOf(document) + "|" + document.getString("region"))
+                        && !importedKeys.contains(key)) {
+                    missingIds.add(document.get("_id"));
+                }
+            });
+        }
+
+        Update expire = new Update().set("available_until", now).set("last_updated", now);
+        for (int from = 0; from < missingIds.size(); from += batchSize) {
+            List<Object> ids = missingIds.subList(from, Math.min(from + batchSize, missingIds.size()));
+            long expired = mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), expire, AVAILABILITY)
+                    .getModifiedCount();
+            result.setExpired(result.getExpired() + (int) expired);
+        }
+    }
+
+    /**
+     * validates a row and resolves its provider from the provider cache
+     */
+    private ImportRow resolve(StreamingImportRowDTO dto, int lineNumber) {
+        ImportRow row = new ImportRow();
+        row.lineNumber = lineNumber;
+        row.mediaId = required(dto.getMediaId(), "mediaId");
+        row.mediaType = parseEnum(MediaType.class, required(dto.getMediaType(), "mediaType"), "Medientyp");
+        row.providerId = required(dto.getProviderId(), "providerId");
+        if (providerCache.get(row.providerId) == null) {
+            throw new IllegalArgumentException("Unbekannter Provider: " + row.providerId);
+        }
+        row.providerRef = toObjectId(row.providerId);
+        row.availabilityType = parseEnum(AvailabilityType.class, required(dto.getAvailabilityType(), "availabilityType"),
+                "Verfügbarkeitstyp");
+        row.region = required(dto.getRegion(), "region");
+        row.price = dto.getPrice();
+        row.currency = blankToNull(dto.getCurrency());
+        row.quality = blankToNull(dto.getQuality());
+        row.url = blankToNull(dto.getUrl());
+        row.availableFrom = parseDate(dto.getAvailableFrom());
+        row.availableUntil = parseDate(dto.getAvailableUntil());
+        row.key = key(row.mediaType.name(), row.mediaId, row.providerId, row.region, row.availabilityType.name());
+        return row;
+    }
+
+    private StreamingImportRowDTO readCsvRow(String[] header, String line) {
+        List<String> values = parseCsvLine(line);
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            fields.put(header[i].trim().toLowerCase(), blankToNull(values.get(i)));
+        }
+        StreamingImportRowDTO dto = new StreamingImportRowDTO();
+        dto.setMediaId(fields.get("mediaid"));
+        dto.setMediaType(fields.get("mediatype"));
+        dto.setProviderId(fields.get("providerid"));
+        dto.setAvailabilityType(fields.get("availabilitytype"));
+        dto.setRegion(fields.get("region"));
+        dto.setCurrency(fields.get("currency"));
+        dto.setQuality(fields.get("quality"));
+        dto.setUrl(fields.get("url"));
+        dto.setAvailableFrom(fields.get("availablefrom"));
+        dto.setAvailableUntil(fields.get("availableuntil"));
+        String price = fields.get("price");
+        if (price != null) {
+            try {
+                dto.setPrice(Double.parseDouble(price.replace(',', '.')));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültiger Preis: " + price);
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * splits a CSV line at commas, fields may be quoted with "" as escaped quote
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String keyOf(Document document) {
+        return key(document.getString("media_type"), document.getString("media_id"), String.valueOf(providerIdOf(document)),
+                document.getString("region"), document.getString("availability_type"));
+    }
+
+    private static String key(String mediaType, String mediaId, String providerId, String region, String availabilityType) {
+        return mediaType + "|" + mediaId + "|" + providerId + "|" + region + "|" + availabilityType;
+    }
+
+    private static Criteria keyCriteria(ImportRow row) {
+        return Criteria.where("media_id").is(row.mediaId)
+                .and("media_type").is(row.mediaType.name())
+                .and("provider").is(new DBRef(PROVIDERS, row.providerRef))
+                .and("region").is(row.region)
+                .and("availability_type").is(row.availabilityType.name());
+    }
+
+    private static Object providerIdOf(Document document) {
+        Object ref = document.get("provider");
+        return ref instanceof DBRef ? ((DBRef) ref).getId() : ref instanceof Document ? ((Document) ref).get("$id") : null;
+    }
+
+    private static boolean setIfChanged(Update update, String field, Object value, Object current) {
+        if (Objects.equals(value, current)) {
+            return false;
+        }
+        update.set(field, value);
+        return true;
+    }
+
+    private static boolean samePrice(Double price, Object current) {
+        if (price == null || current == null) {
+            return price == null && current == null;
+        }
+        return current instanceof Number && price == ((Number) current).doubleValue();
+    }
+
+    private static void reject(StreamingImportResultDTO result, int lineNumber, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_ERRORS) {
+            result.getErrors().add("Zeile " + lineNumber + ": " + reason);
+        }
+    }
+
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Pflichtfeld fehlt: " + field);
+        }
+        return value.trim();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekannter " + label + ": " + value);
+        }
+    }
+
+    /**
+     * parses an ISO instant, an ISO date (start of the day in UTC) or epoch millis
+     */
+    private static Date parseDate(String value) {
+        String date = blankToNull(value);
+        if (date == null) {
+            return null;
+        }
+        try {
+            if (date.chars().allMatch(Character::isDigit)) {
+                return new Date(Long.parseLong(date));
+            }
+            if (date.length() == 10) {
+                return Date.from(LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+            return Date.from(Instant.parse(date));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiges Datum: " + date);
+        }
+    }
+
+    private static class ImportRow {
+        private int lineNumber;
+        private String key;
+        private String mediaId;
+        private MediaType mediaType;
+        private String providerId;
+        private Object providerRef;
+        private AvailabilityType availabilityType;
+        private String region;
+        private Double price;
+        private String currency;
+        private String quality;
+        private String url;
+        private Date availableFrom;
+        private Date availableUntil;
+    }
+}
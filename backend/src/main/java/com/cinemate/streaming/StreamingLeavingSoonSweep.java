@@ -0,0 +1,130 @@
+package com.cinemate.streaming;
+
+import com.cinemate.notification.AutoNotificationService;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import com.cinemate.user.media.UserMediaService;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.SimpleDateFormat;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Tells users once which titles of their watchlist leave a streaming provider within the next
+ * cinemate.streaming.leaving-soon.days days. The rows are found with a range query on the indexed
+ * available_until and marked afterwards, so every row is announced only once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingLeavingSoonSweep {
+
+    private static final String AVAILABILITY = "streaming_availability";
+
+    private final MongoTemplate mongoTemplate;
+    private final StreamingProviderCache providerCache;
+    private final UserMediaService userMediaService;
+    private final AutoNotificationService autoNotificationService;
+
+    @Value("${cinemate.streaming.leaving-soon.days:7}")
+    private int days;
+
+    /**
+     * executed every day at 8am
+     */
+    @Scheduled(cron = "${cinemate.streaming.leaving-soon.cron:0 0 8 * * *}")
+    public void sweep() {
+        Date now = new Date();
+        Date until = Date.from(now.toInstant().plus(days, ChronoUnit.DAYS));
+        Query query = Query.query(Criteria.where("available_until").gt(now).lte(until)
+                .and("leaving_soon_notified").ne(true));
+        query.fields().include("media_id", "media_type", "provider", "region", "available_until");
+        List<Document> rows = mongoTemplate.find(query, Document.class, AVAILABILITY);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<String>> linesByUser = new LinkedHashMap<>();
+        collectLines(rows, MediaType.MOVIE, UserMediaEntry.TYPE_MOVIE, "movies", linesByUser);
+        collectLines(rows, MediaType.SERIES, UserMediaEntry.TYPE_SERIES, "series", linesByUser);
+
+        for (Map.Entry<String, List<String>> entry : linesByUser.entrySet()) {
+            try {
+                autoNotificationService.notifyStreamingLeavingSoon(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                log.error("Error sending leaving soon notification to user " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+
+        List<Object> ids = rows.stream().map(row -> row.get("_id")).toList();
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                new Update().set("leaving_soon_notified", true), AVAILABILITY);
+        log.info("Announced " + rows.size() + " leaving streaming titles to " + linesByUser.size() + " users");
+    }
+
+    /**
+     * adds one line per leaving row of the media type to every user having the title on the watchlist
+     */
+    private void collectLines(List<Document> rows, MediaType mediaType, String itemType, String collection,
+                              Map<String, List<String>> linesByUser) {
+        Map<String, List<Document>> rowsByMedia = new LinkedHashMap<>();
+        for (Document row : rows) {
+            if (mediaType.name().equals(row.getString("media_type"))) {
+                rowsByMedia.computeIfAbsent(row.getString("media_id"), id -> new ArrayList<>()).add(row);
+            }
+        }
+        if (rowsByMedia.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<String>> itemIdsByUser = userMediaService.getItemIdsByUser(MediaListType.WATCHLIST, itemType, rowsByMedia.keySet());
+        if (itemIdsByUser.isEmpty()) {
+            return;
+        }
+        Map<String, String> titles = loadTitles(collection, rowsByMedia.keySet());
+        SimpleDateFormat dateFormat = new SimpleDateFormat("dd.MM.");
+
+        for (Map.Entry<String, List<String>> entry : itemIdsByUser.entrySet()) {
+            List<String> lines = linesByUser.computeIfAbsent(entry.getKey(), id -> new ArrayList<>());
+            for (String itemId : entry.getValue()) {
+                for (Document row : rowsByMedia.get(itemId)) {
+                    Object ref = row.get("provider");
+                    Object providerId = ref instanceof DBRef ? ((DBRef) ref).getId()
+                            : ref instanceof Document ? ((Document) ref).get("$id") : null;
+                    StreamingProvider provider = providerId == null ? null : providerCache.get(providerId.toString());
+                    if (provider == null || !titles.containsKey(itemId)) {
+                        continue;
+                    }
+                    lines.add(String.format("%s – %s (%s) bis %s", titles.get(itemId), provider.getName(),
+                            row.getString("region"), dateFormat.format(row.getDate("available_until"))));
+                }
+            }
+        }
+        linesByUser.values().removeIf(List::isEmpty);
+    }
+
+    private Map<String, String> loadTitles(String collection, Collection<String> ids) {
+        List<Object> objectIds = ids.stream()
+                .map(id -> ObjectId.isValid(id) ? (Object) new ObjectId(id) : id)
+                .toList();
+        Query query = Query.query(Criteria.where("_id").in(objectIds));
+        query.fields().include("title");
+        Map<String, String> titles = new HashMap<>();
+        for (Document item : mongoTemplate.find(query, Document.class, collection)) {
+            titles.put(item.get("_id").toString(), item.getString("title"));
+        }
+        return titles;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cinemate.streaming;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+/**
+ * A price change of a streaming availability row, written by updates and imports
+ */
+@Document(collection = "streaming_price_history")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StreamingPriceChange {
+
+    @Id
+    private String id;
+    @Field("availability_id")
+    private String availabilityId;
+    @Field("media_id")
+    private String mediaId;
+    @Field("media_type")
+    private MediaType mediaType;
+    @Field("provider_id")
+    private String providerId;
+    @Field("availability_type")
+    private AvailabilityType availabilityType;
+    private String region;
+    @Field("old_price")
+    private Double oldPrice;
+    @Field("new_price")
+    private Double newPrice;
+    private String currency;
+    @Field("changed_at")
+    private Date changedAt;
+
+    public StreamingPriceChange(String availabilityId, String mediaId, MediaType mediaType, String providerId,
+                                AvailabilityType availabilityType, String region) {
+        this.availabilityId = availabilityId;
+        this.mediaId = mediaId;
+        this.mediaType = mediaType;
+        this.providerId = providerId;
+        this.availabilityType = availabilityType;
+        this.region = region;
+    }
+}
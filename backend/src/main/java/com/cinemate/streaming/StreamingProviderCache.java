@@ -0,0 +1,84 @@
+package com.cinemate.streaming;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * All streaming providers by id. Providers change rarely, so availability rows are joined with
+ * their provider in memory instead of resolving the DBRef per row.
+ * StreamingProviderService refreshes the cache after every write.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingProviderCache implements MeterBinder {
+
+    private final StreamingProviderRepository providerRepository;
+
+    private volatile Map<String, StreamingProvider> providersById;
+
+    /**
+     * incremented on every refresh, providers loaded while a refresh happened are not kept
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cinemate.streaming.providers.cached", this, StreamingProviderCache::size)
+                .description("Streaming providers held in memory")
+                .register(registry);
+    }
+
+    /**
+     * returns the provider with the given id
+     * @param id
+     * @return StreamingProvider, null if it does not exist
+     */
+    public StreamingProvider get(String id) {
+        return id == null ? null : load().get(id);
+    }
+
+    /**
+     * returns all providers
+     * @return Collection<StreamingProvider>, unmodifiable
+     */
+    public Collection<StreamingProvider> getAll() {
+        return load().values();
+    }
+
+    /**
+     * reloads the providers on next access, e.g. after one was saved or deleted
+     */
+    public synchronized void refresh() {
+        generation.incrementAndGet();
+        providersById = null;
+    }
+
+    private int size() {
+        Map<String, StreamingProvider> loaded = providersById;
+        return loaded == null ? 0 : loaded.size();
+    }
+
+    private Map<String, StreamingProvider> load() {
+        Map<String, StreamingProvider> loaded = providersById;
+        if (loaded == null) {
+            long loadedGeneration = generation.get();
+            Map<String, StreamingProvider> providers = new LinkedHashMap<>();
+            for (StreamingProvider provider : providerRepository.findAll()) {
+                providers.put(provider.getId(), provider);
+            }
+            loaded = Collections.unmodifiableMap(providers);
+            synchronized (this) {
+                if (generation.get() == loadedGeneration) {
+                    providersById = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+}
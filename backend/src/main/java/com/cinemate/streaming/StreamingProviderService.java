@@ -16,6 +16,8 @@ public class StreamingProviderService {
     
     private final StreamingProviderRepository providerRepository;
     private final StreamingAvailabilityRepository availabilityRepository;
+    private final StreamingProviderCache providerCache;
+    private final ProviderAvailabilityIndex availabilityIndex;
     
     /**
      * Get all active streaming providers
@@ -81,6 +83,7 @@ public class StreamingProviderService {
         );
         
         StreamingProvider savedProvider = providerRepository.save(provider);
+        providerCache.refresh();
         return ResponseEntity.ok(new StreamingProviderResponseDTO(savedProvider));
     }
     
@@ -107,6 +110,7 @@ public class StreamingProviderService {
         provider.setPurchaseAvailable(providerDTO.isPurchaseAvailable());
         
         StreamingProvider savedProvider = providerRepository.save(provider);
+        providerCache.refresh();
         return ResponseEntity.ok(new StreamingProviderResponseDTO(savedProvider));
     }
     
@@ -125,6 +129,8 @@ public class StreamingProviderService {
         
         // Dann lösche den Provider
         providerRepository.deleteById(id);
+        providerCache.refresh();
+        availabilityIndex.markStale();
         return ResponseEntity.noContent().build();
     }
     
@@ -144,6 +150,7 @@ public class StreamingProviderService {
         provider.setActive(!provider.isActive());
         
         StreamingProvider savedProvider = providerRepository.save(provider);
+        providerCache.refresh();
         return ResponseEntity.ok(new StreamingProviderResponseDTO(savedProvider));
     }
     
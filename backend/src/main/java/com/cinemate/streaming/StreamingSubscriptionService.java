@@ -0,0 +1,77 @@
+package com.cinemate.streaming;
+
+import com.cinemate.recommendation.utils.RecommendationTriggerUtil;
+import com.cinemate.streaming.DTOs.StreamingSubscriptionsDTO;
+import com.cinemate.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * The streaming providers a user subscribed to and the region they watch in,
+ * used to restrict or boost recommendations to titles they can stream
+ */
+@Service
+@RequiredArgsConstructor
+public class StreamingSubscriptionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final StreamingProviderCache providerCache;
+    private final RecommendationTriggerUtil recommendationTriggerUtil;
+
+    /**
+     * returns the streaming subscriptions of a user
+     * @param userId
+     * @return StreamingSubscriptionsDTO
+     */
+    public ResponseEntity<StreamingSubscriptionsDTO> getSubscriptions(String userId) {
+        User user = findSubscriptions(userId);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<String> providerIds = user.getStreamingProviderIds() == null ? new ArrayList<>() : user.getStreamingProviderIds();
+        return ResponseEntity.ok(new StreamingSubscriptionsDTO(providerIds, user.getStreamingRegion()));
+    }
+
+    /**
+     * replaces the streaming subscriptions of a user
+     * @param userId
+     * @param subscriptions unknown provider ids are rejected
+     * @return StreamingSubscriptionsDTO
+     */
+    public ResponseEntity<StreamingSubscriptionsDTO> updateSubscriptions(String userId, StreamingSubscriptionsDTO subscriptions) {
+        List<String> providerIds = subscriptions.getProviderIds() == null
+                ? new ArrayList<>() : new ArrayList<>(new LinkedHashSet<>(subscriptions.getProviderIds()));
+        if (providerIds.stream().anyMatch(id -> providerCache.get(id) == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String region = subscriptions.getRegion() == null || subscriptions.getRegion().isBlank()
+                ? null : subscriptions.getRegion().trim();
+
+        Update update = new Update().set("streamingProviderIds", providerIds).set("streamingRegion", region);
+        if (mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(userId)), update, User.class).getMatchedCount() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        recommendationTriggerUtil.invalidateRecommendations(userId);
+        return ResponseEntity.ok(new StreamingSubscriptionsDTO(providerIds, region));
+    }
+
+    /**
+     * returns the user with only the streaming subscriptions loaded, null if the user does not exist
+     * @param userId
+     * @return User
+     */
+    public User findSubscriptions(String userId) {
+        Query query = Query.query(Criteria.where("id").is(userId));
+        query.fields().include("streamingProviderIds", "streamingRegion");
+        return mongoTemplate.findOne(query, User.class);
+    }
+}
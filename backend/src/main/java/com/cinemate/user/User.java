@@ -1,8 +1,6 @@
 package com.cinemate.user;
 
-import com.cinemate.movie.Movie;
 import com.cinemate.notification.preference.NotificationPreference;
-import com.cinemate.series.Series;
 import com.cinemate.user.DTOs.UserRequestDTO;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
@@ -11,7 +9,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
@@ -37,19 +34,7 @@ public class User {
     private String bio;
     private String avatarUrl;
     private Date joinedAt;
-    @DBRef(lazy = true)
-    private List<Movie> movieWatchlist = new ArrayList<>();
-    @DBRef(lazy = true)
-    private List<Series> seriesWatchlist = new ArrayList<>();
     private Role role;
-    @DBRef(lazy = true)
-    private List<Movie> movieFavorites = new ArrayList<>();
-    @DBRef(lazy = true)
-    private List<Series> seriesFavorites = new ArrayList<>();
-    @DBRef(lazy = true)
-    private List<Movie> moviesWatched = new ArrayList<>();
-    @DBRef(lazy = true)
-    private List<Series> seriesWatched = new ArrayList<>();
 
     private boolean profilePublic = true;
     private boolean allowFriendRequests = true;
@@ -60,6 +45,9 @@ public class User {
     private boolean webNotificationsEnabled = true;
     private boolean summaryRecommendationsEnabled = false;
 
+    private List<String> streamingProviderIds = new ArrayList<>();
+    private String streamingRegion;
+
 
     public User(String id, String username, String password, String email, String bio, String avatarUrl, Date joinedAt, Role role) {
         this.id = id;
@@ -82,65 +70,4 @@ public class User {
         this.joinedAt = user.getJoinedAt();
         this.role = user.getRole();
     }
-
-    public void addMovieToWatchlist(Movie movie) {
-        if (!movieWatchlist.contains(movie)) {
-            movieWatchlist.add(movie);
-        }
-    }
-
-    public void removeMovieFromWatchlist(Movie movie) {
-        movieWatchlist.removeIf(m -> m.getId().equals(movie.getId()));
-    }
-
-    public void addSeriesToWatchlist(Series series) {
-        if (!seriesWatchlist.contains(series)) {
-            seriesWatchlist.add(series);
-        }
-    }
-
-    public void removeSeriesFromWatchlist(Series series) {
-        seriesWatchlist.removeIf(m -> m.getId().equals(series.getId()));
-    }
-
-    public void addMovieToFavorites(Movie movie) {
-        if (!movieFavorites.contains(movie)) {
-            movieFavorites.add(movie);
-        }
-    }
-
-    public void removeMovieFromFavorites(Movie movie) {
-        movieFavorites.removeIf(m -> m.getId().equals(movie.getId()));
-    }
-
-    public void addSeriesToFavorites(Series series) {
-        if (!seriesFavorites.contains(series)) {
-            seriesFavorites.add(series);
-        }
-    }
-
-    public void removeSeriesFromFavorites(Series series) {
-        seriesFavorites.removeIf(m -> m.getId().equals(series.getId()));
-    }
-
-    public void addMovieToWatched(Movie movie) {
-        if (!moviesWatched.contains(movie)) {
-            moviesWatched.add(movie);
-        }
-    }
-
-    public void removeMovieFromWatched(Movie movie) {
-        moviesWatched.removeIf(m -> m.getId().equals(movie.getId()));
-    }
-
-    public void addSeriesToWatched(Series series) {
-        if (!seriesWatched.contains(series)) {
-            seriesWatched.add(series);
-        }
-    }
-
-    public void removeSeriesFromWatched(Series series) {
-        seriesWatched.removeIf(m -> m.getId().equals(series.getId()));
-    }
-
 }
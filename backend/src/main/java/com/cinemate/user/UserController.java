@@ -4,7 +4,10 @@ import com.cinemate.movie.DTOs.MovieResponseDTO;
 import com.cinemate.series.DTOs.SeriesResponseDTO;
 import com.cinemate.user.DTOs.UserRequestDTO;
 import com.cinemate.user.DTOs.UserResponseDTO;
+import com.cinemate.user.media.MediaListType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,12 +15,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+
     private final UserService userService;
 
     /**
@@ -281,4 +287,48 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+// ===== PAGED LIST ENDPOINTS =====
+
+    /**
+     * returns one page of the movies on the given list (watchlist, favorites, watched) of the user
+     * @param id
+     * @param listType
+     * @param page starting with 0
+     * @param size at most 100
+     * @return Page<MovieResponseDTO>
+     */
+    @GetMapping("/{id}/lists/{listType}/movies")
+    public ResponseEntity<Page<MovieResponseDTO>> getMovieListPage(
+            @PathVariable String id,
+            @PathVariable String listType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Optional<MediaListType> type = MediaListType.fromPath(listType);
+        if (type.isEmpty() || page < 0 || size <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return userService.getMovieList(id, type.get(), PageRequest.of(page, Math.min(size, MAX_LIST_PAGE_SIZE)));
+    }
+
+    /**
+     * returns one page of the series on the given list (watchlist, favorites, watched) of the user
+     * @param id
+     * @param listType
+     * @param page starting with 0
+     * @param size at most 100
+     * @return Page<SeriesResponseDTO>
+     */
+    @GetMapping("/{id}/lists/{listType}/series")
+    public ResponseEntity<Page<SeriesResponseDTO>> getSeriesListPage(
+            @PathVariable String id,
+            @PathVariable String listType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Optional<MediaListType> type = MediaListType.fromPath(listType);
+        if (type.isEmpty() || page < 0 || size <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return userService.getSeriesList(id, type.get(), PageRequest.of(page, Math.min(size, MAX_LIST_PAGE_SIZE)));
+    }
+
 }
@@ -9,12 +9,21 @@ import com.cinemate.series.Series;
 import com.cinemate.series.SeriesRepository;
 import com.cinemate.user.DTOs.UserRequestDTO;
 import com.cinemate.user.DTOs.UserResponseDTO;
+import com.cinemate.user.activity.UserActivityCounterService;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import com.cinemate.user.media.UserMediaService;
 import com.cinemate.notification.events.UserActivityEvent;
 import com.cinemate.recommendation.utils.RecommendationTriggerUtil;
+import com.cinemate.social.feed.FeedService;
 import com.cinemate.social.points.PointsEventListener;
+import com.cinemate.social.points.leaderboard.PointsLeaderboard;
+import com.cinemate.statistics.activity.WatchActivityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -26,6 +35,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,9 +49,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
     private final SeriesRepository seriesRepository;
+    private final UserMediaService userMediaService;
+    private final WatchActivityService watchActivityService;
+    private final UserActivityCounterService activityCounterService;
+    private final FeedService feedService;
     private final ApplicationEventPublisher eventPublisher;
     private final RecommendationTriggerUtil recommendationTrigger;
     private final PointsEventListener pointsEventListener;
+    private final PointsLeaderboard pointsLeaderboard;
 
     /**
      * returns the currently logged in user
@@ -102,17 +117,7 @@ public class UserService {
      * @return List<Movie>
      */
     public ResponseEntity<List<MovieResponseDTO>> getMovieWatchlist(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        User user = userOptional.get();
-        List<MovieResponseDTO> movieDTOs = user.getMovieWatchlist().stream()
-                .map(MovieResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(movieDTOs);
+        return getMovieList(userId, MediaListType.WATCHLIST);
     }
 
     /**
@@ -121,17 +126,37 @@ public class UserService {
      * @return List<Series>
      */
     public ResponseEntity<List<SeriesResponseDTO>> getSeriesWatchlist(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
+        return getSeriesList(userId, MediaListType.WATCHLIST);
+    }
+
+    /**
+     * returns one page of the movies on the given list of the user
+     * @param userId
+     * @param listType
+     * @param pageable
+     * @return Page<MovieResponseDTO>
+     */
+    public ResponseEntity<Page<MovieResponseDTO>> getMovieList(String userId, MediaListType listType, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
             return ResponseEntity.notFound().build();
         }
 
-        User user = userOptional.get();
-        List<SeriesResponseDTO> seriesDTOs = user.getSeriesWatchlist().stream()
-                .map(SeriesResponseDTO::new)
-                .collect(Collectors.toList());
+        return ResponseEntity.ok(userMediaService.getMovies(userId, listType, pageable).map(MovieResponseDTO::new));
+    }
 
-        return ResponseEntity.ok(seriesDTOs);
+    /**
+     * returns one page of the series on the given list of the user
+     * @param userId
+     * @param listType
+     * @param pageable
+     * @return Page<SeriesResponseDTO>
+     */
+    public ResponseEntity<Page<SeriesResponseDTO>> getSeriesList(String userId, MediaListType listType, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(userMediaService.getSeries(userId, listType, pageable).map(SeriesResponseDTO::new));
     }
 
     /**
@@ -204,6 +229,10 @@ public class UserService {
      */
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        userMediaService.removeAll(id);
+        activityCounterService.remove(id);
+        pointsLeaderboard.remove(id);
+        feedService.removeUser(id);
     }
 
     /**
@@ -213,33 +242,20 @@ public class UserService {
      * @return List<MovieResponseDTO>
      */
     public ResponseEntity<List<MovieResponseDTO>> addMovieToWatchlist(String userId, String movieId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Movie> movieOptional = movieRepository.findById(movieId);
-
-        if (userOptional.isEmpty() || movieOptional.isEmpty()) {
+        if (!userRepository.existsById(userId) || !movieRepository.existsById(movieId)) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userOptional.get();
-        Movie movie = movieOptional.get();
-
-        if (user.getMovieWatchlist().contains(movie)) {
+        if (!userMediaService.add(userId, MediaListType.WATCHLIST, UserMediaEntry.TYPE_MOVIE, movieId)) {
             throw new AlreadyInWatchlistException(
                     String.format("Film mit ID '%s' ist bereits in der Watchlist von Benutzer '%s'.", movieId, userId));
         }
 
-        user.addMovieToWatchlist(movie);
-        User savedUser = userRepository.save(user);
-
         eventPublisher.publishEvent(new UserActivityEvent(this, userId, UserActivityEvent.ActivityType.WATCHLIST_ITEM_ADDED, movieId));
 
         recommendationTrigger.triggerOnWatchlistUpdate(userId, movieId, "movie");
 
-        List<MovieResponseDTO> movieDTOs = savedUser.getMovieWatchlist().stream()
-                .map(MovieResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(movieDTOs);
+        return getMovieList(userId, MediaListType.WATCHLIST);
     }
 
     /**
@@ -249,33 +265,20 @@ public class UserService {
      * @return List<SeriesResponseDTO>
      */
     public ResponseEntity<List<SeriesResponseDTO>> addSeriesToWatchlist(String userId, String seriesId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Series> seriesOptional = seriesRepository.findById(seriesId);
-
-        if (userOptional.isEmpty() || seriesOptional.isEmpty()) {
+        if (!userRepository.existsById(userId) || !seriesRepository.existsById(seriesId)) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userOptional.get();
-        Series series = seriesOptional.get();
-
-        if (user.getSeriesWatchlist().contains(series)) {
+        if (!userMediaService.add(userId, MediaListType.WATCHLIST, UserMediaEntry.TYPE_SERIES, seriesId)) {
             throw new AlreadyInWatchlistException(
                     String.format("Serie mit ID '%s' ist bereits in der Watchlist von Benutzer '%s'.", seriesId, userId));
         }
 
-        user.addSeriesToWatchlist(series);
-        User savedUser = userRepository.save(user);
-
         eventPublisher.publishEvent(new UserActivityEvent(this, userId, UserActivityEvent.ActivityType.WATCHLIST_ITEM_ADDED, seriesId));
 
         recommendationTrigger.triggerOnWatchlistUpdate(userId, seriesId, "series");
 
-        List<SeriesResponseDTO> seriesDTOs = savedUser.getSeriesWatchlist().stream()
-                .map(SeriesResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(seriesDTOs);
+        return getSeriesList(userId, MediaListType.WATCHLIST);
     }
 
     /**
@@ -284,15 +287,8 @@ public class UserService {
      * @param movieId
      */
     public void removeMovieFromWatchlist(String userId, String movieId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Movie> movieOptional = movieRepository.findById(movieId);
-
-        if (userOptional.isPresent() && movieOptional.isPresent()) {
-            User user = userOptional.get();
-            Movie movie = movieOptional.get();
-
-            user.removeMovieFromWatchlist(movie);
-            userRepository.save(user);
+        if (userMediaService.remove(userId, MediaListType.WATCHLIST, UserMediaEntry.TYPE_MOVIE, movieId)) {
+            recommendationTrigger.invalidateRecommendations(userId);
         }
     }
 
@@ -302,15 +298,8 @@ public class UserService {
      * @param seriesId
      */
     public void removeSeriesFromWatchlist(String userId, String seriesId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Series> seriesOptional = seriesRepository.findById(seriesId);
-
-        if (userOptional.isPresent() && seriesOptional.isPresent()) {
-            User user = userOptional.get();
-            Series series = seriesOptional.get();
-
-            user.removeSeriesFromWatchlist(series);
-            userRepository.save(user);
+        if (userMediaService.remove(userId, MediaListType.WATCHLIST, UserMediaEntry.TYPE_SERIES, seriesId)) {
+            recommendationTrigger.invalidateRecommendations(userId);
         }
     }
 
@@ -320,17 +309,7 @@ public class UserService {
      * @return List<MovieResponseDTO>
      */
     public ResponseEntity<List<MovieResponseDTO>> getMovieFavorites(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        User user = userOptional.get();
-        List<MovieResponseDTO> movieDTOs = user.getMovieFavorites().stream()
-                .map(MovieResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(movieDTOs);
+        return getMovieList(userId, MediaListType.FAVORITES);
     }
 
     /**
@@ -339,17 +318,7 @@ public class UserService {
      * @return List<SeriesResponseDTO>
      */
     public ResponseEntity<List<SeriesResponseDTO>> getSeriesFavorites(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        User user = userOptional.get();
-        List<SeriesResponseDTO> seriesDTOs = user.getSeriesFavorites().stream()
-                .map(SeriesResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(seriesDTOs);
+        return getSeriesList(userId, MediaListType.FAVORITES);
     }
 
     /**
@@ -359,31 +328,21 @@ public class UserService {
      * @return List<MovieResponseDTO>
      */
     public ResponseEntity<List<MovieResponseDTO>> addMovieToFavorites(String userId, String movieId) {
-        Optional<User> userOptional = userRepository.findById(userId);
         Optional<Movie> movieOptional = movieRepository.findById(movieId);
-
-        if (userOptional.isEmpty() || movieOptional.isEmpty()) {
+        if (!userRepository.existsById(userId) || movieOptional.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userOptional.get();
-        Movie movie = movieOptional.get();
-
-        if (user.getMovieFavorites().contains(movie)) {
+        if (!userMediaService.add(userId, MediaListType.FAVORITES, UserMediaEntry.TYPE_MOVIE, movieId)) {
             throw new AlreadyInWatchlistException(
                     String.format("Film mit ID '%s' ist bereits in den Favoriten von Benutzer '%s'.", movieId, userId));
         }
 
-        user.addMovieToFavorites(movie);
-        User savedUser = userRepository.save(user);
+        watchActivityService.recordFavorite(userId, UserMediaEntry.TYPE_MOVIE, movieId, movieOptional.get().getTitle(), new Date());
 
         recommendationTrigger.triggerOnNewFavorite(userId, movieId, "movie");
 
-        List<MovieResponseDTO> movieDTOs = savedUser.getMovieFavorites().stream()
-                .map(MovieResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(movieDTOs);
+        return getMovieList(userId, MediaListType.FAVORITES);
     }
 
     /**
@@ -393,31 +352,21 @@ public class UserService {
      * @return List<SeriesResponseDTO>
      */
     public ResponseEntity<List<SeriesResponseDTO>> addSeriesToFavorites(String userId, String seriesId) {
-        Optional<User> userOptional = userRepository.findById(userId);
         Optional<Series> seriesOptional = seriesRepository.findById(seriesId);
-
-        if (userOptional.isEmpty() || seriesOptional.isEmpty()) {
+        if (!userRepository.existsById(userId) || seriesOptional.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userOptional.get();
-        Series series = seriesOptional.get();
-
-        if (user.getSeriesFavorites().contains(series)) {
+        if (!userMediaService.add(userId, MediaListType.FAVORITES, UserMediaEntry.TYPE_SERIES, seriesId)) {
             throw new AlreadyInWatchlistException(
                     String.format("Serie mit ID '%s' ist bereits in den Favoriten von Benutzer '%s'.", seriesId, userId));
         }
 
-        user.addSeriesToFavorites(series);
-        User savedUser = userRepository.save(user);
+        watchActivityService.recordFavorite(userId, UserMediaEntry.TYPE_SERIES, seriesId, seriesOptional.get().getTitle(), new Date());
 
         recommendationTrigger.triggerOnNewFavorite(userId, seriesId, "series");
 
-        List<SeriesResponseDTO> seriesDTOs = savedUser.getSeriesFavorites().stream()
-                .map(SeriesResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(seriesDTOs);
+        return getSeriesList(userId, MediaListType.FAVORITES);
     }
 
     /**
@@ -426,15 +375,9 @@ public class UserService {
      * @param movieId
      */
     public void removeMovieFromFavorites(String userId, String movieId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Movie> movieOptional = movieRepository.findById(movieId);
-
-        if (userOptional.isPresent() && movieOptional.isPresent()) {
-            User user = userOptional.get();
-            Movie movie = movieOptional.get();
-
-            user.removeMovieFromFavorites(movie);
-            userRepository.save(user);
+        if (userMediaService.remove(userId, MediaListType.FAVORITES, UserMediaEntry.TYPE_MOVIE, movieId)) {
+            watchActivityService.revertFavorite(userId, movieId);
+            recommendationTrigger.invalidateRecommendations(userId);
         }
     }
 
@@ -444,15 +387,9 @@ public class UserService {
      * @param seriesId
      */
     public void removeSeriesFromFavorites(String userId, String seriesId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Series> seriesOptional = seriesRepository.findById(seriesId);
-
-        if (userOptional.isPresent() && seriesOptional.isPresent()) {
-            User user = userOptional.get();
-            Series series = seriesOptional.get();
-
-            user.removeSeriesFromFavorites(series);
-            userRepository.save(user);
+        if (userMediaService.remove(userId, MediaListType.FAVORITES, UserMediaEntry.TYPE_SERIES, seriesId)) {
+            watchActivityService.revertFavorite(userId, seriesId);
+            recommendationTrigger.invalidateRecommendations(userId);
         }
     }
 
@@ -462,17 +399,7 @@ public class UserService {
      * @return List<MovieResponseDTO>
      */
     public ResponseEntity<List<MovieResponseDTO>> getMoviesWatched(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        User user = userOptional.get();
-        List<MovieResponseDTO> movieDTOs = user.getMoviesWatched().stream()
-                .map(MovieResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(movieDTOs);
+        return getMovieList(userId, MediaListType.WATCHED);
     }
 
     /**
@@ -481,17 +408,7 @@ public class UserService {
      * @return List<SeriesResponseDTO>
      */
     public ResponseEntity<List<SeriesResponseDTO>> getSeriesWatched(String userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        User user = userOptional.get();
-        List<SeriesResponseDTO> seriesDTOs = user.getSeriesWatched().stream()
-                .map(SeriesResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(seriesDTOs);
+        return getSeriesList(userId, MediaListType.WATCHED);
     }
 
     /**
@@ -501,23 +418,17 @@ public class UserService {
      * @return List<MovieResponseDTO>
      */
     public ResponseEntity<List<MovieResponseDTO>> addMovieToWatched(String userId, String movieId) {
-        Optional<User> userOptional = userRepository.findById(userId);
         Optional<Movie> movieOptional = movieRepository.findById(movieId);
-
-        if (userOptional.isEmpty() || movieOptional.isEmpty()) {
+        if (!userRepository.existsById(userId) || movieOptional.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userOptional.get();
-        Movie movie = movieOptional.get();
-
-        if (user.getMoviesWatched().contains(movie)) {
+        if (!userMediaService.add(userId, MediaListType.WATCHED, UserMediaEntry.TYPE_MOVIE, movieId)) {
             throw new AlreadyInWatchlistException(
                     String.format("Film mit ID '%s' ist bereits in der Watched-Liste von Benutzer '%s'.", movieId, userId));
         }
 
-        user.addMovieToWatched(movie);
-        User savedUser = userRepository.save(user);
+        watchActivityService.recordWatched(userId, movieOptional.get(), new Date());
 
         // Award points for watching a movie
         pointsEventListener.onContentWatched(userId);
@@ -526,11 +437,7 @@ public class UserService {
 
         recommendationTrigger.triggerOnWatched(userId, movieId, "movie");
 
-        List<MovieResponseDTO> movieDTOs = savedUser.getMoviesWatched().stream()
-                .map(MovieResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(movieDTOs);
+        return getMovieList(userId, MediaListType.WATCHED);
     }
 
     /**
@@ -540,23 +447,17 @@ public class UserService {
      * @return List<SeriesResponseDTO>
      */
     public ResponseEntity<List<SeriesResponseDTO>> addSeriesToWatched(String userId, String seriesId) {
-        Optional<User> userOptional = userRepository.findById(userId);
         Optional<Series> seriesOptional = seriesRepository.findById(seriesId);
-
-        if (userOptional.isEmpty() || seriesOptional.isEmpty()) {
+        if (!userRepository.existsById(userId) || seriesOptional.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        User user = userOptional.get();
-        Series series = seriesOptional.get();
-
-        if (user.getSeriesWatched().contains(series)) {
+        if (!userMediaService.add(userId, MediaListType.WATCHED, UserMediaEntry.TYPE_SERIES, seriesId)) {
             throw new AlreadyInWatchlistException(
                     String.format("Serie mit ID '%s' ist bereits in der Watched-Liste von Benutzer '%s'.", seriesId, userId));
         }
 
-        user.addSeriesToWatched(series);
-        User savedUser = userRepository.save(user);
+        watchActivityService.recordWatched(userId, seriesOptional.get(), new Date());
 
         // Award points for watching a series
         pointsEventListener.onContentWatched(userId);
@@ -565,11 +466,7 @@ public class UserService {
 
         recommendationTrigger.triggerOnWatched(userId, seriesId, "series");
 
-        List<SeriesResponseDTO> seriesDTOs = savedUser.getSeriesWatched().stream()
-                .map(SeriesResponseDTO::new)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(seriesDTOs);
+        return getSeriesList(userId, MediaListType.WATCHED);
     }
 
     /**
@@ -578,15 +475,9 @@ public class UserService {
      * @param movieId
      */
     public void removeMovieFromWatched(String userId, String movieId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Movie> movieOptional = movieRepository.findById(movieId);
-
-        if (userOptional.isPresent() && movieOptional.isPresent()) {
-            User user = userOptional.get();
-            Movie movie = movieOptional.get();
-
-            user.removeMovieFromWatched(movie);
-            userRepository.save(user);
+        if (userMediaService.remove(userId, MediaListType.WATCHED, UserMediaEntry.TYPE_MOVIE, movieId)) {
+            watchActivityService.revertWatched(userId, movieId);
+            recommendationTrigger.invalidateRecommendations(userId);
         }
     }
 
@@ -596,15 +487,33 @@ public class UserService {
      * @param seriesId
      */
     public void removeSeriesFromWatched(String userId, String seriesId) {
-        Optional<User> userOptional = userRepository.findById(userId);
-        Optional<Series> seriesOptional = seriesRepository.findById(seriesId);
+        if (userMediaService.remove(userId, MediaListType.WATCHED, UserMediaEntry.TYPE_SERIES, seriesId)) {
+            watchActivityService.revertWatched(userId, seriesId);
+            recommendationTrigger.invalidateRecommendations(userId);
+        }
+    }
+
+    private ResponseEntity<List<MovieResponseDTO>> getMovieList(String userId, MediaListType listType) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<MovieResponseDTO> movieDTOs = userMediaService.getMovies(userId, listType).stream()
+                .map(MovieResponseDTO::new)
+                .collect(Collectors.toList());
 
-        if (userOptional.isPresent() && seriesOptional.isPresent()) {
-            User user = userOptional.get();
-            Series series = seriesOptional.get();
+        return ResponseEntity.ok(movieDTOs);
+    }
 
-            user.removeSeriesFromWatched(series);
-            userRepository.save(user);
+    private ResponseEntity<List<SeriesResponseDTO>> getSeriesList(String userId, MediaListType listType) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.notFound().build();
         }
+
+        List<SeriesResponseDTO> seriesDTOs = userMediaService.getSeries(userId, listType).stream()
+                .map(SeriesResponseDTO::new)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(seriesDTOs);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package com.cinemate.user.activity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The activities counted per user in the user_activity_counters collection
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ActivityCounter {
+    REVIEWS("reviews"),
+    MOVIES_WATCHED("moviesWatched"),
+    SERIES_WATCHED("seriesWatched"),
+    WATCHLIST("watchlist"),
+    FRIENDS("friends"),
+    FORUM_POSTS("forumPosts");
+
+    /**
+     * the field of the counter in the counters document
+     */
+    private final String field;
+}
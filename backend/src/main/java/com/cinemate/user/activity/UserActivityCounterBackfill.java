@@ -0,0 +1,103 @@
+package com.cinemate.user.activity;
+
+import com.cinemate.social.friends.FriendshipStatus;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * While no counters exist yet, seeds them from the existing reviews, lists, friendships and forum posts.
+ * Afterwards the counters are only changed by the activities themselves.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserActivityCounterBackfill implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cinemate.activity-counters.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!backfillEnabled || mongoTemplate.estimatedCount(UserActivityCounters.class) > 0) {
+            return;
+        }
+
+        Map<String, Map<ActivityCounter, Long>> counts = new HashMap<>();
+
+        Aggregation reviews = Aggregation.newAggregation(Aggregation.group("userId").count().as("count"));
+        for (Document result : mongoTemplate.aggregate(reviews, "reviews", Document.class)) {
+            add(counts, result.get("_id"), ActivityCounter.REVIEWS, ((Number) result.get("count")).longValue());
+        }
+
+        Aggregation entries = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("listType").in(MediaListType.WATCHED.name(), MediaListType.WATCHLIST.name())),
+                Aggregation.group("userId", "listType", "itemType").count().as("count"));
+        for (Document result : mongoTemplate.aggregate(entries, "user_media_entries", Document.class)) {
+            Document key = (Document) result.get("_id");
+            ActivityCounter counter = MediaListType.WATCHLIST.name().equals(key.getString("listType")) ? ActivityCounter.WATCHLIST
+                    : UserMediaEntry.TYPE_SERIES.equals(key.getString("itemType")) ? ActivityCounter.SERIES_WATCHED : ActivityCounter.MOVIES_WATCHED;
+            add(counts, key.get("userId"), counter, ((Number) result.get("count")).longValue());
+        }
+
+        // DBRef fields can not be grouped by in an aggregation, friendships and posts are counted here
+        Query friendships = Query.query(Criteria.where("status").is(FriendshipStatus.ACCEPTED.name()));
+        friendships.fields().include("requester", "recipient");
+        for (Document friendship : mongoTemplate.find(friendships, Document.class, "friendships")) {
+            add(counts, refId(friendship.get("requester")), ActivityCounter.FRIENDS, 1);
+            add(counts, refId(friendship.get("recipient")), ActivityCounter.FRIENDS, 1);
+        }
+
+        Query posts = Query.query(Criteria.where("isDeleted").is(false));
+        posts.fields().include("author");
+        for (Document post : mongoTemplate.find(posts, Document.class, "forum_posts")) {
+            add(counts, refId(post.get("author")), ActivityCounter.FORUM_POSTS, 1);
+        }
+
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserActivityCounters.class);
+        Date now = new Date();
+        for (Map.Entry<String, Map<ActivityCounter, Long>> user : counts.entrySet()) {
+            Update update = new Update().set("lastUpdated", now);
+            user.getValue().forEach((counter, count) -> update.set(counter.getField(), count));
+            bulkOps.upsert(Query.query(Criteria.where("_id").is(user.getKey())), update);
+        }
+        bulkOps.execute();
+        log.info("Seeded the activity counters of {} users", counts.size());
+    }
+
+    private static void add(Map<String, Map<ActivityCounter, Long>> counts, Object userId, ActivityCounter counter, long count) {
+        if (userId == null) {
+            return;
+        }
+        counts.computeIfAbsent(userId.toString(), id -> new EnumMap<>(ActivityCounter.class))
+                .merge(counter, count, Long::sum);
+    }
+
+    private static Object refId(Object ref) {
+        return ref instanceof DBRef ? ((DBRef) ref).getId()
+                : ref instanceof Document ? ((Document) ref).get("$id") : null;
+    }
+}
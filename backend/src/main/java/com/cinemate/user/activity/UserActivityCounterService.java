@@ -0,0 +1,72 @@
+package com.cinemate.user.activity;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the activity counters of users.
+ * Increments are single findAndModify upserts, so concurrent activities of a user never lose a count
+ * and the caller gets the new value without a second read.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserActivityCounterService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * adds one to the counter of the user, creating the counters document if needed
+     * @param userId
+     * @param counter
+     * @return the new value of the counter
+     */
+    public long increment(String userId, ActivityCounter counter) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        Update update = new Update().inc(counter.getField(), 1).currentDate("lastUpdated");
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        UserActivityCounters counters;
+        try {
+            counters = mongoTemplate.findAndModify(query, update, options, UserActivityCounters.class);
+        } catch (DuplicateKeyException e) {
+            // a concurrent increment created the document first, now it exists
+            counters = mongoTemplate.findAndModify(query, update, options, UserActivityCounters.class);
+        }
+        return counters != null ? counters.get(counter) : 0;
+    }
+
+    /**
+     * subtracts one from the counter of the user, a counter never drops below zero
+     * @param userId
+     * @param counter
+     */
+    public void decrement(String userId, ActivityCounter counter) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and(counter.getField()).gt(0));
+        mongoTemplate.updateFirst(query, new Update().inc(counter.getField(), -1).currentDate("lastUpdated"),
+                UserActivityCounters.class);
+    }
+
+    /**
+     * returns the counters of the user, all zero if nothing was counted yet
+     * @param userId
+     * @return UserActivityCounters
+     */
+    public UserActivityCounters getCounters(String userId) {
+        UserActivityCounters counters = mongoTemplate.findById(userId, UserActivityCounters.class);
+        return counters != null ? counters : new UserActivityCounters(userId);
+    }
+
+    /**
+     * removes the counters of the user
+     * @param userId
+     */
+    public void remove(String userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), UserActivityCounters.class);
+    }
+}
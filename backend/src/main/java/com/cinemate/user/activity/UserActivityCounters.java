@@ -0,0 +1,59 @@
+package com.cinemate.user.activity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Running totals of the activities of one user, the id is the id of the user.
+ * Every counter is changed with an atomic $inc when the activity happens, so milestones and
+ * achievements compare thresholds against this document instead of counting the source collections.
+ */
+@Document(collection = "user_activity_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserActivityCounters {
+
+    @Id
+    private String userId;
+    private long reviews;
+    private long moviesWatched;
+    private long seriesWatched;
+    private long watchlist;
+    private long friends;
+    private long forumPosts;
+    private Date lastUpdated;
+
+    public UserActivityCounters(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * returns the value of the given counter
+     * @param counter
+     * @return count
+     */
+    public long get(ActivityCounter counter) {
+        switch (counter) {
+            case REVIEWS:
+                return reviews;
+            case MOVIES_WATCHED:
+                return moviesWatched;
+            case SERIES_WATCHED:
+                return seriesWatched;
+            case WATCHLIST:
+                return watchlist;
+            case FRIENDS:
+                return friends;
+            case FORUM_POSTS:
+                return forumPosts;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinemate.user.media;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum MediaListType {
+    WATCHLIST("watchlist"),
+    FAVORITES("favorites"),
+    WATCHED("watched");
+
+    private final String path;
+
+    MediaListType(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * resolves the list type from its url segment, e.g. "watchlist"
+     * @param path
+     * @return Optional<MediaListType>
+     */
+    public static Optional<MediaListType> fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(type -> type.path.equalsIgnoreCase(path))
+                .findFirst();
+    }
+}
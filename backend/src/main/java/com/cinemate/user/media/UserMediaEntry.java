@@ -0,0 +1,47 @@
+package com.cinemate.user.media;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One movie or series on one of the lists (watchlist, favorites, watched) of a user.
+ * The unique index makes adding an entry idempotent, the second one serves the paginated reads
+ * and the third one answers "which users have this title on their list".
+ */
+@Document(collection = "user_media_entries")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_list_item_unique", def = "{'userId': 1, 'listType': 1, 'itemType': 1, 'itemId': 1}", unique = true),
+        @CompoundIndex(name = "user_list_added", def = "{'userId': 1, 'listType': 1, 'itemType': 1, 'addedAt': 1}"),
+        @CompoundIndex(name = "item_list_user", def = "{'itemId': 1, 'itemType': 1, 'listType': 1, 'userId': 1}")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserMediaEntry {
+
+    public static final String TYPE_MOVIE = "movie";
+    public static final String TYPE_SERIES = "series";
+
+    @Id
+    private String id;
+    private String userId;
+    private String itemId;
+    private String itemType;
+    private MediaListType listType;
+    private Date addedAt;
+
+    public UserMediaEntry(String userId, String itemId, String itemType, MediaListType listType, Date addedAt) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.itemType = itemType;
+        this.listType = listType;
+        this.addedAt = addedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinemate.user.media;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface UserMediaEntryRepository extends MongoRepository<UserMediaEntry, String> {
+
+    List<UserMediaEntry> findByUserIdOrderByAddedAtAsc(String userId);
+
+    List<UserMediaEntry> findByUserIdAndListTypeAndItemTypeOrderByAddedAtAsc(String userId, MediaListType listType, String itemType);
+
+    List<UserMediaEntry> findByUserIdAndListTypeAndItemTypeAndAddedAtGreaterThanEqualOrderByAddedAtAsc(String userId, MediaListType listType,
+                                                                                                    String itemType, Date addedSince);
+
+    Page<UserMediaEntry> findByUserIdAndListTypeAndItemTypeOrderByAddedAtAsc(String userId, MediaListType listType, String itemType, Pageable pageable);
+
+    List<UserMediaEntry> findByItemIdAndItemTypeAndListType(String itemId, String itemType, MediaListType listType);
+
+    List<UserMediaEntry> findByItemIdInAndItemTypeAndListType(Collection<String> itemIds, String itemType, MediaListType listType);
+
+    long countByUserIdAndListTypeAndItemType(String userId, MediaListType listType, String itemType);
+
+    long deleteByUserId(String userId);
+}
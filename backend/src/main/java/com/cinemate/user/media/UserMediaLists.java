@@ -0,0 +1,84 @@
+package com.cinemate.user.media;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.series.Series;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The resolved media lists of one user, oldest entry first
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserMediaLists {
+
+    private List<Movie> movieWatchlist = new ArrayList<>();
+    private List<Series> seriesWatchlist = new ArrayList<>();
+    private List<Movie> movieFavorites = new ArrayList<>();
+    private List<Series> seriesFavorites = new ArrayList<>();
+    private List<Movie> moviesWatched = new ArrayList<>();
+    private List<Series> seriesWatched = new ArrayList<>();
+
+    /**
+     * returns the movie list of the given type
+     * @param listType
+     * @return List<Movie>
+     */
+    public List<Movie> getMovies(MediaListType listType) {
+        switch (listType) {
+            case WATCHLIST:
+                return movieWatchlist;
+            case FAVORITES:
+                return movieFavorites;
+            default:
+                return moviesWatched;
+        }
+    }
+
+    /**
+     * returns the series list of the given type
+     * @param listType
+     * @return List<Series>
+     */
+    public List<Series> getSeries(MediaListType listType) {
+        switch (listType) {
+            case WATCHLIST:
+                return seriesWatchlist;
+            case FAVORITES:
+                return seriesFavorites;
+            default:
+                return seriesWatched;
+        }
+    }
+
+    /**
+     * returns the ids of all movies on any of the lists
+     * @return Set<String>
+     */
+    public Set<String> getMovieIds() {
+        Set<String> movieIds = new HashSet<>();
+        movieFavorites.forEach(movie -> movieIds.add(movie.getId()));
+        moviesWatched.forEach(movie -> movieIds.add(movie.getId()));
+        movieWatchlist.forEach(movie -> movieIds.add(movie.getId()));
+        return movieIds;
+    }
+
+    /**
+     * returns the ids of all series on any of the lists
+     * @return Set<String>
+     */
+    public Set<String> getSeriesIds() {
+        Set<String> seriesIds = new HashSet<>();
+        seriesFavorites.forEach(series -> seriesIds.add(series.getId()));
+        seriesWatched.forEach(series -> seriesIds.add(series.getId()));
+        seriesWatchlist.forEach(series -> seriesIds.add(series.getId()));
+        return seriesIds;
+    }
+}
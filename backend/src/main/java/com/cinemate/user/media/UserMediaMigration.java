@@ -0,0 +1,137 @@
+package com.cinemate.user.media;
+
+import com.cinemate.utils.MongoIndexUtil;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Creates the indexes of user_media_entries and moves the lists that used to be embedded in the
+ * user documents (as DBRef arrays) into that collection. Runs before the web server accepts requests,
+ * so no request can overwrite a user document that still holds unmigrated lists. Running it twice is harmless.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserMediaMigration implements SmartInitializingSingleton {
+
+    private static final String USERS_COLLECTION = "users";
+
+    private static final String[][] LEGACY_LISTS = {
+            {"movieWatchlist", UserMediaEntry.TYPE_MOVIE, "WATCHLIST"},
+            {"seriesWatchlist", UserMediaEntry.TYPE_SERIES, "WATCHLIST"},
+            {"movieFavorites", UserMediaEntry.TYPE_MOVIE, "FAVORITES"},
+            {"seriesFavorites", UserMediaEntry.TYPE_SERIES, "FAVORITES"},
+            {"moviesWatched", UserMediaEntry.TYPE_MOVIE, "WATCHED"},
+            {"seriesWatched", UserMediaEntry.TYPE_SERIES, "WATCHED"}
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${cinemate.user-media.migration.enabled:true}")
+    private boolean migrationEnabled;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MongoIndexUtil.ensureIndexes(mongoTemplate, UserMediaEntry.class);
+        if (migrationEnabled) {
+            migrateEmbeddedLists();
+        }
+    }
+
+    private void migrateEmbeddedLists() {
+        Criteria anyLegacyList = new Criteria().orOperator(Arrays.stream(LEGACY_LISTS)
+                .map(legacyList -> Criteria.where(legacyList[0]).exists(true))
+                .toArray(Criteria[]::new));
+
+        Query query = new Query(anyLegacyList);
+        query.fields().include("joinedAt");
+        Arrays.stream(LEGACY_LISTS).forEach(legacyList -> query.fields().include(legacyList[0]));
+
+        // streamed, only one legacy user document is held at a time
+        int migratedUsers = 0;
+        int migratedEntries = 0;
+        try (Stream<Document> users = mongoTemplate.stream(query, Document.class, USERS_COLLECTION)) {
+            Iterator<Document> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                migratedEntries += migrateUser(iterator.next());
+                migratedUsers++;
+            }
+        }
+        if (migratedUsers > 0) {
+            log.info("Migrated {} list entries of {} users into user_media_entries", migratedEntries, migratedUsers);
+        }
+    }
+
+    private int migrateUser(Document user) {
+        Object rawId = user.get("_id");
+        String userId = rawId.toString();
+        // keep the former list order: the position within the list becomes a millisecond offset
+        Date joinedAt = user.getDate("joinedAt");
+        long baseTime = joinedAt != null ? joinedAt.getTime() : System.currentTimeMillis();
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserMediaEntry.class);
+        int entries = 0;
+        Update unset = new Update();
+        for (String[] legacyList : LEGACY_LISTS) {
+            String field = legacyList[0];
+            unset.unset(field);
+            List<?> refs = user.getList(field, Object.class);
+            if (refs == null) {
+                continue;
+            }
+            for (int position = 0; position < refs.size(); position++) {
+                String itemId = itemId(refs.get(position));
+                if (itemId == null) {
+                    continue;
+                }
+                Query query = Query.query(Criteria.where("userId").is(userId)
+                        .and("listType").is(MediaListType.valueOf(legacyList[2]))
+                        .and("itemType").is(legacyList[1])
+                        .and("itemId").is(itemId));
+                bulkOps.upsert(query, new Update().setOnInsert("addedAt", new Date(baseTime + position)));
+                entries++;
+            }
+        }
+
+        if (entries > 0) {
+            try {
+                bulkOps.execute();
+            } catch (BulkOperationException e) {
+                // keep the embedded lists, the next start retries this user
+                log.warn("Migrating the lists of user {} failed: {}", userId, e.getMessage());
+                return 0;
+            }
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(rawId)), unset, USERS_COLLECTION);
+        return entries;
+    }
+
+    private String itemId(Object ref) {
+        if (ref instanceof DBRef) {
+            Object id = ((DBRef) ref).getId();
+            return id != null ? id.toString() : null;
+        }
+        if (ref instanceof Document) {
+            Object id = ((Document) ref).get("$id");
+            return id != null ? id.toString() : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,303 @@
+package com.cinemate.user.media;
+
+import com.cinemate.movie.Movie;
+import com.cinemate.movie.MovieRepository;
+import com.cinemate.series.Series;
+import com.cinemate.series.SeriesRepository;
+import com.cinemate.user.activity.ActivityCounter;
+import com.cinemate.user.activity.UserActivityCounterService;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the watchlist, favorites and watched lists of users.
+ * Every entry is its own document, so adding or removing a title is a single indexed upsert or delete
+ * and concurrent edits of different titles never overwrite each other.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserMediaService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserMediaEntryRepository entryRepository;
+    private final MovieRepository movieRepository;
+    private final SeriesRepository seriesRepository;
+    private final UserActivityCounterService activityCounterService;
+
+    /**
+     * adds the item to the list of the user, adding it twice has no effect
+     * @param userId
+     * @param listType
+     * @param itemType "movie" or "series"
+     * @param itemId
+     * @return true if the item was not on the list before
+     */
+    public boolean add(String userId, MediaListType listType, String itemType, String itemId) {
+        Update update = new Update().setOnInsert("addedAt", new Date());
+        try {
+            UpdateResult result = mongoTemplate.upsert(entryQuery(userId, listType, itemType, itemId), update, UserMediaEntry.class);
+            if (result.getUpsertedId() == null) {
+                return false;
+            }
+            ActivityCounter counter = counterOf(listType, itemType);
+            if (counter != null) {
+                activityCounterService.increment(userId, counter);
+            }
+            return true;
+        } catch (DuplicateKeyException e) {
+            // a concurrent request inserted the same entry first
+            return false;
+        }
+    }
+
+    /**
+     * removes the item from the list of the user, removing a missing item has no effect
+     * @param userId
+     * @param listType
+     * @param itemType
+     * @param itemId
+     * @return true if the item was on the list
+     */
+    public boolean remove(String userId, MediaListType listType, String itemType, String itemId) {
+        if (mongoTemplate.remove(entryQuery(userId, listType, itemType, itemId), UserMediaEntry.class).getDeletedCount() == 0) {
+            return false;
+        }
+        ActivityCounter counter = counterOf(listType, itemType);
+        if (counter != null) {
+            activityCounterService.decrement(userId, counter);
+        }
+        return true;
+    }
+
+    /**
+     * removes all list entries of the user
+     * @param userId
+     */
+    public void removeAll(String userId) {
+        entryRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * returns the number of items on the list of the user
+     * @param userId
+     * @param listType
+     * @param itemType
+     * @return count
+     */
+    public long count(String userId, MediaListType listType, String itemType) {
+        return entryRepository.countByUserIdAndListTypeAndItemType(userId, listType, itemType);
+    }
+
+    /**
+     * returns the ids of the items on the list of the user, oldest first
+     * @param userId
+     * @param listType
+     * @param itemType
+     * @return List<String>
+     */
+    public List<String> getItemIds(String userId, MediaListType listType, String itemType) {
+        return entryRepository.findByUserIdAndListTypeAndItemTypeOrderByAddedAtAsc(userId, listType, itemType).stream()
+                .map(UserMediaEntry::getItemId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * returns the ids of the items added to the list of the user since the given date, oldest first
+     * @param userId
+     * @param listType
+     * @param itemType
+     * @param addedSince all items if null
+     * @return List<String>
+     */
+    public List<String> getItemIds(String userId, MediaListType listType, String itemType, Date addedSince) {
+        if (addedSince == null) {
+            return getItemIds(userId, listType, itemType);
+        }
+        return entryRepository.findByUserIdAndListTypeAndItemTypeAndAddedAtGreaterThanEqualOrderByAddedAtAsc(
+                        userId, listType, itemType, addedSince).stream()
+                .map(UserMediaEntry::getItemId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * returns the movies on the list of the user, oldest first
+     * @param userId
+     * @param listType
+     * @return List<Movie>
+     */
+    public List<Movie> getMovies(String userId, MediaListType listType) {
+        return resolveMovies(getItemIds(userId, listType, UserMediaEntry.TYPE_MOVIE));
+    }
+
+    /**
+     * returns the series on the list of the user, oldest first
+     * @param userId
+     * @param listType
+     * @return List<Series>
+     */
+    public List<Series> getSeries(String userId, MediaListType listType) {
+        return resolveSeries(getItemIds(userId, listType, UserMediaEntry.TYPE_SERIES));
+    }
+
+    /**
+     * returns one page of the movies on the list of the user
+     * @param userId
+     * @param listType
+     * @param pageable
+     * @return Page<Movie>
+     */
+    public Page<Movie> getMovies(String userId, MediaListType listType, Pageable pageable) {
+        Page<UserMediaEntry> entries = entryRepository.findByUserIdAndListTypeAndItemTypeOrderByAddedAtAsc(
+                userId, listType, UserMediaEntry.TYPE_MOVIE, pageable);
+        List<String> ids = entries.stream().map(UserMediaEntry::getItemId).collect(Collectors.toList());
+        return new PageImpl<>(resolveMovies(ids), pageable, entries.getTotalElements());
+    }
+
+    /**
+     * returns one page of the series on the list of the user
+     * @param userId
+     * @param listType
+     * @param pageable
+     * @return Page<Series>
+     */
+    public Page<Series> getSeries(String userId, MediaListType listType, Pageable pageable) {
+        Page<UserMediaEntry> entries = entryRepository.findByUserIdAndListTypeAndItemTypeOrderByAddedAtAsc(
+                userId, listType, UserMediaEntry.TYPE_SERIES, pageable);
+        List<String> ids = entries.stream().map(UserMediaEntry::getItemId).collect(Collectors.toList());
+        return new PageImpl<>(resolveSeries(ids), pageable, entries.getTotalElements());
+    }
+
+    /**
+     * loads all lists of the user with one query per collection
+     * @param userId
+     * @return UserMediaLists
+     */
+    public UserMediaLists getLists(String userId) {
+        List<UserMediaEntry> entries = entryRepository.findByUserIdOrderByAddedAtAsc(userId);
+
+        Set<String> movieIds = new LinkedHashSet<>();
+        Set<String> seriesIds = new LinkedHashSet<>();
+        for (UserMediaEntry entry : entries) {
+            if (UserMediaEntry.TYPE_MOVIE.equals(entry.getItemType())) {
+                movieIds.add(entry.getItemId());
+            } else {
+                seriesIds.add(entry.getItemId());
+            }
+        }
+
+        Map<String, Movie> movies = movieIds.isEmpty() ? Collections.emptyMap()
+                : movieRepository.findAllById(movieIds).stream().collect(Collectors.toMap(Movie::getId, Function.identity()));
+        Map<String, Series> series = seriesIds.isEmpty() ? Collections.emptyMap()
+                : seriesRepository.findAllById(seriesIds).stream().collect(Collectors.toMap(Series::getId, Function.identity()));
+
+        UserMediaLists lists = new UserMediaLists();
+        for (UserMediaEntry entry : entries) {
+            if (UserMediaEntry.TYPE_MOVIE.equals(entry.getItemType())) {
+                Movie movie = movies.get(entry.getItemId());
+                if (movie != null) {
+                    lists.getMovies(entry.getListType()).add(movie);
+                }
+            } else {
+                Series show = series.get(entry.getItemId());
+                if (show != null) {
+                    lists.getSeries(entry.getListType()).add(show);
+                }
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * returns the ids of all users having the item on the given list
+     * @param listType
+     * @param itemType
+     * @param itemId
+     * @return List<String>
+     */
+    public List<String> getUserIds(MediaListType listType, String itemType, String itemId) {
+        return entryRepository.findByItemIdAndItemTypeAndListType(itemId, itemType, listType).stream()
+                .map(UserMediaEntry::getUserId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * returns for every user which of the given items are on the given list
+     * @param listType
+     * @param itemType
+     * @param itemIds
+     * @return map of userId to itemIds
+     */
+    public Map<String, List<String>> getItemIdsByUser(MediaListType listType, String itemType, Collection<String> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return entryRepository.findByItemIdInAndItemTypeAndListType(itemIds, itemType, listType).stream()
+                .collect(Collectors.groupingBy(UserMediaEntry::getUserId, LinkedHashMap::new,
+                        Collectors.mapping(UserMediaEntry::getItemId, Collectors.toList())));
+    }
+
+    /**
+     * returns the entries of all users grouped by user, without resolving the titles
+     * @return map of userId to entries
+     */
+    public Map<String, List<UserMediaEntry>> getEntriesByUser() {
+        Query query = new Query();
+        query.fields().include("userId", "itemId", "itemType", "listType");
+        return mongoTemplate.find(query, UserMediaEntry.class).stream()
+                .collect(Collectors.groupingBy(UserMediaEntry::getUserId));
+    }
+
+    private Query entryQuery(String userId, MediaListType listType, String itemType, String itemId) {
+        return Query.query(Criteria.where("userId").is(userId)
+                .and("listType").is(listType)
+                .and("itemType").is(itemType)
+                .and("itemId").is(itemId));
+    }
+
+    /**
+     * returns the activity counter of the list, null if the list is not counted
+     */
+    private static ActivityCounter counterOf(MediaListType listType, String itemType) {
+        if (listType == MediaListType.WATCHLIST) {
+            return ActivityCounter.WATCHLIST;
+        }
+        if (listType == MediaListType.WATCHED) {
+            return UserMediaEntry.TYPE_SERIES.equals(itemType) ? ActivityCounter.SERIES_WATCHED : ActivityCounter.MOVIES_WATCHED;
+        }
+        return null;
+    }
+
+    private List<Movie> resolveMovies(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Movie> movies = movieRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        return ids.stream().map(movies::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private List<Series> resolveSeries(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Series> series = seriesRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Series::getId, Function.identity()));
+        return ids.stream().map(series::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.cinemate.utils;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CreditUtil {
+
+    private CreditUtil() {
+    }
+
+    /**
+     * Reads the actor and director ids of movies or series with one projected query.
+     * The lazy actor and director DBRefs of the entities cost two queries per title once they are touched.
+     * @param mongoTemplate
+     * @param collection "movies" or "series"
+     * @param titleIds the titles to read, all titles if null
+     * @return credits by title id
+     */
+    public static Map<String, Credits> readCredits(MongoTemplate mongoTemplate, String collection, Collection<String> titleIds) {
+        if (titleIds != null && titleIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query = titleIds == null ? new Query() : Query.query(Criteria.where("_id").in(toIds(titleIds)));
+        query.fields().include("actors", "directors");
+
+        Map<String, Credits> credits = new HashMap<>();
+        for (Document title : mongoTemplate.find(query, Document.class, collection)) {
+            credits.put(title.get("_id").toString(),
+                    new Credits(refIds(title.get("actors")), refIds(title.get("directors"))));
+        }
+        return credits;
+    }
+
+    /**
+     * Reads the names of actors or directors with one projected query
+     * @param mongoTemplate
+     * @param collection "actors" or "directors"
+     * @param ids
+     * @return name by id
+     */
+    public static Map<String, String> readNames(MongoTemplate mongoTemplate, String collection, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query = Query.query(Criteria.where("_id").in(toIds(ids)));
+        query.fields().include("name");
+
+        Map<String, String> names = new HashMap<>();
+        for (Document person : mongoTemplate.find(query, Document.class, collection)) {
+            names.put(person.get("_id").toString(), person.getString("name"));
+        }
+        return names;
+    }
+
+    private static List<Object> toIds(Collection<String> ids) {
+        List<Object> converted = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            converted.add(ObjectId.isValid(id) ? new ObjectId(id) : id);
+        }
+        return converted;
+    }
+
+    private static List<String> refIds(Object refs) {
+        if (!(refs instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<String> ids = new ArrayList<>();
+        for (Object ref : (List<?>) refs) {
+            Object id = ref instanceof DBRef ? ((DBRef) ref).getId()
+                    : ref instanceof Document ? ((Document) ref).get("$id") : null;
+            if (id != null) {
+                ids.add(id.toString());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The actor and director ids of a title
+     */
+    public static class Credits {
+
+        private final List<String> actorIds;
+        private final List<String> directorIds;
+
+        public Credits(List<String> actorIds, List<String> directorIds) {
+            this.actorIds = actorIds;
+            this.directorIds = directorIds;
+        }
+
+        public List<String> getActorIds() {
+            return actorIds;
+        }
+
+        public List<String> getDirectorIds() {
+            return directorIds;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.cinemate.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class GenreUtil {
+
+    private GenreUtil() {
+    }
+
+    /**
+     * Splits a comma separated genre string (e.g. "Action, Drama") into a list of
+     * trimmed, distinct genre names while keeping their original order
+     * @param genre the raw genre string
+     * @return list of genres, empty if the string is null or blank
+     */
+    public static List<String> normalize(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> genres = new LinkedHashSet<>();
+        for (String part : genre.split(",")) {
+            String trimmed = part.trim();
+            if (!trimmed.isEmpty()) {
+                genres.add(trimmed);
+            }
+        }
+        return new ArrayList<>(genres);
+    }
+
+    /**
+     * Returns the lookup key of a genre, so that "Sci-Fi" and "sci-fi " end up in the same bucket
+     * @param genre the genre name
+     * @return the lookup key
+     */
+    public static String key(String genre) {
+        return genre.trim().toLowerCase(Locale.ROOT);
+    }
+}
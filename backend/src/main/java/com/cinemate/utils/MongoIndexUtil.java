@@ -0,0 +1,26 @@
+package com.cinemate.utils;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+public final class MongoIndexUtil {
+
+    private MongoIndexUtil() {
+    }
+
+    /**
+     * Creates the indexes declared on the given documents (@Indexed, @CompoundIndex),
+     * since automatic index creation is disabled by default
+     * @param mongoTemplate the template of the target database
+     * @param documentTypes the document classes
+     */
+    public static void ensureIndexes(MongoTemplate mongoTemplate, Class<?>... documentTypes) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> documentType : documentTypes) {
+            IndexOperations indexOps = mongoTemplate.indexOps(documentType);
+            resolver.resolveIndexFor(documentType).forEach(indexOps::createIndex);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.cinemate.profiling;
+
+import com.cinemate.actor.Actor;
+import com.cinemate.auth.JwtUtil;
+import com.cinemate.director.Director;
+import com.cinemate.movie.Movie;
+import com.cinemate.review.Review;
+import com.cinemate.series.Series;
+import com.cinemate.series.Status;
+import com.cinemate.social.forum.ForumCategory;
+import com.cinemate.social.forum.post.ForumPost;
+import com.cinemate.social.forum.reply.ForumReply;
+import com.cinemate.statistics.activity.WatchActivityService;
+import com.cinemate.user.Role;
+import com.cinemate.user.User;
+import com.cinemate.user.media.MediaListType;
+import com.cinemate.user.media.UserMediaEntry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Requests the key endpoints against an embedded MongoDB with a seeded catalog and fails if one of them
+ * exceeds its command or latency budget (see QueryBudgets) or repeats a query shape like an N+1 lookup.
+ * Every endpoint is requested once for another user or title first, so the measured request is warm
+ * but not answered from a cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTests {
+
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Thriller", "Science Fiction", "Romance", "Horror", "Animation"};
+    private static final int ACTORS = 40;
+    private static final int DIRECTORS = 12;
+    private static final int MOVIES = 80;
+    private static final int SERIES = 30;
+    private static final int USERS = 25;
+    private static final int FORUM_POSTS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private WatchActivityService watchActivityService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final Random random = new Random(42);
+    private final List<User> users = new ArrayList<>();
+    private final List<Movie> movies = new ArrayList<>();
+    private final List<Series> series = new ArrayList<>();
+    private String token;
+
+    @BeforeAll
+    void seed() {
+        mongoTemplate.getDb().drop();
+
+        List<Actor> actors = new ArrayList<>();
+        for (int i = 0; i < ACTORS; i++) {
+            actors.add(mongoTemplate.insert(new Actor(null, "Schauspieler " + i, daysAgo(20000 + i), null, null)));
+        }
+        List<Director> directors = new ArrayList<>();
+        for (int i = 0; i < DIRECTORS; i++) {
+            directors.add(mongoTemplate.insert(new Director(null, "Regisseur " + i, daysAgo(22000 + i), null, null)));
+        }
+
+        for (int i = 0; i < MOVIES; i++) {
+            Movie movie = new Movie(null, "Film " + i, "Beschreibung " + i, genres(), 1 + random.nextInt(40) / 10.0, 0,
+                    daysAgo(random.nextInt(8000)), (80 + random.nextInt(80)) + " min", "/posters/movie-" + i + ".jpg", "DE", null);
+            movie.setActors(pick(actors, 4));
+            movie.setDirectors(pick(directors, 1));
+            movies.add(mongoTemplate.insert(movie));
+        }
+        for (int i = 0; i < SERIES; i++) {
+            Series show = new Series(null, "Serie " + i, "Beschreibung " + i, genres(), 1 + random.nextInt(90) / 10.0, 0,
+                    daysAgo(random.nextInt(5000)), "/posters/series-" + i + ".jpg", new ArrayList<>(), "US", null, Status.FINISHED);
+            show.setActors(pick(actors, 5));
+            show.setDirectors(pick(directors, 2));
+            series.add(mongoTemplate.insert(show));
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User(null, "benutzer" + i, "geheim123", "benutzer" + i + "@cinemate.test", null, null, daysAgo(400), Role.USER);
+            users.add(mongoTemplate.insert(user));
+        }
+        for (User user : users) {
+            seedLists(user);
+        }
+        seedForum();
+
+        token = jwtUtil.generateToken(users.get(0).getUsername());
+    }
+
+    @Test
+    void recommendationsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/recommendations/user/" + users.get(1).getId(),
+                "/api/recommendations/user/" + users.get(0).getId());
+    }
+
+    @Test
+    void statisticsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/statistics/users/" + users.get(1).getId(),
+                "/api/statistics/users/" + users.get(0).getId());
+    }
+
+    @Test
+    void forumPostsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/forum/posts?page=1", "/api/forum/posts");
+    }
+
+    @Test
+    void movieReviewsStayWithinBudget() throws Exception {
+        assertWithinBudget("/api/reviews/movie/" + movies.get(1).getId(),
+                "/api/reviews/movie/" + movies.get(0).getId());
+    }
+
+    @Test
+    void movieWatchlistStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/users/" + users.get(1).getId() + "/watchlist/movies",
+                "/api/users/" + users.get(0).getId() + "/watchlist/movies");
+    }
+
+    /**
+     * requests the warm-up path, then checks the profile of the measured path
+     * @param warmupPath same endpoint for another user or title
+     * @param path the measured request
+     */
+    private void assertWithinBudget(String warmupPath, String path) throws Exception {
+        mockMvc.perform(get(warmupPath).header("Authorization", "Bearer " + token));
+
+        MockHttpServletResponse response = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus(), path);
+        String commands = response.getHeader(QueryProfilingFilter.COMMAND_COUNT_HEADER);
+        assertNotNull(commands, path + " was not profiled");
+        assertTrue(Integer.parseInt(commands) > 0, path + " ran no Mongo commands, is the endpoint seeded?");
+        assertNull(response.getHeader(QueryProfilingFilter.BUDGET_EXCEEDED_HEADER),
+                path + " exceeded its query budget: " + response.getHeader(QueryProfilingFilter.BUDGET_EXCEEDED_HEADER));
+        assertTrue(response.getHeaders(QueryProfilingFilter.REPEATED_QUERY_HEADER).isEmpty(),
+                path + " repeated queries: " + response.getHeaders(QueryProfilingFilter.REPEATED_QUERY_HEADER));
+    }
+
+    private void seedLists(User user) {
+        List<Movie> watched = pick(movies, 12);
+        for (Movie movie : watched) {
+            Date watchedAt = daysAgo(random.nextInt(500));
+            addEntry(user, movie.getId(), UserMediaEntry.TYPE_MOVIE, MediaListType.WATCHED, watchedAt);
+            watchActivityService.recordWatched(user.getId(), movie, watchedAt);
+        }
+        for (Movie movie : watched.subList(0, 4)) {
+            addEntry(user, movie.getId(), UserMediaEntry.TYPE_MOVIE, MediaListType.FAVORITES, daysAgo(random.nextInt(300)));
+        }
+        for (Movie movie : watched.subList(0, 8)) {
+            mongoTemplate.insert(new Review(null, user.getId(), movie.getId(), 1 + random.nextInt(5),
+                    "Kommentar zu " + movie.getTitle(), daysAgo(random.nextInt(500))));
+        }
+        for (Movie movie : pick(movies, 10)) {
+            addEntry(user, movie.getId(), UserMediaEntry.TYPE_MOVIE, MediaListType.WATCHLIST, daysAgo(random.nextInt(200)));
+        }
+
+        List<Series> watchedSeries = pick(series, 4);
+        for (Series show : watchedSeries) {
+            Date watchedAt = daysAgo(random.nextInt(500));
+            addEntry(user, show.getId(), UserMediaEntry.TYPE_SERIES, MediaListType.WATCHED, watchedAt);
+            watchActivityService.recordWatched(user.getId(), show, watchedAt);
+            mongoTemplate.insert(new Review(null, user.getId(), show.getId(), 1 + random.nextInt(10),
+                    "Kommentar zu " + show.getTitle(), daysAgo(random.nextInt(500))));
+        }
+        for (Series show : pick(series, 3)) {
+            addEntry(user, show.getId(), UserMediaEntry.TYPE_SERIES, MediaListType.WATCHLIST, daysAgo(random.nextInt(200)));
+        }
+    }
+
+    private void seedForum() {
+        ForumCategory[] categories = ForumCategory.values();
+        for (int i = 0; i < FORUM_POSTS; i++) {
+            ForumPost post = new ForumPost("Beitrag " + i, "Inhalt " + i, users.get(i % users.size()),
+                    categories[i % categories.length]);
+            post.setCreatedAt(daysAgo(i));
+            post.setMovieId(i % 2 == 0 ? movies.get(i).getId() : null);
+            post = mongoTemplate.insert(post);
+
+            int replies = random.nextInt(4);
+            for (int j = 0; j < replies; j++) {
+                ForumReply reply = mongoTemplate.insert(new ForumReply("Antwort " + j, users.get(random.nextInt(users.size())), post));
+                post.getReplies().add(reply);
+            }
+            post.setRepliesCount(replies);
+            mongoTemplate.save(post);
+        }
+    }
+
+    private void addEntry(User user, String itemId, String itemType, MediaListType listType, Date addedAt) {
+        mongoTemplate.insert(new UserMediaEntry(user.getId(), itemId, itemType, listType, addedAt));
+    }
+
+    private String genres() {
+        String first = GENRES[random.nextInt(GENRES.length)];
+        String second = GENRES[random.nextInt(GENRES.length)];
+        return first.equals(second) ? first : first + ", " + second;
+    }
+
+    private <T> List<T> pick(List<T> items, int count) {
+        List<T> shuffled = new ArrayList<>(items);
+        Collections.shuffle(shuffled, random);
+        return new ArrayList<>(shuffled.subList(0, count));
+    }
+
+    private static Date daysAgo(int days) {
+        return new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+    }
+}
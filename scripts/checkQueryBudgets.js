@@ -0,0 +1,50 @@
+// Requests the key endpoints of a running backend and fails if one of them exceeds its query budget.
+// The backend has to run with cinemate.profiling.response-headers=true against a seeded database
+// (e.g. with backend/src/main/resources/setup.http).
+// usage: node scripts/checkQueryBudgets.js <baseUrl> <jwt> <userId> <movieId>
+const [baseUrl, token, userId, movieId] = process.argv.slice(2);
+
+if (!baseUrl || !token || !userId || !movieId) {
+  console.error("usage: node scripts/checkQueryBudgets.js <baseUrl> <jwt> <userId> <movieId>");
+  process.exit(2);
+}
+
+const endpoints = [
+  `/api/recommendations/user/${userId}`,
+  `/api/statistics/users/${userId}`,
+  "/api/forum/posts",
+  `/api/reviews/movie/${movieId}`,
+  `/api/users/${userId}/watchlist/movies`,
+];
+
+let failures = 0;
+
+for (const endpoint of endpoints) {
+  const response = await fetch(baseUrl + endpoint, {
+    headers: { Authorization: `Bearer ${token}` },
+  });
+  const commands = response.headers.get("X-Mongo-Command-Count");
+  const dbTime = response.headers.get("X-Mongo-Time-Ms");
+  const exceeded = response.headers.get("X-Mongo-Budget-Exceeded");
+  const repeated = response.headers.get("X-Mongo-Repeated-Query");
+
+  if (commands === null) {
+    console.error(`FAIL  ${endpoint}: no profiling headers, is cinemate.profiling.response-headers enabled?`);
+    failures++;
+    continue;
+  }
+  if (!response.ok || exceeded) {
+    failures++;
+  }
+
+  console.log(
+    `${!response.ok || exceeded ? "FAIL " : "OK   "} ${endpoint}: HTTP ${response.status}, ${commands} commands, ${dbTime} ms in the database`
+  );
+  if (exceeded) console.log(`      budget exceeded: ${exceeded}`);
+  if (repeated) console.log(`      repeated queries: ${repeated}`);
+}
+
+if (failures > 0) {
+  console.error(`${failures} endpoint(s) failed or exceeded their query budget`);
+  process.exit(1);
+}
@@ -0,0 +1,50 @@
+import fs from "fs";
+
+// Compares two JMH JSON result files (e.g. target/jmh-result-<version>.json of two releases)
+// usage: node scripts/compareBenchmarks.js <baseline.json> <current.json> [maxRegressionPercent]
+const [baselineFile, currentFile, threshold = "10"] = process.argv.slice(2);
+
+if (!baselineFile || !currentFile) {
+  console.error("usage: node scripts/compareBenchmarks.js <baseline.json> <current.json> [maxRegressionPercent]");
+  process.exit(2);
+}
+
+const MAX_REGRESSION = Number(threshold);
+
+function load(file) {
+  const results = new Map();
+  for (const result of JSON.parse(fs.readFileSync(file, "utf8"))) {
+    const params = Object.entries(result.params || {})
+      .map(([key, value]) => `${key}=${value}`)
+      .join(",");
+    const name = params ? `${result.benchmark}(${params})` : result.benchmark;
+    results.set(name, result.primaryMetric);
+  }
+  return results;
+}
+
+const baseline = load(baselineFile);
+const current = load(currentFile);
+let regressions = 0;
+
+for (const [name, metric] of current) {
+  const before = baseline.get(name);
+  if (!before) {
+    console.log(`NEW   ${name}: ${metric.score.toFixed(3)} ${metric.scoreUnit}`);
+    continue;
+  }
+
+  // all benchmarks run in AverageTime mode, so a higher score is slower
+  const change = ((metric.score - before.score) / before.score) * 100;
+  const regressed = change > MAX_REGRESSION;
+  if (regressed) regressions++;
+
+  console.log(
+    `${regressed ? "SLOW " : "OK   "} ${name}: ${before.score.toFixed(3)} -> ${metric.score.toFixed(3)} ${metric.scoreUnit} (${change >= 0 ? "+" : ""}${change.toFixed(1)}%)`
+  );
+}
+
+if (regressions > 0) {
+  console.error(`${regressions} benchmark(s) regressed by more than ${MAX_REGRESSION}%`);
+  process.exit(1);
+}